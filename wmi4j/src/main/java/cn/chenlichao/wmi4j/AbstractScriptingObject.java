@@ -0,0 +1,444 @@
+/*
+ * Copyright 2014-2014 Chen Lichao
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j;
+
+import cn.chenlichao.wmi4j.consts.Flags;
+import org.jinterop.dcom.common.IJIUnreferenced;
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.core.JIString;
+import org.jinterop.dcom.core.JIVariant;
+import org.jinterop.dcom.impls.automation.IJIDispatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Abstract class of WMI objects.
+ *
+ * <p>Every object holds a reference to a remote COM object, call {@link #close()} to release it as soon as the object
+ * is no longer needed, or create the objects inside a {@link WMIScope}. Objects that are not released explicitly are
+ * released by j-interop when they are garbage collected, and are reported as leaked by {@link ReferenceCounter}.</p>
+ * Created by chenlichao on 14-7-17.
+ */
+abstract class AbstractScriptingObject implements AutoCloseable {
+
+    /**
+     * RPC_E_DISCONNECTED, returned when a released object is used.
+     */
+    static final int RPC_E_DISCONNECTED = 0x80010108;
+
+    /**
+     * Shared placeholder of an omitted optional parameter. The variant is never modified by marshalling,
+     * j-interop shares one internally as well.
+     */
+    static final JIVariant OPTIONAL_PARAM = JIVariant.OPTIONAL_PARAM();
+
+    private static final AtomicIntegerFieldUpdater<AbstractScriptingObject> RELEASED =
+            AtomicIntegerFieldUpdater.newUpdater(AbstractScriptingObject.class, "released");
+
+    /**
+     * One logger per wrapper class, wrappers are created for every enumerated object, property and qualifier,
+     * so they must not look up a logger on construction.
+     */
+    private static final ClassValue<Logger> LOGGERS = new ClassValue<Logger>() {
+        @Override
+        protected Logger computeValue(Class<?> type) {
+            return LoggerFactory.getLogger(type);
+        }
+    };
+
+    /**
+     * Boxed flags parameter of every combination of the constants of a flag enum, indexed by the bits of the
+     * constant ordinals, so a call neither combines nor boxes its flags. Null for a larger enum.
+     */
+    private static final ClassValue<Integer[]> FLAG_COMBINATIONS = new ClassValue<Integer[]>() {
+        @Override
+        protected Integer[] computeValue(Class<?> type) {
+            Object[] constants = type.getEnumConstants();
+            if(constants == null || constants.length > 10) {
+                return null;
+            }
+            Integer[] combinations = new Integer[1 << constants.length];
+            for(int bits = 0; bits < combinations.length; bits++) {
+                int value = 0;
+                for(int i = 0; i < constants.length; i++) {
+                    if((bits & (1 << i)) != 0) {
+                        value |= ((Flags.WbemFlag) constants[i]).getValue();
+                    }
+                }
+                combinations[bits] = value;
+            }
+            return combinations;
+        }
+    };
+
+    final IJIDispatch dispatch;
+
+    private volatile int released;
+    /** Number of unreleased wrappers sharing the remote reference, null if it is not shared. */
+    private volatile AtomicInteger shares;
+
+    AbstractScriptingObject(final IJIDispatch dispatch) {
+        this.dispatch = dispatch;
+        ReferenceCounter.acquired(dispatch.getAssociatedSession());
+        WMIScope.track(this);
+    }
+
+    /**
+     * Release the remote object. The object must not be used after this method is called,
+     * calling this method more than once has no effect.
+     * @throws WMIException Failed to release the remote object, the local reference is dropped anyway.
+     */
+    public void release() throws WMIException {
+        if(!RELEASED.compareAndSet(this, 0, 1)) {
+            return;
+        }
+        ReferenceCounter.released(dispatch.getAssociatedSession());
+        AtomicInteger count = shares;
+        if(count != null && count.decrementAndGet() > 0) {
+            return;
+        }
+        if(dispatch.getAssociatedSession() == null || dispatch.isLocalReference()) {
+            return;
+        }
+        try {
+            if(dispatch.getUnreferencedHandler() != null) {
+                dispatch.unregisterUnreferencedHandler();
+            }
+            dispatch.release();
+        } catch (JIException e) {
+            throw new WMIException(e);
+        }
+    }
+
+    /**
+     * Same as {@link #release()}, but a failure is logged instead of thrown, since the remote object is usually
+     * gone with the connection.
+     */
+    @Override
+    public void close() {
+        try {
+            release();
+        } catch (WMIException e) {
+            logger().warn("Failed to release " + getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Count one more wrapper sharing the remote reference of this one, then pass the result to
+     * {@link #shared(AtomicInteger)} of the new wrapper. The remote object is released with the last wrapper.
+     * Must not run concurrently with the release of this wrapper.
+     * @return The count of the shared reference.
+     * @throws WMIException This wrapper has been released.
+     */
+    synchronized AtomicInteger share() throws WMIException {
+        checkReleased();
+        AtomicInteger count = shares;
+        if(count == null) {
+            count = new AtomicInteger(1);
+            shares = count;
+        }
+        count.incrementAndGet();
+        return count;
+    }
+
+    /**
+     * @param count Count returned by {@link #share()} of the wrapper this one shares the remote reference with.
+     */
+    void shared(AtomicInteger count) {
+        shares = count;
+    }
+
+    /**
+     * @return true if {@link #release()} has been called.
+     */
+    public boolean isReleased() {
+        return released != 0;
+    }
+
+    void checkReleased() throws WMIException {
+        if(released != 0) {
+            throw new WMIException(RPC_E_DISCONNECTED, getClass().getSimpleName() + " has been released.");
+        }
+    }
+
+    /**
+     * @return Logger of the concrete wrapper class.
+     */
+    final Logger logger() {
+        return LOGGERS.get(getClass());
+    }
+
+    /**
+     * Keep the remote object alive when all java references to the dispatch are released.
+     * Only long-lived objects (connections and event sources) register the handler, the short-lived
+     * wrappers returned from enumerations let j-interop release the remote object normally.
+     * Local dispatches (no session) do not support the handler and are skipped.
+     */
+    final void keepAlive() {
+        if(dispatch.getAssociatedSession() == null || dispatch.isLocalReference()) {
+            return;
+        }
+        dispatch.registerUnreferencedHandler(new KeepAliveHandler(dispatch));
+    }
+
+    IJIDispatch getDispatch() {
+        return dispatch;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T callMethod(Class<?> returnType, String methodName, Object... params) throws WMIException {
+        Logger logger = logger();
+        if(logger.isDebugEnabled()) {
+            logger.debug("Execute {}.{}.{} method...", this.getClass().getSimpleName(), methodName, formatParams(params));
+        }
+        checkReleased();
+        T retVal = null;
+
+        try {
+            JIVariant[] results = invokeMethod(methodName, params);
+            if(returnType == null) {
+                return null;
+            }
+            if(AbstractScriptingObject.class.isAssignableFrom(returnType)) {
+                IJIDispatch resultDispatch = WrapperFactories.toDispatch(results[0].getObjectAsComObject());
+                retVal = (T) WrapperFactories.newWrapper(returnType, resultDispatch);
+            } else {
+                if(Boolean.class.equals(returnType)) {
+                    retVal = (T) Boolean.valueOf(results[0].getObjectAsBoolean());
+                } else if(String.class.equals(returnType)) {
+                    retVal = (T) results[0].getObjectAsString2();
+                }
+            }
+        } catch (JIException e) {
+            throw new WMIException(e);
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Obtain the DISPID of a member of this object from {@link DispIdCache}.
+     */
+    int dispId(String name) throws JIException {
+        return DispIdCache.getDispId(getClass(), dispatch, name);
+    }
+
+    /**
+     * Call a method of the remote object, the calls made by wrappers all go through this method,
+     * {@link #invokeGet(String)} and {@link #invokePut(String, JIVariant)}, which feed {@link WMIMetrics}
+     * and the JFR events.
+     */
+    JIVariant[] invokeMethod(String name, Object[] params) throws JIException {
+        DispatchProbe probe = DispatchProbe.start(getClass(), dispatch, name);
+        if(probe == null) {
+            return doInvokeMethod(name, params);
+        }
+        int errorCode = WMIEvents.E_FAIL;
+        try {
+            JIVariant[] results = doInvokeMethod(name, params);
+            errorCode = 0;
+            return results;
+        } catch (JIException e) {
+            errorCode = e.getErrorCode();
+            throw e;
+        } finally {
+            probe.end(errorCode);
+        }
+    }
+
+    /**
+     * Read a property of the remote object.
+     */
+    JIVariant invokeGet(String name) throws JIException {
+        DispatchProbe probe = DispatchProbe.start(getClass(), dispatch, name);
+        if(probe == null) {
+            return doInvokeGet(name);
+        }
+        int errorCode = WMIEvents.E_FAIL;
+        try {
+            JIVariant result = doInvokeGet(name);
+            errorCode = 0;
+            return result;
+        } catch (JIException e) {
+            errorCode = e.getErrorCode();
+            throw e;
+        } finally {
+            probe.end(errorCode);
+        }
+    }
+
+    /**
+     * Write a property of the remote object.
+     */
+    void invokePut(String name, JIVariant value) throws JIException {
+        DispatchProbe probe = DispatchProbe.start(getClass(), dispatch, name);
+        if(probe == null) {
+            doInvokePut(name, value);
+            return;
+        }
+        int errorCode = WMIEvents.E_FAIL;
+        try {
+            doInvokePut(name, value);
+            errorCode = 0;
+        } catch (JIException e) {
+            errorCode = e.getErrorCode();
+            throw e;
+        } finally {
+            probe.end(errorCode);
+        }
+    }
+
+    private JIVariant[] doInvokeMethod(String name, Object[] params) throws JIException {
+        int dispId = dispId(name);
+        try {
+            return dispatch.callMethodA(dispId, params);
+        } catch (JIException e) {
+            if(!isStaleDispId(name, dispId, e)) {
+                throw e;
+            }
+            return dispatch.callMethodA(dispId(name), params);
+        }
+    }
+
+    private JIVariant doInvokeGet(String name) throws JIException {
+        int dispId = dispId(name);
+        try {
+            return dispatch.get(dispId);
+        } catch (JIException e) {
+            if(!isStaleDispId(name, dispId, e)) {
+                throw e;
+            }
+            return dispatch.get(dispId(name));
+        }
+    }
+
+    private void doInvokePut(String name, JIVariant value) throws JIException {
+        int dispId = dispId(name);
+        try {
+            dispatch.put(dispId, value);
+        } catch (JIException e) {
+            if(!isStaleDispId(name, dispId, e)) {
+                throw e;
+            }
+            dispatch.put(dispId(name), value);
+        }
+    }
+
+    /**
+     * The object rejected a cached DISPID without running the member. Remove it from {@link DispIdCache},
+     * so the caller resolves the name again and retries once.
+     */
+    private boolean isStaleDispId(String name, int dispId, JIException e) {
+        return e.getErrorCode() == DispIdCache.DISP_E_MEMBERNOTFOUND
+                && DispIdCache.invalidate(getClass(), name, dispId);
+    }
+
+    <T> T getProperty(Class<?> returnType, String name) throws WMIException {
+        checkReleased();
+        try {
+            JIVariant result = invokeGet(name);
+            if(String.class.equals(returnType)) {
+                return (T)result.getObjectAsString2();
+            } else if(Boolean.class.equals(returnType)) {
+                return (T)Boolean.valueOf(result.getObjectAsBoolean());
+            } else if(Integer.class.equals(returnType)) {
+                return (T)Integer.valueOf(result.getObjectAsInt());
+            } else if(AbstractScriptingObject.class.isAssignableFrom(returnType)) {
+                IJIDispatch resultDispatch = WrapperFactories.toDispatch(result.getObjectAsComObject());
+                return (T) WrapperFactories.newWrapper(returnType, resultDispatch);
+            } else {
+                return (T)new WMIVariant(result);
+            }
+        } catch (JIException e) {
+            throw new WMIException(e);
+        } catch (Exception e) {
+            throw new WMIException(0x01000001, "Unsupported cim type");
+        }
+    }
+
+    void putProperty(String propName, JIVariant value) throws WMIException {
+        checkReleased();
+        try {
+            invokePut(propName, value);
+        } catch (JIException e) {
+            throw new WMIException(e);
+        }
+    }
+
+    /**
+     * Convert varargs flags to the flags parameter of a call, the optional placeholder if no flag is specified.
+     */
+    static Object flagsParam(Flags.WbemFlag[] flags) {
+        if(flags == null || flags.length == 0) {
+            return OPTIONAL_PARAM;
+        }
+        if(flags[0] instanceof Enum) {
+            Class<?> type = ((Enum<?>) flags[0]).getDeclaringClass();
+            Integer[] combinations = FLAG_COMBINATIONS.get(type);
+            int bits = 0;
+            for(Flags.WbemFlag flag : flags) {
+                if(combinations == null || !(flag instanceof Enum) || ((Enum<?>) flag).getDeclaringClass() != type) {
+                    return Flags.toInt(flags);
+                }
+                bits |= 1 << ((Enum<?>) flag).ordinal();
+            }
+            return combinations[bits];
+        }
+        return Flags.toInt(flags);
+    }
+
+    private Object[] formatParams(Object[] ps) {
+        Object[] result = new Object[ps.length];
+        for(int i=0; i<result.length; i++) {
+            if(ps[i] instanceof JIString) {
+                result[i] = ((JIString)ps[i]).getString();
+            } else if(ps[i] == OPTIONAL_PARAM) {
+                result[i] = null;
+            } else {
+                result[i] = ps[i];
+            }
+        }
+        return result;
+    }
+
+    private static class KeepAliveHandler implements IJIUnreferenced {
+
+        private static final Logger LOGGER = LoggerFactory.getLogger(KeepAliveHandler.class);
+
+        private final IJIDispatch dispatch;
+
+        KeepAliveHandler(IJIDispatch dispatch) {
+            this.dispatch = dispatch;
+        }
+
+        @Override
+        public void unReferenced() {
+            try {
+                dispatch.addRef();
+                LOGGER.debug("Add reference to {}", dispatch);
+            } catch (JIException e) {
+                LOGGER.warn("Exception occurred when add reference to dispatch.", e);
+            }
+        }
+    }
+}
@@ -20,9 +20,7 @@
 package cn.chenlichao.wmi4j;
 
 import org.jinterop.dcom.common.JIException;
-import org.jinterop.dcom.core.IJIComObject;
 import org.jinterop.dcom.core.JIVariant;
-import org.jinterop.dcom.impls.JIObjectFactory;
 import org.jinterop.dcom.impls.automation.IJIDispatch;
 
 /**
@@ -46,10 +44,8 @@ abstract public class AbstractSecurityScriptingObject extends AbstractScriptingO
      */
     public SWbemSecurity getSecurity() throws WMIException {
         try {
-            JIVariant result = dispatch.get("Security_");
-            IJIComObject comObject = result.getObjectAsComObject();
-            IJIDispatch securityDispatch = (IJIDispatch) JIObjectFactory.narrowObject(comObject);
-            return new SWbemSecurity(securityDispatch);
+            JIVariant result = invokeGet("Security_");
+            return new SWbemSecurity(WrapperFactories.toDispatch(result.getObjectAsComObject()));
         } catch (JIException e) {
             throw new WMIException(e);
         }
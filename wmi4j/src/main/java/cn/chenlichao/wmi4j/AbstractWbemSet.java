@@ -0,0 +1,247 @@
+/*
+ * Copyright 2014-2014 Chen Lichao
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j;
+
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.core.IJIComObject;
+import org.jinterop.dcom.core.JIVariant;
+import org.jinterop.dcom.impls.automation.IJIDispatch;
+import org.jinterop.dcom.impls.automation.IJIEnumVariant;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Abstract object collection.
+ * Created by chenlichao on 14-7-23.
+ */
+abstract class AbstractWbemSet<E extends AbstractScriptingObject> extends AbstractScriptingObject {
+
+    /**
+     * Default number of elements fetched per round trip when iterating a collection.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private static volatile int defaultBatchSize = DEFAULT_BATCH_SIZE;
+    private static volatile boolean defaultPrefetch = true;
+
+    private volatile int batchSize;
+    private volatile Boolean prefetch;
+
+    private final WrapperFactory<E> elementFactory;
+
+    AbstractWbemSet(IJIDispatch dispatch, WrapperFactory<E> elementFactory) {
+        super(dispatch);
+        this.elementFactory = elementFactory;
+    }
+
+    /**
+     * Get how many items are in this SWbemObjectSet collection. This property is read-only.
+     *
+     * <p>One thing to be careful of when using Count is that WMI does not keep a running tally of the number of items in a collection.
+     * If you request Count for a collection, WMI cannot instantly respond with a number;
+     * instead, it must literally count the items, enumerating the entire collection.
+     * For a collection that has relatively few items, such as services, this enumeration likely takes less than a second.
+     * Counting the number of events in an event log collection, however, can take considerably longer.</p>
+     * <p>And then suppose you want to display the property values for every event in the collection.
+     * If so, WMI will have to enumerate the entire collection a second time.</p>
+     *
+     * <p><strong>Note: </strong>If you attempt to get this property from an SWbemObjectSet object
+     * that is returned from a method where the specified flags are included the wbemFlagForwardOnly flag,
+     * you will get an wbemErrFailed error.</p>
+     * @return The count of items in this SWbemObjectSet collection.
+     * @throws WMIException
+     */
+    public int getCount() throws WMIException {
+        try {
+            JIVariant result = invokeGet("Count");
+            if(result == null) {
+                throw new WMIException(0, "Get count property failed.");
+            }
+            return result.getObjectAsInt();
+        } catch (JIException e) {
+            throw new WMIException(e);
+        }
+    }
+
+    /**
+     * Create a iterator of this object set.
+     * <p>Elements are fetched from the server in batches of {@link #getBatchSize()} elements per round trip,
+     * and if {@link #isPrefetch() prefetch} is enabled, the next batch is fetched in background while the
+     * current one is consumed.</p>
+     * @return Iterator instance.
+     * @throws WMIException
+     */
+    public Iterator<E> iterator() throws WMIException {
+        WbemEnumerator enumerator = newEnumerator();
+        int count = getCount();
+        return new WbemSetIterator<E>(enumerator, elementFactory, count, getBatchSize(), isPrefetch());
+    }
+
+    /**
+     * Create a iterator of this object set without getting the {@link #getCount() count} first.
+     * The iterator ends when the enumerator is exhausted.
+     *
+     * <p>Use this method to iterate collections returned by a call with the
+     * wbemFlagReturnImmediately and wbemFlagForwardOnly flags, {@link #iterator()} fails on forward-only
+     * collections, and getting the count of a semisynchronous collection makes WMI wait for the whole result set.</p>
+     * @return Iterator instance.
+     * @throws WMIException
+     */
+    public Iterator<E> streamingIterator() throws WMIException {
+        return newStreamingIterator();
+    }
+
+    private WbemSetIterator<E> newStreamingIterator() throws WMIException {
+        return new WbemSetIterator<E>(newEnumerator(), elementFactory, -1, getBatchSize(), isPrefetch());
+    }
+
+    /**
+     * Create a sequential {@link Stream} of this object set, backed by {@link #streamingIterator()}.
+     * <p>Exceptions occurred while fetching elements are thrown as {@link IllegalStateException}
+     * by the terminal operation of the stream.</p>
+     * <p>Close the stream, for example with try-with-resources, when a short-circuiting operation such as
+     * {@code findFirst} or {@code limit} may leave elements unread. Closing stops the prefetch and releases the
+     * enumerator and the elements fetched but not consumed. A stream read to the end is closed already.</p>
+     * <pre>
+     *     try (Stream&lt;SWbemObject&gt; stream = set.stream()) {
+     *         first = stream.findFirst();
+     *     }
+     * </pre>
+     * @return Stream of the elements.
+     * @throws WMIException
+     */
+    public Stream<E> stream() throws WMIException {
+        return stream(newStreamingIterator(), null);
+    }
+
+    /**
+     * Stream of a set created for the caller, such as by {@link SWbemServices#execQueryStream(String)},
+     * which also releases the set when the stream is closed.
+     */
+    Stream<E> ownedStream() throws WMIException {
+        WbemSetIterator<E> iterator;
+        try {
+            iterator = newStreamingIterator();
+        } catch (WMIException e) {
+            close();
+            throw e;
+        }
+        return stream(iterator, this);
+    }
+
+    static <E extends AbstractScriptingObject> Stream<E> stream(final WbemSetIterator<E> iterator,
+                                                               final AbstractScriptingObject owner) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(new Runnable() {
+            @Override
+            public void run() {
+                iterator.close();
+                if(owner != null) {
+                    owner.close();
+                }
+            }
+        });
+    }
+
+    /**
+     * Get how many elements are fetched from the server per round trip when iterating this collection.
+     * @return Batch size of this collection, or the global default if not set.
+     */
+    public int getBatchSize() {
+        return (batchSize > 0) ? batchSize : defaultBatchSize;
+    }
+
+    /**
+     * Set how many elements are fetched from the server per round trip when iterating this collection.
+     * Larger batches reduce round trips but hold more remote objects at the same time.
+     * @param batchSize Number of elements per round trip, must be greater than zero.
+     */
+    public void setBatchSize(int batchSize) {
+        if(batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than zero.");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Whether the next batch is fetched in background while iterating this collection.
+     * @return Prefetch setting of this collection, or the global default if not set.
+     */
+    public boolean isPrefetch() {
+        return (prefetch != null) ? prefetch : defaultPrefetch;
+    }
+
+    /**
+     * Set whether the next batch is fetched in background while iterating this collection.
+     * @param prefetch True to enable prefetch.
+     */
+    public void setPrefetch(boolean prefetch) {
+        this.prefetch = prefetch;
+    }
+
+    /**
+     * Get the global default batch size of all collections, default is {@value #DEFAULT_BATCH_SIZE}.
+     * @return Global default batch size.
+     */
+    public static int getDefaultBatchSize() {
+        return defaultBatchSize;
+    }
+
+    /**
+     * Set the global default batch size, used by collections that have no batch size set.
+     * @param batchSize Number of elements per round trip, must be greater than zero.
+     */
+    public static void setDefaultBatchSize(int batchSize) {
+        if(batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than zero.");
+        }
+        defaultBatchSize = batchSize;
+    }
+
+    /**
+     * Get the global default prefetch setting of all collections, default is true.
+     * @return Global default prefetch setting.
+     */
+    public static boolean isDefaultPrefetch() {
+        return defaultPrefetch;
+    }
+
+    /**
+     * Set the global default prefetch setting, used by collections that have no prefetch setting.
+     * @param prefetch True to enable prefetch.
+     */
+    public static void setDefaultPrefetch(boolean prefetch) {
+        defaultPrefetch = prefetch;
+    }
+
+    private WbemEnumerator newEnumerator() throws WMIException {
+        try {
+            JIVariant variant = invokeGet("_NewEnum");
+            IJIComObject setObj = variant.getObjectAsComObject();
+            return new WbemEnumerator(getClass(), setObj.queryInterface(IJIEnumVariant.IID));
+        } catch (JIException e) {
+            throw new WMIException(e);
+        }
+    }
+}
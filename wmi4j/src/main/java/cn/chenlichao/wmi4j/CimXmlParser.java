@@ -0,0 +1,442 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j;
+
+import cn.chenlichao.wmi4j.consts.WbemCimTypeEnum;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the CIM-XML (DTD 2.0) text returned by SWbemObject.GetText_, of an instance into an {@link SWbemObjectSnapshot},
+ * or of a class into a {@link WbemClassSchema}.
+ */
+final class CimXmlParser {
+
+    private CimXmlParser() {
+    }
+
+    static SWbemObjectSnapshot parse(String xml) throws WMIException {
+        Element root = parseDocument(xml);
+        String className = root.getAttribute("CLASSNAME");
+        if(className.isEmpty()) {
+            className = root.getAttribute("NAME");
+        }
+        LinkedHashMap<String, Object> properties = new LinkedHashMap<String, Object>();
+        try {
+            for(Element property : children(root)) {
+                String tag = property.getTagName();
+                String name = property.getAttribute("NAME");
+                if("PROPERTY".equals(tag)) {
+                    Element value = child(property, "VALUE");
+                    properties.put(name, (value == null) ? null : convert(property.getAttribute("TYPE"), text(value)));
+                } else if("PROPERTY.ARRAY".equals(tag)) {
+                    Element array = child(property, "VALUE.ARRAY");
+                    properties.put(name, (array == null) ? null : convertArray(property.getAttribute("TYPE"), array));
+                } else if("PROPERTY.REFERENCE".equals(tag)) {
+                    Element reference = child(property, "VALUE.REFERENCE");
+                    properties.put(name, (reference == null) ? null : referenceToPath(reference));
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new WMIException(0, "Invalid value in object text: " + e.getMessage(), e);
+        }
+        return new SWbemObjectSnapshot(className, properties);
+    }
+
+    /**
+     * Read the CIM-XML text of a class into a {@link WbemClassSchema}.
+     * Key properties and parameter directions are only known if the text includes qualifiers.
+     */
+    static WbemClassSchema parseClass(String xml) throws WMIException {
+        Element root = parseDocument(xml);
+        if(!"CLASS".equals(root.getTagName())) {
+            throw new WMIException(0, "Object text is not a class: " + root.getTagName());
+        }
+        String superclass = root.getAttribute("SUPERCLASS");
+        List<String> derivation = new ArrayList<String>();
+        List<WbemClassSchema.Property> properties = new ArrayList<WbemClassSchema.Property>();
+        List<WbemClassSchema.Method> methods = new ArrayList<WbemClassSchema.Method>();
+        for(Element element : children(root)) {
+            String name = element.getAttribute("NAME");
+            if("METHOD".equals(element.getTagName())) {
+                methods.add(toMethod(element));
+            } else if(name.startsWith("__")) {
+                if("__DERIVATION".equalsIgnoreCase(name)) {
+                    Element array = child(element, "VALUE.ARRAY");
+                    if(array != null) {
+                        for(Element value : children(array)) {
+                            derivation.add(text(value));
+                        }
+                    }
+                }
+            } else {
+                WbemClassSchema.Property property = toProperty(element, "PROPERTY");
+                if(property != null) {
+                    properties.add(property);
+                }
+            }
+        }
+        if(derivation.isEmpty() && !superclass.isEmpty()) {
+            derivation.add(superclass);
+        }
+        return new WbemClassSchema(root.getAttribute("NAME"), superclass.isEmpty() ? null : superclass,
+                derivation, properties, methods);
+    }
+
+    /**
+     * Write a snapshot as the CIM-XML text of an instance, which {@link #parse(String)} reads back
+     * into the same values. The CIM types are derived from the Java types of the values.
+     */
+    static String format(SWbemObjectSnapshot snapshot) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<INSTANCE CLASSNAME=\"");
+        escape(sb, snapshot.getClassName() == null ? "" : snapshot.getClassName());
+        sb.append("\">");
+        for(Map.Entry<String, Object> entry : snapshot.getProperties().entrySet()) {
+            Object value = entry.getValue();
+            String tag = (value instanceof List) ? "PROPERTY.ARRAY" : "PROPERTY";
+            String type = (value instanceof List) ? elementType((List<?>) value) : typeOf(value);
+            sb.append('<').append(tag).append(" NAME=\"");
+            escape(sb, entry.getKey());
+            sb.append("\" TYPE=\"").append(type).append("\">");
+            if(value instanceof List) {
+                sb.append("<VALUE.ARRAY>");
+                for(Object element : (List<?>) value) {
+                    appendValue(sb, element);
+                }
+                sb.append("</VALUE.ARRAY>");
+            } else if(value != null) {
+                appendValue(sb, value);
+            }
+            sb.append("</").append(tag).append('>');
+        }
+        sb.append("</INSTANCE>");
+        return sb.toString();
+    }
+
+    private static String elementType(List<?> list) {
+        for(Object element : list) {
+            if(element != null) {
+                return typeOf(element);
+            }
+        }
+        return "string";
+    }
+
+    private static String typeOf(Object value) {
+        if(value instanceof Boolean) {
+            return "boolean";
+        } else if(value instanceof Byte) {
+            return "sint8";
+        } else if(value instanceof Short) {
+            return "sint16";
+        } else if(value instanceof Integer) {
+            return "sint32";
+        } else if(value instanceof Long) {
+            return "sint64";
+        } else if(value instanceof BigInteger) {
+            return "uint64";
+        } else if(value instanceof Float) {
+            return "real32";
+        } else if(value instanceof Double) {
+            return "real64";
+        } else if(value instanceof Character) {
+            return "char16";
+        }
+        return "string";
+    }
+
+    private static void appendValue(StringBuilder sb, Object value) {
+        if(value == null) {
+            sb.append("<VALUE.NULL/>");
+            return;
+        }
+        sb.append("<VALUE>");
+        escape(sb, value.toString());
+        sb.append("</VALUE>");
+    }
+
+    private static void escape(StringBuilder sb, String text) {
+        for(int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&': sb.append("&amp;"); break;
+                case '<': sb.append("&lt;"); break;
+                case '>': sb.append("&gt;"); break;
+                case '"': sb.append("&quot;"); break;
+                default: sb.append(c);
+            }
+        }
+    }
+
+    private static WbemClassSchema.Method toMethod(Element method) {
+        List<WbemClassSchema.Property> in = new ArrayList<WbemClassSchema.Property>();
+        List<WbemClassSchema.Property> out = new ArrayList<WbemClassSchema.Property>();
+        for(Element element : children(method)) {
+            WbemClassSchema.Property parameter = toProperty(element, "PARAMETER");
+            if(parameter == null) {
+                continue;
+            }
+            if(isQualifierSet(element, "In")) {
+                in.add(parameter);
+            }
+            if(isQualifierSet(element, "Out")) {
+                out.add(parameter);
+            }
+        }
+        String type = method.getAttribute("TYPE");
+        return new WbemClassSchema.Method(method.getAttribute("NAME"), type.isEmpty() ? null : toCimType(type), in, out);
+    }
+
+    /**
+     * @param prefix PROPERTY or PARAMETER.
+     * @return The property, or null if the element is not a property.
+     */
+    private static WbemClassSchema.Property toProperty(Element element, String prefix) {
+        String tag = element.getTagName();
+        if(!tag.startsWith(prefix)) {
+            return null;
+        }
+        String suffix = tag.substring(prefix.length());
+        WbemCimTypeEnum type;
+        boolean array = false;
+        if(suffix.isEmpty() || ".ARRAY".equals(suffix)) {
+            array = !suffix.isEmpty();
+            type = isQualifierSet(element, "EmbeddedObject") ? WbemCimTypeEnum.Object : toCimType(element.getAttribute("TYPE"));
+        } else if(".REFERENCE".equals(suffix) || ".REFARRAY".equals(suffix)) {
+            array = ".REFARRAY".equals(suffix);
+            type = WbemCimTypeEnum.Reference;
+        } else if(".OBJECT".equals(suffix) || ".OBJECTARRAY".equals(suffix)) {
+            array = ".OBJECTARRAY".equals(suffix);
+            type = WbemCimTypeEnum.Object;
+        } else {
+            return null;
+        }
+        String origin = element.getAttribute("CLASSORIGIN");
+        return new WbemClassSchema.Property(element.getAttribute("NAME"), type, array,
+                isQualifierSet(element, "key"), origin.isEmpty() ? null : origin);
+    }
+
+    private static boolean isQualifierSet(Element element, String qualifier) {
+        for(Element child : children(element)) {
+            if("QUALIFIER".equals(child.getTagName()) && qualifier.equalsIgnoreCase(child.getAttribute("NAME"))) {
+                Element value = child(child, "VALUE");
+                return value == null || !"false".equalsIgnoreCase(text(value).trim());
+            }
+        }
+        return false;
+    }
+
+    static WbemCimTypeEnum toCimType(String type) {
+        if(type.isEmpty()) {
+            return WbemCimTypeEnum.String;
+        }
+        try {
+            return WbemCimTypeEnum.valueOf(Character.toUpperCase(type.charAt(0)) + type.substring(1).toLowerCase());
+        } catch (IllegalArgumentException e) {
+            return WbemCimTypeEnum.String;
+        }
+    }
+
+    private static Element parseDocument(String xml) throws WMIException {
+        Document document;
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            factory.setExpandEntityReferences(false);
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            document = builder.parse(new InputSource(new StringReader(xml)));
+        } catch (ParserConfigurationException e) {
+            throw new WMIException(0, "Failed to create XML parser.", e);
+        } catch (SAXException e) {
+            throw new WMIException(0, "Invalid object text: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new WMIException(0, "Invalid object text: " + e.getMessage(), e);
+        }
+        return document.getDocumentElement();
+    }
+
+    private static List<Object> convertArray(String type, Element array) {
+        List<Object> list = new ArrayList<Object>();
+        for(Element element : children(array)) {
+            if("VALUE".equals(element.getTagName())) {
+                list.add(convert(type, text(element)));
+            } else if("VALUE.NULL".equals(element.getTagName())) {
+                list.add(null);
+            } else if("VALUE.REFERENCE".equals(element.getTagName())) {
+                list.add(referenceToPath(element));
+            }
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    static Object convert(String type, String value) {
+        if(type.equals("string") || type.equals("datetime") || type.equals("reference") || type.isEmpty()) {
+            return value;
+        }
+        value = value.trim();
+        if(type.equals("boolean")) {
+            return Boolean.valueOf(value);
+        } else if(type.equals("sint8")) {
+            return Byte.valueOf(value);
+        } else if(type.equals("uint8") || type.equals("sint16")) {
+            return Short.valueOf(value);
+        } else if(type.equals("uint16") || type.equals("sint32")) {
+            return Integer.valueOf(value);
+        } else if(type.equals("uint32") || type.equals("sint64")) {
+            return Long.valueOf(value);
+        } else if(type.equals("uint64")) {
+            return new BigInteger(value);
+        } else if(type.equals("real32")) {
+            return Float.valueOf(value);
+        } else if(type.equals("real64")) {
+            return Double.valueOf(value);
+        } else if(type.equals("char16")) {
+            return value.isEmpty() ? null : value.charAt(0);
+        }
+        return value;
+    }
+
+    /**
+     * Convert VALUE.REFERENCE to an object path, such as \\SERVER\root\cimv2:Win32_Service.Name="Spooler".
+     */
+    private static String referenceToPath(Element reference) {
+        StringBuilder path = new StringBuilder();
+        appendPath(reference, path);
+        return path.toString();
+    }
+
+    private static void appendPath(Element element, StringBuilder path) {
+        for(Element child : children(element)) {
+            String tag = child.getTagName();
+            if("INSTANCEPATH".equals(tag) || "LOCALINSTANCEPATH".equals(tag)
+                    || "CLASSPATH".equals(tag) || "LOCALCLASSPATH".equals(tag)) {
+                appendPath(child, path);
+            } else if("NAMESPACEPATH".equals(tag)) {
+                Element host = child(child, "HOST");
+                if(host != null) {
+                    path.append("\\\\").append(text(host));
+                }
+                Element local = child(child, "LOCALNAMESPACEPATH");
+                appendNamespace(local == null ? child : local, path);
+            } else if("LOCALNAMESPACEPATH".equals(tag)) {
+                appendNamespace(child, path);
+            } else if("CLASSNAME".equals(tag)) {
+                path.append(child.getAttribute("NAME"));
+            } else if("INSTANCENAME".equals(tag)) {
+                path.append(child.getAttribute("CLASSNAME"));
+                appendKeys(child, path);
+            } else if("VALUE".equals(tag)) {
+                path.append(text(child));
+            }
+        }
+    }
+
+    private static void appendNamespace(Element localNamespacePath, StringBuilder path) {
+        for(Element namespace : children(localNamespacePath)) {
+            if("NAMESPACE".equals(namespace.getTagName())) {
+                if(path.length() > 0) {
+                    path.append('\\');
+                }
+                path.append(namespace.getAttribute("NAME"));
+            }
+        }
+        path.append(':');
+    }
+
+    private static void appendKeys(Element instanceName, StringBuilder path) {
+        List<Element> bindings = new ArrayList<Element>();
+        for(Element child : children(instanceName)) {
+            if("KEYBINDING".equals(child.getTagName())) {
+                bindings.add(child);
+            } else if("KEYVALUE".equals(child.getTagName())) {
+                path.append('=');
+                appendKeyValue(child, path);
+                return;
+            }
+        }
+        if(bindings.isEmpty()) {
+            path.append("=@");
+            return;
+        }
+        for(int i = 0; i < bindings.size(); i++) {
+            Element binding = bindings.get(i);
+            path.append(i == 0 ? '.' : ',').append(binding.getAttribute("NAME")).append('=');
+            Element keyValue = child(binding, "KEYVALUE");
+            if(keyValue != null) {
+                appendKeyValue(keyValue, path);
+            } else {
+                Element reference = child(binding, "VALUE.REFERENCE");
+                if(reference != null) {
+                    ObjectPath.appendQuoted(path, referenceToPath(reference));
+                }
+            }
+        }
+    }
+
+    private static void appendKeyValue(Element keyValue, StringBuilder path) {
+        String valueType = keyValue.getAttribute("VALUETYPE");
+        String value = text(keyValue);
+        if("numeric".equals(valueType) || "boolean".equals(valueType)) {
+            path.append(value);
+        } else {
+            ObjectPath.appendQuoted(path, value);
+        }
+    }
+
+    private static List<Element> children(Element parent) {
+        List<Element> list = new ArrayList<Element>();
+        for(Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if(node.getNodeType() == Node.ELEMENT_NODE) {
+                list.add((Element) node);
+            }
+        }
+        return list;
+    }
+
+    private static Element child(Element parent, String tagName) {
+        for(Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if(node.getNodeType() == Node.ELEMENT_NODE && tagName.equals(((Element) node).getTagName())) {
+                return (Element) node;
+            }
+        }
+        return null;
+    }
+
+    private static String text(Element element) {
+        return element.getTextContent();
+    }
+}
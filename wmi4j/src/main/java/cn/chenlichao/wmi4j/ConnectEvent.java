@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of {@link SWbemLocator#connectServer()}. Only loaded when the JVM has JFR, see {@link WMIEvents}.
+ */
+@Name("cn.chenlichao.wmi4j.Connect")
+@Label("WMI Connect")
+@Category({"WMI"})
+@Description("Connection of an SWbemLocator to a namespace")
+final class ConnectEvent extends Event {
+
+    @Label("Host")
+    String host;
+
+    @Label("Namespace")
+    String namespace;
+
+    @Label("HRESULT")
+    @Description("Error code of a failed connection, 0x80004005 if it failed without one, 0 if succeeded")
+    int hresult;
+}
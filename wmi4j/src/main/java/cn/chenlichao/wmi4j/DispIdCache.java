@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j;
+
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.impls.automation.IJIDispatch;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process wide cache of DISPIDs, one map of member names per wrapper class.
+ *
+ * <p>Calling a member by name costs a GetIDsOfNames round trip before the real call. j-interop only caches the
+ * DISPID on the dispatch instance, but every object returned by WMI is a new instance, so property-heavy code,
+ * like {@link SWbemObject#getPropertyByName(String)} on each object of a query, paid two round trips per call.
+ * The DISPIDs of the WbemScripting interfaces are fixed by the type library, so they are resolved once for
+ * all instances of the same wrapper class.</p>
+ *
+ * <p>The cache relies on each wrapper class wrapping a single dispatch interface, and only resolves members
+ * declared by the WbemScripting type library, never the WMI properties and methods an SWbemObject also exposes
+ * by name, whose DISPIDs differ between WMI classes. Querying the type info of each object would cost the round
+ * trip the cache saves. If an object still rejects a cached DISPID with DISP_E_MEMBERNOTFOUND, the DISPID is
+ * removed, and the call is retried once with the DISPID resolved by name.</p>
+ */
+public final class DispIdCache {
+
+    /** DISP_E_MEMBERNOTFOUND, the cached DISPID is not valid for the object. */
+    static final int DISP_E_MEMBERNOTFOUND = 0x80020003;
+
+    /** All maps of {@link #DISP_IDS}, to count and clear them. */
+    private static final List<ConcurrentMap<String, Integer>> MAPS =
+            new CopyOnWriteArrayList<ConcurrentMap<String, Integer>>();
+
+    private static final ClassValue<ConcurrentMap<String, Integer>> DISP_IDS =
+            new ClassValue<ConcurrentMap<String, Integer>>() {
+        @Override
+        protected ConcurrentMap<String, Integer> computeValue(Class<?> type) {
+            ConcurrentMap<String, Integer> dispIds = new ConcurrentHashMap<String, Integer>();
+            MAPS.add(dispIds);
+            return dispIds;
+        }
+    };
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    private DispIdCache() {
+    }
+
+    /**
+     * Implemented by dispatches that need the member names of the DISPIDs they are invoked with, like the recording
+     * dispatches of {@link cn.chenlichao.wmi4j.trace.TraceRecorder}. IDispatch::Invoke only carries the DISPID,
+     * and a cached DISPID is never resolved by the dispatch it is used on.
+     */
+    public interface Listener {
+
+        /**
+         * Called each time a DISPID of the dispatch is obtained, before the member is invoked.
+         */
+        void dispIdResolved(int dispId, String name);
+    }
+
+    /**
+     * @return Number of lookups served from the cache.
+     */
+    public static long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Number of lookups resolved by a GetIDsOfNames call.
+     */
+    public static long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Number of cached DISPIDs.
+     */
+    public static int size() {
+        int size = 0;
+        for(ConcurrentMap<String, Integer> dispIds : MAPS) {
+            size += dispIds.size();
+        }
+        return size;
+    }
+
+    /**
+     * Remove all cached DISPIDs and reset the counters.
+     */
+    public static void clear() {
+        for(ConcurrentMap<String, Integer> dispIds : MAPS) {
+            dispIds.clear();
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * Obtain the DISPID of a member, resolve it by the dispatch if it is not cached.
+     * @param iface Wrapper class of the dispatch, only dispatches of the same class share DISPIDs.
+     * @param dispatch Dispatch to resolve the name.
+     * @param name Member name.
+     * @return The DISPID.
+     * @throws JIException Failed to resolve the name.
+     */
+    static int getDispId(Class<?> iface, IJIDispatch dispatch, String name) throws JIException {
+        ConcurrentMap<String, Integer> dispIds = DISP_IDS.get(iface);
+        Integer dispId = dispIds.get(name);
+        int resolved;
+        if(dispId != null) {
+            hits.increment();
+            resolved = dispId;
+        } else {
+            misses.increment();
+            WMIMetrics.roundTrip();
+            resolved = dispatch.getIDsOfNames(name);
+            dispIds.put(name, resolved);
+        }
+        if(dispatch instanceof Listener) {
+            ((Listener) dispatch).dispIdResolved(resolved, name);
+        }
+        return resolved;
+    }
+
+    /**
+     * Remove a DISPID the object rejected, so it is resolved again next time.
+     * @param dispId The rejected DISPID, it is kept if another thread has cached a different one meanwhile.
+     * @return True if the DISPID was removed.
+     */
+    static boolean invalidate(Class<?> iface, String name, int dispId) {
+        return DISP_IDS.get(iface).remove(name, dispId);
+    }
+}
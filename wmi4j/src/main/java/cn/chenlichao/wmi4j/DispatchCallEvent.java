@@ -0,0 +1,53 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of an IDispatch call of a wrapper, or an IEnumVARIANT::Next of a collection.
+ * Only loaded when the JVM has JFR, see {@link WMIEvents}.
+ */
+@Name("cn.chenlichao.wmi4j.DispatchCall")
+@Label("WMI Dispatch Call")
+@Category({"WMI"})
+@Description("A DCOM round trip made by a WMI object")
+final class DispatchCallEvent extends Event {
+
+    @Label("Host")
+    String host;
+
+    @Label("Namespace")
+    String namespace;
+
+    @Label("Wrapper Class")
+    Class<?> wrapperClass;
+
+    @Label("Member")
+    String member;
+
+    @Label("HRESULT")
+    @Description("Error code of a failed call, 0 if succeeded")
+    int hresult;
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j;
+
+import cn.chenlichao.wmi4j.metrics.MetricsCollector;
+import org.jinterop.dcom.core.IJIComObject;
+
+/**
+ * Measurement of one round trip, reported to {@link WMIMetrics} and as a JFR event by {@link WMIEvents}.
+ */
+final class DispatchProbe {
+
+    private final MetricsCollector metrics;
+    private final Object event;
+    private final Class<?> wrapper;
+    private final IJIComObject comObject;
+    private final String member;
+    private final long start;
+
+    private DispatchProbe(MetricsCollector metrics, Object event, Class<?> wrapper, IJIComObject comObject,
+                          String member) {
+        this.metrics = metrics;
+        this.event = event;
+        this.wrapper = wrapper;
+        this.comObject = comObject;
+        this.member = member;
+        if(metrics != null) {
+            metrics.callStarted(wrapper, member);
+        }
+        this.start = System.nanoTime();
+    }
+
+    /**
+     * Start to measure a call.
+     * @return The probe, or null if neither a metrics collector nor a JFR recording wants the call.
+     */
+    static DispatchProbe start(Class<?> wrapper, IJIComObject comObject, String member) {
+        MetricsCollector metrics = WMIMetrics.getCollector();
+        Object event = WMIEvents.beginCall();
+        if(metrics == null && event == null) {
+            return null;
+        }
+        return new DispatchProbe(metrics, event, wrapper, comObject, member);
+    }
+
+    /**
+     * Finish the call.
+     * @param errorCode HRESULT of a failed call, {@link WMIEvents#E_FAIL} if it failed without one, 0 if succeeded.
+     */
+    void end(int errorCode) {
+        if(metrics != null) {
+            WMIMetrics.callCompleted(metrics, wrapper, member, System.nanoTime() - start, errorCode);
+        }
+        if(event != null) {
+            WMIEvents.commitCall(event, comObject, wrapper, member, errorCode);
+        }
+    }
+}
@@ -0,0 +1,514 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable WMI object path, parsed and built locally without calling the server,
+ * unlike the getters of {@link SWbemObjectPath} that are a round trip each.
+ *
+ * <p>Supported forms:</p>
+ * <pre>
+ *     \\SERVER\root\cimv2:Win32_Service.Name="Dnscache"        full path
+ *     root\cimv2:Win32_Service.Name="Dnscache"                 namespace path
+ *     Win32_Service.Name="Dnscache"                            relative path
+ *     Win32_LogicalDisk="C:"                                   single unnamed key
+ *     Win32_Account.Domain="DOMAIN",Name="user"                composite keys
+ *     Win32_OperatingSystem=@                                  singleton
+ *     Win32_Service                                            class
+ * </pre>
+ *
+ * <p>Quoted key values are strings, in '"' or '\'' quotes, where the quote and '\' are escaped by '\'. Separators
+ * such as '.', ',', ':' and '=' inside the quotes belong to the value. A REF key is a quoted object path,
+ * use {@link #parse(String)} on the value to read it. Unquoted values are {@link Long}, {@link Boolean} for
+ * TRUE/FALSE, or the raw text otherwise.</p>
+ */
+public final class ObjectPath {
+
+    private static final String[] NO_NAMES = new String[0];
+    private static final Object[] NO_VALUES = new Object[0];
+
+    private final String server;
+    private final String namespace;
+    private final String className;
+    private final boolean singleton;
+    private final String[] keyNames;
+    private final Object[] keyValues;
+    private String text;
+
+    private ObjectPath(String server, String namespace, String className, boolean singleton,
+                       String[] keyNames, Object[] keyValues) {
+        this.server = server;
+        this.namespace = namespace;
+        this.className = className;
+        this.singleton = singleton;
+        this.keyNames = keyNames;
+        this.keyValues = keyValues;
+    }
+
+    /**
+     * Parse an object path.
+     * @param path The object path.
+     * @return The parsed path.
+     * @exception IllegalArgumentException If the path is malformed.
+     */
+    public static ObjectPath parse(String path) {
+        if(path == null || path.isEmpty()) {
+            throw new IllegalArgumentException("Object path is empty.");
+        }
+        int length = path.length();
+        int pos = 0;
+        String server = null;
+        String namespace = null;
+        if(length > 1 && isSeparator(path.charAt(0)) && isSeparator(path.charAt(1))) {
+            int end = 2;
+            while (end < length && !isSeparator(path.charAt(end))) {
+                end++;
+            }
+            if(end == 2 || end == length) {
+                throw malformed(path, "missing namespace");
+            }
+            server = path.substring(2, end);
+            pos = end + 1;
+        }
+        int colon = -1;
+        for(int i = pos; i < length; i++) {
+            char c = path.charAt(i);
+            if(c == ':') {
+                colon = i;
+                break;
+            } else if(c == '.' || c == '=' || isQuote(c)) {
+                break;
+            }
+        }
+        if(colon >= 0) {
+            namespace = normalizeNamespace(path, pos, colon);
+            pos = colon + 1;
+        } else if(server != null) {
+            throw malformed(path, "missing ':' after namespace");
+        }
+
+        int classStart = pos;
+        while (pos < length && path.charAt(pos) != '.' && path.charAt(pos) != '=') {
+            pos++;
+        }
+        if(pos == classStart) {
+            throw malformed(path, "missing class name");
+        }
+        String className = path.substring(classStart, pos);
+        if(pos == length) {
+            return new ObjectPath(server, namespace, className, false, NO_NAMES, NO_VALUES);
+        }
+
+        if(path.charAt(pos) == '=') {
+            pos++;
+            if(pos < length && path.charAt(pos) == '@') {
+                if(pos + 1 != length) {
+                    throw malformed(path, "unexpected text after '@'");
+                }
+                return new ObjectPath(server, namespace, className, true, NO_NAMES, NO_VALUES);
+            }
+            Object[] value = new Object[1];
+            pos = parseValue(path, pos, value);
+            if(pos != length) {
+                throw malformed(path, "unexpected text after key value");
+            }
+            return new ObjectPath(server, namespace, className, false, new String[]{""}, value);
+        }
+
+        // '.' key bindings
+        List<String> names = new ArrayList<String>(2);
+        List<Object> values = new ArrayList<Object>(2);
+        Object[] value = new Object[1];
+        do {
+            pos++;
+            int nameStart = pos;
+            while (pos < length && path.charAt(pos) != '=') {
+                pos++;
+            }
+            if(pos == length || pos == nameStart) {
+                throw malformed(path, "missing key name or '='");
+            }
+            names.add(path.substring(nameStart, pos));
+            pos = parseValue(path, pos + 1, value);
+            values.add(value[0]);
+            if(pos < length && path.charAt(pos) != ',') {
+                throw malformed(path, "expected ','");
+            }
+        } while (pos < length);
+        return new ObjectPath(server, namespace, className, false,
+                names.toArray(new String[names.size()]), values.toArray());
+    }
+
+    /**
+     * Start building a path of the class.
+     * @param className Class name.
+     */
+    public static Builder builder(String className) {
+        return new Builder(className);
+    }
+
+    /**
+     * @return Server name, null for a namespace or relative path.
+     */
+    public String getServer() {
+        return server;
+    }
+
+    /**
+     * @return Namespace with '\' separators, null for a relative path.
+     */
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * @return true if the path addresses a singleton instance, in the form of Class=@.
+     */
+    public boolean isSingleton() {
+        return singleton;
+    }
+
+    /**
+     * @return true if the path addresses a class instead of an instance.
+     */
+    public boolean isClass() {
+        return !singleton && keyNames.length == 0;
+    }
+
+    /**
+     * @return Number of key bindings.
+     */
+    public int getKeyCount() {
+        return keyNames.length;
+    }
+
+    /**
+     * @return Name of the key binding at index, empty for the unnamed key of Class="value".
+     */
+    public String getKeyName(int index) {
+        return keyNames[index];
+    }
+
+    public Object getKeyValue(int index) {
+        return keyValues[index];
+    }
+
+    /**
+     * @param name Key name, case insensitive.
+     * @return The key value, or null if the path has no such key.
+     */
+    public Object getKey(String name) {
+        for(int i = 0; i < keyNames.length; i++) {
+            if(keyNames[i].equalsIgnoreCase(name)) {
+                return keyValues[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Key bindings in the order of the path.
+     */
+    public Map<String, Object> getKeys() {
+        Map<String, Object> keys = new LinkedHashMap<String, Object>();
+        for(int i = 0; i < keyNames.length; i++) {
+            keys.put(keyNames[i], keyValues[i]);
+        }
+        return Collections.unmodifiableMap(keys);
+    }
+
+    /**
+     * @return Relative path, such as Win32_Service.Name="Dnscache".
+     */
+    public String getRelPath() {
+        StringBuilder sb = new StringBuilder(className.length() + 16 * keyNames.length);
+        appendRelPath(sb);
+        return sb.toString();
+    }
+
+    /**
+     * @return The path in the same form it was parsed or built.
+     */
+    public String getPath() {
+        return toString();
+    }
+
+    @Override
+    public String toString() {
+        String result = text;
+        if(result == null) {
+            StringBuilder sb = new StringBuilder(64);
+            if(server != null) {
+                sb.append("\\\\").append(server).append('\\');
+            }
+            if(namespace != null) {
+                sb.append(namespace).append(':');
+            }
+            appendRelPath(sb);
+            result = sb.toString();
+            text = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) {
+            return true;
+        }
+        if(!(o instanceof ObjectPath)) {
+            return false;
+        }
+        ObjectPath other = (ObjectPath) o;
+        if(singleton != other.singleton || keyNames.length != other.keyNames.length
+                || !equalsIgnoreCase(server, other.server) || !equalsIgnoreCase(namespace, other.namespace)
+                || !className.equalsIgnoreCase(other.className)) {
+            return false;
+        }
+        for(int i = 0; i < keyNames.length; i++) {
+            Object value = other.getKey(keyNames[i]);
+            if(value == null || !value.equals(keyValues[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = className.toLowerCase(Locale.ENGLISH).hashCode();
+        result = 31 * result + (namespace == null ? 0 : namespace.toLowerCase(Locale.ENGLISH).hashCode());
+        for(int i = 0; i < keyNames.length; i++) {
+            result += keyNames[i].toLowerCase(Locale.ENGLISH).hashCode() ^ keyValues[i].hashCode();
+        }
+        return result;
+    }
+
+    private void appendRelPath(StringBuilder sb) {
+        sb.append(className);
+        if(singleton) {
+            sb.append("=@");
+            return;
+        }
+        for(int i = 0; i < keyNames.length; i++) {
+            if(keyNames[i].isEmpty()) {
+                sb.append('=');
+            } else {
+                sb.append(i == 0 ? '.' : ',').append(keyNames[i]).append('=');
+            }
+            appendValue(sb, keyValues[i]);
+        }
+    }
+
+    private static void appendValue(StringBuilder sb, Object value) {
+        if(value instanceof Number) {
+            sb.append(value);
+        } else if(value instanceof Boolean) {
+            sb.append(((Boolean) value) ? "TRUE" : "FALSE");
+        } else {
+            appendQuoted(sb, value.toString());
+        }
+    }
+
+    /**
+     * Append a quoted key value, escaping '"' and '\'.
+     */
+    static void appendQuoted(StringBuilder sb, String value) {
+        sb.append('"');
+        for(int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if(c == '"' || c == '\\') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Parse the value at pos into result[0].
+     * @return Position after the value.
+     */
+    private static int parseValue(String path, int pos, Object[] result) {
+        int length = path.length();
+        if(pos >= length) {
+            throw malformed(path, "missing key value");
+        }
+        char quote = path.charAt(pos);
+        if(isQuote(quote)) {
+            int start = ++pos;
+            StringBuilder sb = null;
+            while (pos < length) {
+                char c = path.charAt(pos);
+                if(c == quote) {
+                    result[0] = (sb == null) ? path.substring(start, pos) : sb.toString();
+                    return pos + 1;
+                }
+                if(c == '\\' && pos + 1 < length) {
+                    if(sb == null) {
+                        sb = new StringBuilder(path.length() - start);
+                        sb.append(path, start, pos);
+                    }
+                    c = path.charAt(++pos);
+                }
+                if(sb != null) {
+                    sb.append(c);
+                }
+                pos++;
+            }
+            throw malformed(path, "unterminated quoted value");
+        }
+        int start = pos;
+        while (pos < length && path.charAt(pos) != ',') {
+            pos++;
+        }
+        String token = path.substring(start, pos);
+        if(token.isEmpty()) {
+            throw malformed(path, "missing key value");
+        }
+        if("TRUE".equalsIgnoreCase(token)) {
+            result[0] = Boolean.TRUE;
+        } else if("FALSE".equalsIgnoreCase(token)) {
+            result[0] = Boolean.FALSE;
+        } else {
+            try {
+                result[0] = Long.valueOf(token);
+            } catch (NumberFormatException e) {
+                result[0] = token;
+            }
+        }
+        return pos;
+    }
+
+    private static String normalizeNamespace(String path, int start, int end) {
+        if(start == end) {
+            throw malformed(path, "empty namespace");
+        }
+        if(path.indexOf('/', start) < 0 || path.indexOf('/', start) >= end) {
+            return path.substring(start, end);
+        }
+        return path.substring(start, end).replace('/', '\\');
+    }
+
+    private static boolean isQuote(char c) {
+        return c == '"' || c == '\'';
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '\\' || c == '/';
+    }
+
+    private static boolean equalsIgnoreCase(String a, String b) {
+        return (a == null) ? b == null : a.equalsIgnoreCase(b);
+    }
+
+    private static IllegalArgumentException malformed(String path, String reason) {
+        return new IllegalArgumentException("Invalid object path, " + reason + ": " + path);
+    }
+
+    /**
+     * Builder of {@link ObjectPath}.
+     */
+    public static final class Builder {
+        private final String className;
+        private String server;
+        private String namespace;
+        private boolean singleton;
+        private final List<String> names = new ArrayList<String>(2);
+        private final List<Object> values = new ArrayList<Object>(2);
+
+        private Builder(String className) {
+            if(className == null || className.isEmpty()) {
+                throw new IllegalArgumentException("Class name is empty.");
+            }
+            this.className = className;
+        }
+
+        /**
+         * @param server Server name, requires a namespace.
+         */
+        public Builder server(String server) {
+            this.server = server;
+            return this;
+        }
+
+        /**
+         * @param namespace Namespace, such as root\cimv2.
+         */
+        public Builder namespace(String namespace) {
+            this.namespace = (namespace == null) ? null : namespace.replace('/', '\\');
+            return this;
+        }
+
+        /**
+         * Address the singleton instance of the class.
+         */
+        public Builder singleton() {
+            this.singleton = true;
+            return this;
+        }
+
+        /**
+         * Add a key binding.
+         * @param name Key name.
+         * @param value String, {@link Number}, {@link Boolean}, or {@link ObjectPath} for a REF key.
+         */
+        public Builder key(String name, Object value) {
+            if(name == null || name.isEmpty()) {
+                throw new IllegalArgumentException("Key name is empty.");
+            }
+            if(value == null) {
+                throw new IllegalArgumentException("Key value of " + name + " is null.");
+            }
+            names.add(name);
+            if(value instanceof ObjectPath) {
+                values.add(value.toString());
+            } else if(value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                values.add(((Number) value).longValue());
+            } else {
+                values.add(value);
+            }
+            return this;
+        }
+
+        public ObjectPath build() {
+            if(server != null && namespace == null) {
+                throw new IllegalStateException("Server requires a namespace.");
+            }
+            if(singleton && !names.isEmpty()) {
+                throw new IllegalStateException("Singleton path has no keys.");
+            }
+            return new ObjectPath(server, namespace, className, singleton,
+                    names.toArray(new String[names.size()]), values.toArray());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j;
+
+import org.jinterop.dcom.core.JISession;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the remote references held by WMI objects for each DCOM session, to find objects that are never released.
+ *
+ * <p>A reference is acquired when a WMI object is created and released by {@link AbstractScriptingObject#release()}.
+ * Objects dropped without being released are only freed when j-interop garbage collects them, they stay outstanding
+ * here until the session is disconnected. A growing outstanding count in a long-running collector is a leak.</p>
+ */
+public final class ReferenceCounter {
+
+    private static final ConcurrentMap<JISession, ReferenceCounter> COUNTERS = new ConcurrentHashMap<JISession, ReferenceCounter>();
+
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+
+    private ReferenceCounter() {
+    }
+
+    /**
+     * @return Number of references acquired in the session.
+     */
+    public long getAcquired() {
+        return acquired.get();
+    }
+
+    /**
+     * @return Number of references released explicitly in the session.
+     */
+    public long getReleased() {
+        return released.get();
+    }
+
+    /**
+     * @return Number of references acquired but not released yet.
+     */
+    public long getOutstanding() {
+        return acquired.get() - released.get();
+    }
+
+    /**
+     * Obtain the counter of a session.
+     * @param session DCOM session, see {@link SWbemLocator#getReferenceCounter()}
+     * @return The counter, or null if no object has been created in the session.
+     */
+    public static ReferenceCounter get(JISession session) {
+        return session == null ? null : COUNTERS.get(session);
+    }
+
+    /**
+     * @return Outstanding references of all the connected sessions, keyed by session identifier.
+     */
+    public static Map<Integer, Long> getOutstandingBySession() {
+        Map<Integer, Long> result = new HashMap<Integer, Long>();
+        for(Map.Entry<JISession, ReferenceCounter> entry : COUNTERS.entrySet()) {
+            result.put(entry.getKey().getSessionIdentifier(), entry.getValue().getOutstanding());
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * @return Outstanding references of all the connected sessions.
+     */
+    public static long getTotalOutstanding() {
+        long total = 0;
+        for(ReferenceCounter counter : COUNTERS.values()) {
+            total += counter.getOutstanding();
+        }
+        return total;
+    }
+
+    static void acquired(JISession session) {
+        if(session == null) {
+            return;
+        }
+        ReferenceCounter counter = COUNTERS.get(session);
+        if(counter == null) {
+            ReferenceCounter created = new ReferenceCounter();
+            counter = COUNTERS.putIfAbsent(session, created);
+            if(counter == null) {
+                counter = created;
+            }
+        }
+        counter.acquired.incrementAndGet();
+    }
+
+    static void released(JISession session) {
+        ReferenceCounter counter = get(session);
+        if(counter != null) {
+            counter.released.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drop the counter when the session is destroyed.
+     */
+    static void remove(JISession session) {
+        if(session != null) {
+            COUNTERS.remove(session);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ReferenceCounter{acquired=" + acquired + ", released=" + released + "}";
+    }
+}
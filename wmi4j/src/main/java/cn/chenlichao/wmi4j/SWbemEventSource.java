@@ -34,6 +34,7 @@ import org.jinterop.dcom.impls.automation.IJIDispatch;
 public class SWbemEventSource extends AbstractSecurityScriptingObject {
     SWbemEventSource(IJIDispatch dispatch) {
         super(dispatch);
+        keepAlive();
     }
 
     /**
@@ -46,6 +47,6 @@ public class SWbemEventSource extends AbstractSecurityScriptingObject {
      */
     public SWbemObject nextEvent(Long timeoutMs) throws WMIException {
         return callMethod(SWbemObject.class, "NextEvent",
-                (timeoutMs == null) ? JIVariant.OPTIONAL_PARAM() : new JIVariant(timeoutMs));
+                (timeoutMs == null) ? OPTIONAL_PARAM : new JIVariant(timeoutMs));
     }
 }
@@ -27,6 +27,7 @@ import org.jinterop.dcom.impls.automation.IJIDispatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import cn.chenlichao.wmi4j.consts.Flags;
+import cn.chenlichao.wmi4j.trace.TraceRecorder;
 
 import java.net.UnknownHostException;
 import java.util.logging.Level;
@@ -49,6 +50,9 @@ public class SWbemLocator {
 
     private SWbemServices services;
     private IJIDispatch servicesDispatch;
+    private ScriptingObjectFactory objectFactory;
+    private volatile int helperPoolSize = 2;
+    private volatile TraceRecorder traceRecorder;
 
     private final String server;
     private final String username;
@@ -116,6 +120,8 @@ public class SWbemLocator {
         }
         String hostPath = "\\\\" + server + "\\" + namespace;
         logger.info("Connect to {} ...", hostPath);
+        Object event = WMIEvents.beginConnect();
+        int errorCode = WMIEvents.E_FAIL;
         try {
             // Initialize Session
             try {
@@ -138,31 +144,46 @@ public class SWbemLocator {
             session = JISession.createSession(userDomain, user, password);
             session.useSessionSecurity(true);
             session.setGlobalSocketTimeout(300000);
+            WMIEvents.connected(session, server, namespace);
 
             //Obtain WbemScripting.SWbemLocator object
-            JIComServer comStub = new JIComServer(JIProgId.valueOf("WbemScripting.SWbemLocator"), server, session);
+            JIComServer comStub = new JIComServer(WbemScriptingClsids.valueOf("WbemScripting.SWbemLocator"), server, session);
             IJIComObject unknown = comStub.createInstance();
             IJIComObject wbemLocatorObj = unknown.queryInterface(WMI_CLSID);
             IJIDispatch wbemLocatorDispatch =  (IJIDispatch) JIObjectFactory.narrowObject(wbemLocatorObj.queryInterface(IJIDispatch.IID));
 
             // Call WbemScripting.SWbemLocator.ConnectServer method，obtain SWbemServices object
-            JIVariant[] results = wbemLocatorDispatch.callMethodA("ConnectServer", new Object[]{
-                    JIVariant.OPTIONAL_PARAM(),
-                    (namespace == null) ? JIVariant.OPTIONAL_PARAM() : new JIString(namespace)
-                    , JIVariant.OPTIONAL_PARAM(), JIVariant.OPTIONAL_PARAM(),
-                    (locale == null) ? JIVariant.OPTIONAL_PARAM() : new JIString(locale),
-                    (authority == null) ? JIVariant.OPTIONAL_PARAM() : new JIString(authority),
+            JIVariant[] results = wbemLocatorDispatch.callMethodA(
+                    DispIdCache.getDispId(SWbemLocator.class, wbemLocatorDispatch, "ConnectServer"), new Object[]{
+                    AbstractScriptingObject.OPTIONAL_PARAM,
+                    (namespace == null) ? AbstractScriptingObject.OPTIONAL_PARAM : new JIString(namespace)
+                    , AbstractScriptingObject.OPTIONAL_PARAM, AbstractScriptingObject.OPTIONAL_PARAM,
+                    (locale == null) ? AbstractScriptingObject.OPTIONAL_PARAM : new JIString(locale),
+                    (authority == null) ? AbstractScriptingObject.OPTIONAL_PARAM : new JIString(authority),
                     (securityFlag == null) ? 0 : securityFlag.getValue(),
-                    (objwbemNamedValueSet == null) ? JIVariant.OPTIONAL_PARAM() : objwbemNamedValueSet.getDispatch()
+                    (objwbemNamedValueSet == null) ? AbstractScriptingObject.OPTIONAL_PARAM : objwbemNamedValueSet.getDispatch()
             });
             servicesDispatch = (IJIDispatch) JIObjectFactory.narrowObject(results[0].getObjectAsComObject());
 
             //增加引用数，防止引用数为０时被垃圾回收清理资源，导致连接中断
             servicesDispatch.addRef();
 
-            services = new SWbemServices(servicesDispatch);
+            TraceRecorder recorder = traceRecorder;
+            // the locator owns the services it returns, they must outlive the scope of the caller
+            services = WMIScope.adopt(
+                    new SWbemServices(recorder == null ? servicesDispatch : recorder.record(servicesDispatch)));
+            errorCode = 0;
         } catch (JIException e) {
+            errorCode = e.getErrorCode();
             throw new WMIException(e.getErrorCode(), e.getMessage(), e.getCause());
+        } finally {
+            if(errorCode != 0) {
+                // the session is registered before ConnectServer so its calls are attributed, drop it on failure
+                WMIEvents.disconnected(session);
+            }
+            if(event != null) {
+                WMIEvents.commitConnect(event, server, namespace, errorCode);
+            }
         }
         return services;
     }
@@ -191,35 +212,75 @@ public class SWbemLocator {
         return services;
     }
 
-    //todo complete createObject
+    /**
+     * Create a helper object on the server, supported types are {@link SWbemNamedValueSet} and
+     * {@link SWbemLastError}. An {@link SWbemPrivilege} is not creatable, obtain it from {@link SWbemPrivilegeSet}.
+     * <p>Each type is activated only once per locator, further objects are cloned from the first one,
+     * and up to {@link #getHelperPoolSize()} of them are pre-created in background.</p>
+     * @param objectType Type of the object.
+     * @return The new object, or null if the type is not supported.
+     * @throws WMIException
+     * @exception IllegalStateException If call before connect to the server.
+     */
+    @SuppressWarnings("unchecked")
     public <T> T createObject(Class<T> objectType) throws WMIException {
-        String typeName = objectType.getSimpleName();
-        logger.debug("Create object {}...", typeName);
-        if(SWbemPrivilege.class.equals(objectType)) {
-            return (T)new SWbemPrivilege(co("WbemScripting." + typeName));
-        } else if(SWbemNamedValueSet.class.equals(objectType)) {
-            return (T)new SWbemNamedValueSet(co("WbemScripting." + typeName));
+        logger.debug("Create object {}...", objectType.getSimpleName());
+        ScriptingObjectFactory factory = getObjectFactory();
+        if(SWbemNamedValueSet.class.equals(objectType)) {
+            return (T)new SWbemNamedValueSet(factory.create(SWbemNamedValueSet.class, "Clone"));
         } else if(SWbemLastError.class.equals(objectType)) {
-            return (T)new SWbemLastError(co("WbemScripting." + typeName));
+            return (T)new SWbemLastError(factory.create(SWbemLastError.class, "Clone_"));
         }
         return null;
     }
 
-    private IJIDispatch co(String progId) throws WMIException {
-        try {
-            JISession tmpSession = JISession.createSession(session);
-            JIComServer tmpSever = new JIComServer(JIProgId.valueOf(progId), server, tmpSession);
-            IJIComObject unknown = tmpSever.createInstance();
-            //IJIComObject comObject = unknown.queryInterface(JIProgId.valueOf("WbemScripting.SWbemNamedValueSet").getCorrespondingCLSID().getCLSID());
-            IJIDispatch dispatch = (IJIDispatch) JIObjectFactory.narrowObject(unknown.queryInterface(IJIDispatch.IID));
-            return dispatch;
-        } catch (JIException e) {
-            throw new WMIException(e);
-        } catch (UnknownHostException e) {
-            throw new WMIException(0,"Unknown host.");
+    /**
+     * @return Max number of helper objects pre-created for each type by {@link #createObject(Class)}, default 2.
+     */
+    public int getHelperPoolSize() {
+        return helperPoolSize;
+    }
+
+    /**
+     * Set max number of helper objects pre-created for each type by {@link #createObject(Class)},
+     * 0 to create them only on demand.
+     * @param helperPoolSize Pool size.
+     */
+    public void setHelperPoolSize(int helperPoolSize) {
+        if(helperPoolSize < 0) {
+            throw new IllegalArgumentException("Pool size must not be negative.");
+        }
+        this.helperPoolSize = helperPoolSize;
+        if(objectFactory != null) {
+            objectFactory.setPoolSize(helperPoolSize);
         }
     }
 
+    /**
+     * @return The recorder of the connection, or null.
+     */
+    public TraceRecorder getTraceRecorder() {
+        return traceRecorder;
+    }
+
+    /**
+     * Record the calls of the connection opened by the next {@link #connectServer()}, see {@link TraceRecorder}.
+     * @param traceRecorder The recorder, null to stop recording new connections.
+     */
+    public void setTraceRecorder(TraceRecorder traceRecorder) {
+        this.traceRecorder = traceRecorder;
+    }
+
+    private synchronized ScriptingObjectFactory getObjectFactory() {
+        if(session == null || services == null) {
+            throw new IllegalStateException("Please connect to the server first.");
+        }
+        if(objectFactory == null) {
+            objectFactory = new ScriptingObjectFactory(session, server, helperPoolSize);
+        }
+        return objectFactory;
+    }
+
     /**
      * Disconnect from server and release resources
      * @throws WMIException
@@ -228,12 +289,29 @@ public class SWbemLocator {
         try {
             services = null;
             servicesDispatch = null;
+            synchronized (this) {
+                if(objectFactory != null) {
+                    objectFactory.close();
+                    objectFactory = null;
+                }
+            }
+            ReferenceCounter.remove(session);
+            WMIEvents.disconnected(session);
             JISession.destroySession(session);
         } catch (JIException e) {
             throw new WMIException(e);
         }
     }
 
+    /**
+     * Obtain the reference counter of this connection, objects created by {@link #createObject(Class)} are counted
+     * in helper sessions and not included.
+     * @return The counter, or null if not connected.
+     */
+    public ReferenceCounter getReferenceCounter() {
+        return ReferenceCounter.get(session);
+    }
+
     /**
      * Verify if the connection is living.
      * @return true if living, false if dead.
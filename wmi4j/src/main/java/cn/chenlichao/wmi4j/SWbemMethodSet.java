@@ -20,7 +20,6 @@
 package cn.chenlichao.wmi4j;
 
 import org.jinterop.dcom.core.JIString;
-import org.jinterop.dcom.core.JIVariant;
 import org.jinterop.dcom.impls.automation.IJIDispatch;
 
 import static org.apache.commons.lang3.StringUtils.isEmpty;
@@ -38,7 +37,7 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
  */
 public class SWbemMethodSet extends AbstractWbemSet<SWbemMethod> {
     SWbemMethodSet(IJIDispatch dispatch) {
-        super(dispatch);
+        super(dispatch, WrapperFactories.METHOD);
     }
 
     /**
@@ -55,7 +54,7 @@ public class SWbemMethodSet extends AbstractWbemSet<SWbemMethod> {
         if(flags != null && flags != 0) {
             throw new IllegalArgumentException("Flags must be zero.");
         }
-        return callMethod(SWbemMethod.class, "Item", new JIString(methodName), JIVariant.OPTIONAL_PARAM());
+        return callMethod(SWbemMethod.class, "Item", new JIString(methodName), OPTIONAL_PARAM);
     }
 
     /**
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014-2014 Chen Lichao
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j;
+
+import org.jinterop.dcom.core.JIString;
+import org.jinterop.dcom.impls.automation.IJIDispatch;
+
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * An SWbemNamedValueSet object is a collection of {@link SWbemNamedValue} objects, the name and value pairs of a
+ * context passed to a call, such as the IncludeQualifiers option of GetText_.
+ * Create one with {@link SWbemLocator#createObject(Class)}, and fill it with {@link #add(String, WMIVariant)}.
+ *
+ * Created by chenlichao on 14-7-17.
+ */
+public class SWbemNamedValueSet extends AbstractWbemSet<SWbemNamedValue> {
+
+    SWbemNamedValueSet(IJIDispatch dispatch) {
+        super(dispatch, WrapperFactories.NAMED_VALUE);
+    }
+
+    /**
+     * Adds an {@link SWbemNamedValue} object to the collection, or replaces the value of an existing one.
+     *
+     * @param name Name of the new element.
+     * @param value Value of the new element.
+     * @param flags <strong>[Optional]</strong> Reserved and must be zero if specified.
+     * @return If successful, the new {@link SWbemNamedValue} object is returned.
+     * @throws WMIException
+     */
+    public SWbemNamedValue add(String name, WMIVariant value, Integer flags) throws WMIException {
+        if(isEmpty(name)) {
+            throw new IllegalArgumentException("Name is empty.");
+        }
+        if(value == null) {
+            throw new IllegalArgumentException("Value is null.");
+        }
+        if(flags != null && flags != 0) {
+            throw new IllegalArgumentException("Flags must be zero.");
+        }
+        return callMethod(SWbemNamedValue.class, "Add", new JIString(name), value.getVariant(),
+                (flags == null) ? OPTIONAL_PARAM : flags);
+    }
+
+    /**
+     * Use default parameters for {@link #add(String, WMIVariant, Integer)}
+     */
+    public SWbemNamedValue add(String name, WMIVariant value) throws WMIException {
+        return add(name, value, null);
+    }
+}
@@ -20,6 +20,7 @@
 package cn.chenlichao.wmi4j;
 
 import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.core.IJIComObject;
 import org.jinterop.dcom.core.JIArray;
 import org.jinterop.dcom.core.JIString;
 import org.jinterop.dcom.core.JIVariant;
@@ -27,7 +28,14 @@ import org.jinterop.dcom.impls.automation.IJIDispatch;
 import cn.chenlichao.wmi4j.consts.Flags;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
@@ -56,12 +64,30 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
  *
  * Created by chenlichao on 14-7-22.
  */
-//TODO Implement async methods
 public class SWbemObject extends AbstractSecurityScriptingObject {
+
+    /** wbemObjectTextFormatCIMDTD20 */
+    private static final int WBEM_OBJECT_TEXT_FORMAT_CIM_DTD20 = 1;
+    private static final int DISP_E_UNKNOWNNAME = 0x80020006;
+    private static final int WBEM_E_NOT_SUPPORTED = 0x8004100C;
     SWbemObject(IJIDispatch dispatch) {
         super(dispatch);
     }
 
+    /**
+     * Create another reference to this object, for handing it to several owners that each close their reference.
+     * No call is made to the server, the remote object is released when the last of the references is released.
+     * The new reference belongs to the current {@link WMIScope}, if any.
+     * @return The new reference.
+     * @throws WMIException This reference has been released.
+     */
+    public SWbemObject newReference() throws WMIException {
+        AtomicInteger count = share();
+        SWbemObject reference = new SWbemObject(dispatch);
+        reference.shared(count);
+        return reference;
+    }
+
     /**
      * Returns a collection of objects (classes or instances) that are associated with the current object.
      * These returned objects are called endpoints. This method performs the same function that the ASSOCIATORS OF WQL query performs.
@@ -107,27 +133,17 @@ public class SWbemObject extends AbstractSecurityScriptingObject {
     public SWbemObjectSet associators(String assocClass, String resultClass,
                                       String resultRole, String role, Boolean classesOnly, Boolean schemaOnly, String requiredAssocQualifier,
                                       String requiredQualifier, SWbemNamedValueSet objwbemNamedValueSet, Flags.AssociatorsFlag...flags) throws WMIException {
-        Integer iFlags = null;
-        if(flags != null) {
-            for(Flags.AssociatorsFlag flag : flags) {
-                if(iFlags == null) {
-                    iFlags = flag.getValue();
-                } else {
-                    iFlags += flag.getValue();
-                }
-            }
-        }
         return callMethod(SWbemObjectSet.class, "Associators_",
-                (isEmpty(assocClass)) ? JIVariant.OPTIONAL_PARAM() : new JIString(assocClass),
-                (isEmpty(resultClass)) ? JIVariant.OPTIONAL_PARAM() : new JIString(resultClass),
-                (isEmpty(resultRole)) ? JIVariant.OPTIONAL_PARAM() : new JIString(resultRole),
-                (isEmpty(role)) ? JIVariant.OPTIONAL_PARAM() : new JIString(role),
-                (classesOnly == null) ? JIVariant.OPTIONAL_PARAM() : classesOnly,
-                (schemaOnly == null) ? JIVariant.OPTIONAL_PARAM() : schemaOnly,
-                (isEmpty(requiredAssocQualifier)) ? JIVariant.OPTIONAL_PARAM() : new JIString(requiredAssocQualifier),
-                (isEmpty(requiredQualifier)) ? JIVariant.OPTIONAL_PARAM() : new JIString(requiredQualifier),
-                (iFlags == null) ? JIVariant.OPTIONAL_PARAM() : iFlags,
-                (objwbemNamedValueSet == null) ? JIVariant.OPTIONAL_PARAM() : objwbemNamedValueSet.getDispatch());
+                (isEmpty(assocClass)) ? OPTIONAL_PARAM : new JIString(assocClass),
+                (isEmpty(resultClass)) ? OPTIONAL_PARAM : new JIString(resultClass),
+                (isEmpty(resultRole)) ? OPTIONAL_PARAM : new JIString(resultRole),
+                (isEmpty(role)) ? OPTIONAL_PARAM : new JIString(role),
+                (classesOnly == null) ? OPTIONAL_PARAM : classesOnly,
+                (schemaOnly == null) ? OPTIONAL_PARAM : schemaOnly,
+                (isEmpty(requiredAssocQualifier)) ? OPTIONAL_PARAM : new JIString(requiredAssocQualifier),
+                (isEmpty(requiredQualifier)) ? OPTIONAL_PARAM : new JIString(requiredQualifier),
+                flagsParam(flags),
+                (objwbemNamedValueSet == null) ? OPTIONAL_PARAM : objwbemNamedValueSet.getDispatch());
     }
 
     /**
@@ -137,6 +153,53 @@ public class SWbemObject extends AbstractSecurityScriptingObject {
         return associators(null, null, null, null, null, null, null, null, null, null);
     }
 
+    /**
+     * Asynchronous version of {@link #associators(String, String, String, String, Boolean, Boolean, String, String, SWbemNamedValueSet, cn.chenlichao.wmi4j.consts.Flags.AssociatorsFlag...)},
+     * runs on the default executor of {@link WMIExecutors}.
+     * @return Future of the {@link SWbemObjectSet}, completed exceptionally with {@link WMIException} if failed.
+     */
+    public CompletableFuture<SWbemObjectSet> associatorsAsync(final String assocClass, final String resultClass,
+            final String resultRole, final String role, final Boolean classesOnly, final Boolean schemaOnly,
+            final String requiredAssocQualifier, final String requiredQualifier,
+            final SWbemNamedValueSet objwbemNamedValueSet, final Flags.AssociatorsFlag... flags) {
+        return associatorsAsync(WMIExecutors.getDefaultExecutor(), assocClass, resultClass, resultRole, role,
+                classesOnly, schemaOnly, requiredAssocQualifier, requiredQualifier, objwbemNamedValueSet, flags);
+    }
+
+    /**
+     * Asynchronous version of {@link #associators(String, String, String, String, Boolean, Boolean, String, String, SWbemNamedValueSet, cn.chenlichao.wmi4j.consts.Flags.AssociatorsFlag...)}.
+     * @param executor Executor the call runs on.
+     * @return Future of the {@link SWbemObjectSet}, completed exceptionally with {@link WMIException} if failed.
+     */
+    public CompletableFuture<SWbemObjectSet> associatorsAsync(final Executor executor, final String assocClass,
+            final String resultClass, final String resultRole, final String role, final Boolean classesOnly,
+            final Boolean schemaOnly, final String requiredAssocQualifier, final String requiredQualifier,
+            final SWbemNamedValueSet objwbemNamedValueSet, final Flags.AssociatorsFlag... flags) {
+        return WMIExecutors.submit(executor, new Callable<SWbemObjectSet>() {
+            @Override
+            public SWbemObjectSet call() throws Exception {
+                return associators(assocClass, resultClass, resultRole, role, classesOnly, schemaOnly,
+                        requiredAssocQualifier, requiredQualifier, objwbemNamedValueSet, flags);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link #associators()}, runs on the default executor of {@link WMIExecutors}.
+     */
+    public CompletableFuture<SWbemObjectSet> associatorsAsync() {
+        return associatorsAsync(WMIExecutors.getDefaultExecutor(), null, null, null, null, null, null, null, null,
+                null);
+    }
+
+    /**
+     * Asynchronous version of {@link #associators()}.
+     * @param executor Executor the call runs on.
+     */
+    public CompletableFuture<SWbemObjectSet> associatorsAsync(final Executor executor) {
+        return associatorsAsync(executor, null, null, null, null, null, null, null, null, null);
+    }
+
     /**
      * Returns a new object that is a clone of the current object.
      * @return A new object that is a clone of the current object.
@@ -159,18 +222,8 @@ public class SWbemObject extends AbstractSecurityScriptingObject {
         if(wbemObject == null) {
             return false;
         }
-        Integer iFlags = null;
-        if(flags != null) {
-            for(Flags.CompareToFlag flag : flags) {
-                if(iFlags == null) {
-                    iFlags = flag.getValue();
-                } else {
-                    iFlags += flag.getValue();
-                }
-            }
-        }
         return (Boolean)callMethod(Boolean.class,  "CompareTo_", wbemObject.getDispatch(),
-                (iFlags == null) ? JIVariant.OPTIONAL_PARAM() : iFlags);
+                flagsParam(flags));
     }
 
     /**
@@ -197,7 +250,7 @@ public class SWbemObject extends AbstractSecurityScriptingObject {
             throw new IllegalArgumentException("Flags must be zero.");
         }
         callMethod(null, "Delete_", 0,
-                (objWbemNamedValueSet == null) ? JIVariant.OPTIONAL_PARAM() : objWbemNamedValueSet.getDispatch());
+                (objWbemNamedValueSet == null) ? OPTIONAL_PARAM : objWbemNamedValueSet.getDispatch());
     }
 
     /**
@@ -207,6 +260,46 @@ public class SWbemObject extends AbstractSecurityScriptingObject {
         delete(null, null);
     }
 
+    /**
+     * Asynchronous version of {@link #delete(Integer, SWbemNamedValueSet)},
+     * runs on the default executor of {@link WMIExecutors}.
+     * @return Future completed when the object is deleted, or exceptionally with {@link WMIException} if failed.
+     */
+    public CompletableFuture<Void> deleteAsync(final Integer flags, final SWbemNamedValueSet objWbemNamedValueSet) {
+        return deleteAsync(WMIExecutors.getDefaultExecutor(), flags, objWbemNamedValueSet);
+    }
+
+    /**
+     * Asynchronous version of {@link #delete(Integer, SWbemNamedValueSet)}.
+     * @param executor Executor the call runs on.
+     * @return Future completed when the object is deleted, or exceptionally with {@link WMIException} if failed.
+     */
+    public CompletableFuture<Void> deleteAsync(final Executor executor, final Integer flags,
+            final SWbemNamedValueSet objWbemNamedValueSet) {
+        return WMIExecutors.submit(executor, new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delete(flags, objWbemNamedValueSet);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link #delete()}, runs on the default executor of {@link WMIExecutors}.
+     */
+    public CompletableFuture<Void> deleteAsync() {
+        return deleteAsync(WMIExecutors.getDefaultExecutor(), null, null);
+    }
+
+    /**
+     * Asynchronous version of {@link #delete()}.
+     * @param executor Executor the call runs on.
+     */
+    public CompletableFuture<Void> deleteAsync(final Executor executor) {
+        return deleteAsync(executor, null, null);
+    }
+
     /**
      * Executes a method exported by a method provider.
      * This method pauses while the method that is forwarded to the appropriate provider executes.
@@ -231,9 +324,9 @@ public class SWbemObject extends AbstractSecurityScriptingObject {
             throw new IllegalArgumentException("Flags must be zero.");
         }
         return callMethod(SWbemObject.class, "ExecMethod_", new JIString(methodName),
-                (inParameters == null) ? JIVariant.OPTIONAL_PARAM() : inParameters.getDispatch(),
-                JIVariant.OPTIONAL_PARAM(),
-                (objWbemNamedValueSet == null) ? JIVariant.OPTIONAL_PARAM() : objWbemNamedValueSet.getDispatch());
+                (inParameters == null) ? OPTIONAL_PARAM : inParameters.getDispatch(),
+                OPTIONAL_PARAM,
+                (objWbemNamedValueSet == null) ? OPTIONAL_PARAM : objWbemNamedValueSet.getDispatch());
     }
 
     /**
@@ -250,6 +343,63 @@ public class SWbemObject extends AbstractSecurityScriptingObject {
         return execMethod(methodName, null);
     }
 
+    /**
+     * Asynchronous version of {@link #execMethod(String, SWbemObject, Integer, SWbemNamedValueSet)},
+     * runs on the default executor of {@link WMIExecutors}.
+     * @return Future of the out parameters, completed exceptionally with {@link WMIException} if failed.
+     */
+    public CompletableFuture<SWbemObject> execMethodAsync(final String methodName, final SWbemObject inParameters,
+            final Integer flags, final SWbemNamedValueSet objWbemNamedValueSet) {
+        return execMethodAsync(WMIExecutors.getDefaultExecutor(), methodName, inParameters, flags,
+                objWbemNamedValueSet);
+    }
+
+    /**
+     * Asynchronous version of {@link #execMethod(String, SWbemObject, Integer, SWbemNamedValueSet)}.
+     * @param executor Executor the call runs on.
+     * @return Future of the out parameters, completed exceptionally with {@link WMIException} if failed.
+     */
+    public CompletableFuture<SWbemObject> execMethodAsync(final Executor executor, final String methodName,
+            final SWbemObject inParameters, final Integer flags, final SWbemNamedValueSet objWbemNamedValueSet) {
+        return WMIExecutors.submit(executor, new Callable<SWbemObject>() {
+            @Override
+            public SWbemObject call() throws Exception {
+                return execMethod(methodName, inParameters, flags, objWbemNamedValueSet);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link #execMethod(String, SWbemObject)}, runs on the default executor of {@link WMIExecutors}.
+     */
+    public CompletableFuture<SWbemObject> execMethodAsync(final String methodName, final SWbemObject inParameters) {
+        return execMethodAsync(WMIExecutors.getDefaultExecutor(), methodName, inParameters, null, null);
+    }
+
+    /**
+     * Asynchronous version of {@link #execMethod(String, SWbemObject)}.
+     * @param executor Executor the call runs on.
+     */
+    public CompletableFuture<SWbemObject> execMethodAsync(final Executor executor, final String methodName,
+            final SWbemObject inParameters) {
+        return execMethodAsync(executor, methodName, inParameters, null, null);
+    }
+
+    /**
+     * Asynchronous version of {@link #execMethod(String)}, runs on the default executor of {@link WMIExecutors}.
+     */
+    public CompletableFuture<SWbemObject> execMethodAsync(final String methodName) {
+        return execMethodAsync(WMIExecutors.getDefaultExecutor(), methodName, null, null, null);
+    }
+
+    /**
+     * Asynchronous version of {@link #execMethod(String)}.
+     * @param executor Executor the call runs on.
+     */
+    public CompletableFuture<SWbemObject> execMethodAsync(final Executor executor, final String methodName) {
+        return execMethodAsync(executor, methodName, null, null, null);
+    }
+
     /**
      * Returns a textual rendering of the object.
      * This object can be used to display an object's contents.
@@ -266,7 +416,7 @@ public class SWbemObject extends AbstractSecurityScriptingObject {
         if(flags != null && flags != 0) {
             throw new IllegalArgumentException("Flags must be zero.");
         }
-        return callMethod(String.class, "GetObjectText_", JIVariant.OPTIONAL_PARAM());
+        return callMethod(String.class, "GetObjectText_", OPTIONAL_PARAM);
     }
 
     /**
@@ -276,6 +426,76 @@ public class SWbemObject extends AbstractSecurityScriptingObject {
         return getObjectText(null);
     }
 
+    /**
+     * Copy all the properties of this object, including the system properties, into an immutable
+     * {@link SWbemObjectSnapshot} with a single GetText_ call, instead of three calls for each property read by
+     * {@link #getPropertyByName(String)}.
+     * <p>On Windows versions without GetText_, the properties are enumerated from {@link #getProperties()} instead,
+     * which costs two calls for each property, and the values keep their automation types.</p>
+     * @return The snapshot of this object.
+     * @throws WMIException
+     */
+    public SWbemObjectSnapshot snapshot() throws WMIException {
+        String xml;
+        try {
+            xml = callMethod(String.class, "GetText_", WBEM_OBJECT_TEXT_FORMAT_CIM_DTD20, 0, OPTIONAL_PARAM);
+        } catch (WMIException e) {
+            int code = e.getErrorCode();
+            if(code != DISP_E_UNKNOWNNAME && code != DispIdCache.DISP_E_MEMBERNOTFOUND && code != WBEM_E_NOT_SUPPORTED) {
+                throw e;
+            }
+            logger().debug("GetText_ is not supported, enumerate the properties instead.");
+            return snapshotFromProperties();
+        }
+        return CimXmlParser.parse(xml);
+    }
+
+    private SWbemObjectSnapshot snapshotFromProperties() throws WMIException {
+        LinkedHashMap<String, Object> properties = new LinkedHashMap<String, Object>();
+        Iterator<SWbemProperty> it = getProperties().streamingIterator();
+        while (it.hasNext()) {
+            SWbemProperty property = it.next();
+            try {
+                properties.put(property.getName(), toJava(property.getValue().getVariant()));
+            } catch (JIException e) {
+                throw new WMIException(e);
+            }
+        }
+        return new SWbemObjectSnapshot(getPath().getClazz(), properties);
+    }
+
+    /**
+     * Convert a property value read from {@link #getProperties()}, embedded objects are converted to CIM-XML text,
+     * the same as the values of {@link #snapshot()} read from GetText_.
+     */
+    private static Object toJava(JIVariant variant) throws JIException, WMIException {
+        if(variant == null || variant.isNull()) {
+            return null;
+        }
+        Object value = variant.getObject();
+        if(value instanceof JIVariant) {
+            return toJava((JIVariant) value);
+        } else if(value instanceof JIString) {
+            return ((JIString) value).getString();
+        } else if(value instanceof JIArray) {
+            Object[] elements = (Object[]) ((JIArray) value).getArrayInstance();
+            List<Object> list = new ArrayList<Object>(elements.length);
+            for(Object element : elements) {
+                list.add((element instanceof JIVariant) ? toJava((JIVariant) element)
+                        : (element instanceof JIString) ? ((JIString) element).getString() : element);
+            }
+            return Collections.unmodifiableList(list);
+        } else if(value instanceof IJIComObject) {
+            SWbemObject embedded = new SWbemObject(WrapperFactories.toDispatch((IJIComObject) value));
+            try {
+                return CimXmlParser.format(embedded.snapshot());
+            } finally {
+                embedded.close();
+            }
+        }
+        return value;
+    }
+
     /**
      * Creates an enumerator that returns the instances of the current class object.
      * This method implements a simple query. More complex queries may require the use of
@@ -291,19 +511,9 @@ public class SWbemObject extends AbstractSecurityScriptingObject {
      * @throws WMIException
      */
     public SWbemObjectSet instances(SWbemNamedValueSet objWbemNamedValueSet, Flags.InstancesFlag... flags) throws WMIException {
-        Integer iFlags = null;
-        if(flags != null) {
-            for(Flags.InstancesFlag flag : flags) {
-                if(iFlags == null) {
-                    iFlags = flag.getValue();
-                } else {
-                    iFlags += flag.getValue();
-                }
-            }
-        }
         return callMethod(SWbemObjectSet.class, "Instances_",
-                (flags == null) ? JIVariant.OPTIONAL_PARAM() : iFlags,
-                (objWbemNamedValueSet == null) ? JIVariant.OPTIONAL_PARAM() : objWbemNamedValueSet.getDispatch());
+                flagsParam(flags),
+                (objWbemNamedValueSet == null) ? OPTIONAL_PARAM : objWbemNamedValueSet.getDispatch());
     }
 
     /**
@@ -328,19 +538,9 @@ public class SWbemObject extends AbstractSecurityScriptingObject {
      * @throws WMIException
      */
     public SWbemObjectPath put(SWbemNamedValueSet objWbemNamedValueSet, Flags.PutFlag... flags) throws WMIException {
-        Integer iFlags = null;
-        if(flags != null) {
-            for(Flags.PutFlag flag : flags) {
-                if(iFlags == null) {
-                    iFlags = flag.getValue();
-                } else {
-                    iFlags += flag.getValue();
-                }
-            }
-        }
         return callMethod(SWbemObjectPath.class, "Put_",
-                (flags == null) ? JIVariant.OPTIONAL_PARAM() : iFlags,
-                (objWbemNamedValueSet == null) ? JIVariant.OPTIONAL_PARAM() : objWbemNamedValueSet.getDispatch());
+                flagsParam(flags),
+                (objWbemNamedValueSet == null) ? OPTIONAL_PARAM : objWbemNamedValueSet.getDispatch());
     }
 
     /**
@@ -350,6 +550,46 @@ public class SWbemObject extends AbstractSecurityScriptingObject {
         return put(null, null);
     }
 
+    /**
+     * Asynchronous version of {@link #put(SWbemNamedValueSet, cn.chenlichao.wmi4j.consts.Flags.PutFlag...)},
+     * runs on the default executor of {@link WMIExecutors}.
+     * @return Future of the path of the object, completed exceptionally with {@link WMIException} if failed.
+     */
+    public CompletableFuture<SWbemObjectPath> putAsync(final SWbemNamedValueSet objWbemNamedValueSet,
+            final Flags.PutFlag... flags) {
+        return putAsync(WMIExecutors.getDefaultExecutor(), objWbemNamedValueSet, flags);
+    }
+
+    /**
+     * Asynchronous version of {@link #put(SWbemNamedValueSet, cn.chenlichao.wmi4j.consts.Flags.PutFlag...)}.
+     * @param executor Executor the call runs on.
+     * @return Future of the path of the object, completed exceptionally with {@link WMIException} if failed.
+     */
+    public CompletableFuture<SWbemObjectPath> putAsync(final Executor executor,
+            final SWbemNamedValueSet objWbemNamedValueSet, final Flags.PutFlag... flags) {
+        return WMIExecutors.submit(executor, new Callable<SWbemObjectPath>() {
+            @Override
+            public SWbemObjectPath call() throws Exception {
+                return put(objWbemNamedValueSet, flags);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link #put()}, runs on the default executor of {@link WMIExecutors}.
+     */
+    public CompletableFuture<SWbemObjectPath> putAsync() {
+        return putAsync(WMIExecutors.getDefaultExecutor(), null);
+    }
+
+    /**
+     * Asynchronous version of {@link #put()}.
+     * @param executor Executor the call runs on.
+     */
+    public CompletableFuture<SWbemObjectPath> putAsync(final Executor executor) {
+        return putAsync(executor, null);
+    }
+
     /**
      * Returns a collection of all association classes or instances that refer to the current object.
      * This method performs the same function as the REFERENCES OF WQL query.
@@ -385,24 +625,14 @@ public class SWbemObject extends AbstractSecurityScriptingObject {
                                      Boolean classesOnly, Boolean schemaOnly, String requiredQualifier,
                                      SWbemNamedValueSet objWbemNamedValueSet,
                                      Flags.ReferenceFlag... flags) throws WMIException {
-        Integer iFlags = null;
-        if(flags != null) {
-            for(Flags.ReferenceFlag flag : flags) {
-                if(iFlags == null) {
-                    iFlags = flag.getValue();
-                } else {
-                    iFlags += flag.getValue();
-                }
-            }
-        }
         return callMethod(SWbemObjectSet.class, "ReferencesTo",
-                (isEmpty(resultClass)) ? JIVariant.OPTIONAL_PARAM() : new JIString(resultClass),
-                (isEmpty(role)) ? JIVariant.OPTIONAL_PARAM() : new JIString(role),
-                (classesOnly == null) ? JIVariant.OPTIONAL_PARAM() : classesOnly,
-                (schemaOnly == null) ? JIVariant.OPTIONAL_PARAM() : schemaOnly,
-                (isEmpty(requiredQualifier)) ? JIVariant.OPTIONAL_PARAM() : new JIString(requiredQualifier),
-                (iFlags == null) ? JIVariant.OPTIONAL_PARAM() : iFlags,
-                (objWbemNamedValueSet == null) ? JIVariant.OPTIONAL_PARAM() : objWbemNamedValueSet.getDispatch());
+                (isEmpty(resultClass)) ? OPTIONAL_PARAM : new JIString(resultClass),
+                (isEmpty(role)) ? OPTIONAL_PARAM : new JIString(role),
+                (classesOnly == null) ? OPTIONAL_PARAM : classesOnly,
+                (schemaOnly == null) ? OPTIONAL_PARAM : schemaOnly,
+                (isEmpty(requiredQualifier)) ? OPTIONAL_PARAM : new JIString(requiredQualifier),
+                flagsParam(flags),
+                (objWbemNamedValueSet == null) ? OPTIONAL_PARAM : objWbemNamedValueSet.getDispatch());
     }
 
     /**
@@ -424,7 +654,7 @@ public class SWbemObject extends AbstractSecurityScriptingObject {
         if(flags != null && flags != 0) {
             throw new IllegalArgumentException("Flags must be zero.");
         }
-        return callMethod(SWbemObject.class, "SpawnDerivedClass_", JIVariant.OPTIONAL_PARAM());
+        return callMethod(SWbemObject.class, "SpawnDerivedClass_", OPTIONAL_PARAM);
     }
 
     /**
@@ -451,7 +681,7 @@ public class SWbemObject extends AbstractSecurityScriptingObject {
         if(flags != null && flags != 0) {
             throw new IllegalArgumentException("Flags must be zero.");
         }
-        return callMethod(SWbemObject.class, "SpawnInstance_", JIVariant.OPTIONAL_PARAM());
+        return callMethod(SWbemObject.class, "SpawnInstance_", OPTIONAL_PARAM);
     }
 
     /**
@@ -478,19 +708,9 @@ public class SWbemObject extends AbstractSecurityScriptingObject {
      * @throws WMIException
      */
     public SWbemObjectSet subclasses(SWbemNamedValueSet objWbemNamedValueSet, Flags.SubclassesFlag... flags) throws WMIException {
-        Integer iFlags = null;
-        if(flags != null) {
-            for(Flags.SubclassesFlag flag : flags) {
-                if(iFlags == null) {
-                    iFlags = flag.getValue();
-                } else {
-                    iFlags += flag.getValue();
-                }
-            }
-        }
         return callMethod(SWbemObjectSet.class, "Subclasses_",
-                (iFlags == null) ? JIVariant.OPTIONAL_PARAM() : iFlags,
-                (objWbemNamedValueSet == null) ? JIVariant.OPTIONAL_PARAM() : objWbemNamedValueSet.getDispatch());
+                flagsParam(flags),
+                (objWbemNamedValueSet == null) ? OPTIONAL_PARAM : objWbemNamedValueSet.getDispatch());
     }
 
     /**
@@ -510,7 +730,7 @@ public class SWbemObject extends AbstractSecurityScriptingObject {
      */
     public List<String> getDerivation() throws WMIException {
         try {
-            JIVariant derivation_ = dispatch.get("Derivation_");
+            JIVariant derivation_ = invokeGet("Derivation_");
             List<String> result = new ArrayList<String>();
             JIArray jiArray = derivation_.getObjectAsArray();
             JIVariant[] variants = (JIVariant[])jiArray.getArrayInstance();
@@ -567,6 +787,22 @@ public class SWbemObject extends AbstractSecurityScriptingObject {
         return getProperty(SWbemObjectPath.class, "Path_");
     }
 
+    /**
+     * Read the path of the current class or instance with two round trips, Path_ and its Path, and parse it locally.
+     * Unlike the getters of {@link #getPath()}, which are a round trip each,
+     * the getters of the returned {@link ObjectPath} make no call.
+     * @return The parsed object path.
+     * @throws WMIException
+     */
+    public ObjectPath getObjectPath() throws WMIException {
+        SWbemObjectPath path = getPath();
+        try {
+            return path.toObjectPath();
+        } finally {
+            path.close();
+        }
+    }
+
     /**
      * Returns an {@link SWbemPropertySet} object that is a collection of the properties for the current class or instance.
      * This property is read-only.
@@ -585,7 +821,12 @@ public class SWbemObject extends AbstractSecurityScriptingObject {
      * @throws WMIException
      */
     public WMIVariant getPropertyByName(String propertyName) throws WMIException {
-        return getProperties().item(propertyName).getValue();
+        WMIMetrics.Operation operation = WMIMetrics.operation("SWbemObject.getPropertyByName");
+        try {
+            return getProperties().item(propertyName).getValue();
+        } finally {
+            operation.close();
+        }
     }
 
     /**
@@ -595,7 +836,12 @@ public class SWbemObject extends AbstractSecurityScriptingObject {
      * @throws WMIException
      */
     public void setPropertyByName(String propertyName, WMIVariant value) throws WMIException {
-        getProperties().item(propertyName).setValue(value);
+        WMIMetrics.Operation operation = WMIMetrics.operation("SWbemObject.setPropertyByName");
+        try {
+            getProperties().item(propertyName).setValue(value);
+        } finally {
+            operation.close();
+        }
     }
 
     /**
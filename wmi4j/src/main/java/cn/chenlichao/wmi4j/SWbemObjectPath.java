@@ -249,4 +249,13 @@ public class SWbemObjectPath extends AbstractSecurityScriptingObject {
     public void setServer(String server) throws WMIException {
         putProperty("Server", new JIVariant(server));
     }
+
+    /**
+     * Read the absolute path once and parse it locally, see {@link ObjectPath}.
+     * @return The parsed object path.
+     * @throws WMIException
+     */
+    public ObjectPath toObjectPath() throws WMIException {
+        return ObjectPath.parse(getPath());
+    }
 }
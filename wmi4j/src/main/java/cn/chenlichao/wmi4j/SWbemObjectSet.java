@@ -21,10 +21,8 @@ package cn.chenlichao.wmi4j;
 
 import org.apache.commons.lang3.StringUtils;
 import org.jinterop.dcom.common.JIException;
-import org.jinterop.dcom.core.IJIComObject;
 import org.jinterop.dcom.core.JIString;
 import org.jinterop.dcom.core.JIVariant;
-import org.jinterop.dcom.impls.JIObjectFactory;
 import org.jinterop.dcom.impls.automation.IJIDispatch;
 
 /**
@@ -51,7 +49,7 @@ import org.jinterop.dcom.impls.automation.IJIDispatch;
  */
 public class SWbemObjectSet extends AbstractWbemSet<SWbemObject> {
     SWbemObjectSet(IJIDispatch dispatch) {
-        super(dispatch);
+        super(dispatch, WrapperFactories.OBJECT);
     }
 
     /**
@@ -95,10 +93,8 @@ public class SWbemObjectSet extends AbstractWbemSet<SWbemObject> {
      */
     public SWbemSecurity getSecurity() throws WMIException {
         try {
-            JIVariant result = dispatch.get("Security_");
-            IJIComObject comObject = result.getObjectAsComObject();
-            IJIDispatch securityDispatch = (IJIDispatch) JIObjectFactory.narrowObject(comObject);
-            return new SWbemSecurity(securityDispatch);
+            JIVariant result = invokeGet("Security_");
+            return new SWbemSecurity(WrapperFactories.toDispatch(result.getObjectAsComObject()));
         } catch (JIException e) {
             throw new WMIException(e);
         }
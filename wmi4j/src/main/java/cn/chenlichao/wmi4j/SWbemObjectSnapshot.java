@@ -0,0 +1,224 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+/**
+ * Immutable copy of all the properties of an {@link SWbemObject}, taken by {@link SWbemObject#snapshot()}.
+ * It is detached from the server, so reading a property is a local lookup, and it can be used after
+ * the connection is closed.
+ *
+ * <p>Property names are case insensitive. Values are mapped from the CIM types as follows:
+ * sint8 {@link Byte}, sint16 and uint8 {@link Short}, sint32 and uint16 {@link Integer},
+ * sint64 and uint32 {@link Long}, uint64 {@link java.math.BigInteger}, real32 {@link Float}, real64 {@link Double},
+ * boolean {@link Boolean}, char16 {@link Character}, string, datetime, reference and embedded objects {@link String},
+ * embedded objects are read by {@link #getObject(String)}.
+ * Arrays are unmodifiable {@link List lists}, and a null property value is null.</p>
+ */
+public final class SWbemObjectSnapshot {
+
+    private final String className;
+    private final Map<String, Object> properties;
+    private final Map<String, Object> lookup;
+
+    SWbemObjectSnapshot(String className, LinkedHashMap<String, Object> properties) {
+        this.className = className;
+        this.properties = Collections.unmodifiableMap(properties);
+        TreeMap<String, Object> lookup = new TreeMap<String, Object>(String.CASE_INSENSITIVE_ORDER);
+        lookup.putAll(properties);
+        this.lookup = lookup;
+    }
+
+    /**
+     * Create a snapshot from stored values, such as the records of an event journal.
+     * @param className Class name of the object.
+     * @param properties Property values, of the types listed above, copied in their order.
+     */
+    public static SWbemObjectSnapshot of(String className, Map<String, ?> properties) {
+        return new SWbemObjectSnapshot(className, new LinkedHashMap<String, Object>(properties));
+    }
+
+    /**
+     * @return Class name of the object.
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * @return Value of the __PATH system property, null if it is not in the snapshot.
+     */
+    public String getPath() {
+        return (String) lookup.get("__PATH");
+    }
+
+    /**
+     * @return All the properties in the order the server returned them.
+     */
+    public Map<String, Object> getProperties() {
+        return properties;
+    }
+
+    /**
+     * @return Names of all the properties.
+     */
+    public List<String> getPropertyNames() {
+        return new ArrayList<String>(properties.keySet());
+    }
+
+    /**
+     * @param name Property name.
+     * @return true if the object has the property, even if the value is null.
+     */
+    public boolean contains(String name) {
+        return lookup.containsKey(name);
+    }
+
+    /**
+     * @param name Property name.
+     * @return The value, may be null.
+     * @exception IllegalArgumentException If the object has no such property.
+     */
+    public Object get(String name) {
+        if(!lookup.containsKey(name)) {
+            throw new IllegalArgumentException("Object " + className + " has no property " + name);
+        }
+        return lookup.get(name);
+    }
+
+    public String getString(String name) {
+        Object value = get(name);
+        return (value == null) ? null : value.toString();
+    }
+
+    public Integer getInteger(String name) {
+        Number value = getNumber(name);
+        return (value == null) ? null : value.intValue();
+    }
+
+    public Long getLong(String name) {
+        Number value = getNumber(name);
+        return (value == null) ? null : value.longValue();
+    }
+
+    public Double getDouble(String name) {
+        Number value = getNumber(name);
+        return (value == null) ? null : value.doubleValue();
+    }
+
+    public Boolean getBoolean(String name) {
+        Object value = get(name);
+        if(value == null || value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        return Boolean.valueOf(value.toString());
+    }
+
+    /**
+     * Get a datetime property.
+     * @param name Property name.
+     * @return The date, or null if the value is null.
+     * @exception IllegalArgumentException If the value is not a DMTF datetime, such as an interval.
+     */
+    public Date getDate(String name) {
+        String value = getString(name);
+        return (value == null) ? null : parseDmtfDate(value);
+    }
+
+    /**
+     * Get an array property.
+     * @param name Property name.
+     * @return Unmodifiable list of the elements, or null if the value is null.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object> getList(String name) {
+        Object value = get(name);
+        if(value == null || value instanceof List) {
+            return (List<Object>) value;
+        }
+        return Collections.singletonList(value);
+    }
+
+    /**
+     * Get an embedded object property, such as TargetInstance of an intrinsic event.
+     * @param name Property name.
+     * @return Snapshot of the embedded object, or null if the value is null.
+     * @throws WMIException If the value is not the text of an object.
+     */
+    public SWbemObjectSnapshot getObject(String name) throws WMIException {
+        Object value = get(name);
+        if(value == null || value instanceof SWbemObjectSnapshot) {
+            return (SWbemObjectSnapshot) value;
+        }
+        return CimXmlParser.parse(value.toString());
+    }
+
+    private Number getNumber(String name) {
+        Object value = get(name);
+        if(value == null || value instanceof Number) {
+            return (Number) value;
+        }
+        try {
+            return Long.valueOf(value.toString().trim());
+        } catch (NumberFormatException e) {
+            return Double.valueOf(value.toString().trim());
+        }
+    }
+
+    /**
+     * Parse DMTF datetime, in the form of yyyymmddHHMMSS.mmmmmmsUUU.
+     */
+    static Date parseDmtfDate(String value) {
+        if(value.length() != 25 || value.charAt(14) != '.' || (value.charAt(21) != '+' && value.charAt(21) != '-')) {
+            throw new IllegalArgumentException("Not a DMTF datetime: " + value);
+        }
+        try {
+            int offset = Integer.parseInt(value.substring(22, 25));
+            if(value.charAt(21) == '-') {
+                offset = -offset;
+            }
+            Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+            calendar.clear();
+            calendar.set(Integer.parseInt(value.substring(0, 4)), Integer.parseInt(value.substring(4, 6)) - 1,
+                    Integer.parseInt(value.substring(6, 8)), Integer.parseInt(value.substring(8, 10)),
+                    Integer.parseInt(value.substring(10, 12)), Integer.parseInt(value.substring(12, 14)));
+            calendar.set(Calendar.MILLISECOND, Integer.parseInt(value.substring(15, 18)));
+            calendar.add(Calendar.MINUTE, -offset);
+            return calendar.getTime();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a DMTF datetime: " + value, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return className + properties;
+    }
+}
@@ -20,7 +20,6 @@
 package cn.chenlichao.wmi4j;
 
 import org.jinterop.dcom.core.JIString;
-import org.jinterop.dcom.core.JIVariant;
 import org.jinterop.dcom.impls.automation.IJIDispatch;
 import cn.chenlichao.wmi4j.consts.WbemPrivilegeEnum;
 
@@ -34,7 +33,7 @@ import cn.chenlichao.wmi4j.consts.WbemPrivilegeEnum;
  */
 public class SWbemPrivilegeSet extends AbstractWbemSet<SWbemPrivilege> {
     SWbemPrivilegeSet(IJIDispatch dispatch) {
-        super(dispatch);
+        super(dispatch, WrapperFactories.PRIVILEGE);
     }
 
     /**
@@ -49,7 +48,7 @@ public class SWbemPrivilegeSet extends AbstractWbemSet<SWbemPrivilege> {
      */
     public SWbemPrivilege add(WbemPrivilegeEnum privilege, Boolean enabled) throws WMIException {
         return callMethod(SWbemPrivilege.class, "Add", privilege.getValue(),
-                enabled == null ? JIVariant.OPTIONAL_PARAM() : enabled);
+                enabled == null ? OPTIONAL_PARAM : enabled);
     }
 
 
@@ -65,7 +64,7 @@ public class SWbemPrivilegeSet extends AbstractWbemSet<SWbemPrivilege> {
      */
     public SWbemPrivilege addAsString(WbemPrivilegeEnum privilege, Boolean enabled) throws WMIException {
         return callMethod(SWbemPrivilege.class, "AddAsString", new JIString(privilege.getStrValue()),
-                enabled == null ? JIVariant.OPTIONAL_PARAM() : enabled);
+                enabled == null ? OPTIONAL_PARAM : enabled);
     }
 
     /**
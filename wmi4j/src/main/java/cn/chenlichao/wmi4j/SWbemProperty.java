@@ -36,6 +36,7 @@ public class SWbemProperty extends AbstractScriptingObject {
 
     /**
      * Return an integer that can be used to determine the CIM type of this property. This property is read-only.
+     * <p>Each call is a round trip, {@link SchemaCache#getCIMType(String, String)} serves it from a cached class.</p>
      * @return An integer that can be used to determine the CIM type of this property
      * @throws WMIException
      */
@@ -46,6 +47,7 @@ public class SWbemProperty extends AbstractScriptingObject {
 
     /**
      * Boolean value that can be used to determine if this property has an array type. This property is read-only.
+     * <p>Each call is a round trip, {@link SchemaCache#isArray(String, String)} serves it from a cached class.</p>
      * @return Boolean value that can be used to determine if this property has an array type.
      * @throws WMIException
      */
@@ -103,7 +105,7 @@ public class SWbemProperty extends AbstractScriptingObject {
      */
     public WMIVariant getValue() throws WMIException {
         try {
-            JIVariant jiVariant = dispatch.get("Value");
+            JIVariant jiVariant = invokeGet("Value");
             return new WMIVariant(jiVariant);
         } catch (JIException e) {
             throw new WMIException(e);
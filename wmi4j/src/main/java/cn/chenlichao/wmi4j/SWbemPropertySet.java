@@ -20,7 +20,6 @@
 package cn.chenlichao.wmi4j;
 
 import org.jinterop.dcom.core.JIString;
-import org.jinterop.dcom.core.JIVariant;
 import org.jinterop.dcom.impls.automation.IJIDispatch;
 import cn.chenlichao.wmi4j.consts.WbemCimTypeEnum;
 
@@ -36,7 +35,7 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
  */
 public class SWbemPropertySet extends AbstractWbemSet<SWbemProperty> {
     SWbemPropertySet(IJIDispatch dispatch) {
-        super(dispatch);
+        super(dispatch, WrapperFactories.PROPERTY);
     }
 
     /**
@@ -65,8 +64,8 @@ public class SWbemPropertySet extends AbstractWbemSet<SWbemProperty> {
             throw new IllegalArgumentException("Flags must be zero.");
         }
         return callMethod(SWbemProperty.class, "Add", new JIString(name), cimType.getValue(),
-                (isArray == null) ? JIVariant.OPTIONAL_PARAM() : isArray,
-                (flags == null) ? JIVariant.OPTIONAL_PARAM() : flags);
+                (isArray == null) ? OPTIONAL_PARAM : isArray,
+                (flags == null) ? OPTIONAL_PARAM : flags);
     }
 
     /**
@@ -91,7 +90,7 @@ public class SWbemPropertySet extends AbstractWbemSet<SWbemProperty> {
         if(flags != null && flags != 0) {
             throw new IllegalArgumentException("Flags must be zero.");
         }
-        return callMethod(SWbemProperty.class, "Item", new JIString(name), JIVariant.OPTIONAL_PARAM());
+        return callMethod(SWbemProperty.class, "Item", new JIString(name), OPTIONAL_PARAM);
     }
 
     /**
@@ -115,7 +114,7 @@ public class SWbemPropertySet extends AbstractWbemSet<SWbemProperty> {
         if(flags != null && flags != 0) {
             throw new IllegalArgumentException("Flags must be zero.");
         }
-        callMethod(null, "Remove", new JIString(name), JIVariant.OPTIONAL_PARAM());
+        callMethod(null, "Remove", new JIString(name), OPTIONAL_PARAM);
     }
 
     /**
@@ -36,7 +36,7 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
  */
 public class SWbemQualifierSet extends AbstractWbemSet<SWbemQualifier> {
     SWbemQualifierSet(IJIDispatch dispatch) {
-        super(dispatch);
+        super(dispatch, WrapperFactories.QUALIFIER);
     }
 
     /**
@@ -64,10 +64,10 @@ public class SWbemQualifierSet extends AbstractWbemSet<SWbemQualifier> {
             throw new IllegalArgumentException("Flags must be zero.");
         }
         return callMethod(SWbemQualifier.class, "Add", new JIString(name), value.getVariant(),
-                (propagatesToSubclasses == null) ? JIVariant.OPTIONAL_PARAM() : propagatesToSubclasses,
-                (propagatesToInstances == null) ? JIVariant.OPTIONAL_PARAM() : propagatesToInstances,
-                (overridable == null) ? JIVariant.OPTIONAL_PARAM() : overridable,
-                JIVariant.OPTIONAL_PARAM());
+                (propagatesToSubclasses == null) ? OPTIONAL_PARAM : propagatesToSubclasses,
+                (propagatesToInstances == null) ? OPTIONAL_PARAM : propagatesToInstances,
+                (overridable == null) ? OPTIONAL_PARAM : overridable,
+                OPTIONAL_PARAM);
     }
 
     /**
@@ -92,7 +92,7 @@ public class SWbemQualifierSet extends AbstractWbemSet<SWbemQualifier> {
         if(flags != null && flags != 0) {
             throw new IllegalArgumentException("Flags must be zero.");
         }
-        return callMethod(SWbemProperty.class, "Item", new JIString(name), JIVariant.OPTIONAL_PARAM());
+        return callMethod(SWbemQualifier.class, "Item", new JIString(name), OPTIONAL_PARAM);
     }
 
     /**
@@ -116,7 +116,7 @@ public class SWbemQualifierSet extends AbstractWbemSet<SWbemQualifier> {
         if(flags != null && flags != 0) {
             throw new IllegalArgumentException("Flags must be zero.");
         }
-        callMethod(null, "Remove", new JIString(name), JIVariant.OPTIONAL_PARAM());
+        callMethod(null, "Remove", new JIString(name), OPTIONAL_PARAM);
     }
 
     /**
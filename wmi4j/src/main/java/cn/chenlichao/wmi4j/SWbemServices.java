@@ -21,10 +21,14 @@ package cn.chenlichao.wmi4j;
 
 import org.apache.commons.lang3.StringUtils;
 import org.jinterop.dcom.core.JIString;
-import org.jinterop.dcom.core.JIVariant;
 import org.jinterop.dcom.impls.automation.IJIDispatch;
 import cn.chenlichao.wmi4j.consts.Flags;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 /**
@@ -35,9 +39,22 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
  * Created by chenlichao on 14-7-17.
  */
 public class SWbemServices extends AbstractSecurityScriptingObject {
-    //TODO Implement async methods
     SWbemServices(IJIDispatch dispatch) {
         super(dispatch);
+        keepAlive();
+    }
+
+    /**
+     * Wrap the IDispatch of an SWbemServices object that was not obtained through {@link SWbemLocator},
+     * such as the in-memory services of the fake provider in the wmi4j test-jar.
+     * @param dispatch IDispatch of an SWbemServices object.
+     * @return The services.
+     */
+    static SWbemServices wrap(IJIDispatch dispatch) {
+        if(dispatch == null) {
+            throw new IllegalArgumentException("Dispatch is null.");
+        }
+        return WrapperFactories.SERVICES.create(dispatch);
     }
 
     /**
@@ -90,28 +107,18 @@ public class SWbemServices extends AbstractSecurityScriptingObject {
         if(StringUtils.isEmpty(objectPath)) {
             throw new IllegalArgumentException("Object path is empty.");
         }
-        Integer iFlags = null;
-        if(flags != null) {
-            for(Flags.AssociatorsFlag flag : flags) {
-                if(iFlags == null) {
-                    iFlags = flag.getValue();
-                } else {
-                    iFlags += flag.getValue();
-                }
-            }
-        }
         return callMethod(SWbemObjectSet.class, "AssociatorsOf",
                 new JIString(objectPath),
-                (isEmpty(assocClass)) ? JIVariant.OPTIONAL_PARAM() : new JIString(assocClass),
-                (isEmpty(resultClass)) ? JIVariant.OPTIONAL_PARAM() : new JIString(resultClass),
-                (isEmpty(resultRole)) ? JIVariant.OPTIONAL_PARAM() : new JIString(resultRole),
-                (isEmpty(role)) ? JIVariant.OPTIONAL_PARAM() : new JIString(role),
-                (classesOnly == null) ? JIVariant.OPTIONAL_PARAM() : classesOnly,
-                (schemaOnly == null) ? JIVariant.OPTIONAL_PARAM() : schemaOnly,
-                (isEmpty(requiredAssocQualifier)) ? JIVariant.OPTIONAL_PARAM() : new JIString(requiredAssocQualifier),
-                (isEmpty(requiredQualifier)) ? JIVariant.OPTIONAL_PARAM() : new JIString(requiredQualifier),
-                (iFlags == null) ? JIVariant.OPTIONAL_PARAM() : iFlags,
-                (objwbemNamedValueSet == null) ? JIVariant.OPTIONAL_PARAM() : objwbemNamedValueSet.getDispatch());
+                (isEmpty(assocClass)) ? OPTIONAL_PARAM : new JIString(assocClass),
+                (isEmpty(resultClass)) ? OPTIONAL_PARAM : new JIString(resultClass),
+                (isEmpty(resultRole)) ? OPTIONAL_PARAM : new JIString(resultRole),
+                (isEmpty(role)) ? OPTIONAL_PARAM : new JIString(role),
+                (classesOnly == null) ? OPTIONAL_PARAM : classesOnly,
+                (schemaOnly == null) ? OPTIONAL_PARAM : schemaOnly,
+                (isEmpty(requiredAssocQualifier)) ? OPTIONAL_PARAM : new JIString(requiredAssocQualifier),
+                (isEmpty(requiredQualifier)) ? OPTIONAL_PARAM : new JIString(requiredQualifier),
+                flagsParam(flags),
+                (objwbemNamedValueSet == null) ? OPTIONAL_PARAM : objwbemNamedValueSet.getDispatch());
     }
 
     /**
@@ -121,6 +128,67 @@ public class SWbemServices extends AbstractSecurityScriptingObject {
         return associatorsOf(objectPath, null, null, null, null, null, null, null, null, null, null);
     }
 
+    /**
+     * Semisynchronous, forward-only version of {@link #associatorsOf(String)}, the returned stream yields each
+     * endpoint as soon as WMI delivers it. Closing the stream also releases the object set,
+     * see {@link SWbemObjectSet#stream()}.
+     * @param objectPath String that contains the object path of the source class or instance.
+     * @return Stream of the endpoints.
+     * @throws WMIException
+     */
+    public Stream<SWbemObject> associatorsOfStream(String objectPath) throws WMIException {
+        return associatorsOf(objectPath, null, null, null, null, null, null, null, null, null,
+                Flags.AssociatorsFlag.wbemFlagReturnImmediately, Flags.AssociatorsFlag.wbemFlagForwardOnly).ownedStream();
+    }
+
+    /**
+     * Asynchronous version of {@link #associatorsOf(String, String, String, String, String, Boolean, Boolean, String, String, SWbemNamedValueSet, cn.chenlichao.wmi4j.consts.Flags.AssociatorsFlag...)},
+     * runs on the default executor of {@link WMIExecutors}.
+     * @return Future of the {@link SWbemObjectSet}, completed exceptionally with {@link WMIException} if failed.
+     */
+    public CompletableFuture<SWbemObjectSet> associatorsOfAsync(final String objectPath, final String assocClass,
+            final String resultClass, final String resultRole, final String role, final Boolean classesOnly,
+            final Boolean schemaOnly, final String requiredAssocQualifier, final String requiredQualifier,
+            final SWbemNamedValueSet objwbemNamedValueSet, final Flags.AssociatorsFlag... flags) {
+        return associatorsOfAsync(WMIExecutors.getDefaultExecutor(), objectPath, assocClass, resultClass, resultRole,
+                role, classesOnly, schemaOnly, requiredAssocQualifier, requiredQualifier, objwbemNamedValueSet, flags);
+    }
+
+    /**
+     * Asynchronous version of {@link #associatorsOf(String, String, String, String, String, Boolean, Boolean, String, String, SWbemNamedValueSet, cn.chenlichao.wmi4j.consts.Flags.AssociatorsFlag...)}.
+     * @param executor Executor the call runs on.
+     * @return Future of the {@link SWbemObjectSet}, completed exceptionally with {@link WMIException} if failed.
+     */
+    public CompletableFuture<SWbemObjectSet> associatorsOfAsync(final Executor executor, final String objectPath,
+            final String assocClass, final String resultClass, final String resultRole, final String role,
+            final Boolean classesOnly, final Boolean schemaOnly, final String requiredAssocQualifier,
+            final String requiredQualifier, final SWbemNamedValueSet objwbemNamedValueSet,
+            final Flags.AssociatorsFlag... flags) {
+        return WMIExecutors.submit(executor, new Callable<SWbemObjectSet>() {
+            @Override
+            public SWbemObjectSet call() throws Exception {
+                return associatorsOf(objectPath, assocClass, resultClass, resultRole, role, classesOnly, schemaOnly,
+                        requiredAssocQualifier, requiredQualifier, objwbemNamedValueSet, flags);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link #associatorsOf(String)}, runs on the default executor of {@link WMIExecutors}.
+     */
+    public CompletableFuture<SWbemObjectSet> associatorsOfAsync(final String objectPath) {
+        return associatorsOfAsync(WMIExecutors.getDefaultExecutor(), objectPath, null, null, null, null, null, null,
+                null, null, null);
+    }
+
+    /**
+     * Asynchronous version of {@link #associatorsOf(String)}.
+     * @param executor Executor the call runs on.
+     */
+    public CompletableFuture<SWbemObjectSet> associatorsOfAsync(final Executor executor, final String objectPath) {
+        return associatorsOfAsync(executor, objectPath, null, null, null, null, null, null, null, null, null);
+    }
+
     /**
      * deletes the class or instance that is specified in the object path. You can only delete objects in the current namespace.
      * If a dynamic provider supplies the class or instance, you cannot delete this object
@@ -144,7 +212,7 @@ public class SWbemServices extends AbstractSecurityScriptingObject {
             throw new IllegalArgumentException("Flags must be zero.");
         }
         callMethod(null, "Delete", new JIString(objectPath), 0,
-                (objWbemNamedValueSet == null) ? JIVariant.OPTIONAL_PARAM() : objWbemNamedValueSet.getDispatch());
+                (objWbemNamedValueSet == null) ? OPTIONAL_PARAM : objWbemNamedValueSet.getDispatch());
     }
 
     /**
@@ -154,6 +222,47 @@ public class SWbemServices extends AbstractSecurityScriptingObject {
         delete(objectPath, null, null);
     }
 
+    /**
+     * Asynchronous version of {@link #delete(String, Integer, SWbemNamedValueSet)},
+     * runs on the default executor of {@link WMIExecutors}.
+     * @return Future completed when the object is deleted, or exceptionally with {@link WMIException} if failed.
+     */
+    public CompletableFuture<Void> deleteAsync(final String objectPath, final Integer flags,
+            final SWbemNamedValueSet objWbemNamedValueSet) {
+        return deleteAsync(WMIExecutors.getDefaultExecutor(), objectPath, flags, objWbemNamedValueSet);
+    }
+
+    /**
+     * Asynchronous version of {@link #delete(String, Integer, SWbemNamedValueSet)}.
+     * @param executor Executor the call runs on.
+     * @return Future completed when the object is deleted, or exceptionally with {@link WMIException} if failed.
+     */
+    public CompletableFuture<Void> deleteAsync(final Executor executor, final String objectPath, final Integer flags,
+            final SWbemNamedValueSet objWbemNamedValueSet) {
+        return WMIExecutors.submit(executor, new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delete(objectPath, flags, objWbemNamedValueSet);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link #delete(String)}, runs on the default executor of {@link WMIExecutors}.
+     */
+    public CompletableFuture<Void> deleteAsync(final String objectPath) {
+        return deleteAsync(WMIExecutors.getDefaultExecutor(), objectPath, null, null);
+    }
+
+    /**
+     * Asynchronous version of {@link #delete(String)}.
+     * @param executor Executor the call runs on.
+     */
+    public CompletableFuture<Void> deleteAsync(final Executor executor, final String objectPath) {
+        return deleteAsync(executor, objectPath, null, null);
+    }
+
     /**
      * Executes a method that is exported by a method provider.
      * This method blocks while the method that is forwarded to the appropriate provider executes.
@@ -184,9 +293,9 @@ public class SWbemServices extends AbstractSecurityScriptingObject {
             throw new IllegalArgumentException("Flags must be zero.");
         }
         return callMethod(SWbemObject.class, "ExecMethod", new JIString(objectPath), new JIString(methodName),
-                (inParameters == null) ? JIVariant.OPTIONAL_PARAM() : inParameters.getDispatch(),
-                JIVariant.OPTIONAL_PARAM(),
-                (objWbemNamedValueSet == null) ? JIVariant.OPTIONAL_PARAM() : objWbemNamedValueSet.getDispatch());
+                (inParameters == null) ? OPTIONAL_PARAM : inParameters.getDispatch(),
+                OPTIONAL_PARAM,
+                (objWbemNamedValueSet == null) ? OPTIONAL_PARAM : objWbemNamedValueSet.getDispatch());
     }
 
     /**
@@ -203,6 +312,66 @@ public class SWbemServices extends AbstractSecurityScriptingObject {
         return execMethod(objectPath, methodName, null, null, null);
     }
 
+    /**
+     * Asynchronous version of {@link #execMethod(String, String, SWbemObject, Integer, SWbemNamedValueSet)},
+     * runs on the default executor of {@link WMIExecutors}.
+     * @return Future of the out parameters, completed exceptionally with {@link WMIException} if failed.
+     */
+    public CompletableFuture<SWbemObject> execMethodAsync(final String objectPath, final String methodName,
+            final SWbemObject inParameters, final Integer flags, final SWbemNamedValueSet objWbemNamedValueSet) {
+        return execMethodAsync(WMIExecutors.getDefaultExecutor(), objectPath, methodName, inParameters, flags,
+                objWbemNamedValueSet);
+    }
+
+    /**
+     * Asynchronous version of {@link #execMethod(String, String, SWbemObject, Integer, SWbemNamedValueSet)}.
+     * @param executor Executor the call runs on.
+     * @return Future of the out parameters, completed exceptionally with {@link WMIException} if failed.
+     */
+    public CompletableFuture<SWbemObject> execMethodAsync(final Executor executor, final String objectPath,
+            final String methodName, final SWbemObject inParameters, final Integer flags,
+            final SWbemNamedValueSet objWbemNamedValueSet) {
+        return WMIExecutors.submit(executor, new Callable<SWbemObject>() {
+            @Override
+            public SWbemObject call() throws Exception {
+                return execMethod(objectPath, methodName, inParameters, flags, objWbemNamedValueSet);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link #execMethod(String, String, SWbemObject)}, runs on the default executor of {@link WMIExecutors}.
+     */
+    public CompletableFuture<SWbemObject> execMethodAsync(final String objectPath, final String methodName,
+            final SWbemObject inParameters) {
+        return execMethodAsync(WMIExecutors.getDefaultExecutor(), objectPath, methodName, inParameters, null, null);
+    }
+
+    /**
+     * Asynchronous version of {@link #execMethod(String, String, SWbemObject)}.
+     * @param executor Executor the call runs on.
+     */
+    public CompletableFuture<SWbemObject> execMethodAsync(final Executor executor, final String objectPath,
+            final String methodName, final SWbemObject inParameters) {
+        return execMethodAsync(executor, objectPath, methodName, inParameters, null, null);
+    }
+
+    /**
+     * Asynchronous version of {@link #execMethod(String, String)}, runs on the default executor of {@link WMIExecutors}.
+     */
+    public CompletableFuture<SWbemObject> execMethodAsync(final String objectPath, final String methodName) {
+        return execMethodAsync(WMIExecutors.getDefaultExecutor(), objectPath, methodName, null, null, null);
+    }
+
+    /**
+     * Asynchronous version of {@link #execMethod(String, String)}.
+     * @param executor Executor the call runs on.
+     */
+    public CompletableFuture<SWbemObject> execMethodAsync(final Executor executor, final String objectPath,
+            final String methodName) {
+        return execMethodAsync(executor, objectPath, methodName, null, null, null);
+    }
+
     /**
      * Executes a query to receive events. The call returns immediately.
      * The user can poll the returned enumerator for events as they arrive.
@@ -234,8 +403,8 @@ public class SWbemServices extends AbstractSecurityScriptingObject {
             throw new IllegalArgumentException("Flags must be 48.");
         }
         return callMethod(SWbemEventSource.class, "ExecNotificationQuery", new JIString(queryString),
-                JIVariant.OPTIONAL_PARAM(), JIVariant.OPTIONAL_PARAM(),
-                (objWbemNamedValueSet == null) ? JIVariant.OPTIONAL_PARAM() : objWbemNamedValueSet.getDispatch());
+                OPTIONAL_PARAM, OPTIONAL_PARAM,
+                (objWbemNamedValueSet == null) ? OPTIONAL_PARAM : objWbemNamedValueSet.getDispatch());
     }
 
     /**
@@ -270,20 +439,10 @@ public class SWbemServices extends AbstractSecurityScriptingObject {
         if(queryLanguage != null && !"WQL".equals(queryLanguage)) {
             throw new IllegalArgumentException("QueryLanguage must be \"WQL\".");
         }
-        Integer iFlags = null;
-        if(flags != null) {
-            for(Flags.ExecQueryFlag flag : flags) {
-                if(iFlags == null) {
-                    iFlags = flag.getValue();
-                } else {
-                    iFlags += flag.getValue();
-                }
-            }
-        }
         return callMethod(SWbemObjectSet.class, "ExecQuery",
-                new JIString(queryString), JIVariant.OPTIONAL_PARAM(),
-                (iFlags == null) ? JIVariant.OPTIONAL_PARAM() : iFlags,
-                (objWbemNamedValueSet == null) ? JIVariant.OPTIONAL_PARAM() : objWbemNamedValueSet.getDispatch());
+                new JIString(queryString), OPTIONAL_PARAM,
+                flagsParam(flags),
+                (objWbemNamedValueSet == null) ? OPTIONAL_PARAM : objWbemNamedValueSet.getDispatch());
     }
 
     /**
@@ -293,6 +452,70 @@ public class SWbemServices extends AbstractSecurityScriptingObject {
         return execQuery(queryString, null, null, null);
     }
 
+    /**
+     * Semisynchronous, forward-only version of {@link #execQuery(String)}, the returned stream yields each object
+     * as soon as WMI delivers it, and ends when the enumerator is exhausted. WMI does not need to hold the
+     * whole result set, so use this method for queries that return large amounts of objects, such as Win32_NTLogEvent.
+     * Closing the stream also releases the object set, see {@link SWbemObjectSet#stream()}.
+     * @param queryString String that contains the text of the query. This parameter cannot be blank.
+     * @param objWbemNamedValueSet <strong>[Optional]</strong> See {@link #execQuery(String, String, SWbemNamedValueSet, cn.chenlichao.wmi4j.consts.Flags.ExecQueryFlag...)}
+     * @return Stream of the objects of the query result.
+     * @throws WMIException
+     */
+    public Stream<SWbemObject> execQueryStream(String queryString, SWbemNamedValueSet objWbemNamedValueSet) throws WMIException {
+        return execQuery(queryString, null, objWbemNamedValueSet,
+                Flags.ExecQueryFlag.wbemFlagReturnImmediately, Flags.ExecQueryFlag.wbemFlagForwardOnly).ownedStream();
+    }
+
+    /**
+     * Use default parameters for method {@link #execQueryStream(String, SWbemNamedValueSet)}
+     */
+    public Stream<SWbemObject> execQueryStream(String queryString) throws WMIException {
+        return execQueryStream(queryString, null);
+    }
+
+    /**
+     * Asynchronous version of {@link #execQuery(String, String, SWbemNamedValueSet, cn.chenlichao.wmi4j.consts.Flags.ExecQueryFlag...)},
+     * runs on the default executor of {@link WMIExecutors}.
+     * @return Future of the {@link SWbemObjectSet}, completed exceptionally with {@link WMIException} if failed.
+     */
+    public CompletableFuture<SWbemObjectSet> execQueryAsync(final String queryString, final String queryLanguage,
+            final SWbemNamedValueSet objWbemNamedValueSet, final Flags.ExecQueryFlag... flags) {
+        return execQueryAsync(WMIExecutors.getDefaultExecutor(), queryString, queryLanguage, objWbemNamedValueSet,
+                flags);
+    }
+
+    /**
+     * Asynchronous version of {@link #execQuery(String, String, SWbemNamedValueSet, cn.chenlichao.wmi4j.consts.Flags.ExecQueryFlag...)}.
+     * @param executor Executor the call runs on.
+     * @return Future of the {@link SWbemObjectSet}, completed exceptionally with {@link WMIException} if failed.
+     */
+    public CompletableFuture<SWbemObjectSet> execQueryAsync(final Executor executor, final String queryString,
+            final String queryLanguage, final SWbemNamedValueSet objWbemNamedValueSet,
+            final Flags.ExecQueryFlag... flags) {
+        return WMIExecutors.submit(executor, new Callable<SWbemObjectSet>() {
+            @Override
+            public SWbemObjectSet call() throws Exception {
+                return execQuery(queryString, queryLanguage, objWbemNamedValueSet, flags);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link #execQuery(String)}, runs on the default executor of {@link WMIExecutors}.
+     */
+    public CompletableFuture<SWbemObjectSet> execQueryAsync(final String queryString) {
+        return execQueryAsync(WMIExecutors.getDefaultExecutor(), queryString, null, null);
+    }
+
+    /**
+     * Asynchronous version of {@link #execQuery(String)}.
+     * @param executor Executor the call runs on.
+     */
+    public CompletableFuture<SWbemObjectSet> execQueryAsync(final Executor executor, final String queryString) {
+        return execQueryAsync(executor, queryString, null, null);
+    }
+
     /**
      * Retrieves an object, that is either a class definition or an instance, based on the object path.
      * This method retrieves only objects from the namespace that is associated with the current SWbemServices object.
@@ -309,20 +532,10 @@ public class SWbemServices extends AbstractSecurityScriptingObject {
      * @throws WMIException
      */
     public SWbemObject get(String objectPath, SWbemNamedValueSet objWbemNamedValueSet, Flags.GetFlag... flags) throws WMIException {
-        Integer iFlags = null;
-        if(flags != null) {
-            for(Flags.GetFlag flag : flags) {
-                if(iFlags == null) {
-                    iFlags = flag.getValue();
-                } else {
-                    iFlags += flag.getValue();
-                }
-            }
-        }
         return callMethod(SWbemObject.class, "Get",
-                StringUtils.isEmpty(objectPath) ? JIVariant.OPTIONAL_PARAM() : new JIString(objectPath),
-                (iFlags == null) ? JIVariant.OPTIONAL_PARAM() : iFlags,
-                (objWbemNamedValueSet == null) ? JIVariant.OPTIONAL_PARAM() : objWbemNamedValueSet.getDispatch());
+                StringUtils.isEmpty(objectPath) ? OPTIONAL_PARAM : new JIString(objectPath),
+                flagsParam(flags),
+                (objWbemNamedValueSet == null) ? OPTIONAL_PARAM : objWbemNamedValueSet.getDispatch());
     }
 
     /**
@@ -332,6 +545,46 @@ public class SWbemServices extends AbstractSecurityScriptingObject {
         return get(objectPath, null, null);
     }
 
+    /**
+     * Asynchronous version of {@link #get(String, SWbemNamedValueSet, cn.chenlichao.wmi4j.consts.Flags.GetFlag...)},
+     * runs on the default executor of {@link WMIExecutors}.
+     * @return Future of the {@link SWbemObject}, completed exceptionally with {@link WMIException} if failed.
+     */
+    public CompletableFuture<SWbemObject> getAsync(final String objectPath,
+            final SWbemNamedValueSet objWbemNamedValueSet, final Flags.GetFlag... flags) {
+        return getAsync(WMIExecutors.getDefaultExecutor(), objectPath, objWbemNamedValueSet, flags);
+    }
+
+    /**
+     * Asynchronous version of {@link #get(String, SWbemNamedValueSet, cn.chenlichao.wmi4j.consts.Flags.GetFlag...)}.
+     * @param executor Executor the call runs on.
+     * @return Future of the {@link SWbemObject}, completed exceptionally with {@link WMIException} if failed.
+     */
+    public CompletableFuture<SWbemObject> getAsync(final Executor executor, final String objectPath,
+            final SWbemNamedValueSet objWbemNamedValueSet, final Flags.GetFlag... flags) {
+        return WMIExecutors.submit(executor, new Callable<SWbemObject>() {
+            @Override
+            public SWbemObject call() throws Exception {
+                return get(objectPath, objWbemNamedValueSet, flags);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link #get(String)}, runs on the default executor of {@link WMIExecutors}.
+     */
+    public CompletableFuture<SWbemObject> getAsync(final String objectPath) {
+        return getAsync(WMIExecutors.getDefaultExecutor(), objectPath, null);
+    }
+
+    /**
+     * Asynchronous version of {@link #get(String)}.
+     * @param executor Executor the call runs on.
+     */
+    public CompletableFuture<SWbemObject> getAsync(final Executor executor, final String objectPath) {
+        return getAsync(executor, objectPath, null);
+    }
+
     /**
      * Creates an enumerator that
      * returns the instances of a specified class according to the user-specified selection criteria.
@@ -352,20 +605,10 @@ public class SWbemServices extends AbstractSecurityScriptingObject {
         if(StringUtils.isEmpty(className)) {
             throw new IllegalArgumentException("Class name is empty.");
         }
-        Integer iFlags = null;
-        if(flags != null) {
-            for(Flags.InstancesFlag flag : flags) {
-                if(iFlags == null) {
-                    iFlags = flag.getValue();
-                } else {
-                    iFlags += flag.getValue();
-                }
-            }
-        }
         return callMethod(SWbemObjectSet.class, "InstancesOf",
                 new JIString(className),
-                (iFlags == null) ? JIVariant.OPTIONAL_PARAM() : iFlags,
-                (objWbemNamedValueSet == null) ? JIVariant.OPTIONAL_PARAM() : objWbemNamedValueSet.getDispatch());
+                flagsParam(flags),
+                (objWbemNamedValueSet == null) ? OPTIONAL_PARAM : objWbemNamedValueSet.getDispatch());
     }
 
     /**
@@ -375,6 +618,59 @@ public class SWbemServices extends AbstractSecurityScriptingObject {
         return instancesOf(className, null, null);
     }
 
+    /**
+     * Semisynchronous, forward-only version of {@link #instancesOf(String)}, the returned stream yields each instance
+     * as soon as WMI delivers it. Closing the stream also releases the object set,
+     * see {@link SWbemObjectSet#stream()}.
+     * @param className String that contains the name of the class for which instances are desired.
+     * @return Stream of the instances.
+     * @throws WMIException
+     */
+    public Stream<SWbemObject> instancesOfStream(String className) throws WMIException {
+        return instancesOf(className, null,
+                Flags.InstancesFlag.wbemFlagReturnImmediately, Flags.InstancesFlag.wbemFlagForwardOnly).ownedStream();
+    }
+
+    /**
+     * Asynchronous version of {@link #instancesOf(String, SWbemNamedValueSet, cn.chenlichao.wmi4j.consts.Flags.InstancesFlag...)},
+     * runs on the default executor of {@link WMIExecutors}.
+     * @return Future of the {@link SWbemObjectSet}, completed exceptionally with {@link WMIException} if failed.
+     */
+    public CompletableFuture<SWbemObjectSet> instancesOfAsync(final String className,
+            final SWbemNamedValueSet objWbemNamedValueSet, final Flags.InstancesFlag... flags) {
+        return instancesOfAsync(WMIExecutors.getDefaultExecutor(), className, objWbemNamedValueSet, flags);
+    }
+
+    /**
+     * Asynchronous version of {@link #instancesOf(String, SWbemNamedValueSet, cn.chenlichao.wmi4j.consts.Flags.InstancesFlag...)}.
+     * @param executor Executor the call runs on.
+     * @return Future of the {@link SWbemObjectSet}, completed exceptionally with {@link WMIException} if failed.
+     */
+    public CompletableFuture<SWbemObjectSet> instancesOfAsync(final Executor executor, final String className,
+            final SWbemNamedValueSet objWbemNamedValueSet, final Flags.InstancesFlag... flags) {
+        return WMIExecutors.submit(executor, new Callable<SWbemObjectSet>() {
+            @Override
+            public SWbemObjectSet call() throws Exception {
+                return instancesOf(className, objWbemNamedValueSet, flags);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link #instancesOf(String)}, runs on the default executor of {@link WMIExecutors}.
+     */
+    public CompletableFuture<SWbemObjectSet> instancesOfAsync(final String className) {
+        return instancesOfAsync(WMIExecutors.getDefaultExecutor(), className, null);
+    }
+
+    /**
+     * Asynchronous version of {@link #instancesOf(String)}.
+     * @param executor Executor the call runs on.
+     */
+    public CompletableFuture<SWbemObjectSet> instancesOfAsync(final Executor executor, final String className) {
+        return instancesOfAsync(executor, className, null);
+    }
+
     /**
      * Returns a collection of all association classes or instances that refer to a specific source class or instance.
      * This method performs the same function that the REFERENCES OF WQL query performs.
@@ -415,24 +711,14 @@ public class SWbemServices extends AbstractSecurityScriptingObject {
         if(isEmpty(objectPath)) {
             throw new IllegalArgumentException("Object path is empty.");
         }
-        Integer iFlags = null;
-        if(flags != null) {
-            for(Flags.ReferenceFlag flag : flags) {
-                if(iFlags == null) {
-                    iFlags = flag.getValue();
-                } else {
-                    iFlags += flag.getValue();
-                }
-            }
-        }
         return callMethod(SWbemObjectSet.class, "ReferencesTo", new JIString(objectPath),
-                (isEmpty(resultClass)) ? JIVariant.OPTIONAL_PARAM() : new JIString(resultClass),
-                (isEmpty(role)) ? JIVariant.OPTIONAL_PARAM() : new JIString(role),
-                (classesOnly == null) ? JIVariant.OPTIONAL_PARAM() : classesOnly,
-                (schemaOnly == null) ? JIVariant.OPTIONAL_PARAM() : schemaOnly,
-                (isEmpty(requiredQualifier)) ? JIVariant.OPTIONAL_PARAM() : new JIString(requiredQualifier),
-                (iFlags == null) ? JIVariant.OPTIONAL_PARAM() : iFlags,
-                (objWbemNamedValueSet == null) ? JIVariant.OPTIONAL_PARAM() : objWbemNamedValueSet.getDispatch());
+                (isEmpty(resultClass)) ? OPTIONAL_PARAM : new JIString(resultClass),
+                (isEmpty(role)) ? OPTIONAL_PARAM : new JIString(role),
+                (classesOnly == null) ? OPTIONAL_PARAM : classesOnly,
+                (schemaOnly == null) ? OPTIONAL_PARAM : schemaOnly,
+                (isEmpty(requiredQualifier)) ? OPTIONAL_PARAM : new JIString(requiredQualifier),
+                flagsParam(flags),
+                (objWbemNamedValueSet == null) ? OPTIONAL_PARAM : objWbemNamedValueSet.getDispatch());
     }
 
     /**
@@ -442,6 +728,19 @@ public class SWbemServices extends AbstractSecurityScriptingObject {
         return referencesTo(objectPath, null, null, null, null, null, null, null);
     }
 
+    /**
+     * Semisynchronous, forward-only version of {@link #referencesTo(String)}, the returned stream yields each
+     * association as soon as WMI delivers it. Closing the stream also releases the object set,
+     * see {@link SWbemObjectSet#stream()}.
+     * @param objectPath String that contains the object path of the source class or instance.
+     * @return Stream of the associations.
+     * @throws WMIException
+     */
+    public Stream<SWbemObject> referencesToStream(String objectPath) throws WMIException {
+        return referencesTo(objectPath, null, null, null, null, null, null,
+                Flags.ReferenceFlag.wbemFlagReturnImmediately, Flags.ReferenceFlag.wbemFlagForwardOnly).ownedStream();
+    }
+
     /**
      * Returns an {@link SWbemObjectSet} object. This object is a collection of subclasses of a specified class.
      * Items in the returned collection can be obtained using standard collection methods.
@@ -466,19 +765,9 @@ public class SWbemServices extends AbstractSecurityScriptingObject {
      * @throws WMIException
      */
     public SWbemObjectSet subclassesOf(String superClass, SWbemNamedValueSet objWbemNamedValueSet, Flags.SubclassesFlag... flags) throws WMIException {
-        Integer iFlags = null;
-        if(flags != null) {
-            for(Flags.SubclassesFlag flag : flags) {
-                if(iFlags == null) {
-                    iFlags = flag.getValue();
-                } else {
-                    iFlags += flag.getValue();
-                }
-            }
-        }
         return callMethod(SWbemObjectSet.class, "SubclassesOf",
-                (isEmpty(superClass)) ? JIVariant.OPTIONAL_PARAM() : new JIString(superClass),
-                (iFlags == null) ? JIVariant.OPTIONAL_PARAM() : iFlags,
-                (objWbemNamedValueSet == null) ? JIVariant.OPTIONAL_PARAM() : objWbemNamedValueSet.getDispatch());
+                (isEmpty(superClass)) ? OPTIONAL_PARAM : new JIString(superClass),
+                flagsParam(flags),
+                (objWbemNamedValueSet == null) ? OPTIONAL_PARAM : objWbemNamedValueSet.getDispatch());
     }
 }
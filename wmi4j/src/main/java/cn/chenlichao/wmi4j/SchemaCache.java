@@ -0,0 +1,442 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j;
+
+import cn.chenlichao.wmi4j.consts.WbemCimTypeEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of class definitions for one connection.
+ *
+ * <p>Schema never changes between OS or application updates, but reading it through the object model costs
+ * several round trips every time: {@link SWbemObject#getInParametersByMethodName(String)} calls Methods_, Item,
+ * InParameters and SpawnInstance_, and {@link SWbemProperty#getCIMType()} and {@link SWbemProperty#isArray()}
+ * are a call each. This cache loads each class once with Get and GetText_, keeps the class object and the
+ * in-parameter classes of its methods, and serves them until the entry is older than the TTL or invalidated.
+ * Use {@link #spawnInParameters(String, String)}, {@link #getCIMType(String, String)} and
+ * {@link #isArray(String, String)} instead of those calls.</p>
+ *
+ * <p>The cached objects are owned by the cache, they are not released by the {@link WMIScope} open when they are
+ * loaded. They are released when their class is invalidated or expires, and when the cache is closed.</p>
+ *
+ * <pre>
+ *     SchemaCache schema = new SchemaCache(locator, 60 * 60 * 1000);
+ *     SWbemObject inParams = schema.spawnInParameters("Win32_Process", "Create");
+ *     inParams.setPropertyByName("CommandLine", new WMIVariant("notepad.exe"));
+ *     services.execMethod("Win32_Process", "Create", inParams);
+ * </pre>
+ */
+public class SchemaCache implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaCache.class);
+
+    /** wbemObjectTextFormatCIMDTD20 */
+    private static final int WBEM_OBJECT_TEXT_FORMAT_CIM_DTD20 = 1;
+    private static final int WBEM_E_NOT_FOUND = 0x80041002;
+
+    private final SWbemLocator locator;
+    private final SWbemServices services;
+    private final long ttlNanos;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+
+    private volatile SWbemNamedValueSet textContext;
+    private volatile boolean textContextFailed;
+    private volatile boolean closed;
+
+    /**
+     * @param locator Connected locator.
+     * @param ttlMs How long a class definition is cached, zero or negative to cache until invalidated.
+     * @exception IllegalStateException If the locator is not connected.
+     */
+    public SchemaCache(SWbemLocator locator, long ttlMs) {
+        this(locator, locator.getSWbemServices(), ttlMs);
+    }
+
+    /**
+     * Create a cache without a locator. The class text is read without qualifiers,
+     * so the key qualifiers are read one by one when a class is loaded.
+     * @param services Connection to load the classes from.
+     * @param ttlMs How long a class definition is cached, zero or negative to cache until invalidated.
+     */
+    public SchemaCache(SWbemServices services, long ttlMs) {
+        this(null, services, ttlMs);
+    }
+
+    private SchemaCache(SWbemLocator locator, SWbemServices services, long ttlMs) {
+        if(services == null) {
+            throw new IllegalArgumentException("Services is null.");
+        }
+        this.locator = locator;
+        this.services = services;
+        this.ttlNanos = (ttlMs <= 0) ? 0 : ttlMs * 1000000L;
+    }
+
+    /**
+     * Get the definition of a class.
+     * @param className Class name, case insensitive.
+     * @return The class definition.
+     * @throws WMIException Failed to load the class, such as wbemErrNotFound if it does not exist.
+     */
+    public WbemClassSchema getClassSchema(String className) throws WMIException {
+        return getEntry(className).schema;
+    }
+
+    /**
+     * Get the class object. The returned object is shared, don't modify it, and it is released when the class is
+     * invalidated or expires.
+     * @param className Class name, case insensitive.
+     * @return The class object.
+     * @throws WMIException Failed to load the class.
+     */
+    public SWbemObject getClassObject(String className) throws WMIException {
+        return getEntry(className).classObject;
+    }
+
+    /**
+     * Get the CIM type of a property from the cached class definition, instead of calling
+     * {@link SWbemProperty#getCIMType()}.
+     * @param className Class name, case insensitive.
+     * @param propertyName Property name, case insensitive.
+     * @return The CIM type.
+     * @throws WMIException Failed to load the class, or wbemErrNotFound if the class has no such property.
+     */
+    public WbemCimTypeEnum getCIMType(String className, String propertyName) throws WMIException {
+        return getPropertySchema(className, propertyName).getCimType();
+    }
+
+    /**
+     * Whether a property is an array, from the cached class definition, instead of calling
+     * {@link SWbemProperty#isArray()}.
+     * @param className Class name, case insensitive.
+     * @param propertyName Property name, case insensitive.
+     * @return True if the property has an array type.
+     * @throws WMIException Failed to load the class, or wbemErrNotFound if the class has no such property.
+     */
+    public boolean isArray(String className, String propertyName) throws WMIException {
+        return getPropertySchema(className, propertyName).isArray();
+    }
+
+    /**
+     * Create a new instance of the in parameters of a method, with a single SpawnInstance_ call once the method is
+     * cached. It replaces {@link SWbemObject#getInParametersByMethodName(String)}.
+     * @param className Class that defines the method.
+     * @param methodName Method name.
+     * @return A new in parameters object, or null if the method takes no parameters.
+     * @throws WMIException Failed to load the class or the method.
+     */
+    public SWbemObject spawnInParameters(String className, String methodName) throws WMIException {
+        Entry entry = getEntry(className);
+        String key = methodName.toLowerCase(Locale.ENGLISH);
+        SWbemObject inParameters = entry.inParameters.get(key);
+        if(inParameters == null) {
+            WbemClassSchema.Method method = entry.schema.getMethod(methodName);
+            // Parameter directions are only known if the text included the qualifiers
+            if(entry.qualified && method != null && method.getInParameters().isEmpty()) {
+                return null;
+            }
+            SWbemMethodSet methods = entry.classObject.getMethods();
+            try {
+                SWbemMethod methodObject = methods.item(methodName);
+                try {
+                    inParameters = WMIScope.adopt(methodObject.getInParameters());
+                } finally {
+                    methodObject.close();
+                }
+            } finally {
+                methods.close();
+            }
+            SWbemObject cached = entry.cacheInParameters(key, inParameters);
+            if(cached == null) {
+                // the entry has been released meanwhile
+                try {
+                    return inParameters.spawnInstance();
+                } finally {
+                    inParameters.close();
+                }
+            }
+            inParameters = cached;
+        }
+        return inParameters.spawnInstance();
+    }
+
+    /**
+     * Remove a class from the cache and release its objects, it is loaded again on next access.
+     * @param className Class name, case insensitive.
+     */
+    public void invalidate(String className) {
+        Entry entry = entries.remove(className.toLowerCase(Locale.ENGLISH));
+        if(entry != null) {
+            entry.release();
+        }
+    }
+
+    /**
+     * Remove all classes from the cache and release their objects.
+     */
+    public void invalidateAll() {
+        for(Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if(entries.remove(entry.getKey(), entry.getValue())) {
+                entry.getValue().release();
+            }
+        }
+    }
+
+    /**
+     * Release the cached objects, the cache can not be used afterwards.
+     */
+    @Override
+    public void close() {
+        SWbemNamedValueSet context;
+        synchronized (this) {
+            if(closed) {
+                return;
+            }
+            closed = true;
+            context = textContext;
+            textContext = null;
+        }
+        invalidateAll();
+        if(context != null) {
+            context.close();
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * @return Number of cached classes, including expired ones not accessed since they expired.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return Number of lookups served from the cache.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return Number of lookups that loaded the class from the server.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return Number of entries reloaded because they were older than the TTL.
+     */
+    public long getExpired() {
+        return expired.get();
+    }
+
+    private WbemClassSchema.Property getPropertySchema(String className, String propertyName) throws WMIException {
+        WbemClassSchema.Property property = getEntry(className).schema.getProperty(propertyName);
+        if(property == null) {
+            throw new WMIException(WBEM_E_NOT_FOUND, "Class " + className + " has no property " + propertyName + ".");
+        }
+        return property;
+    }
+
+    private Entry getEntry(String className) throws WMIException {
+        if(className == null || className.isEmpty()) {
+            throw new IllegalArgumentException("Class name is empty.");
+        }
+        if(closed) {
+            throw new IllegalStateException("Schema cache is closed.");
+        }
+        String key = className.toLowerCase(Locale.ENGLISH);
+        Entry entry = entries.get(key);
+        if(entry != null) {
+            if(ttlNanos == 0 || System.nanoTime() - entry.loadedAt < ttlNanos) {
+                hits.incrementAndGet();
+                return entry;
+            }
+            expired.incrementAndGet();
+            if(entries.remove(key, entry)) {
+                entry.release();
+            }
+        }
+        misses.incrementAndGet();
+        entry = load(className);
+        Entry existing = entries.putIfAbsent(key, entry);
+        if(existing != null) {
+            // Loaded by another thread meanwhile
+            entry.release();
+            return existing;
+        }
+        if(closed && entries.remove(key, entry)) {
+            // closed while loading
+            entry.release();
+            throw new IllegalStateException("Schema cache is closed.");
+        }
+        return entry;
+    }
+
+    private Entry load(String className) throws WMIException {
+        logger.debug("Load schema of class {}.", className);
+        SWbemObject classObject = WMIScope.adopt(services.get(className));
+        try {
+            SWbemNamedValueSet context = getTextContext();
+            String xml = classObject.callMethod(String.class, "GetText_", WBEM_OBJECT_TEXT_FORMAT_CIM_DTD20, 0,
+                    (context == null) ? AbstractScriptingObject.OPTIONAL_PARAM : context.getDispatch());
+            WbemClassSchema schema = CimXmlParser.parseClass(xml);
+            boolean qualified = xml.contains("<QUALIFIER");
+            if(!qualified) {
+                schema = withKeys(schema, classObject);
+            }
+            return new Entry(schema, classObject, qualified);
+        } catch (WMIException e) {
+            classObject.close();
+            throw e;
+        } catch (RuntimeException e) {
+            classObject.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The text has no qualifiers if the context could not be created, read the key qualifiers one by one.
+     */
+    private WbemClassSchema withKeys(WbemClassSchema schema, SWbemObject classObject) throws WMIException {
+        List<WbemClassSchema.Property> properties = new ArrayList<WbemClassSchema.Property>();
+        SWbemPropertySet propertySet = classObject.getProperties();
+        try {
+            for(WbemClassSchema.Property property : schema.getProperties()) {
+                properties.add(new WbemClassSchema.Property(property.getName(), property.getCimType(),
+                        property.isArray(), isKey(propertySet, property.getName()), property.getOrigin()));
+            }
+        } finally {
+            propertySet.close();
+        }
+        return new WbemClassSchema(schema.getClassName(), schema.getSuperclass(), schema.getDerivation(),
+                properties, schema.getMethods());
+    }
+
+    private static boolean isKey(SWbemPropertySet propertySet, String name) throws WMIException {
+        SWbemProperty property = null;
+        SWbemQualifierSet qualifiers = null;
+        SWbemQualifier key = null;
+        try {
+            property = propertySet.item(name);
+            qualifiers = property.getQualifiers();
+            key = qualifiers.item("key");
+            return key != null;
+        } catch (WMIException e) {
+            if(e.getErrorCode() != WBEM_E_NOT_FOUND) {
+                throw e;
+            }
+            return false;
+        } finally {
+            for(AbstractScriptingObject object : new AbstractScriptingObject[]{key, qualifiers, property}) {
+                if(object != null) {
+                    object.close();
+                }
+            }
+        }
+    }
+
+    private SWbemNamedValueSet getTextContext() {
+        SWbemNamedValueSet context = textContext;
+        if(context != null || locator == null || textContextFailed) {
+            return context;
+        }
+        synchronized (this) {
+            if(textContext == null && !textContextFailed && !closed) {
+                try {
+                    context = WMIScope.adopt(locator.createObject(SWbemNamedValueSet.class));
+                    try {
+                        context.add("IncludeQualifiers", new WMIVariant(true));
+                    } catch (WMIException e) {
+                        context.close();
+                        throw e;
+                    }
+                    textContext = context;
+                } catch (WMIException e) {
+                    logger.debug("Failed to create GetText_ context, qualifiers are read one by one: {}",
+                            e.getMessage());
+                    textContextFailed = true;
+                }
+            }
+            return textContext;
+        }
+    }
+
+    private static class Entry {
+        final WbemClassSchema schema;
+        final SWbemObject classObject;
+        final boolean qualified;
+        final Map<String, SWbemObject> inParameters = new ConcurrentHashMap<String, SWbemObject>();
+        final long loadedAt = System.nanoTime();
+        private boolean released;
+
+        Entry(WbemClassSchema schema, SWbemObject classObject, boolean qualified) {
+            this.schema = schema;
+            this.classObject = classObject;
+            this.qualified = qualified;
+        }
+
+        /**
+         * @return The in parameters cached for the method, the loaded ones are closed if others were cached first,
+         * or null if the entry has been released.
+         */
+        synchronized SWbemObject cacheInParameters(String key, SWbemObject loaded) {
+            if(released) {
+                return null;
+            }
+            SWbemObject existing = inParameters.get(key);
+            if(existing != null) {
+                loaded.close();
+                return existing;
+            }
+            inParameters.put(key, loaded);
+            return loaded;
+        }
+
+        synchronized void release() {
+            if(released) {
+                return;
+            }
+            released = true;
+            for(SWbemObject object : inParameters.values()) {
+                object.close();
+            }
+            inParameters.clear();
+            classObject.close();
+        }
+    }
+}
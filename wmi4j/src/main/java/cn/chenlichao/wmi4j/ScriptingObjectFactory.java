@@ -0,0 +1,319 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j;
+
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.core.IJIComObject;
+import org.jinterop.dcom.core.JIClsid;
+import org.jinterop.dcom.core.JIComServer;
+import org.jinterop.dcom.core.JISession;
+import org.jinterop.dcom.impls.JIObjectFactory;
+import org.jinterop.dcom.impls.automation.IJIDispatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.UnknownHostException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Creates helper objects ({@link SWbemNamedValueSet}, {@link SWbemLastError}) for one {@link SWbemLocator}.
+ *
+ * <p>j-interop allows one COM server per session, so every activation costs a new session, a remote activation
+ * and an OXID resolution. This factory activates each ProgID only once and keeps the object as a prototype,
+ * further instances are cloned from the prototype with a single call on the existing connection.
+ * Cloned instances are pre-created in background, up to {@link #getPoolSize()} per type.</p>
+ */
+final class ScriptingObjectFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScriptingObjectFactory.class);
+
+    /** Class not registered */
+    static final int REGDB_E_CLASSNOTREG = 0x80040154;
+
+    /**
+     * Activates new objects on the server.
+     */
+    interface Activator {
+
+        /**
+         * @param progId WbemScripting ProgID.
+         * @return The IDispatch of a new object.
+         */
+        IJIDispatch activate(String progId) throws WMIException;
+
+        /**
+         * Release an activated object that is not used, and what its activation holds.
+         */
+        void discard(IJIDispatch dispatch);
+
+        /**
+         * Release all activated objects.
+         */
+        void close();
+    }
+
+    private final Activator activator;
+
+    private final Map<Class<?>, IJIDispatch> prototypes = new HashMap<Class<?>, IJIDispatch>();
+    private final Map<Class<?>, Deque<IJIDispatch>> pools = new HashMap<Class<?>, Deque<IJIDispatch>>();
+    private final Map<Class<?>, Boolean> refilling = new HashMap<Class<?>, Boolean>();
+
+    private volatile int poolSize;
+    private volatile boolean closed;
+
+    /**
+     * @param session Authenticated session of the locator, helper sessions are derived from it.
+     * @param server Computer name or ip of the locator.
+     * @param poolSize Max number of pre-created instances for each type.
+     */
+    ScriptingObjectFactory(JISession session, String server, int poolSize) {
+        this(new SessionActivator(session, server), poolSize);
+    }
+
+    ScriptingObjectFactory(Activator activator, int poolSize) {
+        this.activator = activator;
+        this.poolSize = poolSize;
+    }
+
+    int getPoolSize() {
+        return poolSize;
+    }
+
+    void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * @return Number of pre-created instances of the wrapper class.
+     */
+    synchronized int getPooled(Class<?> type) {
+        Deque<IJIDispatch> pool = pools.get(type);
+        return (pool == null) ? 0 : pool.size();
+    }
+
+    /**
+     * Obtain a new object.
+     * @param type Wrapper class of the object, the ProgID is WbemScripting.&lt;simple name&gt;.
+     * @param cloneMethod Method of the object that returns a copy of itself, null if the object can not be cloned,
+     *                    then every instance is activated.
+     */
+    IJIDispatch create(Class<?> type, String cloneMethod) throws WMIException {
+        if(closed) {
+            throw new WMIException(0, "Locator is disconnected.");
+        }
+        if(cloneMethod == null) {
+            return activator.activate(progIdOf(type));
+        }
+        IJIDispatch pooled = null;
+        synchronized (this) {
+            Deque<IJIDispatch> pool = pools.get(type);
+            if(pool != null) {
+                pooled = pool.pollFirst();
+            }
+        }
+        if(pooled != null) {
+            logger.debug("Reuse pre-created {}.", type.getSimpleName());
+        } else {
+            pooled = cloneOf(type, cloneMethod);
+        }
+        refill(type, cloneMethod);
+        return pooled;
+    }
+
+    /**
+     * Release the prototypes and pre-created objects.
+     */
+    void close() {
+        synchronized (this) {
+            closed = true;
+            prototypes.clear();
+            pools.clear();
+        }
+        activator.close();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    private IJIDispatch cloneOf(Class<?> type, String cloneMethod) throws WMIException {
+        IJIDispatch prototype;
+        synchronized (this) {
+            prototype = prototypes.get(type);
+        }
+        if(prototype == null) {
+            IJIDispatch activated = activator.activate(progIdOf(type));
+            synchronized (this) {
+                prototype = prototypes.get(type);
+                if(prototype == null) {
+                    prototype = activated;
+                    prototypes.put(type, prototype);
+                }
+            }
+            if(prototype != activated) {
+                // Another thread activated it first
+                activator.discard(activated);
+            }
+        }
+        try {
+            IJIComObject clone = prototype.callMethodA(
+                    DispIdCache.getDispId(type, prototype, cloneMethod), new Object[0])[0].getObjectAsComObject();
+            return WrapperFactories.toDispatch(clone);
+        } catch (JIException e) {
+            throw new WMIException(e);
+        }
+    }
+
+    private static String progIdOf(Class<?> type) {
+        return "WbemScripting." + type.getSimpleName();
+    }
+
+    /**
+     * Resolve a ProgID from {@link WbemScriptingClsids}, the remote registry is never read.
+     * @param progId WbemScripting ProgID.
+     * @return The CLSID to activate.
+     * @throws WMIException REGDB_E_CLASSNOTREG if the ProgID is not in the table.
+     */
+    static JIClsid clsidOf(String progId) throws WMIException {
+        if(WbemScriptingClsids.getClsid(progId) == null) {
+            throw new WMIException(REGDB_E_CLASSNOTREG, progId + " is not a creatable WbemScripting object.");
+        }
+        return WbemScriptingClsids.valueOf(progId);
+    }
+
+    private void refill(final Class<?> type, final String cloneMethod) {
+        synchronized (this) {
+            Deque<IJIDispatch> pool = pools.get(type);
+            int size = (pool == null) ? 0 : pool.size();
+            if(closed || size >= poolSize || Boolean.TRUE.equals(refilling.get(type))) {
+                return;
+            }
+            refilling.put(type, Boolean.TRUE);
+        }
+        WMIExecutors.submit(WMIExecutors.getDefaultExecutor(), new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                try {
+                    while (true) {
+                        synchronized (ScriptingObjectFactory.this) {
+                            Deque<IJIDispatch> pool = pools.get(type);
+                            if(closed || (pool != null && pool.size() >= poolSize)) {
+                                return null;
+                            }
+                        }
+                        IJIDispatch created = cloneOf(type, cloneMethod);
+                        synchronized (ScriptingObjectFactory.this) {
+                            if(closed) {
+                                return null;
+                            }
+                            Deque<IJIDispatch> pool = pools.get(type);
+                            if(pool == null) {
+                                pool = new ArrayDeque<IJIDispatch>();
+                                pools.put(type, pool);
+                            }
+                            pool.addLast(created);
+                        }
+                    }
+                } catch (WMIException e) {
+                    logger.debug("Failed to pre-create {}: {}", type.getSimpleName(), e.getMessage());
+                    return null;
+                } finally {
+                    synchronized (ScriptingObjectFactory.this) {
+                        refilling.remove(type);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Activates each object in its own helper session, derived from the session of the locator.
+     */
+    private static final class SessionActivator implements Activator {
+
+        private final JISession session;
+        private final String server;
+        private final List<JISession> sessions = new ArrayList<JISession>();
+
+        SessionActivator(JISession session, String server) {
+            this.session = session;
+            this.server = server;
+        }
+
+        @Override
+        public IJIDispatch activate(String progId) throws WMIException {
+            // Resolved before the helper session is created, so an unknown ProgID costs nothing
+            JIClsid clsid = clsidOf(progId);
+            logger.debug("Activate {} on {}.", progId, server);
+            try {
+                JISession helperSession = JISession.createSession(session);
+                synchronized (this) {
+                    sessions.add(helperSession);
+                }
+                IJIComObject unknown = new JIComServer(clsid, server, helperSession).createInstance();
+                return (IJIDispatch) JIObjectFactory.narrowObject(unknown.queryInterface(IJIDispatch.IID));
+            } catch (JIException e) {
+                throw new WMIException(e);
+            } catch (UnknownHostException e) {
+                throw new WMIException(0, "Unknown host.");
+            }
+        }
+
+        @Override
+        public void discard(IJIDispatch dispatch) {
+            JISession helperSession = dispatch.getAssociatedSession();
+            synchronized (this) {
+                if(!sessions.remove(helperSession)) {
+                    return;
+                }
+            }
+            destroy(helperSession);
+        }
+
+        @Override
+        public void close() {
+            List<JISession> toDestroy;
+            synchronized (this) {
+                toDestroy = new ArrayList<JISession>(sessions);
+                sessions.clear();
+            }
+            for(JISession helperSession : toDestroy) {
+                destroy(helperSession);
+            }
+        }
+
+        private static void destroy(JISession helperSession) {
+            ReferenceCounter.remove(helperSession);
+            try {
+                // Releases the objects of the session
+                JISession.destroySession(helperSession);
+            } catch (JIException e) {
+                logger.debug("Failed to destroy helper session: {}", e.getMessage());
+            }
+        }
+    }
+}
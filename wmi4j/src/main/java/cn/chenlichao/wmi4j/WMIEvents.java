@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j;
+
+import org.jinterop.dcom.core.IJIComObject;
+import org.jinterop.dcom.core.JISession;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Emits the Java Flight Recorder events of the WMI calls, {@link DispatchCallEvent} and {@link ConnectEvent}.
+ *
+ * <p>The events are only created while a recording has them enabled, otherwise a call costs one allocation that
+ * escape analysis removes. On a JVM without JFR the event classes are never loaded and nothing is emitted.
+ * Host and namespace of a call are those of the {@link SWbemLocator} connection of its DCOM session; objects
+ * without a session, like the in-memory ones, have none.</p>
+ */
+final class WMIEvents {
+
+    /**
+     * HRESULT reported for failures that are not COM errors, such as unknown hosts or j-interop runtime exceptions.
+     */
+    static final int E_FAIL = 0x80004005;
+
+    private static final boolean AVAILABLE = isAvailable();
+
+    /** Weakly keyed, a session destroyed without {@link #disconnected(JISession)} is removed once collected. */
+    private static final Map<JISession, String[]> CONNECTIONS =
+            Collections.synchronizedMap(new WeakHashMap<JISession, String[]>());
+
+    private WMIEvents() {
+    }
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, WMIEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Record host and namespace of the calls made in a session, the connection should call
+     * {@link #disconnected(JISession)} when it fails or is closed.
+     */
+    static void connected(JISession session, String host, String namespace) {
+        if(session != null) {
+            CONNECTIONS.put(session, new String[]{host, namespace});
+        }
+    }
+
+    static void disconnected(JISession session) {
+        if(session != null) {
+            CONNECTIONS.remove(session);
+        }
+    }
+
+    /**
+     * @return Number of sessions with a recorded host and namespace.
+     */
+    static int getConnectionCount() {
+        return CONNECTIONS.size();
+    }
+
+    /**
+     * Start the event of a call.
+     * @return The event, or null if JFR does not record it.
+     */
+    static Object beginCall() {
+        if(!AVAILABLE) {
+            return null;
+        }
+        DispatchCallEvent event = new DispatchCallEvent();
+        if(!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commit the event returned by {@link #beginCall()}.
+     */
+    static void commitCall(Object started, IJIComObject comObject, Class<?> wrapper, String member, int hresult) {
+        DispatchCallEvent event = (DispatchCallEvent) started;
+        event.end();
+        if(event.shouldCommit()) {
+            JISession session = comObject.getAssociatedSession();
+            String[] connection = session == null ? null : CONNECTIONS.get(session);
+            if(connection != null) {
+                event.host = connection[0];
+                event.namespace = connection[1];
+            }
+            event.wrapperClass = wrapper;
+            event.member = member;
+            event.hresult = hresult;
+            event.commit();
+        }
+    }
+
+    static Object beginConnect() {
+        if(!AVAILABLE) {
+            return null;
+        }
+        ConnectEvent event = new ConnectEvent();
+        if(!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void commitConnect(Object started, String host, String namespace, int hresult) {
+        ConnectEvent event = (ConnectEvent) started;
+        event.end();
+        if(event.shouldCommit()) {
+            event.host = host;
+            event.namespace = namespace;
+            event.hresult = hresult;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor of the asynchronous methods, such as {@link SWbemServices#execQueryAsync(String)}.
+ *
+ * <p>Each asynchronous call occupies a thread of the executor for a full DCOM round trip.
+ * On JDK 21 or higher, the default executor starts a virtual thread per call, so hundreds of calls can be
+ * in flight without hundreds of platform threads. On older JDKs, the default executor is a cached pool of
+ * daemon threads.</p>
+ * <p><strong>Note: </strong>Before JDK 24, a virtual thread blocked in a synchronized block is pinned to its carrier thread,
+ * and j-interop synchronizes on the session while waiting for the response. If that limits the concurrency,
+ * set a platform thread pool by {@link #setDefaultExecutor(Executor)}.</p>
+ */
+public final class WMIExecutors {
+
+    private static final Logger logger = LoggerFactory.getLogger(WMIExecutors.class);
+
+    private static volatile Executor defaultExecutor;
+
+    private WMIExecutors() {
+    }
+
+    /**
+     * Get the executor used by asynchronous methods.
+     * @return The executor set by {@link #setDefaultExecutor(Executor)}, or the built-in executor if not set.
+     */
+    public static Executor getDefaultExecutor() {
+        Executor executor = defaultExecutor;
+        if(executor == null) {
+            synchronized (WMIExecutors.class) {
+                if(defaultExecutor == null) {
+                    defaultExecutor = createBuiltInExecutor();
+                }
+                executor = defaultExecutor;
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Set the executor used by asynchronous methods. The executor is not shut down by wmi4j.
+     * @param executor The executor, null to restore the built-in executor.
+     */
+    public static void setDefaultExecutor(Executor executor) {
+        defaultExecutor = executor;
+    }
+
+    /**
+     * Run the task on the executor. Objects created by the task belong to the {@link WMIScope} of the caller,
+     * so they are released with the scope that submitted the task.
+     * @param executor Executor the task runs on.
+     * @param task Task to run.
+     * @return Future completed with the result of the task, or exceptionally with the exception thrown by the task.
+     */
+    static <T> CompletableFuture<T> submit(final Executor executor, final Callable<T> task) {
+        if(executor == null) {
+            throw new IllegalArgumentException("Executor is null.");
+        }
+        final WMIScope scope = WMIScope.current();
+        final CompletableFuture<T> future = new CompletableFuture<T>();
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    WMIScope previous = WMIScope.enter(scope);
+                    try {
+                        future.complete(task.call());
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    } finally {
+                        WMIScope.exit(previous);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private static Executor createBuiltInExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService executor = (ExecutorService) method.invoke(null);
+            logger.debug("Use virtual threads for asynchronous methods.");
+            return executor;
+        } catch (NoSuchMethodException e) {
+            logger.debug("Virtual threads are not supported, use platform threads for asynchronous methods.");
+        } catch (Exception e) {
+            logger.warn("Failed to create virtual thread executor, use platform threads for asynchronous methods.", e);
+        }
+        return Executors.newCachedThreadPool(new ThreadFactory() {
+            private final AtomicInteger counter = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "wmi4j-async-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+}
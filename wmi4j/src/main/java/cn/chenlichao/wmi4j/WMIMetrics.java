@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j;
+
+import cn.chenlichao.wmi4j.metrics.MetricsCollector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * Feeds the metrics of the WMI calls to the installed {@link MetricsCollector}.
+ *
+ * <p>The collector is the first provider of {@link MetricsCollector} found by {@link ServiceLoader}, or the one set
+ * by {@link #setCollector(MetricsCollector)}. Without a collector, the calls are not measured at all.</p>
+ *
+ * <p>An operation groups the calls made by the current thread, to measure the round trips of a task:</p>
+ * <pre>
+ *     try (WMIMetrics.Operation operation = WMIMetrics.operation("inventory")) {
+ *         for (SWbemObject service : services.instancesOf("Win32_Service")) {
+ *             service.getPropertyByName("State");
+ *         }
+ *     }
+ * </pre>
+ * Methods made of several calls, like {@link SWbemObject#getPropertyByName(String)}, are operations themselves.
+ * Operations can be nested, the round trips of an inner operation are counted in the enclosing one.
+ * Calls made by the prefetch threads of collections belong to no operation.
+ */
+public final class WMIMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(WMIMetrics.class);
+
+    private static final ThreadLocal<Operation> CURRENT = new ThreadLocal<Operation>();
+    private static final Operation NONE = new Operation(null, null, null);
+
+    private static volatile MetricsCollector collector = load();
+
+    private WMIMetrics() {
+    }
+
+    /**
+     * @return The installed collector, or null.
+     */
+    public static MetricsCollector getCollector() {
+        return collector;
+    }
+
+    /**
+     * Install a collector, replacing the one found by {@link ServiceLoader}.
+     * @param collector The collector, null to stop collecting metrics.
+     */
+    public static void setCollector(MetricsCollector collector) {
+        WMIMetrics.collector = collector;
+    }
+
+    /**
+     * Start an operation on the current thread.
+     * @param name Operation name, the key of its metrics.
+     * @return The operation, it must be closed by the same thread.
+     */
+    public static Operation operation(String name) {
+        MetricsCollector current = collector;
+        if(current == null) {
+            return NONE;
+        }
+        Operation operation = new Operation(current, name, CURRENT.get());
+        CURRENT.set(operation);
+        return operation;
+    }
+
+    static void callCompleted(MetricsCollector collector, Class<?> wrapper, String member, long durationNanos,
+                              int errorCode) {
+        collector.callCompleted(wrapper, member, durationNanos, errorCode);
+        Operation operation = CURRENT.get();
+        if(operation != null) {
+            operation.roundTrips++;
+            if(errorCode != 0) {
+                operation.errorCode = errorCode;
+            }
+        }
+    }
+
+    /**
+     * Count a round trip that is not a call, such as GetIDsOfNames.
+     */
+    static void roundTrip() {
+        if(collector == null) {
+            return;
+        }
+        Operation operation = CURRENT.get();
+        if(operation != null) {
+            operation.roundTrips++;
+        }
+    }
+
+    private static MetricsCollector load() {
+        try {
+            Iterator<MetricsCollector> providers = ServiceLoader.load(MetricsCollector.class).iterator();
+            if(providers.hasNext()) {
+                MetricsCollector provider = providers.next();
+                logger.info("Collect metrics with {}.", provider.getClass().getName());
+                return provider;
+            }
+        } catch (ServiceConfigurationError e) {
+            logger.warn("Failed to load the metrics collector: " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Calls made by a thread between {@link WMIMetrics#operation(String)} and {@link #close()}.
+     */
+    public static final class Operation implements AutoCloseable {
+
+        private final MetricsCollector collector;
+        private final String name;
+        private final Operation parent;
+        private final long start;
+        private int roundTrips;
+        private int errorCode;
+        private boolean closed;
+
+        private Operation(MetricsCollector collector, String name, Operation parent) {
+            this.collector = collector;
+            this.name = name;
+            this.parent = parent;
+            this.start = collector == null ? 0 : System.nanoTime();
+        }
+
+        /**
+         * @return Number of round trips so far, always 0 if no collector was installed when the operation started.
+         */
+        public int getRoundTrips() {
+            return roundTrips;
+        }
+
+        /**
+         * Report the operation to the collector and restore the enclosing operation.
+         */
+        @Override
+        public void close() {
+            if(collector == null || closed) {
+                return;
+            }
+            closed = true;
+            if(CURRENT.get() == this) {
+                if(parent == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(parent);
+                }
+            }
+            if(parent != null) {
+                parent.roundTrips += roundTrips;
+                if(errorCode != 0) {
+                    parent.errorCode = errorCode;
+                }
+            }
+            collector.operationCompleted(name, roundTrips, System.nanoTime() - start, errorCode);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Releases in bulk every WMI object created by the current thread while the scope is open.
+ *
+ * <pre>
+ *     try (WMIScope scope = WMIScope.open()) {
+ *         for (SWbemObject object : services.execQuery("SELECT Name FROM Win32_Process")) {
+ *             ...
+ *         }
+ *     } // the object set, the enumerated objects and their properties are released here
+ * </pre>
+ *
+ * Scopes can be nested, an object belongs to the innermost scope open when it is created.
+ * Use {@link #detach(Object)} to keep an object after the scope is closed. Objects owned by a long-lived holder,
+ * the services of a {@link SWbemLocator}, the connections of a {@link cn.chenlichao.wmi4j.pool.ServicesPool}, the
+ * objects of a {@link SchemaCache} and the event sources of subscriptions, are detached by their holder and survive
+ * the scope.
+ * A scope must be closed by the thread that opened it. Asynchronous methods run their call in the scope of
+ * the calling thread, objects created after the scope is closed are not tracked.
+ */
+public final class WMIScope implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WMIScope.class);
+
+    private static final ThreadLocal<WMIScope> CURRENT = new ThreadLocal<WMIScope>();
+
+    private final WMIScope parent;
+    private final List<AbstractScriptingObject> objects = new ArrayList<AbstractScriptingObject>();
+    private volatile boolean closed;
+
+    private WMIScope(WMIScope parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Open a scope for the current thread.
+     * @return The new scope, it must be closed by the same thread.
+     */
+    public static WMIScope open() {
+        WMIScope scope = new WMIScope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * @return The innermost open scope of the current thread, or null.
+     */
+    public static WMIScope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return Number of objects owned by this scope.
+     */
+    public int size() {
+        synchronized (objects) {
+            return objects.size();
+        }
+    }
+
+    /**
+     * Remove an object from this scope, so it is not released when the scope is closed.
+     * @param object WMI object created in this scope.
+     * @return The object.
+     */
+    public <T> T detach(T object) {
+        synchronized (objects) {
+            for(int i = objects.size() - 1; i >= 0; i--) {
+                if(objects.get(i) == object) {
+                    objects.remove(i);
+                    break;
+                }
+            }
+        }
+        return object;
+    }
+
+    /**
+     * Release the objects of this scope in reverse order of creation, and restore the enclosing scope.
+     * Failures are logged and do not stop the other objects from being released.
+     */
+    @Override
+    public void close() {
+        if(closed) {
+            return;
+        }
+        closed = true;
+        if(CURRENT.get() == this) {
+            if(parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+        List<AbstractScriptingObject> owned;
+        synchronized (objects) {
+            owned = new ArrayList<AbstractScriptingObject>(objects);
+            objects.clear();
+        }
+        int failures = 0;
+        for(int i = owned.size() - 1; i >= 0; i--) {
+            try {
+                owned.get(i).release();
+            } catch (WMIException e) {
+                failures++;
+                logger.debug("Failed to release {}: {}", owned.get(i).getClass().getSimpleName(), e.getMessage());
+            }
+        }
+        if(failures > 0) {
+            logger.warn("Failed to release {} of {} objects.", failures, owned.size());
+        }
+    }
+
+    static void track(AbstractScriptingObject object) {
+        WMIScope scope = CURRENT.get();
+        if(scope != null) {
+            synchronized (scope.objects) {
+                if(!scope.closed) {
+                    scope.objects.add(object);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove an object just created on this thread from the current scope, for long-lived owners such as caches
+     * and pools, which release their objects themselves.
+     * @param object WMI object created on this thread.
+     * @return The object.
+     */
+    static <T extends AbstractScriptingObject> T adopt(T object) {
+        WMIScope scope = CURRENT.get();
+        if(scope != null) {
+            scope.detach(object);
+        }
+        return object;
+    }
+
+    /**
+     * Make the scope current on this thread, used to run a task in the scope of the thread that submitted it.
+     * @param scope Scope of the submitting thread, may be null.
+     * @return The previous scope of this thread, to pass to {@link #exit(WMIScope)}.
+     */
+    static WMIScope enter(WMIScope scope) {
+        WMIScope previous = CURRENT.get();
+        if(scope == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(scope);
+        }
+        return previous;
+    }
+
+    static void exit(WMIScope previous) {
+        enter(previous);
+    }
+}
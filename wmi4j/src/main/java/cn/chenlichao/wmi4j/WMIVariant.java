@@ -21,8 +21,6 @@ package cn.chenlichao.wmi4j;
 
 import org.jinterop.dcom.common.JIException;
 import org.jinterop.dcom.core.JIVariant;
-import org.jinterop.dcom.impls.JIObjectFactory;
-import org.jinterop.dcom.impls.automation.IJIDispatch;
 
 import java.util.Date;
 
@@ -157,8 +155,7 @@ public class WMIVariant {
 
     public SWbemObject getSWbemObjectValue() throws WMIException {
         try {
-            IJIDispatch dispatch = (IJIDispatch) JIObjectFactory.narrowObject(variant.getObjectAsComObject());
-            return new SWbemObject(dispatch);
+            return new SWbemObject(WrapperFactories.toDispatch(variant.getObjectAsComObject()));
         } catch (JIException e) {
             throw new WMIException(e);
         }
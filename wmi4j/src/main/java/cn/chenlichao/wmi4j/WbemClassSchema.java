@@ -0,0 +1,210 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j;
+
+import cn.chenlichao.wmi4j.consts.WbemCimTypeEnum;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable definition of a WMI class: derivation, properties with their CIM types and keys, and method signatures.
+ * Obtained from {@link SchemaCache#getClassSchema(String)}. Names are case insensitive.
+ */
+public final class WbemClassSchema {
+
+    private final String className;
+    private final String superclass;
+    private final List<String> derivation;
+    private final List<Property> properties;
+    private final List<Method> methods;
+    private final Map<String, Property> propertyLookup = new TreeMap<String, Property>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, Method> methodLookup = new TreeMap<String, Method>(String.CASE_INSENSITIVE_ORDER);
+    private final List<String> keyProperties;
+
+    WbemClassSchema(String className, String superclass, List<String> derivation,
+                    List<Property> properties, List<Method> methods) {
+        this.className = className;
+        this.superclass = superclass;
+        this.derivation = Collections.unmodifiableList(new ArrayList<String>(derivation));
+        this.properties = Collections.unmodifiableList(new ArrayList<Property>(properties));
+        this.methods = Collections.unmodifiableList(new ArrayList<Method>(methods));
+        List<String> keys = new ArrayList<String>();
+        for(Property property : properties) {
+            propertyLookup.put(property.getName(), property);
+            if(property.isKey()) {
+                keys.add(property.getName());
+            }
+        }
+        for(Method method : methods) {
+            methodLookup.put(method.getName(), method);
+        }
+        this.keyProperties = Collections.unmodifiableList(keys);
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * @return Name of the parent class, null if this is a root class.
+     */
+    public String getSuperclass() {
+        return superclass;
+    }
+
+    /**
+     * @return Class derivation hierarchy, the first element is the parent class and the last is the dynasty class.
+     */
+    public List<String> getDerivation() {
+        return derivation;
+    }
+
+    /**
+     * @return Non-system properties, in the order the server returned them.
+     */
+    public List<Property> getProperties() {
+        return properties;
+    }
+
+    /**
+     * @param name Property name.
+     * @return The property, or null if the class has no such property.
+     */
+    public Property getProperty(String name) {
+        return propertyLookup.get(name);
+    }
+
+    /**
+     * @return Names of the key properties, empty for a singleton or abstract class.
+     */
+    public List<String> getKeyProperties() {
+        return keyProperties;
+    }
+
+    public List<Method> getMethods() {
+        return methods;
+    }
+
+    /**
+     * @param name Method name.
+     * @return The method, or null if the class has no such method.
+     */
+    public Method getMethod(String name) {
+        return methodLookup.get(name);
+    }
+
+    @Override
+    public String toString() {
+        return "WbemClassSchema{" + className + ", properties=" + properties + ", methods=" + methods + "}";
+    }
+
+    /**
+     * Definition of a property or a method parameter.
+     */
+    public static final class Property {
+        private final String name;
+        private final WbemCimTypeEnum cimType;
+        private final boolean array;
+        private final boolean key;
+        private final String origin;
+
+        Property(String name, WbemCimTypeEnum cimType, boolean array, boolean key, String origin) {
+            this.name = name;
+            this.cimType = cimType;
+            this.array = array;
+            this.key = key;
+            this.origin = origin;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public WbemCimTypeEnum getCimType() {
+            return cimType;
+        }
+
+        public boolean isArray() {
+            return array;
+        }
+
+        public boolean isKey() {
+            return key;
+        }
+
+        /**
+         * @return Name of the class that declares this property, null for method parameters.
+         */
+        public String getOrigin() {
+            return origin;
+        }
+
+        @Override
+        public String toString() {
+            return name + ":" + cimType + (array ? "[]" : "") + (key ? " key" : "");
+        }
+    }
+
+    /**
+     * Signature of a method.
+     */
+    public static final class Method {
+        private final String name;
+        private final WbemCimTypeEnum returnType;
+        private final List<Property> inParameters;
+        private final List<Property> outParameters;
+
+        Method(String name, WbemCimTypeEnum returnType, List<Property> inParameters, List<Property> outParameters) {
+            this.name = name;
+            this.returnType = returnType;
+            this.inParameters = Collections.unmodifiableList(new ArrayList<Property>(inParameters));
+            this.outParameters = Collections.unmodifiableList(new ArrayList<Property>(outParameters));
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return Type of ReturnValue, null if the method returns nothing.
+         */
+        public WbemCimTypeEnum getReturnType() {
+            return returnType;
+        }
+
+        public List<Property> getInParameters() {
+            return inParameters;
+        }
+
+        public List<Property> getOutParameters() {
+            return outParameters;
+        }
+
+        @Override
+        public String toString() {
+            return name + inParameters + "->" + outParameters;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j;
+
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.core.IJIComObject;
+import org.jinterop.dcom.core.JIArray;
+import org.jinterop.dcom.core.JICallBuilder;
+import org.jinterop.dcom.core.JIFlags;
+import org.jinterop.dcom.core.JIVariant;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads elements from an IEnumVARIANT interface in batches.
+ *
+ * <p>{@link org.jinterop.dcom.impls.automation.IJIEnumVariant#next(int)} throws an exception when the enumerator
+ * returns S_FALSE, which is what happens when fewer elements than requested are left, and the elements of that
+ * last partial batch are lost. This class issues the same call itself, so the partial batch can be recovered.</p>
+ */
+final class WbemEnumerator {
+
+    private static final int S_FALSE = 1;
+
+    private static final JIVariant[] EMPTY = new JIVariant[0];
+
+    private final Class<?> wrapper;
+    private final IJIComObject enumObject;
+
+    /**
+     * @param wrapper Wrapper class of the collection, the calls are reported to {@link WMIMetrics} and JFR as its Next member.
+     * @param enumObject The IEnumVARIANT interface of the collection.
+     */
+    WbemEnumerator(Class<?> wrapper, IJIComObject enumObject) {
+        this.wrapper = wrapper;
+        this.enumObject = enumObject;
+    }
+
+    /**
+     * Fetch up to count elements from the enumerator with one round trip.
+     * @param count Max number of elements to fetch.
+     * @return Elements fetched, the array is shorter than count if the enumerator is exhausted.
+     * @throws JIException
+     */
+    JIVariant[] next(int count) throws JIException {
+        JICallBuilder callObject = new JICallBuilder(true);
+        callObject.setOpnum(0);
+        callObject.addInParamAsInt(count, JIFlags.FLAG_NULL);
+        callObject.addOutParamAsObject(new JIArray(JIVariant.class, null, 1, true, true), JIFlags.FLAG_NULL);
+        callObject.addOutParamAsType(Integer.class, JIFlags.FLAG_NULL);
+        Object[] results;
+        DispatchProbe probe = DispatchProbe.start(wrapper, enumObject, "Next");
+        int errorCode = WMIEvents.E_FAIL;
+        try {
+            results = enumObject.call(callObject);
+            errorCode = 0;
+        } catch (JIException e) {
+            if(e.getErrorCode() != S_FALSE) {
+                errorCode = e.getErrorCode();
+                throw e;
+            }
+            results = callObject.getResultsInCaseOfException();
+            errorCode = 0;
+        } finally {
+            if(probe != null) {
+                probe.end(errorCode);
+            }
+        }
+        if(results == null || results.length < 2 || results[0] == null) {
+            return EMPTY;
+        }
+        int fetched = (Integer)results[1];
+        Object[] arrayObj = (Object[])((JIArray)results[0]).getArrayInstance();
+        if(arrayObj == null || fetched <= 0) {
+            return EMPTY;
+        }
+        JIVariant[] variants = new JIVariant[Math.min(fetched, arrayObj.length)];
+        for(int i=0; i<variants.length; i++) {
+            variants[i] = (JIVariant)arrayObj[i];
+        }
+        return variants;
+    }
+
+    /**
+     * Release the remote enumerator, a failure is logged since the enumerator is usually gone with the connection.
+     */
+    void release() {
+        if(enumObject.getAssociatedSession() == null || enumObject.isLocalReference()) {
+            return;
+        }
+        try {
+            enumObject.release();
+        } catch (JIException e) {
+            LoggerFactory.getLogger(WbemEnumerator.class).debug("Failed to release enumerator: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j;
+
+import org.jinterop.dcom.core.JIClsid;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * CLSIDs of the creatable WbemScripting objects.
+ *
+ * <p>Activating an object by {@link org.jinterop.dcom.core.JIProgId} whose CLSID is not in the bundled
+ * progIdVsClsidDB.properties makes j-interop read the CLSID from the remote registry first: a named pipe
+ * connection to winreg, then OpenHKLM, OpenKey, QueryValue and two CloseKey calls, 5 RPC round trips for every
+ * ProgID on a cold connect. These CLSIDs are fixed by wbemdisp.dll, so the objects are activated by
+ * {@link JIClsid} from this table, and no registry is read.</p>
+ */
+public final class WbemScriptingClsids {
+
+    private static final Map<String, String> CLSIDS;
+
+    static {
+        Map<String, String> clsids = new LinkedHashMap<String, String>();
+        clsids.put("WbemScripting.SWbemLocator", "76A64158-CB41-11D1-8B02-00600806D9B6");
+        clsids.put("WbemScripting.SWbemNamedValueSet", "9AED384E-CE8B-11D1-8B05-00600806D9B6");
+        clsids.put("WbemScripting.SWbemLastError", "C2FEEEAC-CFCD-11D1-8B05-00600806D9B6");
+        clsids.put("WbemScripting.SWbemObjectPath", "5791BC26-CE9C-11D1-97BF-0000F81E849C");
+        clsids.put("WbemScripting.SWbemSink", "75718C9A-F029-11D1-A1AC-00C04FB6C223");
+        clsids.put("WbemScripting.SWbemDateTime", "47DFBE54-CF76-11D3-B38F-00105A1F473A");
+        clsids.put("WbemScripting.SWbemRefresher", "D269BF5C-D9C1-11D3-B38F-00105A1F473A");
+        CLSIDS = Collections.unmodifiableMap(clsids);
+    }
+
+    private WbemScriptingClsids() {
+    }
+
+    /**
+     * @param progId ProgID, such as "WbemScripting.SWbemLocator", case insensitive.
+     * @return The CLSID, or null if the ProgID is not a WbemScripting object.
+     */
+    public static String getClsid(String progId) {
+        if(progId == null) {
+            return null;
+        }
+        for(Map.Entry<String, String> entry : CLSIDS.entrySet()) {
+            if(entry.getKey().equalsIgnoreCase(progId)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return All ProgIDs and their CLSIDs.
+     */
+    public static Map<String, String> getClsids() {
+        return CLSIDS;
+    }
+
+    /**
+     * @param progId ProgID of a WbemScripting object.
+     * @return The CLSID to activate the object.
+     * @exception IllegalArgumentException If the ProgID is not in the table.
+     */
+    static JIClsid valueOf(String progId) {
+        String clsid = getClsid(progId);
+        if(clsid == null) {
+            throw new IllegalArgumentException("Unknown ProgID: " + progId);
+        }
+        return JIClsid.valueOf(clsid);
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j;
+
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.core.IJIComObject;
+import org.jinterop.dcom.core.JIVariant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Iterator of {@link AbstractWbemSet}, fetches elements from the enumerator in batches.
+ * If prefetch is enabled, the next batch is requested in background while the caller consumes the current one.
+ *
+ * <p>The background fetches run on a shared pool of at most {@value #MAX_PREFETCH_THREADS} threads. When all of them
+ * are busy, the next batch is fetched by the caller instead. The enumerator and the elements not consumed yet,
+ * including a batch still being prefetched, are released by {@link #close()}, which is called when the enumerator
+ * is exhausted or a fetch fails.</p>
+ */
+class WbemSetIterator<E extends AbstractScriptingObject> implements Iterator<E>, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WbemSetIterator.class);
+
+    static final int MAX_PREFETCH_THREADS = 16;
+
+    private static final ThreadPoolExecutor prefetchExecutor = new ThreadPoolExecutor(0, MAX_PREFETCH_THREADS,
+            60, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), new ThreadFactory() {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "wmi4j-prefetch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private static final Consumer<JIVariant[]> RELEASE_BATCH = new Consumer<JIVariant[]>() {
+        @Override
+        public void accept(JIVariant[] variants) {
+            release(variants, 0);
+        }
+    };
+
+    private final WbemEnumerator enumerator;
+    private final WrapperFactory<E> elementFactory;
+    private final int batchSize;
+    private final boolean prefetch;
+
+    // Written by the thread running the fetch, which is the prefetch thread while a fetch is pending.
+    /** Elements left to fetch, -1 if unknown. */
+    private volatile int remaining;
+    private volatile boolean exhausted;
+
+    private JIVariant[] batch;
+    private int batchIndex;
+    private CompletableFuture<JIVariant[]> pending;
+    private boolean closed;
+    /**
+     * @param enumerator Enumerator of the collection.
+     * @param elementFactory Creates the wrappers of the elements.
+     * @param count Number of elements in the collection, or -1 to iterate until the enumerator is exhausted.
+     * @param batchSize Number of elements requested per round trip.
+     * @param prefetch Whether to request the next batch in background.
+     */
+    WbemSetIterator(WbemEnumerator enumerator, WrapperFactory<E> elementFactory, int count, int batchSize, boolean prefetch) {
+        this.enumerator = enumerator;
+        this.elementFactory = elementFactory;
+        this.remaining = count;
+        this.batchSize = batchSize;
+        this.prefetch = prefetch;
+        this.exhausted = (count == 0);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if(batch != null && batchIndex < batch.length) {
+            return true;
+        }
+        if(closed) {
+            return false;
+        }
+        // A pending fetch may still hold the last batch even though it already marked the enumerator exhausted.
+        if(pending == null && exhausted) {
+            close();
+            return false;
+        }
+        try {
+            batch = takeBatch();
+            batchIndex = 0;
+        } catch (Exception e) {
+            close();
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        if(batch.length == 0) {
+            exhausted = true;
+            close();
+            return false;
+        }
+        if(prefetch && !exhausted) {
+            pending = submitFetch();
+        }
+        return true;
+    }
+
+    @Override
+    public E next() {
+        if(!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        JIVariant ele = batch[batchIndex];
+        batch[batchIndex++] = null;
+        try {
+            return elementFactory.create(WrapperFactories.toDispatch(ele.getObjectAsComObject()));
+        } catch (JIException e) {
+            close();
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Stop the iteration, and release the enumerator and the elements fetched but not returned yet.
+     * A batch still being prefetched is released when it arrives. Calling this method more than once has no effect.
+     */
+    @Override
+    public void close() {
+        if(closed) {
+            return;
+        }
+        closed = true;
+        exhausted = true;
+        if(batch != null) {
+            release(batch, batchIndex);
+            batch = null;
+        }
+        if(pending != null) {
+            pending.thenAccept(RELEASE_BATCH);
+            pending = null;
+        }
+        enumerator.release();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    private JIVariant[] takeBatch() throws Exception {
+        if(pending == null) {
+            return fetch();
+        }
+        CompletableFuture<JIVariant[]> future = pending;
+        pending = null;
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw (cause instanceof Exception) ? (Exception)cause : e;
+        }
+    }
+
+    /**
+     * @return The pending fetch, or null if all the prefetch threads are busy.
+     */
+    private CompletableFuture<JIVariant[]> submitFetch() {
+        try {
+            return CompletableFuture.supplyAsync(new Supplier<JIVariant[]>() {
+                @Override
+                public JIVariant[] get() {
+                    try {
+                        return fetch();
+                    } catch (JIException e) {
+                        throw new CompletionException(e);
+                    }
+                }
+            }, prefetchExecutor);
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Fetch next batch from the enumerator, only called by one thread at a time.
+     */
+    private JIVariant[] fetch() throws JIException {
+        int size = (remaining < 0) ? batchSize : Math.min(batchSize, remaining);
+        JIVariant[] variants = enumerator.next(size);
+        if(variants.length < size) {
+            exhausted = true;
+        }
+        if(remaining >= 0) {
+            remaining -= variants.length;
+            if(remaining == 0) {
+                exhausted = true;
+            }
+        }
+        return variants;
+    }
+
+    /**
+     * Release the remote objects of elements that will not be wrapped.
+     */
+    static void release(JIVariant[] variants, int from) {
+        for(int i = from; i < variants.length; i++) {
+            if(variants[i] == null) {
+                continue;
+            }
+            try {
+                IJIComObject comObject = variants[i].getObjectAsComObject();
+                if(comObject != null && comObject.getAssociatedSession() != null && !comObject.isLocalReference()) {
+                    comObject.release();
+                }
+            } catch (JIException e) {
+                logger.debug("Failed to release an element of a collection: {}", e.getMessage());
+            }
+            variants[i] = null;
+        }
+    }
+}
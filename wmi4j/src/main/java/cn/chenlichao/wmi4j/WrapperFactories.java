@@ -0,0 +1,193 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j;
+
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.core.IJIComObject;
+import org.jinterop.dcom.impls.JIObjectFactory;
+import org.jinterop.dcom.impls.automation.IJIDispatch;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Registry of the {@link WrapperFactory factories} of all the wrapper types, so wrappers are created by a plain
+ * constructor call instead of reflection. Register new wrapper types here.
+ */
+final class WrapperFactories {
+
+    private static final Map<Class<?>, WrapperFactory<?>> FACTORIES = new IdentityHashMap<Class<?>, WrapperFactory<?>>();
+
+    static final WrapperFactory<SWbemEventSource> EVENT_SOURCE = register(SWbemEventSource.class, new WrapperFactory<SWbemEventSource>() {
+        @Override
+        public SWbemEventSource create(IJIDispatch dispatch) {
+            return new SWbemEventSource(dispatch);
+        }
+    });
+    static final WrapperFactory<SWbemLastError> LAST_ERROR = register(SWbemLastError.class, new WrapperFactory<SWbemLastError>() {
+        @Override
+        public SWbemLastError create(IJIDispatch dispatch) {
+            return new SWbemLastError(dispatch);
+        }
+    });
+    static final WrapperFactory<SWbemMethod> METHOD = register(SWbemMethod.class, new WrapperFactory<SWbemMethod>() {
+        @Override
+        public SWbemMethod create(IJIDispatch dispatch) {
+            return new SWbemMethod(dispatch);
+        }
+    });
+    static final WrapperFactory<SWbemMethodSet> METHOD_SET = register(SWbemMethodSet.class, new WrapperFactory<SWbemMethodSet>() {
+        @Override
+        public SWbemMethodSet create(IJIDispatch dispatch) {
+            return new SWbemMethodSet(dispatch);
+        }
+    });
+    static final WrapperFactory<SWbemNamedValue> NAMED_VALUE = register(SWbemNamedValue.class, new WrapperFactory<SWbemNamedValue>() {
+        @Override
+        public SWbemNamedValue create(IJIDispatch dispatch) {
+            return new SWbemNamedValue(dispatch);
+        }
+    });
+    static final WrapperFactory<SWbemNamedValueSet> NAMED_VALUE_SET = register(SWbemNamedValueSet.class, new WrapperFactory<SWbemNamedValueSet>() {
+        @Override
+        public SWbemNamedValueSet create(IJIDispatch dispatch) {
+            return new SWbemNamedValueSet(dispatch);
+        }
+    });
+    static final WrapperFactory<SWbemObject> OBJECT = register(SWbemObject.class, new WrapperFactory<SWbemObject>() {
+        @Override
+        public SWbemObject create(IJIDispatch dispatch) {
+            return new SWbemObject(dispatch);
+        }
+    });
+    static final WrapperFactory<SWbemObjectPath> OBJECT_PATH = register(SWbemObjectPath.class, new WrapperFactory<SWbemObjectPath>() {
+        @Override
+        public SWbemObjectPath create(IJIDispatch dispatch) {
+            return new SWbemObjectPath(dispatch);
+        }
+    });
+    static final WrapperFactory<SWbemObjectSet> OBJECT_SET = register(SWbemObjectSet.class, new WrapperFactory<SWbemObjectSet>() {
+        @Override
+        public SWbemObjectSet create(IJIDispatch dispatch) {
+            return new SWbemObjectSet(dispatch);
+        }
+    });
+    static final WrapperFactory<SWbemPrivilege> PRIVILEGE = register(SWbemPrivilege.class, new WrapperFactory<SWbemPrivilege>() {
+        @Override
+        public SWbemPrivilege create(IJIDispatch dispatch) {
+            return new SWbemPrivilege(dispatch);
+        }
+    });
+    static final WrapperFactory<SWbemPrivilegeSet> PRIVILEGE_SET = register(SWbemPrivilegeSet.class, new WrapperFactory<SWbemPrivilegeSet>() {
+        @Override
+        public SWbemPrivilegeSet create(IJIDispatch dispatch) {
+            return new SWbemPrivilegeSet(dispatch);
+        }
+    });
+    static final WrapperFactory<SWbemProperty> PROPERTY = register(SWbemProperty.class, new WrapperFactory<SWbemProperty>() {
+        @Override
+        public SWbemProperty create(IJIDispatch dispatch) {
+            return new SWbemProperty(dispatch);
+        }
+    });
+    static final WrapperFactory<SWbemPropertySet> PROPERTY_SET = register(SWbemPropertySet.class, new WrapperFactory<SWbemPropertySet>() {
+        @Override
+        public SWbemPropertySet create(IJIDispatch dispatch) {
+            return new SWbemPropertySet(dispatch);
+        }
+    });
+    static final WrapperFactory<SWbemQualifier> QUALIFIER = register(SWbemQualifier.class, new WrapperFactory<SWbemQualifier>() {
+        @Override
+        public SWbemQualifier create(IJIDispatch dispatch) {
+            return new SWbemQualifier(dispatch);
+        }
+    });
+    static final WrapperFactory<SWbemQualifierSet> QUALIFIER_SET = register(SWbemQualifierSet.class, new WrapperFactory<SWbemQualifierSet>() {
+        @Override
+        public SWbemQualifierSet create(IJIDispatch dispatch) {
+            return new SWbemQualifierSet(dispatch);
+        }
+    });
+    static final WrapperFactory<SWbemSecurity> SECURITY = register(SWbemSecurity.class, new WrapperFactory<SWbemSecurity>() {
+        @Override
+        public SWbemSecurity create(IJIDispatch dispatch) {
+            return new SWbemSecurity(dispatch);
+        }
+    });
+    static final WrapperFactory<SWbemServices> SERVICES = register(SWbemServices.class, new WrapperFactory<SWbemServices>() {
+        @Override
+        public SWbemServices create(IJIDispatch dispatch) {
+            return new SWbemServices(dispatch);
+        }
+    });
+
+    private WrapperFactories() {
+    }
+
+    private static <T extends AbstractScriptingObject> WrapperFactory<T> register(Class<T> type, WrapperFactory<T> factory) {
+        FACTORIES.put(type, factory);
+        return factory;
+    }
+
+    /**
+     * @param type Wrapper type.
+     * @return The factory of the type.
+     * @exception IllegalArgumentException If the type is not registered.
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends AbstractScriptingObject> WrapperFactory<T> get(Class<T> type) {
+        WrapperFactory<T> factory = (WrapperFactory<T>) FACTORIES.get(type);
+        if(factory == null) {
+            throw new IllegalArgumentException("No wrapper factory for " + type.getName());
+        }
+        return factory;
+    }
+
+    /**
+     * Create the wrapper of the dispatch.
+     * @param type Wrapper type.
+     * @param dispatch The dispatch.
+     * @exception WMIException If the type is not registered.
+     */
+    static AbstractScriptingObject newWrapper(Class<?> type, IJIDispatch dispatch) throws WMIException {
+        WrapperFactory<?> factory = FACTORIES.get(type);
+        if(factory == null) {
+            throw new WMIException(0x01000001, "Bug of wmi4j, no wrapper factory for " + type.getName()
+                    + ", please send log to reacher-chen@163.com.");
+        }
+        return factory.create(dispatch);
+    }
+
+    /**
+     * Obtain the IDispatch of a COM object returned by a call. An object that is already an {@link IJIDispatch},
+     * such as the in-memory dispatches used by tests, is returned as is.
+     */
+    static IJIDispatch toDispatch(IJIComObject comObject) throws JIException {
+        if(comObject instanceof IJIDispatch) {
+            return (IJIDispatch) comObject;
+        }
+        IJIComObject narrowed = JIObjectFactory.narrowObject(comObject);
+        if(narrowed instanceof IJIDispatch) {
+            return (IJIDispatch) narrowed;
+        }
+        return (IJIDispatch) JIObjectFactory.narrowObject(narrowed.queryInterface(IJIDispatch.IID));
+    }
+}
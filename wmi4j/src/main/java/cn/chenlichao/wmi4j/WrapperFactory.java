@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2014 Chen Lichao
+ * Copyright 2026 The wmi4j Authors
  *
  * Licensed to the Apache  Software Foundation (ASF) under one or more
  * contributor license agreements.  See the NOTICE file distributed with
@@ -17,17 +17,15 @@
  * limitations under the License.
  */
 
+
 package cn.chenlichao.wmi4j;
 
 import org.jinterop.dcom.impls.automation.IJIDispatch;
 
 /**
- * TODO Implement
- * Created by chenlichao on 14-7-17.
+ * Creates the wrapper of a WbemScripting object, see {@link WrapperFactories}.
  */
-public class SWbemNamedValueSet extends AbstractWbemSet<SWbemNamedValue> {
+interface WrapperFactory<T extends AbstractScriptingObject> {
 
-    SWbemNamedValueSet(IJIDispatch dispatch) {
-        super(dispatch);
-    }
+    T create(IJIDispatch dispatch);
 }
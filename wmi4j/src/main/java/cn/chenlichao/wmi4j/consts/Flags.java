@@ -19,6 +19,7 @@
 
 package cn.chenlichao.wmi4j.consts;
 
+import java.util.Collection;
 
 /**
  * Optional flags values.
@@ -26,10 +27,47 @@ package cn.chenlichao.wmi4j.consts;
  */
 public class Flags {
 
+    /**
+     * Common interface of the flag enums.
+     */
+    public interface WbemFlag {
+        int getValue();
+    }
+
+    /**
+     * Combine flags into the bitmask passed to WMI.
+     * @param flags Flags, may be null or contain duplicates.
+     * @return Bitwise OR of the flag values, 0 if no flag.
+     */
+    public static int toInt(WbemFlag... flags) {
+        int value = 0;
+        if(flags != null) {
+            for(WbemFlag flag : flags) {
+                value |= flag.getValue();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Combine flags into the bitmask passed to WMI, typically from an {@link java.util.EnumSet}.
+     * @param flags Flags, may be null.
+     * @return Bitwise OR of the flag values, 0 if no flag.
+     */
+    public static int toInt(Collection<? extends WbemFlag> flags) {
+        int value = 0;
+        if(flags != null) {
+            for(WbemFlag flag : flags) {
+                value |= flag.getValue();
+            }
+        }
+        return value;
+    }
+
     /**
      * securityFlag parameter of {@linkplain cn.chenlichao.wmi4j.SWbemLocator#connectServer(String, String, Flags.SecurityFlag, cn.chenlichao.wmi4j.SWbemNamedValueSet) SWbemLocator.connectServer()} optional values;
      */
-    public enum SecurityFlag {
+    public enum SecurityFlag implements WbemFlag {
         /**
          * A value of 0 for this parameter causes the call to {@linkplain cn.chenlichao.wmi4j.SWbemLocator#connectServer(String, String, Flags.SecurityFlag, cn.chenlichao.wmi4j.SWbemNamedValueSet) connectServer()}
          * to return only after the connection to the server is established.
@@ -58,7 +96,7 @@ public class Flags {
      * Optional values of flags parameter for
      * {@linkplain cn.chenlichao.wmi4j.SWbemServices#get(String, cn.chenlichao.wmi4j.SWbemNamedValueSet, Flags.GetFlag...) SWbemServices.get()} method.
      */
-    public static enum GetFlag{
+    public static enum GetFlag implements WbemFlag {
         /**
          * Causes WMI to return class amendment data with the base class definition.
          */
@@ -79,7 +117,7 @@ public class Flags {
      * {@linkplain cn.chenlichao.wmi4j.SWbemServices#instancesOf(String, cn.chenlichao.wmi4j.SWbemNamedValueSet, Flags.InstancesFlag...) SWbemServices.instancesOf()}
      * and {@link cn.chenlichao.wmi4j.SWbemObject#instances(cn.chenlichao.wmi4j.SWbemNamedValueSet, Flags.InstancesFlag...) SWbemObject.instances()}
      */
-    public static enum InstancesFlag {
+    public static enum InstancesFlag implements WbemFlag {
         /**
          * 32(0x20): Causes a forward-only enumerator to be returned.
          * Forward-only enumerators are generally much faster and use less memory than conventional enumerators,
@@ -131,7 +169,7 @@ public class Flags {
      * Optional values of flags parameter for
      * {@linkplain cn.chenlichao.wmi4j.SWbemServices#execQuery(String, String, cn.chenlichao.wmi4j.SWbemNamedValueSet, ExecQueryFlag...) SWbemServices.execQuery()}
      */
-    public static enum ExecQueryFlag {
+    public static enum ExecQueryFlag implements WbemFlag {
         /**
          * 32(0x20): Causes a forward-only enumerator to be returned.
          * Forward-only enumerators are generally much faster and use less memory than conventional enumerators,
@@ -181,7 +219,7 @@ public class Flags {
      *  and {@link cn.chenlichao.wmi4j.SWbemObject#associators(String, String, String, String, Boolean, Boolean, String, String, cn.chenlichao.wmi4j.SWbemNamedValueSet, Flags.AssociatorsFlag...) SWbemObject.associators()}.
      *
      */
-    public static enum AssociatorsFlag {
+    public static enum AssociatorsFlag implements WbemFlag {
         /**
          * 32(0x20): Causes a forward-only enumerator to be returned.
          * Forward-only enumerators are generally much faster and use less memory than conventional enumerators,
@@ -223,7 +261,7 @@ public class Flags {
      * {@link cn.chenlichao.wmi4j.SWbemServices#referencesTo(String, String, String, Boolean, Boolean, String, cn.chenlichao.wmi4j.SWbemNamedValueSet, ReferenceFlag...) SWbemServices.referencesOf()}
      * and {@link cn.chenlichao.wmi4j.SWbemObject#references(String, String, Boolean, Boolean, String, cn.chenlichao.wmi4j.SWbemNamedValueSet, ReferenceFlag...) SWbemObject.references()}
      */
-    public static enum ReferenceFlag {
+    public static enum ReferenceFlag implements WbemFlag {
         /**
          * 32(0x20): Causes a forward-only enumerator to be returned.
          * Forward-only enumerators are generally much faster and use less memory than conventional enumerators,
@@ -266,7 +304,7 @@ public class Flags {
      * {@linkplain cn.chenlichao.wmi4j.SWbemServices#subclassesOf(String, cn.chenlichao.wmi4j.SWbemNamedValueSet, SubclassesFlag...) SWbemServices.subclassesOf()}
      * and {@link cn.chenlichao.wmi4j.SWbemObject#subclasses(cn.chenlichao.wmi4j.SWbemNamedValueSet, SubclassesFlag...) SWbemObject.subclasses()}
      */
-    public static enum SubclassesFlag {
+    public static enum SubclassesFlag implements WbemFlag {
         /**
          * 1(0x1): Forces the enumeration to include only immediate subclasses of the specified parent class.
          */
@@ -307,7 +345,7 @@ public class Flags {
      * {@link cn.chenlichao.wmi4j.SWbemObject#compareTo(cn.chenlichao.wmi4j.SWbemObject, CompareToFlag...) SWbemObject.compareTo()}
      *
      */
-    public static enum CompareToFlag {
+    public static enum CompareToFlag implements WbemFlag {
         /**
          * 0(0x0): Compares all properties, qualifiers, and flavors.
          */
@@ -360,7 +398,7 @@ public class Flags {
     /**
      * Optional values of flags parameter of {@link cn.chenlichao.wmi4j.SWbemObject#put(cn.chenlichao.wmi4j.SWbemNamedValueSet, PutFlag...) SWbemObject.put()}
      */
-    public static enum PutFlag {
+    public static enum PutFlag implements WbemFlag {
         /**
          * 0(0x0): Allows a class to be updated if there are no derived classes and there are no instances for that class.
          * It also allows updates in all cases if the change is just to unimportant qualifiers (for example, the Description qualifier).
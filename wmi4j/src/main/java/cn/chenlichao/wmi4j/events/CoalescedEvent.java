@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events;
+
+import cn.chenlichao.wmi4j.SWbemObject;
+import cn.chenlichao.wmi4j.SWbemObjectSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The events of one instance collapsed by a {@link CoalescingEventListener} within a window: the latest event,
+ * and the changes of the instance from before the first event to the latest state.
+ */
+public final class CoalescedEvent {
+
+    private final String key;
+    private final SWbemObject event;
+    private final String eventClass;
+    private final SWbemObjectSnapshot targetInstance;
+    private final SWbemObjectSnapshot previousInstance;
+    private final int count;
+    private final long firstTime;
+    private final long lastTime;
+    private final List<PropertyChange> changes;
+
+    CoalescedEvent(String key, SWbemObject event, String eventClass, SWbemObjectSnapshot targetInstance,
+                   SWbemObjectSnapshot previousInstance, int count, long firstTime, long lastTime) {
+        this.key = key;
+        this.event = event;
+        this.eventClass = eventClass;
+        this.targetInstance = targetInstance;
+        this.previousInstance = previousInstance;
+        this.count = count;
+        this.firstTime = firstTime;
+        this.lastTime = lastTime;
+        this.changes = diff(previousInstance, targetInstance);
+    }
+
+    /**
+     * @return Path of the instance, or another key given by the {@link EventKeyExtractor}.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return The latest event.
+     */
+    public SWbemObject getEvent() {
+        return event;
+    }
+
+    /**
+     * @return Class of the latest event, such as __InstanceModificationEvent.
+     */
+    public String getEventClass() {
+        return eventClass;
+    }
+
+    /**
+     * @return The latest state of the instance, null if the event has no TargetInstance.
+     */
+    public SWbemObjectSnapshot getTargetInstance() {
+        return targetInstance;
+    }
+
+    /**
+     * @return The state before the first event, the PreviousInstance of a modification, otherwise null.
+     */
+    public SWbemObjectSnapshot getPreviousInstance() {
+        return previousInstance;
+    }
+
+    /**
+     * @return Number of events collapsed, at least 1.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return Time in milliseconds since the epoch when the first event was received.
+     */
+    public long getFirstTime() {
+        return firstTime;
+    }
+
+    /**
+     * @return Time in milliseconds since the epoch when the latest event was received.
+     */
+    public long getLastTime() {
+        return lastTime;
+    }
+
+    /**
+     * @return Properties that differ between {@link #getPreviousInstance()} and {@link #getTargetInstance()}, in the
+     *         order of the class. Without a previous instance, the properties of the target that are not null.
+     */
+    public List<PropertyChange> getChanges() {
+        return changes;
+    }
+
+    private static List<PropertyChange> diff(SWbemObjectSnapshot before, SWbemObjectSnapshot after) {
+        if(after == null) {
+            return Collections.emptyList();
+        }
+        List<PropertyChange> list = new ArrayList<PropertyChange>();
+        for(Map.Entry<String, Object> entry : after.getProperties().entrySet()) {
+            String name = entry.getKey();
+            Object newValue = entry.getValue();
+            Object oldValue = (before != null && before.contains(name)) ? before.get(name) : null;
+            if(newValue == null ? oldValue != null : !newValue.equals(oldValue)) {
+                list.add(new PropertyChange(name, oldValue, newValue));
+            }
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    @Override
+    public String toString() {
+        return "CoalescedEvent{key=" + key + ", eventClass=" + eventClass + ", count=" + count
+                + ", changes=" + changes + "}";
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events;
+
+import cn.chenlichao.wmi4j.WMIException;
+
+import java.util.List;
+
+/**
+ * Receives the events of a {@link CoalescingEventListener}, the methods are called on a thread of the
+ * {@link EventSubscriptionEngine}, never concurrently for the same coalescing listener.
+ */
+public interface CoalescedEventListener {
+
+    /**
+     * The events of a window, one for each instance, in the order of their first event.
+     * @param subscription The subscription.
+     * @param events The events.
+     */
+    void onEvents(EventSubscription subscription, List<CoalescedEvent> events);
+
+    /**
+     * The subscription failed and is stopped, called after the events of the current window.
+     * @param subscription The subscription.
+     * @param e The error.
+     */
+    void onError(EventSubscription subscription, WMIException e);
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events;
+
+import cn.chenlichao.wmi4j.SWbemObject;
+import cn.chenlichao.wmi4j.SWbemObjectSnapshot;
+import cn.chenlichao.wmi4j.WMIException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collapses the events of the same instance received within a window, and forwards only the latest state of each
+ * instance, with the property changes since the state before the window.
+ *
+ * <pre>
+ *     engine.subscribe(services, "SELECT * FROM __InstanceModificationEvent WITHIN 2"
+ *             + " WHERE TargetInstance ISA 'Win32_Service'", new CoalescingEventListener(engine, 5000, listener));
+ * </pre>
+ * <p>The window opens with the first event after a flush and is flushed on the scheduler of the engine when it
+ * ends. Each event costs a GetText_ round trip for its snapshot. The key of an event is the __PATH of its
+ * TargetInstance in the snapshot; WMI leaves it out of embedded objects, then the {@link EventKeyExtractor} is
+ * called. Events without key are forwarded alone.</p>
+ * <p>The listener owns the received events: an event superseded by a later one of the same instance, dropped as
+ * unchanged or unreadable is closed, the latest one is handed to the {@link CoalescedEventListener}.</p>
+ */
+public class CoalescingEventListener implements EventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoalescingEventListener.class);
+
+    private final EventSubscriptionEngine engine;
+    private final long windowMs;
+    private final CoalescedEventListener listener;
+    private final EventKeyExtractor keyExtractor;
+    private volatile boolean dropUnchanged;
+
+    private final Map<Object, Pending> pending = new LinkedHashMap<Object, Pending>();
+    private boolean windowOpen;
+    private EventSubscription subscription;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong forwarded = new AtomicLong();
+
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    /**
+     * Key the events by {@link EventKeyExtractor#TARGET_INSTANCE_PATH}.
+     * @see #CoalescingEventListener(EventSubscriptionEngine, long, CoalescedEventListener, EventKeyExtractor)
+     */
+    public CoalescingEventListener(EventSubscriptionEngine engine, long windowMs, CoalescedEventListener listener) {
+        this(engine, windowMs, listener, EventKeyExtractor.TARGET_INSTANCE_PATH);
+    }
+
+    /**
+     * @param engine Engine whose scheduler flushes the windows.
+     * @param windowMs Length of a window in milliseconds.
+     * @param listener Receives the collapsed events.
+     * @param keyExtractor Key of the events whose snapshot has no path of TargetInstance.
+     */
+    public CoalescingEventListener(EventSubscriptionEngine engine, long windowMs, CoalescedEventListener listener,
+                                   EventKeyExtractor keyExtractor) {
+        if(engine == null || listener == null || keyExtractor == null) {
+            throw new IllegalArgumentException("Engine, listener and key extractor must not be null.");
+        }
+        if(windowMs <= 0) {
+            throw new IllegalArgumentException("Window must be greater than zero.");
+        }
+        this.engine = engine;
+        this.windowMs = windowMs;
+        this.listener = listener;
+        this.keyExtractor = keyExtractor;
+    }
+
+    /**
+     * Whether to drop the collapsed modifications whose instance ends the window as it started, such as a service
+     * stopped and started again, default false.
+     */
+    public boolean isDropUnchanged() {
+        return dropUnchanged;
+    }
+
+    public void setDropUnchanged(boolean dropUnchanged) {
+        this.dropUnchanged = dropUnchanged;
+    }
+
+    /**
+     * @return Number of events received.
+     */
+    public long getReceived() {
+        return received.get();
+    }
+
+    /**
+     * @return Number of collapsed events forwarded.
+     */
+    public long getForwarded() {
+        return forwarded.get();
+    }
+
+    @Override
+    public void onEvents(EventSubscription subscription, List<SWbemObject> events) {
+        for(SWbemObject event : events) {
+            received.incrementAndGet();
+            SWbemObjectSnapshot snapshot;
+            SWbemObjectSnapshot target = null;
+            SWbemObjectSnapshot previous = null;
+            try {
+                snapshot = event.snapshot();
+                if(snapshot.contains("TargetInstance")) {
+                    target = snapshot.getObject("TargetInstance");
+                }
+                if(snapshot.contains("PreviousInstance")) {
+                    previous = snapshot.getObject("PreviousInstance");
+                }
+            } catch (WMIException e) {
+                logger.warn("Failed to read an event of \"{}\", it is dropped: {}", subscription.getQuery(), e.getMessage());
+                event.close();
+                continue;
+            }
+            Object key = key(event, target);
+            long now = System.currentTimeMillis();
+            SWbemObject superseded = null;
+            synchronized (this) {
+                this.subscription = subscription;
+                Pending entry = pending.get(key);
+                if(entry == null) {
+                    pending.put(key, new Pending(key, event, snapshot.getClassName(), target, previous, now));
+                } else {
+                    superseded = entry.update(event, snapshot.getClassName(), target, now);
+                }
+                if(!windowOpen) {
+                    // not scheduled if the engine is closed, the window is flushed by flush() then
+                    windowOpen = engine.schedule(flushTask, windowMs) != null;
+                }
+            }
+            // released outside the lock, it is a round trip
+            if(superseded != null && superseded != event) {
+                superseded.close();
+            }
+        }
+    }
+
+    @Override
+    public void onError(EventSubscription subscription, WMIException e) {
+        flush();
+        listener.onError(subscription, e);
+    }
+
+    /**
+     * Forward the events of the current window now.
+     */
+    public void flush() {
+        List<Pending> entries;
+        EventSubscription current;
+        synchronized (this) {
+            windowOpen = false;
+            if(pending.isEmpty()) {
+                return;
+            }
+            entries = new ArrayList<Pending>(pending.values());
+            pending.clear();
+            current = subscription;
+        }
+        List<CoalescedEvent> events = new ArrayList<CoalescedEvent>(entries.size());
+        for(Pending entry : entries) {
+            CoalescedEvent event = entry.toEvent();
+            if(dropUnchanged && event.getPreviousInstance() != null && event.getChanges().isEmpty()) {
+                event.getEvent().close();
+                continue;
+            }
+            events.add(event);
+        }
+        if(events.isEmpty()) {
+            return;
+        }
+        forwarded.addAndGet(events.size());
+        try {
+            listener.onEvents(current, events);
+        } catch (RuntimeException e) {
+            logger.warn("Listener of coalesced events failed.", e);
+        }
+    }
+
+    private Object key(SWbemObject event, SWbemObjectSnapshot target) {
+        if(target != null && target.contains("__PATH") && target.getPath() != null) {
+            return target.getPath();
+        }
+        try {
+            String key = keyExtractor.key(event);
+            if(key != null) {
+                return key;
+            }
+        } catch (WMIException e) {
+            logger.debug("Failed to read the key of an event: {}", e.getMessage());
+        }
+        // forwarded alone
+        return new Object();
+    }
+
+    /**
+     * Events of one key in the current window.
+     */
+    private static final class Pending {
+
+        private final Object key;
+        private final SWbemObjectSnapshot previous;
+        private final long firstTime;
+        private SWbemObject event;
+        private String eventClass;
+        private SWbemObjectSnapshot target;
+        private long lastTime;
+        private int count;
+
+        Pending(Object key, SWbemObject event, String eventClass, SWbemObjectSnapshot target,
+                SWbemObjectSnapshot previous, long time) {
+            this.key = key;
+            this.previous = previous;
+            this.firstTime = time;
+            update(event, eventClass, target, time);
+        }
+
+        /**
+         * @return The superseded event, null for the first one.
+         */
+        SWbemObject update(SWbemObject event, String eventClass, SWbemObjectSnapshot target, long time) {
+            SWbemObject superseded = this.event;
+            this.event = event;
+            this.eventClass = eventClass;
+            this.target = target;
+            this.lastTime = time;
+            count++;
+            return superseded;
+        }
+
+        CoalescedEvent toEvent() {
+            return new CoalescedEvent((key instanceof String) ? (String) key : null, event, eventClass, target,
+                    previous, count, firstTime, lastTime);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events;
+
+import cn.chenlichao.wmi4j.SWbemObject;
+import cn.chenlichao.wmi4j.SWbemObjectPath;
+import cn.chenlichao.wmi4j.SWbemProperty;
+import cn.chenlichao.wmi4j.SWbemPropertySet;
+import cn.chenlichao.wmi4j.WMIException;
+
+/**
+ * Key of an event, events with the same key are of the same instance.
+ */
+public interface EventKeyExtractor {
+
+    /**
+     * Relative path of the TargetInstance of an intrinsic event, such as <code>Win32_Service.Name="Spooler"</code>.
+     * Reading it costs five round trips, the intermediate objects are released.
+     */
+    EventKeyExtractor TARGET_INSTANCE_PATH = new EventKeyExtractor() {
+        @Override
+        public String key(SWbemObject event) throws WMIException {
+            SWbemObject target;
+            SWbemPropertySet properties = event.getProperties();
+            try {
+                SWbemProperty property = properties.item("TargetInstance");
+                try {
+                    target = property.getValue().getSWbemObjectValue();
+                } finally {
+                    property.close();
+                }
+            } finally {
+                properties.close();
+            }
+            if(target == null) {
+                return null;
+            }
+            try {
+                SWbemObjectPath path = target.getPath();
+                try {
+                    return path.getRelPath();
+                } finally {
+                    path.close();
+                }
+            } finally {
+                target.close();
+            }
+        }
+    };
+
+    /**
+     * @param event The event.
+     * @return The key, or null if the event has none.
+     * @throws WMIException Failed to read the event.
+     */
+    String key(SWbemObject event) throws WMIException;
+}
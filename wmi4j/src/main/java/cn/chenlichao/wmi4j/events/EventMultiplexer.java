@@ -0,0 +1,371 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events;
+
+import cn.chenlichao.wmi4j.SWbemObject;
+import cn.chenlichao.wmi4j.SWbemServices;
+import cn.chenlichao.wmi4j.WMIException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Shares server-side event queries between the subscriptions of one connection and routes the events locally.
+ *
+ * <p>Every ExecNotificationQuery with WITHIN runs its own poller inside WmiPrvSE. Subscriptions of the form
+ * <code>SELECT * FROM event WITHIN n WHERE TargetInstance ISA 'class'</code> with the same event class and
+ * interval are merged into one query, <code>... WHERE TargetInstance ISA 'a' OR TargetInstance ISA 'b'</code>,
+ * and each event is delivered to the subscriptions whose class the target instance is, or derives from.
+ * Other queries are shared only with identical queries.</p>
+ *
+ * <pre>
+ *     EventMultiplexer multiplexer = new EventMultiplexer(engine, services);
+ *     multiplexer.subscribe("SELECT * FROM __InstanceCreationEvent WITHIN 5 WHERE TargetInstance ISA 'Win32_Process'", processes);
+ *     multiplexer.subscribe("SELECT * FROM __InstanceCreationEvent WITHIN 5 WHERE TargetInstance ISA 'Win32_Service'", services);
+ * </pre>
+ * <p>Routing a merged query costs a GetText_ round trip per event, and a Get and Derivation_ the first time a class
+ * is seen. When a class joins a merged query, the query is replaced by a new one. The replaced query is drained, it
+ * delivers the events it has already queued before it is cancelled, so none are lost, and the events that arrive
+ * meanwhile may be delivered twice. A class that leaves a merged query is filtered locally until the query ends
+ * with its last subscription.</p>
+ * <p>Each subscription receiving an event gets its own {@link SWbemObject#newReference() reference} to it, which
+ * it owns and closes, and events that no subscription receives are closed.</p>
+ */
+public class EventMultiplexer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventMultiplexer.class);
+
+    private final EventSubscriptionEngine engine;
+    private final SWbemServices services;
+    private final SubscriptionConfig config;
+
+    private final Map<String, Group> groups = new HashMap<String, Group>();
+    private final ConcurrentMap<String, List<String>> derivations = new ConcurrentHashMap<String, List<String>>();
+    private boolean closed;
+
+    /**
+     * @param engine Engine polling the server-side queries.
+     * @param services Connection of the server-side queries.
+     */
+    public EventMultiplexer(EventSubscriptionEngine engine, SWbemServices services) {
+        this(engine, services, new SubscriptionConfig());
+    }
+
+    /**
+     * @param engine Engine polling the server-side queries.
+     * @param services Connection of the server-side queries.
+     * @param config Configuration of the server-side queries.
+     */
+    public EventMultiplexer(EventSubscriptionEngine engine, SWbemServices services, SubscriptionConfig config) {
+        this.engine = engine;
+        this.services = services;
+        this.config = config.clone();
+    }
+
+    /**
+     * Subscribe to an event query, it is merged with the queries of the other subscriptions if possible.
+     * @param query WQL event query.
+     * @param listener Receives the events, the subscription passed to it is the shared server-side one.
+     * @return The subscription.
+     * @throws WMIException Failed to run the server-side query.
+     * @exception IllegalStateException The multiplexer is closed.
+     */
+    public synchronized MultiplexedSubscription subscribe(String query, EventListener listener) throws WMIException {
+        if(listener == null) {
+            throw new IllegalArgumentException("Listener is null.");
+        }
+        if(closed) {
+            throw new IllegalStateException("Multiplexer is closed.");
+        }
+        EventQuery parsed = EventQuery.parse(query);
+        MultiplexedSubscription subscription = new MultiplexedSubscription(this, parsed, listener);
+        Group group = groups.get(parsed.getGroupKey());
+        if(group == null) {
+            group = new Group(parsed);
+        }
+        group.add(subscription);
+        groups.put(parsed.getGroupKey(), group);
+        return subscription;
+    }
+
+    /**
+     * @return The server-side subscriptions, with their statistics.
+     */
+    public synchronized List<EventSubscription> getServerSubscriptions() {
+        List<EventSubscription> list = new ArrayList<EventSubscription>();
+        for(Group group : groups.values()) {
+            list.add(group.server);
+        }
+        return list;
+    }
+
+    /**
+     * @return Number of local subscriptions.
+     */
+    public synchronized int getSubscriptionCount() {
+        int count = 0;
+        for(Group group : groups.values()) {
+            count += group.members.size();
+        }
+        return count;
+    }
+
+    /**
+     * Cancel all the subscriptions and their server-side queries.
+     */
+    @Override
+    public void close() {
+        List<Group> closing;
+        synchronized (this) {
+            closed = true;
+            closing = new ArrayList<Group>(groups.values());
+            groups.clear();
+        }
+        for(Group group : closing) {
+            for(MultiplexedSubscription member : group.members) {
+                member.stopped();
+            }
+            group.cancel();
+        }
+    }
+
+    void removed(MultiplexedSubscription subscription) {
+        Group ended = null;
+        synchronized (this) {
+            String key = subscription.getEventQuery().getGroupKey();
+            Group group = groups.get(key);
+            if(group != null && group.members.remove(subscription) && group.members.isEmpty()) {
+                groups.remove(key);
+                ended = group;
+            }
+        }
+        if(ended != null) {
+            ended.cancel();
+        }
+    }
+
+    /**
+     * @return true if the class is the parent class or derives from it.
+     */
+    private boolean isA(String className, String parent) throws WMIException {
+        if(className.equalsIgnoreCase(parent)) {
+            return true;
+        }
+        String key = className.toLowerCase(Locale.ENGLISH);
+        List<String> derivation = derivations.get(key);
+        if(derivation == null) {
+            SWbemObject classObject = services.get(className);
+            try {
+                derivation = classObject.getDerivation();
+            } finally {
+                classObject.close();
+            }
+            derivations.put(key, derivation);
+        }
+        for(String ancestor : derivation) {
+            if(ancestor.equalsIgnoreCase(parent)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void deliver(MultiplexedSubscription member, EventSubscription from, List<SWbemObject> events) {
+        if(member.isCancelled()) {
+            for(SWbemObject event : events) {
+                event.close();
+            }
+            return;
+        }
+        try {
+            member.getListener().onEvents(from, Collections.unmodifiableList(events));
+        } catch (RuntimeException e) {
+            logger.warn("Listener of \"" + member.getQuery() + "\" failed.", e);
+        }
+    }
+
+    /**
+     * The subscriptions sharing a server-side query.
+     */
+    private final class Group implements EventListener {
+
+        private final EventQuery template;
+        private final Map<String, String> classes = new LinkedHashMap<String, String>();
+        private final List<MultiplexedSubscription> members = new CopyOnWriteArrayList<MultiplexedSubscription>();
+        /** Replaced server-side queries, which may still be draining. */
+        private final List<EventSubscription> replaced = new CopyOnWriteArrayList<EventSubscription>();
+        private volatile EventSubscription server;
+        private volatile boolean singleClass = true;
+
+        Group(EventQuery template) {
+            this.template = template;
+        }
+
+        /**
+         * Add a member, and replace the server-side query if its class is new. Called with the multiplexer locked.
+         */
+        void add(MultiplexedSubscription member) throws WMIException {
+            String isaClass = member.getEventQuery().getIsaClass();
+            String classKey = (isaClass == null) ? null : isaClass.toLowerCase(Locale.ENGLISH);
+            boolean newClass = classKey != null && !classes.containsKey(classKey);
+            members.add(member);
+            if(!newClass && server != null) {
+                return;
+            }
+            if(newClass) {
+                classes.put(classKey, isaClass);
+                singleClass = classes.size() <= 1;
+            }
+            String query = template.isMergeable() ? template.merge(classes.values()) : template.getQuery();
+            EventSubscription previous = server;
+            try {
+                server = engine.subscribe(services, query, this, config);
+            } catch (WMIException e) {
+                rollback(member, classKey, newClass);
+                throw e;
+            } catch (RuntimeException e) {
+                rollback(member, classKey, newClass);
+                throw e;
+            }
+            if(previous != null) {
+                logger.debug("Replaced event query \"{}\" by \"{}\".", previous.getQuery(), query);
+                replaced.add(previous);
+                previous.drain();
+            }
+        }
+
+        /**
+         * Cancel the server-side query, and the replaced ones that have not finished draining.
+         */
+        void cancel() {
+            server.cancel();
+            for(EventSubscription subscription : replaced) {
+                subscription.cancel();
+            }
+        }
+
+        private void rollback(MultiplexedSubscription member, String classKey, boolean newClass) {
+            members.remove(member);
+            if(newClass) {
+                classes.remove(classKey);
+                singleClass = classes.size() <= 1;
+            }
+        }
+
+        @Override
+        public void onEvents(EventSubscription subscription, List<SWbemObject> events) {
+            List<MultiplexedSubscription> active = new ArrayList<MultiplexedSubscription>(members.size());
+            for(MultiplexedSubscription member : members) {
+                if(!member.isCancelled()) {
+                    active.add(member);
+                }
+            }
+            boolean filter = template.isMergeable() && !singleClass;
+            Map<MultiplexedSubscription, List<SWbemObject>> routed =
+                    new LinkedHashMap<MultiplexedSubscription, List<SWbemObject>>();
+            for(SWbemObject event : events) {
+                List<MultiplexedSubscription> targets = active;
+                if(filter) {
+                    targets = new ArrayList<MultiplexedSubscription>(active.size());
+                    try {
+                        String className = event.snapshot().getObject("TargetInstance").getClassName();
+                        for(MultiplexedSubscription member : active) {
+                            if(isA(className, member.getEventQuery().getIsaClass())) {
+                                targets.add(member);
+                            }
+                        }
+                    } catch (WMIException e) {
+                        logger.warn("Failed to route an event of \"{}\": {}", subscription.getQuery(), e.getMessage());
+                        targets.clear();
+                    }
+                }
+                route(event, targets, routed);
+            }
+            for(Map.Entry<MultiplexedSubscription, List<SWbemObject>> entry : routed.entrySet()) {
+                deliver(entry.getKey(), subscription, entry.getValue());
+            }
+        }
+
+        /**
+         * Give each target its own reference to the event, the last one gets the event itself, and close the event
+         * if there is no target.
+         */
+        private void route(SWbemObject event, List<MultiplexedSubscription> targets,
+                           Map<MultiplexedSubscription, List<SWbemObject>> routed) {
+            if(targets.isEmpty()) {
+                event.close();
+                return;
+            }
+            int last = targets.size() - 1;
+            for(int i = 0; i <= last; i++) {
+                SWbemObject reference = event;
+                if(i < last) {
+                    try {
+                        reference = event.newReference();
+                    } catch (WMIException e) {
+                        logger.warn("Failed to share an event with \"{}\": {}", targets.get(i).getQuery(),
+                                e.getMessage());
+                        continue;
+                    }
+                }
+                List<SWbemObject> list = routed.get(targets.get(i));
+                if(list == null) {
+                    list = new ArrayList<SWbemObject>();
+                    routed.put(targets.get(i), list);
+                }
+                list.add(reference);
+            }
+        }
+
+        @Override
+        public void onError(EventSubscription subscription, WMIException e) {
+            synchronized (EventMultiplexer.this) {
+                if(subscription != server) {
+                    return;
+                }
+                String key = template.getGroupKey();
+                if(groups.get(key) == this) {
+                    groups.remove(key);
+                }
+            }
+            for(MultiplexedSubscription member : members) {
+                if(member.isCancelled()) {
+                    continue;
+                }
+                member.stopped();
+                try {
+                    member.getListener().onError(subscription, e);
+                } catch (RuntimeException re) {
+                    logger.warn("Listener of \"" + member.getQuery() + "\" failed.", re);
+                }
+            }
+        }
+    }
+}
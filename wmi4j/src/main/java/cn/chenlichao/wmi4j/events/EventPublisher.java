@@ -0,0 +1,250 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events;
+
+import cn.chenlichao.wmi4j.SWbemObject;
+import cn.chenlichao.wmi4j.WMIException;
+import cn.chenlichao.wmi4j.WMIExecutors;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reactive Streams {@link Publisher} of the events of a subscription, buffered in an {@link EventQueue}.
+ *
+ * <pre>
+ *     EventPublisher publisher = new EventPublisher(new EventQueue(1024, OverflowPolicy.COALESCE));
+ *     engine.subscribe(services, query, publisher);
+ *     Flux.from(publisher).subscribe(...);
+ * </pre>
+ * <p>Events are queued whether or not the subscriber requested them, the overflow policy of the queue applies
+ * when it lags behind. The publisher has one subscriber, a second one is rejected. The failure of the
+ * subscription is signalled by onError after the queued events, and {@link #complete()} ends the stream.
+ * Cancelling the Reactive Streams subscription stops the delivery, cancel the {@link EventSubscription}
+ * to stop polling.</p>
+ * <p>Requires <code>org.reactivestreams:reactive-streams</code>, an optional dependency of wmi4j.</p>
+ */
+public class EventPublisher implements Publisher<SWbemObject>, EventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventPublisher.class);
+
+    private final EventQueue queue;
+    private final Executor executor;
+
+    private final AtomicReference<EventSubscriptionHandle> handle = new AtomicReference<EventSubscriptionHandle>();
+    private volatile Throwable failure;
+    private volatile boolean completed;
+
+    /**
+     * Signal on the {@link WMIExecutors#getDefaultExecutor() default executor}.
+     */
+    public EventPublisher(EventQueue queue) {
+        this(queue, WMIExecutors.getDefaultExecutor());
+    }
+
+    /**
+     * @param queue Queue of the events.
+     * @param executor Executor of the signals to the subscriber.
+     */
+    public EventPublisher(EventQueue queue, Executor executor) {
+        if(queue == null || executor == null) {
+            throw new IllegalArgumentException("Queue and executor must not be null.");
+        }
+        this.queue = queue;
+        this.executor = executor;
+    }
+
+    public EventQueue getQueue() {
+        return queue;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super SWbemObject> subscriber) {
+        if(subscriber == null) {
+            throw new NullPointerException("Subscriber is null.");
+        }
+        EventSubscriptionHandle newHandle = new EventSubscriptionHandle(subscriber);
+        if(!handle.compareAndSet(null, newHandle)) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("EventPublisher allows only one subscriber."));
+            return;
+        }
+        subscriber.onSubscribe(newHandle);
+        newHandle.schedule();
+    }
+
+    @Override
+    public void onEvents(EventSubscription subscription, List<SWbemObject> events) {
+        for(SWbemObject event : events) {
+            queue.offer(event);
+        }
+        signal();
+    }
+
+    @Override
+    public void onError(EventSubscription subscription, WMIException e) {
+        failure = e;
+        queue.close();
+        signal();
+    }
+
+    /**
+     * Complete the stream after the queued events, later events are ignored.
+     */
+    public void complete() {
+        completed = true;
+        queue.close();
+        signal();
+    }
+
+    private void signal() {
+        EventSubscriptionHandle current = handle.get();
+        if(current != null) {
+            current.schedule();
+        }
+    }
+
+    /**
+     * The Reactive Streams subscription, signals are serialized by the work-in-progress counter.
+     */
+    private final class EventSubscriptionHandle implements Subscription, Runnable {
+
+        private final Subscriber<? super SWbemObject> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile IllegalArgumentException invalidRequest;
+        private boolean done;
+
+        EventSubscriptionHandle(Subscriber<? super SWbemObject> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if(n <= 0) {
+                invalidRequest = new IllegalArgumentException("Rule 3.9: request must be positive, but was " + n);
+                cancelled = true;
+                schedule();
+                return;
+            }
+            for(;;) {
+                long current = requested.get();
+                long next = current + n;
+                if(next < 0) {
+                    next = Long.MAX_VALUE;
+                }
+                if(requested.compareAndSet(current, next)) {
+                    break;
+                }
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        void schedule() {
+            if(wip.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    wip.set(0);
+                    logger.warn("Delivery of events is rejected: {}", e.getMessage());
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            for(;;) {
+                if(done) {
+                    return;
+                }
+                if(cancelled) {
+                    if(invalidRequest != null) {
+                        terminate(invalidRequest);
+                    }
+                    return;
+                }
+                Throwable error = failure;
+                long demand = requested.get();
+                long emitted = 0;
+                while(emitted != demand && !cancelled) {
+                    SWbemObject event = queue.poll();
+                    if(event == null) {
+                        break;
+                    }
+                    try {
+                        subscriber.onNext(event);
+                    } catch (RuntimeException e) {
+                        logger.warn("Subscriber of events failed, it is cancelled.", e);
+                        cancelled = true;
+                        return;
+                    }
+                    emitted++;
+                }
+                if(emitted != 0 && demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+                if(!cancelled && queue.isEmpty()) {
+                    if(error != null) {
+                        terminate(error);
+                        return;
+                    }
+                    if(completed) {
+                        done = true;
+                        subscriber.onComplete();
+                        return;
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+                if(missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void terminate(Throwable error) {
+            done = true;
+            subscriber.onError(error);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The parts of a WQL event query that decide whether it can share a server-side query with others.
+ */
+final class EventQuery {
+
+    private static final Pattern QUERY = Pattern.compile(
+            "SELECT\\s+\\*\\s+FROM\\s+(\\w+)(?:\\s+WITHIN\\s+([0-9.]+))?(?:\\s+WHERE\\s+(.+?))?",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private static final Pattern ISA = Pattern.compile(
+            "TargetInstance\\s+ISA\\s+(?:'([^']+)'|\"([^\"]+)\")", Pattern.CASE_INSENSITIVE);
+
+    private final String query;
+    private final String eventClass;
+    private final String within;
+    private final String isaClass;
+
+    private EventQuery(String query, String eventClass, String within, String isaClass) {
+        this.query = query;
+        this.eventClass = eventClass;
+        this.within = within;
+        this.isaClass = isaClass;
+    }
+
+    /**
+     * @param query WQL event query.
+     * @return The parsed query, only <code>SELECT * FROM event WITHIN n WHERE TargetInstance ISA 'class'</code>
+     *         has an {@link #getIsaClass() ISA class} and can be merged.
+     */
+    static EventQuery parse(String query) {
+        String normalized = query.trim().replaceAll("\\s+", " ");
+        Matcher matcher = QUERY.matcher(normalized);
+        if(!matcher.matches() || matcher.group(2) == null || matcher.group(3) == null) {
+            return new EventQuery(normalized, null, null, null);
+        }
+        Matcher isa = ISA.matcher(matcher.group(3).trim());
+        if(!isa.matches()) {
+            return new EventQuery(normalized, null, null, null);
+        }
+        return new EventQuery(normalized, matcher.group(1), matcher.group(2),
+                isa.group(1) != null ? isa.group(1) : isa.group(2));
+    }
+
+    /**
+     * @return The query with whitespaces collapsed.
+     */
+    String getQuery() {
+        return query;
+    }
+
+    String getIsaClass() {
+        return isaClass;
+    }
+
+    boolean isMergeable() {
+        return isaClass != null;
+    }
+
+    /**
+     * @return Key of the queries that can be merged with this one, or of the identical queries if not mergeable.
+     */
+    String getGroupKey() {
+        if(isaClass == null) {
+            return query;
+        }
+        return eventClass.toLowerCase(Locale.ENGLISH) + " within " + within;
+    }
+
+    /**
+     * @return Query of the events of this query's event class and interval, for the instances of any of the classes.
+     */
+    String merge(Collection<String> classes) {
+        StringBuilder sb = new StringBuilder("SELECT * FROM ").append(eventClass).append(" WITHIN ").append(within)
+                .append(" WHERE ");
+        for(Iterator<String> it = classes.iterator(); it.hasNext(); ) {
+            sb.append("TargetInstance ISA '").append(it.next()).append('\'');
+            if(it.hasNext()) {
+                sb.append(" OR ");
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,462 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events;
+
+import cn.chenlichao.wmi4j.SWbemObject;
+import cn.chenlichao.wmi4j.WMIException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free queue of events, between the polling of a subscription and slower processing.
+ * Producers and consumers may be many threads; the ring buffer of slots with sequence numbers never locks, only a
+ * producer of the {@link OverflowPolicy#BLOCK} policy parks while the queue is full.
+ * The queue owns the offered events: an event it drops, or replaces by a later one of the same key, is closed.
+ *
+ * <pre>
+ *     EventQueue queue = new EventQueue(1024, OverflowPolicy.DROP_OLDEST);
+ *     engine.subscribe(services, query, new QueuedEventListener(listener, queue));
+ * </pre>
+ */
+public class EventQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventQueue.class);
+
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int capacity;
+    private final int mask;
+    private final OverflowPolicy policy;
+    private final EventKeyExtractor keyExtractor;
+
+    private final AtomicReferenceArray<Object> buffer;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    /** Queued slots of the keys, for {@link OverflowPolicy#COALESCE}. */
+    private final ConcurrentMap<String, Slot> pending = new ConcurrentHashMap<String, Slot>();
+
+    private final AtomicLong offered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong maxDepth = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * @param capacity Max number of queued events, rounded up to a power of two.
+     * @param policy What to do when full, {@link OverflowPolicy#COALESCE} coalesces by
+     *               {@link EventKeyExtractor#TARGET_INSTANCE_PATH}.
+     */
+    public EventQueue(int capacity, OverflowPolicy policy) {
+        this(capacity, policy, EventKeyExtractor.TARGET_INSTANCE_PATH);
+    }
+
+    /**
+     * @param capacity Max number of queued events, rounded up to a power of two.
+     * @param policy What to do when full.
+     * @param keyExtractor Key of the events for {@link OverflowPolicy#COALESCE}.
+     */
+    public EventQueue(int capacity, OverflowPolicy policy, EventKeyExtractor keyExtractor) {
+        if(capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30.");
+        }
+        if(policy == null) {
+            throw new IllegalArgumentException("Overflow policy is null.");
+        }
+        if(policy == OverflowPolicy.COALESCE && keyExtractor == null) {
+            throw new IllegalArgumentException("Key extractor is null.");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if(size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        this.policy = policy;
+        this.keyExtractor = keyExtractor;
+        this.buffer = new AtomicReferenceArray<Object>(size);
+        this.sequences = new AtomicLongArray(size);
+        for(int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Queue an event according to the overflow policy.
+     * @param event The event, closed if it is not queued.
+     * @return false if the event is dropped, or the queue is closed.
+     */
+    public boolean offer(SWbemObject event) {
+        if(event == null) {
+            throw new IllegalArgumentException("Event is null.");
+        }
+        if(closed) {
+            event.close();
+            return false;
+        }
+        offered.incrementAndGet();
+        boolean queued;
+        switch (policy) {
+            case BLOCK:
+                queued = offerBlocking(event);
+                if(!queued) {
+                    event.close();
+                }
+                break;
+            case DROP_NEWEST:
+                queued = tryOffer(event);
+                if(!queued) {
+                    dropped.incrementAndGet();
+                    event.close();
+                }
+                break;
+            case DROP_OLDEST:
+                queued = offerDroppingOldest(event);
+                break;
+            default:
+                queued = offerCoalescing(event);
+                break;
+        }
+        if(queued) {
+            updateMaxDepth();
+        }
+        return queued;
+    }
+
+    /**
+     * @return The oldest event, or null if empty.
+     */
+    public SWbemObject poll() {
+        for(;;) {
+            Object element = tryPoll();
+            if(element == null) {
+                return null;
+            }
+            SWbemObject event = unwrap(element);
+            if(event != null) {
+                return event;
+            }
+        }
+    }
+
+    /**
+     * Remove up to max events.
+     * @param max Max number of events.
+     * @return The events, oldest first, empty if the queue is empty.
+     */
+    public List<SWbemObject> drain(int max) {
+        List<SWbemObject> events = new ArrayList<SWbemObject>(Math.min(max, 64));
+        while(events.size() < max) {
+            SWbemObject event = poll();
+            if(event == null) {
+                break;
+            }
+            events.add(event);
+        }
+        return events;
+    }
+
+    /**
+     * Stop accepting events, producers waiting for room return. Queued events can still be polled.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public boolean isEmpty() {
+        return head.get() >= tail.get();
+    }
+
+    /**
+     * @return Number of queued events.
+     */
+    public int getDepth() {
+        long depth = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(depth, capacity));
+    }
+
+    /**
+     * @return Max number of queued events seen.
+     */
+    public long getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return Number of events offered.
+     */
+    public long getOffered() {
+        return offered.get();
+    }
+
+    /**
+     * @return Number of events dropped because the queue was full, they have been closed.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * @return Number of events that replaced a queued event of the same key, the replaced events have been closed.
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    private boolean offerBlocking(SWbemObject event) {
+        long parkNanos = 1000;
+        while(!tryOffer(event)) {
+            if(closed) {
+                return false;
+            }
+            LockSupport.parkNanos(this, parkNanos);
+            if(Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                dropped.incrementAndGet();
+                return false;
+            }
+            parkNanos = Math.min(parkNanos * 2, MAX_PARK_NANOS);
+        }
+        return true;
+    }
+
+    private boolean offerDroppingOldest(Object element) {
+        while(!tryOffer(element)) {
+            Object oldest = tryPoll();
+            SWbemObject event = (oldest == null) ? null : unwrap(oldest);
+            if(event != null) {
+                dropped.incrementAndGet();
+                event.close();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Keys are only read when the queue is full, since reading one costs round trips: the key of the new event,
+     * then the keys of the queued events from the oldest until one matches. A read key is kept with its slot.
+     */
+    private boolean offerCoalescing(SWbemObject event) {
+        Slot slot = new Slot(event);
+        if(tryOffer(slot)) {
+            return true;
+        }
+        String key = slot.key(keyExtractor);
+        if(key == null) {
+            return offerDroppingOldest(slot);
+        }
+        Slot queued = pending.get(key);
+        SWbemObject replaced = (queued == null) ? null : queued.replace(event);
+        if(replaced == null) {
+            replaced = replaceQueued(key, event);
+        }
+        if(replaced != null) {
+            coalesced.incrementAndGet();
+            replaced.close();
+            return true;
+        }
+        register(key, slot);
+        return offerDroppingOldest(slot);
+    }
+
+    /**
+     * Read the keys of the queued slots, oldest first, until one has the key.
+     * @return The event replaced in the slot of the key, or null if none is queued.
+     */
+    private SWbemObject replaceQueued(String key, SWbemObject event) {
+        long end = tail.get();
+        for(long position = head.get(); position < end; position++) {
+            Object element = buffer.get((int) (position & mask));
+            if(!(element instanceof Slot)) {
+                continue;
+            }
+            Slot slot = (Slot) element;
+            boolean known = slot.isKeyed();
+            String slotKey = slot.key(keyExtractor);
+            if(slotKey == null) {
+                continue;
+            }
+            if(slotKey.equals(key)) {
+                SWbemObject replaced = slot.replace(event);
+                if(replaced != null) {
+                    register(key, slot);
+                    return replaced;
+                }
+            } else if(!known) {
+                register(slotKey, slot);
+            }
+        }
+        return null;
+    }
+
+    private void register(String key, Slot slot) {
+        pending.put(key, slot);
+        // a consumer may have taken it before the put
+        if(slot.isTaken()) {
+            pending.remove(key, slot);
+        }
+    }
+
+    /**
+     * @return The event of a queued element, null if it is a slot already taken.
+     */
+    private SWbemObject unwrap(Object element) {
+        if(!(element instanceof Slot)) {
+            return (SWbemObject) element;
+        }
+        Slot slot = (Slot) element;
+        SWbemObject event = slot.take();
+        String key = slot.key;
+        if(key != null) {
+            pending.remove(key, slot);
+        }
+        return event;
+    }
+
+    private void updateMaxDepth() {
+        long depth = getDepth();
+        long max = maxDepth.get();
+        while(depth > max && !maxDepth.compareAndSet(max, depth)) {
+            max = maxDepth.get();
+        }
+    }
+
+    private boolean tryOffer(Object element) {
+        for(;;) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if(difference == 0) {
+                if(tail.compareAndSet(position, position + 1)) {
+                    buffer.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if(difference < 0) {
+                return false;
+            }
+        }
+    }
+
+    private Object tryPoll() {
+        for(;;) {
+            long position = head.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if(difference == 0) {
+                if(head.compareAndSet(position, position + 1)) {
+                    Object element = buffer.get(index);
+                    buffer.lazySet(index, null);
+                    sequences.set(index, position + capacity);
+                    return element;
+                }
+            } else if(difference < 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Queued element of {@link OverflowPolicy#COALESCE}, the event is replaced until a consumer takes it.
+     * The key is read once, by the first producer that needs it.
+     */
+    private static final class Slot {
+
+        private static final Object TAKEN = new Object();
+
+        private volatile boolean keyed;
+        private volatile String key;
+        private final AtomicReference<Object> event;
+
+        Slot(SWbemObject event) {
+            this.event = new AtomicReference<Object>(event);
+        }
+
+        boolean isKeyed() {
+            return keyed;
+        }
+
+        boolean isTaken() {
+            return event.get() == TAKEN;
+        }
+
+        /**
+         * @return The key, null if the event has none, or it has been taken before the key was read.
+         */
+        String key(EventKeyExtractor keyExtractor) {
+            if(!keyed) {
+                Object current = event.get();
+                if(current == TAKEN) {
+                    return null;
+                }
+                try {
+                    key = keyExtractor.key((SWbemObject) current);
+                } catch (WMIException e) {
+                    logger.debug("Failed to read the key of an event: {}", e.getMessage());
+                }
+                keyed = true;
+            }
+            return key;
+        }
+
+        /**
+         * @return The replaced event, or null if the slot has been taken.
+         */
+        SWbemObject replace(SWbemObject newEvent) {
+            for(;;) {
+                Object current = event.get();
+                if(current == TAKEN) {
+                    return null;
+                }
+                if(event.compareAndSet(current, newEvent)) {
+                    return (SWbemObject) current;
+                }
+            }
+        }
+
+        SWbemObject take() {
+            Object taken = event.getAndSet(TAKEN);
+            return (taken == TAKEN) ? null : (SWbemObject) taken;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events;
+
+import cn.chenlichao.wmi4j.SWbemEventSource;
+import cn.chenlichao.wmi4j.SWbemObject;
+import cn.chenlichao.wmi4j.WMIException;
+import cn.chenlichao.wmi4j.WMIVariant;
+import cn.chenlichao.wmi4j.metrics.LatencyHistogram;
+import org.jinterop.dcom.common.JIRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An event query polled by an {@link EventSubscriptionEngine}, created by
+ * {@link EventSubscriptionEngine#subscribe(cn.chenlichao.wmi4j.SWbemServices, String, EventListener, SubscriptionConfig)}.
+ *
+ * <p>A poll calls NextEvent until the event source times out or a batch is full, then delivers the batch.
+ * Only one poll of a subscription runs at a time, the next one is scheduled when it ends.</p>
+ */
+public class EventSubscription implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventSubscription.class);
+
+    /** wbemErrTimedout, NextEvent found no event within the timeout. */
+    public static final int WBEM_E_TIMED_OUT = 0x80043001;
+
+    /** Difference between the FILETIME epoch, 1601-01-01, and the java epoch in milliseconds. */
+    private static final long FILETIME_EPOCH_OFFSET_MS = 11644473600000L;
+
+    /** Time constant of {@link SubscriptionStatistics#getRecentThroughput()}. */
+    private static final double RECENT_WINDOW_NANOS = 60e9;
+
+    public enum State {
+        /** Events are polled. */
+        ACTIVE,
+        /** Cancelled by {@link #cancel()} or by closing the engine. */
+        CANCELLED,
+        /** Stopped by an error, see {@link #getFailure()}. */
+        FAILED
+    }
+
+    private final EventSubscriptionEngine engine;
+    private final String query;
+    private final SWbemEventSource source;
+    private final EventListener listener;
+    private final SubscriptionConfig config;
+    private final long createdAt;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong polls = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final LatencyHistogram lag = new LatencyHistogram();
+    private volatile long lastEventTime;
+    private volatile double recentThroughput;
+    private long lastPollAt;
+
+    private State state = State.ACTIVE;
+    private WMIException failure;
+    private boolean polling;
+    private boolean draining;
+    private Future<?> next;
+
+    EventSubscription(EventSubscriptionEngine engine, String query, SWbemEventSource source, EventListener listener,
+                      SubscriptionConfig config) {
+        this.engine = engine;
+        this.query = query;
+        this.source = source;
+        this.listener = listener;
+        this.config = config;
+        this.createdAt = System.nanoTime();
+        this.lastPollAt = createdAt;
+    }
+
+    /**
+     * @return The WQL event query.
+     */
+    public String getQuery() {
+        return query;
+    }
+
+    public EventListener getListener() {
+        return listener;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return The error that stopped this subscription, or null.
+     */
+    public synchronized WMIException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Stop polling and release the event source, events received by a poll in progress are released without being
+     * delivered. Calling this method more than once has no effect.
+     */
+    public void cancel() {
+        boolean release;
+        synchronized (this) {
+            if(state != State.ACTIVE) {
+                return;
+            }
+            state = State.CANCELLED;
+            if(next != null) {
+                next.cancel(false);
+            }
+            release = !polling;
+        }
+        engine.removed(this);
+        if(release) {
+            source.close();
+        }
+    }
+
+    /**
+     * Deliver the events already queued by the event source, then cancel. The next poll runs at once, and the
+     * subscription is cancelled after the first poll that does not fill a batch.
+     */
+    void drain() {
+        synchronized (this) {
+            if(state != State.ACTIVE || draining) {
+                return;
+            }
+            draining = true;
+            if(polling || next == null || !next.cancel(false)) {
+                return;
+            }
+        }
+        schedule(0);
+    }
+
+    /**
+     * Same as {@link #cancel()}.
+     */
+    @Override
+    public void close() {
+        cancel();
+    }
+
+    public SubscriptionStatistics getStatistics() {
+        long elapsed = System.nanoTime() - createdAt;
+        long count = received.get();
+        return new SubscriptionStatistics(count, batches.get(), polls.get(), timeouts.get(), lastEventTime,
+                elapsed <= 0 ? 0 : count * 1e9 / elapsed, recentThroughput, lag.getCount(), lag.getMean() / 1e6,
+                lag.getValueAtPercentile(99) / 1e6, lag.getMax() / 1e6);
+    }
+
+    /**
+     * Schedule the next poll.
+     */
+    synchronized void schedule(long delayMs) {
+        if(state == State.ACTIVE) {
+            next = engine.schedule(this, delayMs);
+        }
+    }
+
+    /**
+     * Poll the event source once, run by the scheduler of the engine.
+     */
+    void poll() {
+        synchronized (this) {
+            if(state != State.ACTIVE) {
+                return;
+            }
+            polling = true;
+        }
+        polls.incrementAndGet();
+        List<SWbemObject> batch = null;
+        WMIException error = null;
+        long timeout = config.getPollTimeoutMs();
+        try {
+            while(batch == null || batch.size() < config.getMaxBatchSize()) {
+                SWbemObject event;
+                try {
+                    event = source.nextEvent(timeout);
+                } catch (WMIException e) {
+                    if(e.getErrorCode() != WBEM_E_TIMED_OUT) {
+                        throw e;
+                    }
+                    timeouts.incrementAndGet();
+                    break;
+                }
+                if(event == null) {
+                    break;
+                }
+                if(batch == null) {
+                    batch = new ArrayList<SWbemObject>();
+                }
+                batch.add(event);
+                timeout = 0;
+            }
+        } catch (WMIException e) {
+            error = e;
+        } catch (JIRuntimeException e) {
+            error = new WMIException(e);
+        }
+        int count = (batch == null) ? 0 : batch.size();
+        updateThroughput(count);
+        // a subscription cancelled meanwhile delivers nothing more
+        if(batch != null) {
+            if(getState() == State.ACTIVE) {
+                deliver(batch);
+            } else {
+                for(SWbemObject event : batch) {
+                    event.close();
+                }
+            }
+        }
+        if(error != null) {
+            fail(error);
+            return;
+        }
+        boolean drained;
+        synchronized (this) {
+            polling = false;
+            if(state != State.ACTIVE) {
+                source.close();
+                return;
+            }
+            drained = draining && count < config.getMaxBatchSize();
+        }
+        if(drained) {
+            cancel();
+            return;
+        }
+        schedule(count >= config.getMaxBatchSize() ? 0 : config.getPollIntervalMs());
+    }
+
+    private void deliver(List<SWbemObject> batch) {
+        received.addAndGet(batch.size());
+        batches.incrementAndGet();
+        lastEventTime = System.currentTimeMillis();
+        if(config.isMeasureLag()) {
+            for(SWbemObject event : batch) {
+                measureLag(event);
+            }
+        }
+        try {
+            listener.onEvents(this, Collections.unmodifiableList(batch));
+        } catch (RuntimeException e) {
+            logger.warn("Listener of \"" + query + "\" failed.", e);
+        }
+    }
+
+    private void measureLag(SWbemObject event) {
+        try {
+            WMIVariant value = event.getPropertyByName("TIME_CREATED");
+            long fileTime;
+            try {
+                // uint64 is a string in automation
+                fileTime = Long.parseLong(value.getStringValue());
+            } catch (RuntimeException e) {
+                fileTime = value.getLongValue();
+            }
+            long created = fileTime / 10000 - FILETIME_EPOCH_OFFSET_MS;
+            lag.record(Math.max(0, System.currentTimeMillis() - created) * 1000000L);
+        } catch (WMIException e) {
+            logger.debug("Failed to read TIME_CREATED of an event: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Only called by the polling thread.
+     */
+    private void updateThroughput(int count) {
+        long now = System.nanoTime();
+        long elapsed = now - lastPollAt;
+        lastPollAt = now;
+        if(elapsed <= 0) {
+            return;
+        }
+        double alpha = 1 - Math.exp(-elapsed / RECENT_WINDOW_NANOS);
+        double rate = count * 1e9 / elapsed;
+        recentThroughput += alpha * (rate - recentThroughput);
+    }
+
+    /**
+     * Stop after an error of a poll, the listener is not notified if the subscription is already cancelled.
+     */
+    private void fail(WMIException error) {
+        boolean notify;
+        synchronized (this) {
+            polling = false;
+            notify = state == State.ACTIVE;
+            if(notify) {
+                state = State.FAILED;
+                failure = error;
+            }
+        }
+        source.close();
+        if(!notify) {
+            return;
+        }
+        logger.warn("Event subscription \"{}\" failed: {}", query, error.getMessage());
+        engine.removed(this);
+        try {
+            listener.onError(this, error);
+        } catch (RuntimeException e) {
+            logger.warn("Listener of \"" + query + "\" failed.", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "EventSubscription{query=" + query + ", state=" + getState() + "}";
+    }
+}
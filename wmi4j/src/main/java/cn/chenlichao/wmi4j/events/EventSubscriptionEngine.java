@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events;
+
+import cn.chenlichao.wmi4j.SWbemEventSource;
+import cn.chenlichao.wmi4j.SWbemServices;
+import cn.chenlichao.wmi4j.WMIException;
+import cn.chenlichao.wmi4j.WMIScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Polls event queries on a small shared scheduler and pushes the events to listeners, instead of a thread
+ * blocked in {@link SWbemEventSource#nextEvent(Long)} for each query.
+ *
+ * <pre>
+ *     EventSubscriptionEngine engine = new EventSubscriptionEngine(4);
+ *     EventSubscription subscription = engine.subscribe(services,
+ *             "SELECT * FROM __InstanceCreationEvent WITHIN 5 WHERE TargetInstance ISA 'Win32_Process'",
+ *             listener);
+ *     ...
+ *     engine.close();
+ * </pre>
+ * <p>A poll holds a thread for its NextEvent round trips only, see {@link SubscriptionConfig#getPollTimeoutMs()},
+ * and the time-out error of NextEvent ({@link EventSubscription#WBEM_E_TIMED_OUT}) only ends the poll, so
+ * thousands of subscriptions can share a few threads.</p>
+ */
+public class EventSubscriptionEngine implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventSubscriptionEngine.class);
+
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Set<EventSubscription> subscriptions =
+            Collections.newSetFromMap(new ConcurrentHashMap<EventSubscription, Boolean>());
+    private volatile boolean closed;
+
+    /**
+     * Create an engine with as many threads as processors, at least 2.
+     */
+    public EventSubscriptionEngine() {
+        this(Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * @param threads Number of threads polling the subscriptions.
+     */
+    public EventSubscriptionEngine(int threads) {
+        if(threads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be greater than zero.");
+        }
+        scheduler = new ScheduledThreadPoolExecutor(threads, new ThreadFactory() {
+            private final AtomicInteger counter = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "wmi4j-events-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Run an event query and poll it with the default {@link SubscriptionConfig}.
+     * @see #subscribe(SWbemServices, String, EventListener, SubscriptionConfig)
+     */
+    public EventSubscription subscribe(SWbemServices services, String query, EventListener listener) throws WMIException {
+        return subscribe(services, query, listener, new SubscriptionConfig());
+    }
+
+    /**
+     * Run an event query by {@link SWbemServices#execNotificationQuery(String)} and poll it until the subscription
+     * is cancelled, fails or the engine is closed.
+     * @param services Connection to run the query.
+     * @param query WQL event query.
+     * @param listener Receives the events.
+     * @param config Configuration of the subscription, copied.
+     * @return The subscription, its first poll is scheduled at once.
+     * @throws WMIException Failed to run the query.
+     * @exception IllegalStateException The engine is closed.
+     */
+    public EventSubscription subscribe(SWbemServices services, String query, EventListener listener,
+                                       SubscriptionConfig config) throws WMIException {
+        if(listener == null) {
+            throw new IllegalArgumentException("Listener is null.");
+        }
+        if(closed) {
+            throw new IllegalStateException("Engine is closed.");
+        }
+        SWbemEventSource source = services.execNotificationQuery(query);
+        // the subscription owns the source and releases it when cancelled, not the scope of the subscriber
+        WMIScope scope = WMIScope.current();
+        if(scope != null) {
+            scope.detach(source);
+        }
+        EventSubscription subscription = new EventSubscription(this, query, source, listener, config.clone());
+        subscriptions.add(subscription);
+        if(closed) {
+            subscription.cancel();
+            throw new IllegalStateException("Engine is closed.");
+        }
+        subscription.schedule(0);
+        return subscription;
+    }
+
+    /**
+     * @return Active subscriptions.
+     */
+    public List<EventSubscription> getSubscriptions() {
+        return new ArrayList<EventSubscription>(subscriptions);
+    }
+
+    /**
+     * Cancel all the subscriptions and stop the threads. Polls in progress finish their current round trip.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for(EventSubscription subscription : getSubscriptions()) {
+            subscription.cancel();
+        }
+        scheduler.shutdown();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    Future<?> schedule(final EventSubscription subscription, long delayMs) {
+        return schedule(new Runnable() {
+            @Override
+            public void run() {
+                subscription.poll();
+            }
+        }, delayMs);
+    }
+
+    /**
+     * Run a task on the scheduler of the engine.
+     * @return The future of the task, or null if the engine is closed.
+     */
+    Future<?> schedule(Runnable task, long delayMs) {
+        try {
+            return scheduler.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Engine is closed, task is not scheduled.");
+            return null;
+        }
+    }
+
+    void removed(EventSubscription subscription) {
+        subscriptions.remove(subscription);
+    }
+}
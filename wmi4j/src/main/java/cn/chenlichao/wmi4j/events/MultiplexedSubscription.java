@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events;
+
+/**
+ * A subscription of an {@link EventMultiplexer}, sharing a server-side query with other subscriptions.
+ */
+public class MultiplexedSubscription implements AutoCloseable {
+
+    private final EventMultiplexer multiplexer;
+    private final EventQuery query;
+    private final EventListener listener;
+    private volatile boolean cancelled;
+
+    MultiplexedSubscription(EventMultiplexer multiplexer, EventQuery query, EventListener listener) {
+        this.multiplexer = multiplexer;
+        this.query = query;
+        this.listener = listener;
+    }
+
+    /**
+     * @return The WQL event query, with whitespaces collapsed.
+     */
+    public String getQuery() {
+        return query.getQuery();
+    }
+
+    public EventListener getListener() {
+        return listener;
+    }
+
+    /**
+     * @return true if cancelled, or stopped by a failure of the server-side query.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Stop delivering events to the listener, the server-side query is cancelled with its last subscription.
+     * Calling this method more than once has no effect.
+     */
+    public void cancel() {
+        if(!cancelled) {
+            cancelled = true;
+            multiplexer.removed(this);
+        }
+    }
+
+    /**
+     * Same as {@link #cancel()}.
+     */
+    @Override
+    public void close() {
+        cancel();
+    }
+
+    EventQuery getEventQuery() {
+        return query;
+    }
+
+    void stopped() {
+        cancelled = true;
+    }
+
+    @Override
+    public String toString() {
+        return "MultiplexedSubscription{query=" + query.getQuery() + ", cancelled=" + cancelled + "}";
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events;
+
+/**
+ * What an {@link EventQueue} does with an event when it is full.
+ */
+public enum OverflowPolicy {
+    /** Wait until there is room, which stops polling the subscription. */
+    BLOCK,
+    /** Drop the oldest queued event. */
+    DROP_OLDEST,
+    /** Drop the event. */
+    DROP_NEWEST,
+    /**
+     * Replace the queued event of the same key, see {@link EventKeyExtractor}, so only the latest event of an
+     * instance is kept. Events of a new key drop the oldest queued event when full. Keys are only read when the
+     * queue is full, so events are only coalesced under pressure.
+     */
+    COALESCE
+}
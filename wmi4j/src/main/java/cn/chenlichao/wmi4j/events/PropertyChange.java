@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events;
+
+/**
+ * Change of a property between two states of an instance, see {@link CoalescedEvent#getChanges()}.
+ */
+public final class PropertyChange {
+
+    private final String name;
+    private final Object oldValue;
+    private final Object newValue;
+
+    PropertyChange(String name, Object oldValue, Object newValue) {
+        this.name = name;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Value before the change, may be null.
+     */
+    public Object getOldValue() {
+        return oldValue;
+    }
+
+    /**
+     * @return Value after the change, may be null.
+     */
+    public Object getNewValue() {
+        return newValue;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + oldValue + " -> " + newValue;
+    }
+}
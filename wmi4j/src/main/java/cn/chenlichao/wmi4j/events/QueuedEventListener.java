@@ -0,0 +1,142 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events;
+
+import cn.chenlichao.wmi4j.SWbemObject;
+import cn.chenlichao.wmi4j.WMIException;
+import cn.chenlichao.wmi4j.WMIExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Queues the events of a subscription in an {@link EventQueue}, and delivers them to another listener on an
+ * executor, so a slow listener does not hold the thread polling the subscription.
+ * Only one delivery of a listener runs at a time, and errors are delivered after the events queued before them.
+ */
+public class QueuedEventListener implements EventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueuedEventListener.class);
+
+    private final EventListener listener;
+    private final EventQueue queue;
+    private final Executor executor;
+    private final int maxBatchSize;
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile EventSubscription subscription;
+    private volatile WMIException failure;
+    private volatile boolean failureDelivered;
+
+    private final Runnable drainTask = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    /**
+     * Deliver on the {@link WMIExecutors#getDefaultExecutor() default executor}, in batches of up to 64 events.
+     */
+    public QueuedEventListener(EventListener listener, EventQueue queue) {
+        this(listener, queue, WMIExecutors.getDefaultExecutor(), 64);
+    }
+
+    /**
+     * @param listener Listener of the queued events.
+     * @param queue Queue of the events.
+     * @param executor Executor of the deliveries.
+     * @param maxBatchSize Max number of events delivered at once.
+     */
+    public QueuedEventListener(EventListener listener, EventQueue queue, Executor executor, int maxBatchSize) {
+        if(listener == null || queue == null || executor == null) {
+            throw new IllegalArgumentException("Listener, queue and executor must not be null.");
+        }
+        if(maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Max batch size must be greater than zero.");
+        }
+        this.listener = listener;
+        this.queue = queue;
+        this.executor = executor;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public EventQueue getQueue() {
+        return queue;
+    }
+
+    @Override
+    public void onEvents(EventSubscription subscription, List<SWbemObject> events) {
+        this.subscription = subscription;
+        for(SWbemObject event : events) {
+            queue.offer(event);
+        }
+        schedule();
+    }
+
+    @Override
+    public void onError(EventSubscription subscription, WMIException e) {
+        this.subscription = subscription;
+        failure = e;
+        schedule();
+    }
+
+    private void schedule() {
+        if(scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(drainTask);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                logger.warn("Delivery of queued events is rejected: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            List<SWbemObject> events;
+            while(!(events = queue.drain(maxBatchSize)).isEmpty()) {
+                try {
+                    listener.onEvents(subscription, events);
+                } catch (RuntimeException e) {
+                    logger.warn("Listener of queued events failed.", e);
+                }
+            }
+            WMIException error = failure;
+            if(error != null && !failureDelivered) {
+                failureDelivered = true;
+                try {
+                    listener.onError(subscription, error);
+                } catch (RuntimeException e) {
+                    logger.warn("Listener of queued events failed.", e);
+                }
+            }
+        } finally {
+            scheduled.set(false);
+        }
+        if(!queue.isEmpty() || (failure != null && !failureDelivered)) {
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events;
+
+/**
+ * Configuration of an {@link EventSubscription}, all durations are in milliseconds.
+ * Changes made after the subscription is created have no effect.
+ */
+public class SubscriptionConfig implements Cloneable {
+
+    private int maxBatchSize = 64;
+    private long pollTimeoutMs = 0;
+    private long pollIntervalMs = 1000;
+    private boolean measureLag = false;
+
+    /**
+     * Max number of events delivered to the listener at once, default 64. A poll that fills a batch is followed
+     * by the next one immediately.
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        if(maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Max batch size must be greater than zero.");
+        }
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * How long the first NextEvent of a poll waits for an event on the server, default 0, which returns at once.
+     * The thread of the engine is blocked meanwhile, so keep it short when there are many subscriptions.
+     */
+    public long getPollTimeoutMs() {
+        return pollTimeoutMs;
+    }
+
+    public void setPollTimeoutMs(long pollTimeoutMs) {
+        if(pollTimeoutMs < 0) {
+            throw new IllegalArgumentException("Poll timeout must not be negative.");
+        }
+        this.pollTimeoutMs = pollTimeoutMs;
+    }
+
+    /**
+     * Delay between a poll that drained the event source and the next one, default 1 second.
+     * WMI queues the events in the meantime, this only bounds how late they are delivered.
+     */
+    public long getPollIntervalMs() {
+        return pollIntervalMs;
+    }
+
+    public void setPollIntervalMs(long pollIntervalMs) {
+        if(pollIntervalMs < 0) {
+            throw new IllegalArgumentException("Poll interval must not be negative.");
+        }
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    /**
+     * Whether to measure the lag of each event from its TIME_CREATED property, default false.
+     * Reading the property costs three round trips per event.
+     */
+    public boolean isMeasureLag() {
+        return measureLag;
+    }
+
+    public void setMeasureLag(boolean measureLag) {
+        this.measureLag = measureLag;
+    }
+
+    @Override
+    protected SubscriptionConfig clone() {
+        try {
+            return (SubscriptionConfig) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events;
+
+/**
+ * Snapshot of the statistics of an {@link EventSubscription}. Counters are accumulated since the subscription
+ * is created, lag is only measured if {@link SubscriptionConfig#isMeasureLag()} is enabled.
+ */
+public class SubscriptionStatistics {
+
+    private final long received;
+    private final long batches;
+    private final long polls;
+    private final long timeouts;
+    private final long lastEventTime;
+    private final double throughput;
+    private final double recentThroughput;
+    private final long lagCount;
+    private final double lagMeanMs;
+    private final double lagP99Ms;
+    private final double lagMaxMs;
+
+    SubscriptionStatistics(long received, long batches, long polls, long timeouts, long lastEventTime,
+                           double throughput, double recentThroughput, long lagCount, double lagMeanMs,
+                           double lagP99Ms, double lagMaxMs) {
+        this.received = received;
+        this.batches = batches;
+        this.polls = polls;
+        this.timeouts = timeouts;
+        this.lastEventTime = lastEventTime;
+        this.throughput = throughput;
+        this.recentThroughput = recentThroughput;
+        this.lagCount = lagCount;
+        this.lagMeanMs = lagMeanMs;
+        this.lagP99Ms = lagP99Ms;
+        this.lagMaxMs = lagMaxMs;
+    }
+
+    /**
+     * @return Number of events received.
+     */
+    public long getReceived() {
+        return received;
+    }
+
+    /**
+     * @return Number of batches delivered to the listener.
+     */
+    public long getBatches() {
+        return batches;
+    }
+
+    /**
+     * @return Number of polls.
+     */
+    public long getPolls() {
+        return polls;
+    }
+
+    /**
+     * @return Number of NextEvent calls that timed out, one per poll that drained the event source.
+     */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * @return Time in milliseconds since the epoch when the last event was received, 0 if none.
+     */
+    public long getLastEventTime() {
+        return lastEventTime;
+    }
+
+    /**
+     * @return Events per second since the subscription is created.
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * @return Events per second, exponentially weighted over about the last minute.
+     */
+    public double getRecentThroughput() {
+        return recentThroughput;
+    }
+
+    /**
+     * @return Number of events whose lag is measured.
+     */
+    public long getLagCount() {
+        return lagCount;
+    }
+
+    /**
+     * @return Mean time in milliseconds from the creation of an event on the server to its delivery.
+     */
+    public double getLagMeanMs() {
+        return lagMeanMs;
+    }
+
+    /**
+     * @return 99th percentile of the lag in milliseconds.
+     */
+    public double getLagP99Ms() {
+        return lagP99Ms;
+    }
+
+    /**
+     * @return Max lag in milliseconds.
+     */
+    public double getLagMaxMs() {
+        return lagMaxMs;
+    }
+
+    @Override
+    public String toString() {
+        return "SubscriptionStatistics{received=" + received + ", batches=" + batches + ", polls=" + polls
+                + ", timeouts=" + timeouts + ", throughput=" + String.format("%.2f", throughput)
+                + ", recentThroughput=" + String.format("%.2f", recentThroughput) + ", lagCount=" + lagCount
+                + ", lagMeanMs=" + String.format("%.1f", lagMeanMs) + ", lagP99Ms=" + String.format("%.1f", lagP99Ms)
+                + ", lagMaxMs=" + String.format("%.1f", lagMaxMs) + "}";
+    }
+}
@@ -0,0 +1,540 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events.journal;
+
+import cn.chenlichao.wmi4j.SWbemObjectSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only journal of events, stored in memory-mapped segment files, so events received but not yet processed
+ * survive a restart of the collector.
+ *
+ * <pre>
+ *     EventJournal journal = new EventJournal(new File("journal"));
+ *     engine.subscribe(services, query, new JournalingEventListener(journal));
+ *
+ *     JournalReader reader = journal.reader("collector");
+ *     JournalRecord record;
+ *     while((record = reader.next()) != null) {
+ *         process(record.getEvent());
+ *     }
+ *     journal.commit("collector", reader.getPosition());
+ * </pre>
+ * <p>Each record gets the next offset, starting from 0. A record is encoded in a reused buffer and copied into the
+ * mapped segment, the write is forced to disk and the retention applied by a background thread. Appending does not
+ * wait for the disk, but the calling thread may page in the mapping, and creates and maps the next segment file
+ * when a record does not fit in the current one. Class and property names are written once per segment.</p>
+ * <p>Consumers commit the offset of the next record they want, named offsets are stored in the journal directory
+ * and replaced atomically. After a crash the records of the last segment are checked, and a torn record at its
+ * end is discarded with everything behind it.</p>
+ * <p>A directory is used by one journal at a time. On Windows, a segment can not be deleted while a reader still
+ * maps it, retention tries again on the next flush.</p>
+ */
+public class EventJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventJournal.class);
+
+    private static final String LOCK_FILE = "journal.lock";
+    private static final String OFFSETS_FILE = "offsets.properties";
+
+    private final File directory;
+    private final JournalConfig config;
+    private final ConcurrentNavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<Long, Segment>();
+    private final Map<String, Long> committed = new ConcurrentHashMap<String, Long>();
+    private final RecordCodec.Encoder encoder = new RecordCodec.Encoder();
+    private final Queue<MappedByteBuffer> unflushed = new ConcurrentLinkedQueue<MappedByteBuffer>();
+
+    private final RandomAccessFile lockFile;
+    private final FileLock lock;
+    private final ScheduledExecutorService flusher;
+
+    private volatile Segment active;
+    private volatile MappedByteBuffer activeBuffer;
+    private int writePosition;
+    private volatile long nextOffset;
+    private volatile boolean closed;
+
+    /**
+     * Open the journal in a directory with the default configuration.
+     * @see #EventJournal(File, JournalConfig)
+     */
+    public EventJournal(File directory) throws IOException {
+        this(directory, new JournalConfig());
+    }
+
+    /**
+     * Open the journal in a directory, creating it if needed, and recover its records.
+     * @param directory Directory of the segment files.
+     * @param config Configuration, copied.
+     * @throws IOException The directory can not be used, or is used by another journal.
+     */
+    public EventJournal(File directory, JournalConfig config) throws IOException {
+        if(directory == null) {
+            throw new IllegalArgumentException("Directory is null.");
+        }
+        if(config == null) {
+            throw new IllegalArgumentException("Config is null.");
+        }
+        if(!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can not create journal directory " + directory);
+        }
+        this.directory = directory;
+        this.config = config.clone();
+
+        lockFile = new RandomAccessFile(new File(directory, LOCK_FILE), "rw");
+        try {
+            try {
+                lock = lockFile.getChannel().tryLock();
+            } catch (OverlappingFileLockException e) {
+                throw new IOException("Journal " + directory + " is already open.");
+            }
+            if(lock == null) {
+                throw new IOException("Journal " + directory + " is used by another process.");
+            }
+            loadOffsets();
+            recover();
+        } catch (IOException e) {
+            lockFile.close();
+            throw e;
+        } catch (RuntimeException e) {
+            lockFile.close();
+            throw e;
+        }
+
+        if(this.config.getFlushIntervalMs() > 0) {
+            flusher = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "wmi4j-journal-" + EventJournal.this.directory.getName());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            long interval = this.config.getFlushIntervalMs();
+            flusher.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        flush();
+                        applyRetention();
+                    } catch (Throwable e) {
+                        logger.warn("Failed to flush journal {}", EventJournal.this.directory, e);
+                    }
+                }
+            }, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    private void recover() throws IOException {
+        File[] files = directory.listFiles();
+        if(files != null) {
+            for(File file : files) {
+                long base = Segment.parseFileName(file.getName());
+                if(base >= 0) {
+                    segments.put(base, new Segment(file, base));
+                }
+            }
+        }
+        if(segments.isEmpty()) {
+            createSegment(0);
+            nextOffset = 0;
+            return;
+        }
+        active = segments.lastEntry().getValue();
+        MappedByteBuffer buffer = active.map(true);
+        try {
+            if(RecordCodec.readHeader(buffer) != active.getBaseOffset()) {
+                throw new IOException("Base offset of segment " + active + " does not match its name.");
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid segment " + active + ": " + e.getMessage());
+        }
+
+        RecordCodec.Decoder decoder = new RecordCodec.Decoder();
+        int position = RecordCodec.HEADER_SIZE;
+        long offset = active.getBaseOffset();
+        while(true) {
+            byte[] payload = readPayload(buffer, position);
+            if(payload == null) {
+                break;
+            }
+            try {
+                JournalRecord record = decoder.decode(ByteBuffer.wrap(payload));
+                if(record.getOffset() != offset) {
+                    break;
+                }
+            } catch (RuntimeException e) {
+                break;
+            }
+            position += RecordCodec.RECORD_OVERHEAD + payload.length;
+            offset++;
+        }
+        if(zeroTail(buffer, position)) {
+            logger.warn("Discarded a torn record at offset {} of journal {}", offset, directory);
+        }
+        encoder.define(decoder.getSymbols());
+        activeBuffer = buffer;
+        writePosition = position;
+        nextOffset = offset;
+    }
+
+    /**
+     * @return The payload of the record at a position, or null if there is none or it fails its CRC.
+     */
+    static byte[] readPayload(ByteBuffer buffer, int position) {
+        if(position + RecordCodec.RECORD_OVERHEAD > buffer.capacity()) {
+            return null;
+        }
+        int length = buffer.getInt(position);
+        if(length <= 0 || length > buffer.capacity() - position - RecordCodec.RECORD_OVERHEAD) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(position + RecordCodec.RECORD_OVERHEAD);
+        slice.get(payload);
+        if(RecordCodec.crc(payload, 0, length) != buffer.getInt(position + 4)) {
+            return null;
+        }
+        return payload;
+    }
+
+    /**
+     * Clear what a crash may have left behind the last record, so it is not taken for a record later.
+     * @return Whether anything was cleared.
+     */
+    private static boolean zeroTail(ByteBuffer buffer, int position) {
+        boolean cleared = false;
+        int end = buffer.capacity();
+        int i = position;
+        for(; i < end && (i & 7) != 0; i++) {
+            if(buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+                cleared = true;
+            }
+        }
+        for(; i + 8 <= end; i += 8) {
+            if(buffer.getLong(i) != 0) {
+                buffer.putLong(i, 0);
+                cleared = true;
+            }
+        }
+        for(; i < end; i++) {
+            if(buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+                cleared = true;
+            }
+        }
+        return cleared;
+    }
+
+    private void createSegment(long baseOffset) throws IOException {
+        File file = new File(directory, Segment.fileName(baseOffset));
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        MappedByteBuffer buffer;
+        try {
+            raf.setLength(config.getSegmentSize());
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, config.getSegmentSize());
+        } finally {
+            raf.close();
+        }
+        RecordCodec.writeHeader(buffer, baseOffset);
+        Segment segment = new Segment(file, baseOffset);
+        segment.touch(System.currentTimeMillis());
+        segments.put(baseOffset, segment);
+        encoder.reset();
+        active = segment;
+        activeBuffer = buffer;
+        writePosition = RecordCodec.HEADER_SIZE;
+    }
+
+    /**
+     * Append an event.
+     * @param source Where the event came from, such as the query of its subscription, may be null.
+     * @param event The event.
+     * @return Offset of the record.
+     * @throws IOException The journal is closed, the record is larger than a segment, or the next segment can not
+     * be created.
+     */
+    public synchronized long append(String source, SWbemObjectSnapshot event) throws IOException {
+        if(event == null) {
+            throw new IllegalArgumentException("Event is null.");
+        }
+        if(closed) {
+            throw new IOException("Journal is closed.");
+        }
+        long offset = nextOffset;
+        long now = System.currentTimeMillis();
+        int length = encoder.encode(offset, now, source, event);
+        if(writePosition + RecordCodec.RECORD_OVERHEAD + length > activeBuffer.capacity()) {
+            if(writePosition == RecordCodec.HEADER_SIZE) {
+                throw new IOException("Record of " + length + " bytes does not fit in a segment.");
+            }
+            roll(offset, now);
+            length = encoder.encode(offset, now, source, event);
+            if(RecordCodec.HEADER_SIZE + RecordCodec.RECORD_OVERHEAD + length > activeBuffer.capacity()) {
+                throw new IOException("Record of " + length + " bytes does not fit in a segment.");
+            }
+        }
+        MappedByteBuffer buffer = activeBuffer;
+        byte[] bytes = encoder.bytes();
+        buffer.position(writePosition + RecordCodec.RECORD_OVERHEAD);
+        buffer.put(bytes, 0, length);
+        buffer.putInt(writePosition + 4, RecordCodec.crc(bytes, 0, length));
+        buffer.putInt(writePosition, length);
+        writePosition += RecordCodec.RECORD_OVERHEAD + length;
+        active.touch(now);
+        nextOffset = offset + 1;
+        return offset;
+    }
+
+    private void roll(long offset, long now) throws IOException {
+        MappedByteBuffer previous = activeBuffer;
+        active.touch(now);
+        createSegment(offset);
+        if(flusher != null) {
+            unflushed.add(previous);
+        } else {
+            applyRetention();
+        }
+        logger.debug("Journal {} rolled to segment {}", directory, active);
+    }
+
+    /**
+     * Force the written records to disk, done by the background thread unless the flush interval is 0.
+     */
+    public void flush() {
+        MappedByteBuffer buffer;
+        while((buffer = unflushed.poll()) != null) {
+            buffer.force();
+        }
+        buffer = activeBuffer;
+        if(buffer != null) {
+            buffer.force();
+        }
+    }
+
+    /**
+     * Delete the oldest segments beyond the configured count or age, never the one being written.
+     * Done by the background thread, or when a segment is created if the flush interval is 0.
+     */
+    public void applyRetention() {
+        synchronized (segments) {
+            applyRetention0();
+        }
+    }
+
+    private void applyRetention0() {
+        long now = System.currentTimeMillis();
+        int maxSegments = config.getMaxSegments();
+        long retentionMs = config.getRetentionMs();
+        while(segments.size() > 1) {
+            Segment oldest = segments.firstEntry().getValue();
+            boolean tooMany = maxSegments > 0 && segments.size() > maxSegments;
+            boolean tooOld = retentionMs > 0 && oldest.getLastModified() < now - retentionMs;
+            if(oldest == active || !(tooMany || tooOld)) {
+                break;
+            }
+            if(!oldest.getFile().delete() && oldest.getFile().exists()) {
+                logger.warn("Failed to delete journal segment {}, will retry.", oldest.getFile());
+                break;
+            }
+            segments.remove(oldest.getBaseOffset());
+            logger.debug("Deleted journal segment {}", oldest);
+        }
+    }
+
+    /**
+     * Store the offset of the next record a consumer wants, replacing the stored offsets atomically.
+     * @param consumer Name of the consumer.
+     * @param offset Offset of its next record, at most {@link #getNextOffset()}.
+     */
+    public void commit(String consumer, long offset) throws IOException {
+        if(consumer == null || consumer.isEmpty()) {
+            throw new IllegalArgumentException("Consumer name is empty.");
+        }
+        if(offset < 0 || offset > nextOffset) {
+            throw new IllegalArgumentException("Offset " + offset + " is out of range [0, " + nextOffset + "].");
+        }
+        synchronized (committed) {
+            committed.put(consumer, offset);
+            Properties properties = new Properties();
+            for(Map.Entry<String, Long> entry : committed.entrySet()) {
+                properties.setProperty(entry.getKey(), String.valueOf(entry.getValue()));
+            }
+            File temp = new File(directory, OFFSETS_FILE + ".tmp");
+            OutputStream out = new FileOutputStream(temp);
+            try {
+                properties.store(out, null);
+                out.flush();
+                ((FileOutputStream) out).getFD().sync();
+            } finally {
+                out.close();
+            }
+            Files.move(temp.toPath(), new File(directory, OFFSETS_FILE).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    private void loadOffsets() throws IOException {
+        File file = new File(directory, OFFSETS_FILE);
+        if(!file.isFile()) {
+            return;
+        }
+        Properties properties = new Properties();
+        InputStream in = new FileInputStream(file);
+        try {
+            properties.load(in);
+        } finally {
+            in.close();
+        }
+        for(String consumer : properties.stringPropertyNames()) {
+            try {
+                committed.put(consumer, Long.parseLong(properties.getProperty(consumer)));
+            } catch (NumberFormatException e) {
+                logger.warn("Ignored invalid offset of consumer {} in journal {}", consumer, directory);
+            }
+        }
+    }
+
+    /**
+     * @return The offset committed by a consumer, or -1 if it has none.
+     */
+    public long getCommittedOffset(String consumer) {
+        Long offset = committed.get(consumer);
+        return offset == null ? -1 : offset;
+    }
+
+    /**
+     * Read the records from an offset. A reader is not thread safe and holds no resources.
+     * @param offset Offset of the first record, earlier records deleted by retention are skipped.
+     */
+    public JournalReader reader(long offset) {
+        if(offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative.");
+        }
+        return new JournalReader(this, offset);
+    }
+
+    /**
+     * Read the records from the offset committed by a consumer, or from the first record if it has none.
+     */
+    public JournalReader reader(String consumer) {
+        long offset = getCommittedOffset(consumer);
+        return new JournalReader(this, offset < 0 ? getFirstOffset() : offset);
+    }
+
+    /**
+     * @return Offset of the oldest record kept.
+     */
+    public long getFirstOffset() {
+        return segments.firstKey();
+    }
+
+    /**
+     * @return Offset the next record will get, which is the number of records ever appended.
+     */
+    public long getNextOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * @return Number of segment files.
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return The segment containing an offset, or null if it was deleted.
+     */
+    Segment getSegment(long offset) {
+        Map.Entry<Long, Segment> entry = segments.floorEntry(offset);
+        return entry == null ? null : entry.getValue();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Flush the records and release the directory. Readers can still read what was written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if(closed) {
+            return;
+        }
+        closed = true;
+        if(flusher != null) {
+            flusher.shutdownNow();
+        }
+        try {
+            flush();
+        } finally {
+            try {
+                lock.release();
+            } finally {
+                lockFile.close();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "EventJournal{directory=" + directory + ", segments=" + Arrays.toString(segments.keySet().toArray())
+                + ", nextOffset=" + nextOffset + "}";
+    }
+}
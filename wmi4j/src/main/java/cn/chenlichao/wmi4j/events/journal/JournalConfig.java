@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events.journal;
+
+/**
+ * Configuration of an {@link EventJournal}, all durations are in milliseconds.
+ * Changes made after the journal is opened have no effect.
+ */
+public class JournalConfig implements Cloneable {
+
+    private int segmentSize = 64 * 1024 * 1024;
+    private int maxSegments = 0;
+    private long retentionMs = 0;
+    private long flushIntervalMs = 1000;
+
+    /**
+     * Size of a segment file, default 64 MiB. The file is mapped whole when created, a record must fit in
+     * one segment.
+     */
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public void setSegmentSize(int segmentSize) {
+        if(segmentSize < 4096) {
+            throw new IllegalArgumentException("Segment size must be at least 4096 bytes.");
+        }
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Max number of segments kept, the oldest are deleted when a new one is created, default 0, which keeps all.
+     */
+    public int getMaxSegments() {
+        return maxSegments;
+    }
+
+    public void setMaxSegments(int maxSegments) {
+        if(maxSegments < 0) {
+            throw new IllegalArgumentException("Max segments must not be negative.");
+        }
+        this.maxSegments = maxSegments;
+    }
+
+    /**
+     * How long a full segment is kept after it was last written, default 0, which keeps it forever.
+     * Retention does not wait for the consumers, a reader behind the oldest segment skips ahead.
+     */
+    public long getRetentionMs() {
+        return retentionMs;
+    }
+
+    public void setRetentionMs(long retentionMs) {
+        if(retentionMs < 0) {
+            throw new IllegalArgumentException("Retention must not be negative.");
+        }
+        this.retentionMs = retentionMs;
+    }
+
+    /**
+     * Interval of the background thread which forces the written records to disk and applies the retention,
+     * default 1 second. 0 leaves the write back to the operating system, which survives a crash of the process
+     * but not of the machine.
+     */
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    public void setFlushIntervalMs(long flushIntervalMs) {
+        if(flushIntervalMs < 0) {
+            throw new IllegalArgumentException("Flush interval must not be negative.");
+        }
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    @Override
+    protected JournalConfig clone() {
+        try {
+            return (JournalConfig) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
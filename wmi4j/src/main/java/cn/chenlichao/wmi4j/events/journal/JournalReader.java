@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events.journal;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads the records of an {@link EventJournal} in order, including those appended while reading.
+ * Not thread safe. Records are mapped from the segment files, a reader holds no resources and needs no closing.
+ */
+public class JournalReader {
+
+    private final EventJournal journal;
+    private final RecordCodec.Decoder decoder = new RecordCodec.Decoder();
+
+    private long position;
+    private long skipped;
+
+    private Segment segment;
+    private ByteBuffer buffer;
+    private int bufferPosition;
+
+    JournalReader(EventJournal journal, long position) {
+        this.journal = journal;
+        this.position = position;
+    }
+
+    /**
+     * @return The next record, or null if all records appended so far were read.
+     * @throws IOException A segment can not be read or is corrupt.
+     */
+    public JournalRecord next() throws IOException {
+        if(position >= journal.getNextOffset()) {
+            return null;
+        }
+        if(segment == null) {
+            open();
+        }
+        boolean reopened = false;
+        while(true) {
+            byte[] payload = EventJournal.readPayload(buffer, bufferPosition);
+            if(payload == null) {
+                // the rest of the records are in the next segment
+                if(reopened) {
+                    throw new IOException("Record " + position + " is missing from journal segment " + segment);
+                }
+                open();
+                reopened = true;
+                continue;
+            }
+            JournalRecord record;
+            try {
+                record = decoder.decode(ByteBuffer.wrap(payload));
+            } catch (RuntimeException e) {
+                throw new IOException("Corrupt record after offset " + position + " in journal segment " + segment, e);
+            }
+            bufferPosition += RecordCodec.RECORD_OVERHEAD + payload.length;
+            if(record.getOffset() >= position) {
+                position = record.getOffset() + 1;
+                return record;
+            }
+        }
+    }
+
+    private void open() throws IOException {
+        while(true) {
+            Segment found = journal.getSegment(position);
+            if(found == null) {
+                long first = journal.getFirstOffset();
+                skipped += first - position;
+                position = first;
+                continue;
+            }
+            if(found == segment) {
+                // still reading the current one, whose records are decoded in order
+                return;
+            }
+            ByteBuffer mapped;
+            try {
+                mapped = found.map(false);
+            } catch (FileNotFoundException e) {
+                // deleted by retention meanwhile
+                continue;
+            }
+            segment = found;
+            buffer = mapped;
+            bufferPosition = RecordCodec.HEADER_SIZE;
+            decoder.reset();
+            return;
+        }
+    }
+
+    /**
+     * Move to another offset, read from the start of its segment on the next call.
+     */
+    public void seek(long offset) {
+        if(offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative.");
+        }
+        position = offset;
+        segment = null;
+        buffer = null;
+    }
+
+    /**
+     * @return Offset of the next record to read, which is what a consumer commits once the records before it are
+     * processed.
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * @return Number of records which were deleted by retention before this reader reached them.
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events.journal;
+
+import cn.chenlichao.wmi4j.SWbemObjectSnapshot;
+
+/**
+ * An event read back from an {@link EventJournal}.
+ */
+public class JournalRecord {
+
+    private final long offset;
+    private final long timestamp;
+    private final String source;
+    private final SWbemObjectSnapshot event;
+
+    JournalRecord(long offset, long timestamp, String source, SWbemObjectSnapshot event) {
+        this.offset = offset;
+        this.timestamp = timestamp;
+        this.source = source;
+        this.event = event;
+    }
+
+    /**
+     * @return Position of the record in the journal, the first record is 0.
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return When the record was appended, in milliseconds since the epoch.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return Where the event came from, the query of its subscription when appended by a
+     * {@link JournalingEventListener}, may be null.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * @return The event.
+     */
+    public SWbemObjectSnapshot getEvent() {
+        return event;
+    }
+
+    @Override
+    public String toString() {
+        return "JournalRecord{offset=" + offset + ", timestamp=" + timestamp + ", event=" + event + "}";
+    }
+}
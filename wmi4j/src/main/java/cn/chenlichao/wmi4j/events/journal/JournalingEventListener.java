@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events.journal;
+
+import cn.chenlichao.wmi4j.SWbemObject;
+import cn.chenlichao.wmi4j.WMIException;
+import cn.chenlichao.wmi4j.WMIExecutors;
+import cn.chenlichao.wmi4j.events.EventListener;
+import cn.chenlichao.wmi4j.events.EventQueue;
+import cn.chenlichao.wmi4j.events.EventSubscription;
+import cn.chenlichao.wmi4j.events.OverflowPolicy;
+import cn.chenlichao.wmi4j.events.QueuedEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends the events of subscriptions to an {@link EventJournal}, with the query of the subscription as source,
+ * then passes them on to another listener if any, or closes them.
+ * <p>Each event costs a GetText_ round trip for its snapshot, and appending writes to a mapped segment, which
+ * creates and maps the next segment file when the current one is full. So the polling thread only queues the
+ * events in an {@link EventQueue}; they are journaled and passed on by a {@link QueuedEventListener} on an
+ * executor, in the order received. The default queue blocks the polling when full instead of losing events.</p>
+ * <p>Events which can not be journaled are logged and counted, and still passed on.</p>
+ */
+public class JournalingEventListener implements EventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalingEventListener.class);
+
+    private final EventJournal journal;
+    private final EventListener listener;
+    private final QueuedEventListener queued;
+
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * Only journal the events, which are processed by reading the journal.
+     */
+    public JournalingEventListener(EventJournal journal) {
+        this(journal, null);
+    }
+
+    /**
+     * Journal on the {@link WMIExecutors#getDefaultExecutor() default executor}, through a queue of 1024 events
+     * with the {@link OverflowPolicy#BLOCK} policy.
+     * @param journal Journal of the events.
+     * @param listener Listener the events are passed on to after they are journaled, may be null.
+     */
+    public JournalingEventListener(EventJournal journal, EventListener listener) {
+        this(journal, listener, new EventQueue(1024, OverflowPolicy.BLOCK), WMIExecutors.getDefaultExecutor());
+    }
+
+    /**
+     * @param journal Journal of the events.
+     * @param listener Listener the events are passed on to after they are journaled, may be null.
+     * @param queue Queue of the events not yet journaled, dropped events are not journaled.
+     * @param executor Executor journaling the events.
+     */
+    public JournalingEventListener(EventJournal journal, final EventListener listener, EventQueue queue,
+                                   Executor executor) {
+        if(journal == null) {
+            throw new IllegalArgumentException("Journal is null.");
+        }
+        this.journal = journal;
+        this.listener = listener;
+        this.queued = new QueuedEventListener(new EventListener() {
+            @Override
+            public void onEvents(EventSubscription subscription, List<SWbemObject> events) {
+                journal(subscription, events);
+            }
+
+            @Override
+            public void onError(EventSubscription subscription, WMIException e) {
+                if(listener != null) {
+                    listener.onError(subscription, e);
+                }
+            }
+        }, queue, executor, 64);
+    }
+
+    @Override
+    public void onEvents(EventSubscription subscription, List<SWbemObject> events) {
+        queued.onEvents(subscription, events);
+    }
+
+    @Override
+    public void onError(EventSubscription subscription, WMIException e) {
+        queued.onError(subscription, e);
+    }
+
+    private void journal(EventSubscription subscription, List<SWbemObject> events) {
+        for(SWbemObject event : events) {
+            try {
+                journal.append(subscription.getQuery(), event.snapshot());
+                appended.incrementAndGet();
+            } catch (WMIException e) {
+                failed.incrementAndGet();
+                logger.warn("Failed to read event of {}: {}", subscription, e.getMessage());
+            } catch (IOException e) {
+                failed.incrementAndGet();
+                logger.error("Failed to journal event of {}", subscription, e);
+            }
+        }
+        if(listener != null) {
+            listener.onEvents(subscription, events);
+        } else {
+            for(SWbemObject event : events) {
+                event.close();
+            }
+        }
+    }
+
+    public EventJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * @return Queue of the events not yet journaled.
+     */
+    public EventQueue getQueue() {
+        return queued.getQueue();
+    }
+
+    /**
+     * @return Number of events appended to the journal.
+     */
+    public long getAppended() {
+        return appended.get();
+    }
+
+    /**
+     * @return Number of events which could not be journaled.
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+}
@@ -0,0 +1,379 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events.journal;
+
+import cn.chenlichao.wmi4j.SWbemObjectSnapshot;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Binary format of the journal segments.
+ *
+ * <pre>
+ *     segment: header record* (zeros)
+ *     header:  "WMI4JJNL" version:int32 baseOffset:int64, padded to {@link #HEADER_SIZE} bytes
+ *     record:  length:int32 crc32:int32 payload[length]
+ *     payload: offset:int64 timestamp:int64 source:symbol className:symbol count:varint (name:symbol value)*
+ * </pre>
+ * A symbol is a string interned per segment: 0 followed by the string defines the next symbol, 1 is null,
+ * n is the symbol n - 2. A length of zero ends the records of a segment, the length is written after the payload,
+ * and a record whose CRC does not match is a torn write and also ends the segment.
+ */
+final class RecordCodec {
+
+    static final byte[] MAGIC = {'W', 'M', 'I', '4', 'J', 'J', 'N', 'L'};
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    /** length and CRC */
+    static final int RECORD_OVERHEAD = 8;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final int T_NULL = 0;
+    private static final int T_STRING = 1;
+    private static final int T_BOOLEAN = 2;
+    private static final int T_BYTE = 3;
+    private static final int T_SHORT = 4;
+    private static final int T_INT = 5;
+    private static final int T_LONG = 6;
+    private static final int T_BIG_INTEGER = 7;
+    private static final int T_FLOAT = 8;
+    private static final int T_DOUBLE = 9;
+    private static final int T_CHAR = 10;
+    private static final int T_LIST = 11;
+
+    private static final int SYMBOL_NEW = 0;
+    private static final int SYMBOL_NULL = 1;
+
+    private RecordCodec() {
+    }
+
+    static void writeHeader(ByteBuffer buffer, long baseOffset) {
+        for(int i = 0; i < MAGIC.length; i++) {
+            buffer.put(i, MAGIC[i]);
+        }
+        buffer.putInt(8, VERSION);
+        buffer.putLong(12, baseOffset);
+    }
+
+    /**
+     * @return The base offset of the segment.
+     * @exception IllegalArgumentException The header is not a segment header.
+     */
+    static long readHeader(ByteBuffer buffer) {
+        for(int i = 0; i < MAGIC.length; i++) {
+            if(buffer.get(i) != MAGIC[i]) {
+                throw new IllegalArgumentException("Not a journal segment.");
+            }
+        }
+        int version = buffer.getInt(8);
+        if(version != VERSION) {
+            throw new IllegalArgumentException("Unsupported journal version " + version);
+        }
+        return buffer.getLong(12);
+    }
+
+    static int crc(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Encodes the payloads of one segment, reusing its buffer.
+     */
+    static final class Encoder {
+
+        private final Map<String, Integer> symbols = new HashMap<String, Integer>();
+        private byte[] bytes = new byte[4096];
+        private int size;
+
+        void reset() {
+            symbols.clear();
+        }
+
+        /**
+         * @return Length of the payload, in {@link #bytes()}.
+         */
+        int encode(long offset, long timestamp, String source, SWbemObjectSnapshot snapshot) {
+            size = 0;
+            writeLong(offset);
+            writeLong(timestamp);
+            writeSymbol(source);
+            writeSymbol(snapshot.getClassName());
+            Map<String, Object> properties = snapshot.getProperties();
+            writeVarint(properties.size());
+            for(Map.Entry<String, Object> entry : properties.entrySet()) {
+                writeSymbol(entry.getKey());
+                writeValue(entry.getValue());
+            }
+            return size;
+        }
+
+        byte[] bytes() {
+            return bytes;
+        }
+
+        /**
+         * Define the symbols of a recovered segment again.
+         */
+        void define(List<String> recovered) {
+            symbols.clear();
+            for(int i = 0; i < recovered.size(); i++) {
+                symbols.put(recovered.get(i), i);
+            }
+        }
+
+        private void writeValue(Object value) {
+            if(value == null) {
+                writeByte(T_NULL);
+            } else if(value instanceof String) {
+                writeByte(T_STRING);
+                writeString((String) value);
+            } else if(value instanceof Boolean) {
+                writeByte(T_BOOLEAN);
+                writeByte(((Boolean) value) ? 1 : 0);
+            } else if(value instanceof Byte) {
+                writeByte(T_BYTE);
+                writeByte((Byte) value);
+            } else if(value instanceof Short) {
+                writeByte(T_SHORT);
+                writeVarlong(zigzag((Short) value));
+            } else if(value instanceof Integer) {
+                writeByte(T_INT);
+                writeVarlong(zigzag((Integer) value));
+            } else if(value instanceof Long) {
+                writeByte(T_LONG);
+                writeVarlong(zigzag((Long) value));
+            } else if(value instanceof BigInteger) {
+                writeByte(T_BIG_INTEGER);
+                writeString(value.toString());
+            } else if(value instanceof Float) {
+                writeByte(T_FLOAT);
+                writeInt(Float.floatToIntBits((Float) value));
+            } else if(value instanceof Double) {
+                writeByte(T_DOUBLE);
+                writeLong(Double.doubleToLongBits((Double) value));
+            } else if(value instanceof Character) {
+                writeByte(T_CHAR);
+                writeVarint((Character) value);
+            } else if(value instanceof List) {
+                List<?> list = (List<?>) value;
+                writeByte(T_LIST);
+                writeVarint(list.size());
+                for(Object element : list) {
+                    writeValue(element);
+                }
+            } else {
+                writeByte(T_STRING);
+                writeString(value.toString());
+            }
+        }
+
+        private void writeSymbol(String symbol) {
+            if(symbol == null) {
+                writeVarint(SYMBOL_NULL);
+                return;
+            }
+            Integer index = symbols.get(symbol);
+            if(index != null) {
+                writeVarint(index + 2);
+                return;
+            }
+            symbols.put(symbol, symbols.size());
+            writeVarint(SYMBOL_NEW);
+            writeString(symbol);
+        }
+
+        private void writeString(String value) {
+            byte[] utf8 = value.getBytes(UTF8);
+            writeVarint(utf8.length);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+        }
+
+        private void writeByte(int value) {
+            ensure(1);
+            bytes[size++] = (byte) value;
+        }
+
+        private void writeInt(int value) {
+            ensure(4);
+            for(int shift = 24; shift >= 0; shift -= 8) {
+                bytes[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeLong(long value) {
+            ensure(8);
+            for(int shift = 56; shift >= 0; shift -= 8) {
+                bytes[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeVarint(int value) {
+            writeVarlong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeVarlong(long value) {
+            ensure(10);
+            while((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private void ensure(int more) {
+            if(size + more > bytes.length) {
+                byte[] grown = new byte[Math.max(bytes.length * 2, size + more)];
+                System.arraycopy(bytes, 0, grown, 0, size);
+                bytes = grown;
+            }
+        }
+
+        private static long zigzag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+
+    /**
+     * Decodes the payloads of one segment in order.
+     */
+    static final class Decoder {
+
+        private final List<String> symbols = new ArrayList<String>();
+        private ByteBuffer buffer;
+
+        void reset() {
+            symbols.clear();
+        }
+
+        List<String> getSymbols() {
+            return symbols;
+        }
+
+        /**
+         * @param buffer Buffer positioned at the payload, whose limit is the end of the payload.
+         */
+        JournalRecord decode(ByteBuffer buffer) {
+            this.buffer = buffer;
+            long offset = buffer.getLong();
+            long timestamp = buffer.getLong();
+            String source = readSymbol();
+            String className = readSymbol();
+            int count = readVarint();
+            LinkedHashMap<String, Object> properties = new LinkedHashMap<String, Object>();
+            for(int i = 0; i < count; i++) {
+                String name = readSymbol();
+                properties.put(name, readValue());
+            }
+            this.buffer = null;
+            return new JournalRecord(offset, timestamp, source, SWbemObjectSnapshot.of(className, properties));
+        }
+
+        private Object readValue() {
+            int tag = buffer.get();
+            switch (tag) {
+                case T_NULL:
+                    return null;
+                case T_STRING:
+                    return readString();
+                case T_BOOLEAN:
+                    return buffer.get() != 0;
+                case T_BYTE:
+                    return buffer.get();
+                case T_SHORT:
+                    return (short) unzigzag(readVarlong());
+                case T_INT:
+                    return (int) unzigzag(readVarlong());
+                case T_LONG:
+                    return unzigzag(readVarlong());
+                case T_BIG_INTEGER:
+                    return new BigInteger(readString());
+                case T_FLOAT:
+                    return Float.intBitsToFloat(buffer.getInt());
+                case T_DOUBLE:
+                    return Double.longBitsToDouble(buffer.getLong());
+                case T_CHAR:
+                    return (char) readVarint();
+                case T_LIST:
+                    int size = readVarint();
+                    List<Object> list = new ArrayList<Object>(size);
+                    for(int i = 0; i < size; i++) {
+                        list.add(readValue());
+                    }
+                    return Collections.unmodifiableList(list);
+                default:
+                    throw new IllegalArgumentException("Unknown value tag " + tag);
+            }
+        }
+
+        private String readSymbol() {
+            int value = readVarint();
+            if(value == SYMBOL_NULL) {
+                return null;
+            }
+            if(value == SYMBOL_NEW) {
+                String symbol = readString();
+                symbols.add(symbol);
+                return symbol;
+            }
+            return symbols.get(value - 2);
+        }
+
+        private String readString() {
+            int length = readVarint();
+            byte[] utf8 = new byte[length];
+            buffer.get(utf8);
+            return new String(utf8, UTF8);
+        }
+
+        private int readVarint() {
+            return (int) readVarlong();
+        }
+
+        private long readVarlong() {
+            long value = 0;
+            for(int shift = 0; shift < 64; shift += 7) {
+                byte b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                if((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint.");
+        }
+
+        private static long unzigzag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
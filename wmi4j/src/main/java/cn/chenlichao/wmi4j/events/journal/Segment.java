@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.events.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A segment file of a journal, named by the offset of its first record.
+ */
+final class Segment {
+
+    static final String SUFFIX = ".wmj";
+
+    private final File file;
+    private final long baseOffset;
+    private volatile long lastModified;
+
+    Segment(File file, long baseOffset) {
+        this.file = file;
+        this.baseOffset = baseOffset;
+        this.lastModified = file.lastModified();
+    }
+
+    static String fileName(long baseOffset) {
+        return String.format("%020d%s", baseOffset, SUFFIX);
+    }
+
+    /**
+     * @return The base offset in the name of a segment file, or -1 if it is not one.
+     */
+    static long parseFileName(String name) {
+        if(!name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Map the whole file, the mapping stays valid after the file is closed or deleted.
+     */
+    MappedByteBuffer map(boolean write) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, write ? "rw" : "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            return channel.map(write ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0,
+                    channel.size());
+        } finally {
+            raf.close();
+        }
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    long getBaseOffset() {
+        return baseOffset;
+    }
+
+    long getLastModified() {
+        return lastModified;
+    }
+
+    void touch(long time) {
+        lastModified = time;
+    }
+
+    @Override
+    public String toString() {
+        return file.getName();
+    }
+}
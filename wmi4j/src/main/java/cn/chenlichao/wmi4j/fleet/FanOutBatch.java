@@ -0,0 +1,183 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j.fleet;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Results of a {@link FanOutExecutor} submission, delivered in completion order, so a slow host never holds back
+ * the results of the others. Every host delivers exactly one {@link HostResult}.
+ *
+ * <pre>
+ *     for (HostResult&lt;List&lt;String&gt;&gt; result : batch) {
+ *         if (result.isSuccess()) {
+ *             ...
+ *         }
+ *     }
+ * </pre>
+ */
+public class FanOutBatch<T> implements Iterable<HostResult<T>> {
+
+    private final int size;
+    private final BlockingQueue<HostResult<T>> results = new LinkedBlockingQueue<HostResult<T>>();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger taken = new AtomicInteger();
+    private volatile boolean cancelled;
+
+    FanOutBatch(int size) {
+        this.size = size;
+    }
+
+    /**
+     * @return Number of hosts of this batch.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Number of hosts completed, successfully or not.
+     */
+    public int getCompleted() {
+        return completed.get();
+    }
+
+    /**
+     * @return True if every host is completed.
+     */
+    public boolean isDone() {
+        return completed.get() >= size;
+    }
+
+    /**
+     * Do not start hosts that have not started yet, they complete with a
+     * {@link java.util.concurrent.CancellationException}. Hosts already started run to completion.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @return True if {@link #cancel()} is called.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Wait for the next completed host.
+     * @return Result of the next completed host, or null if the results of all hosts have been taken.
+     * @throws InterruptedException
+     */
+    public HostResult<T> take() throws InterruptedException {
+        if(!reserve()) {
+            return null;
+        }
+        return results.take();
+    }
+
+    /**
+     * Wait up to the timeout for the next completed host.
+     * @return Result of the next completed host, or null if timed out or the results of all hosts have been taken.
+     * @throws InterruptedException
+     */
+    public HostResult<T> poll(long timeout, TimeUnit unit) throws InterruptedException {
+        if(!reserve()) {
+            return null;
+        }
+        HostResult<T> result = results.poll(timeout, unit);
+        if(result == null) {
+            taken.decrementAndGet();
+        }
+        return result;
+    }
+
+    /**
+     * Wait for all hosts and return the results not taken yet.
+     * @return Results in completion order.
+     * @throws InterruptedException
+     */
+    public List<HostResult<T>> awaitAll() throws InterruptedException {
+        List<HostResult<T>> list = new ArrayList<HostResult<T>>();
+        HostResult<T> result;
+        while ((result = take()) != null) {
+            list.add(result);
+        }
+        return list;
+    }
+
+    /**
+     * Blocking iterator of the results in completion order, ends when the results of all hosts have been taken.
+     * {@link Iterator#next()} throws {@link IllegalStateException} if the thread is interrupted.
+     */
+    @Override
+    public Iterator<HostResult<T>> iterator() {
+        return new Iterator<HostResult<T>>() {
+            @Override
+            public boolean hasNext() {
+                return taken.get() < size;
+            }
+
+            @Override
+            public HostResult<T> next() {
+                try {
+                    HostResult<T> result = take();
+                    if(result == null) {
+                        throw new NoSuchElementException();
+                    }
+                    return result;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted waiting for host result.", e);
+                }
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    void complete(HostResult<T> result) {
+        completed.incrementAndGet();
+        results.add(result);
+    }
+
+    private boolean reserve() {
+        while (true) {
+            int current = taken.get();
+            if(current >= size) {
+                return false;
+            }
+            if(taken.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,369 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j.fleet;
+
+import cn.chenlichao.wmi4j.SWbemObject;
+import cn.chenlichao.wmi4j.SWbemServices;
+import cn.chenlichao.wmi4j.WMIExecutors;
+import cn.chenlichao.wmi4j.WMIScope;
+import cn.chenlichao.wmi4j.pool.PoolKey;
+import cn.chenlichao.wmi4j.pool.PooledServices;
+import cn.chenlichao.wmi4j.pool.ServicesPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Runs the same work, such as a WQL query, against many hosts with bounded concurrency.
+ *
+ * <ul>
+ *     <li>At most maxConcurrency hosts run at the same time across all submissions.</li>
+ *     <li>At most maxPerHost tasks run against the same server at the same time,
+ *     even if it is listed with different namespaces or users.</li>
+ *     <li>Each host must complete within hostTimeoutMs since it starts, otherwise it completes with a
+ *     {@link TimeoutException}, so one slow host never stalls the batch. A DCOM call can not be interrupted,
+ *     so the timed out task keeps running in background and keeps counting against maxConcurrency and maxPerHost
+ *     until it returns, then its connection is discarded instead of being returned to the pool.</li>
+ * </ul>
+ *
+ * <p>Hosts waiting for a free slot are queued, no thread is blocked until a host starts.
+ * Connections are borrowed from a {@link ServicesPool}, so polling the same hosts repeatedly reuses them.</p>
+ *
+ * <pre>
+ *     FanOutExecutor executor = new FanOutExecutor(pool, 256, 2, 30000);
+ *     FanOutBatch&lt;List&lt;String&gt;&gt; batch = executor.execQuery(hosts, "SELECT Name,State FROM Win32_Service",
+ *             new ObjectMapper&lt;String&gt;() {
+ *                 public String map(SWbemObject object) throws WMIException {
+ *                     return object.getPropertyByName("Name").getStringValue();
+ *                 }
+ *             });
+ *     for (HostResult&lt;List&lt;String&gt;&gt; result : batch) {
+ *         ...
+ *     }
+ * </pre>
+ */
+public class FanOutExecutor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FanOutExecutor.class);
+
+    private static final int RUNNING = 0;
+    private static final int DONE = 1;
+    private static final int TIMED_OUT = 2;
+
+    private final ServicesPool pool;
+    private final int maxConcurrency;
+    private final int maxPerHost;
+    private final long hostTimeoutMs;
+    private final ScheduledExecutorService timer;
+
+    /** Guards pending, running, runningPerHost and closed. */
+    private final Object lock = new Object();
+    private final LinkedList<HostRun<?>> pending = new LinkedList<HostRun<?>>();
+    /** Number of running tasks of each server, servers without running task are removed. */
+    private final Map<String, Integer> runningPerHost = new HashMap<String, Integer>();
+    private int running;
+    private boolean closed;
+
+    private volatile Executor executor;
+
+    /**
+     * @param pool Pool to borrow connections from, it is not closed by this executor.
+     * @param maxConcurrency Max number of hosts running at the same time.
+     * @param maxPerHost Max number of tasks running against the same server at the same time.
+     * @param hostTimeoutMs Deadline of each host since it starts, zero or negative for no deadline.
+     */
+    public FanOutExecutor(ServicesPool pool, int maxConcurrency, int maxPerHost, long hostTimeoutMs) {
+        if(pool == null) {
+            throw new IllegalArgumentException("Pool is null.");
+        }
+        if(maxConcurrency <= 0 || maxPerHost <= 0) {
+            throw new IllegalArgumentException("Concurrency must be greater than zero.");
+        }
+        this.pool = pool;
+        this.maxConcurrency = maxConcurrency;
+        this.maxPerHost = maxPerHost;
+        this.hostTimeoutMs = hostTimeoutMs;
+        this.timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "wmi4j-fanout-timer");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Set the executor that runs the host tasks.
+     * @param executor The executor, null to use {@link WMIExecutors#getDefaultExecutor()}.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Run the task against every host.
+     * @param hosts Hosts to run against.
+     * @param task Work to run with the connection of each host.
+     * @return Results of the hosts, delivered as they complete.
+     * @exception IllegalStateException If this executor is closed.
+     */
+    public <T> FanOutBatch<T> submit(Collection<PoolKey> hosts, final HostTask<T> task) {
+        List<PoolKey> hostList = new ArrayList<PoolKey>(hosts);
+        FanOutBatch<T> batch = new FanOutBatch<T>(hostList.size());
+        synchronized (lock) {
+            if(closed) {
+                throw new IllegalStateException("Executor is closed.");
+            }
+            for(PoolKey host : hostList) {
+                pending.add(new HostRun<T>(host, task, batch));
+            }
+        }
+        schedule();
+        return batch;
+    }
+
+    /**
+     * Execute the query against every host, and convert each object of the result by the mapper.
+     * The query is executed with wbemFlagReturnImmediately and wbemFlagForwardOnly flags.
+     * Each object, and the objects the mapper reads from it, are released once it is mapped, the object set when
+     * the host completes or fails.
+     * @param hosts Hosts to query.
+     * @param queryString WQL query, such as "SELECT Name,State FROM Win32_Service".
+     * @param mapper Converts each object while the connection is borrowed.
+     * @return Converted results of the hosts, delivered as they complete.
+     */
+    public <R> FanOutBatch<List<R>> execQuery(Collection<PoolKey> hosts, final String queryString,
+                                              final ObjectMapper<R> mapper) {
+        return submit(hosts, new HostTask<List<R>>() {
+            @Override
+            public List<R> execute(PoolKey host, SWbemServices services) throws Exception {
+                List<R> list = new ArrayList<R>();
+                // the connection goes back to the pool, nothing of the result may stay referenced on it
+                try (Stream<SWbemObject> stream = services.execQueryStream(queryString)) {
+                    Iterator<SWbemObject> it = stream.iterator();
+                    while (it.hasNext()) {
+                        SWbemObject object = it.next();
+                        try (WMIScope scope = WMIScope.open()) {
+                            list.add(mapper.map(object));
+                        } finally {
+                            object.close();
+                        }
+                    }
+                }
+                return list;
+            }
+        });
+    }
+
+    /**
+     * Stop accepting submissions. Running hosts complete normally, their deadlines still apply,
+     * hosts not started yet complete with {@link CancellationException}.
+     */
+    @Override
+    public void close() {
+        List<HostRun<?>> cancelled;
+        boolean idle;
+        synchronized (lock) {
+            if(closed) {
+                return;
+            }
+            closed = true;
+            cancelled = new ArrayList<HostRun<?>>(pending);
+            pending.clear();
+            idle = running == 0;
+        }
+        for(HostRun<?> run : cancelled) {
+            run.cancel();
+        }
+        if(idle) {
+            timer.shutdown();
+        }
+    }
+
+    /**
+     * @return Number of servers with running tasks.
+     */
+    int getActiveHosts() {
+        synchronized (lock) {
+            return runningPerHost.size();
+        }
+    }
+
+    /**
+     * Start the pending hosts that have a free slot, in submission order. Hosts of cancelled batches
+     * are completed without taking a slot.
+     */
+    private void schedule() {
+        List<HostRun<?>> toStart = new ArrayList<HostRun<?>>();
+        List<HostRun<?>> cancelled = new ArrayList<HostRun<?>>();
+        synchronized (lock) {
+            Iterator<HostRun<?>> it = pending.iterator();
+            while (it.hasNext()) {
+                HostRun<?> run = it.next();
+                if(run.batch.isCancelled()) {
+                    it.remove();
+                    cancelled.add(run);
+                    continue;
+                }
+                if(running >= maxConcurrency) {
+                    continue;
+                }
+                String server = run.server;
+                Integer count = runningPerHost.get(server);
+                if(count != null && count >= maxPerHost) {
+                    continue;
+                }
+                it.remove();
+                runningPerHost.put(server, (count == null) ? 1 : count + 1);
+                running++;
+                toStart.add(run);
+            }
+        }
+        for(HostRun<?> run : cancelled) {
+            run.cancel();
+        }
+        Executor current = getExecutor();
+        for(HostRun<?> run : toStart) {
+            try {
+                current.execute(run);
+            } catch (RuntimeException e) {
+                run.finish(null, e, false);
+                exited(run);
+            }
+        }
+    }
+
+    /**
+     * Free the slot of a host whose task returned, and start the next pending hosts.
+     */
+    private void exited(HostRun<?> run) {
+        boolean shutdown;
+        synchronized (lock) {
+            running--;
+            Integer count = runningPerHost.get(run.server);
+            if(count == null || count <= 1) {
+                runningPerHost.remove(run.server);
+            } else {
+                runningPerHost.put(run.server, count - 1);
+            }
+            shutdown = closed && running == 0;
+        }
+        if(shutdown) {
+            timer.shutdown();
+        } else {
+            schedule();
+        }
+    }
+
+    private Executor getExecutor() {
+        Executor current = executor;
+        return (current == null) ? WMIExecutors.getDefaultExecutor() : current;
+    }
+
+    /**
+     * Runs the task against one host. The first of completion and deadline delivers the result,
+     * the slot of the host is freed when the task returns.
+     */
+    private class HostRun<T> implements Runnable {
+        private final PoolKey host;
+        private final String server;
+        private final HostTask<T> task;
+        private final FanOutBatch<T> batch;
+        /** {@link #RUNNING}, {@link #DONE} or {@link #TIMED_OUT}. */
+        private final AtomicInteger state = new AtomicInteger(RUNNING);
+        private volatile long start;
+
+        HostRun(PoolKey host, HostTask<T> task, FanOutBatch<T> batch) {
+            this.host = host;
+            this.server = host.getServer().toLowerCase();
+            this.task = task;
+            this.batch = batch;
+            this.start = System.nanoTime();
+        }
+
+        @Override
+        public void run() {
+            start = System.nanoTime();
+            ScheduledFuture<?> deadline = null;
+            if(hostTimeoutMs > 0) {
+                deadline = timer.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        finish(null, new TimeoutException("Host " + host + " did not complete in "
+                                + hostTimeoutMs + "ms."), true);
+                    }
+                }, hostTimeoutMs, TimeUnit.MILLISECONDS);
+            }
+            try {
+                PooledServices pooled = pool.borrow(host);
+                try {
+                    T value = task.execute(host, pooled.getServices());
+                    finish(value, null, false);
+                } finally {
+                    if(state.get() == TIMED_OUT) {
+                        // The connection may still be busy with the abandoned call
+                        pooled.invalidate();
+                    }
+                    pooled.close();
+                }
+            } catch (Throwable e) {
+                if(state.get() == TIMED_OUT) {
+                    logger.debug("Host {} failed after its deadline: {}", host, e.getMessage());
+                }
+                finish(null, e, false);
+            } finally {
+                if(deadline != null) {
+                    deadline.cancel(false);
+                }
+                exited(this);
+            }
+        }
+
+        void cancel() {
+            finish(null, new CancellationException("Cancelled."), false);
+        }
+
+        void finish(T value, Throwable error, boolean timeout) {
+            if(state.compareAndSet(RUNNING, timeout ? TIMED_OUT : DONE)) {
+                long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                batch.complete(new HostResult<T>(host, value, error, timeout, elapsedMs));
+            }
+        }
+    }
+}
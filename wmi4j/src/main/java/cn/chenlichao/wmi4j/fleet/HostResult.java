@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j.fleet;
+
+import cn.chenlichao.wmi4j.pool.PoolKey;
+
+/**
+ * Result, or failure, of a {@link HostTask} on one host.
+ */
+public class HostResult<T> {
+
+    private final PoolKey host;
+    private final T value;
+    private final Throwable error;
+    private final boolean timeout;
+    private final long elapsedMs;
+
+    HostResult(PoolKey host, T value, Throwable error, boolean timeout, long elapsedMs) {
+        this.host = host;
+        this.value = value;
+        this.error = error;
+        this.timeout = timeout;
+        this.elapsedMs = elapsedMs;
+    }
+
+    /**
+     * @return Identity of the host.
+     */
+    public PoolKey getHost() {
+        return host;
+    }
+
+    /**
+     * @return True if the task completed without exception before the deadline.
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * @return Result of the task, null if failed.
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * @return Exception thrown by the task, or a {@link java.util.concurrent.TimeoutException} if the deadline passed,
+     * null if succeeded.
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * @return True if the host did not complete before its deadline.
+     */
+    public boolean isTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @return Milliseconds from the start of the host task to its completion or deadline.
+     */
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    @Override
+    public String toString() {
+        return "HostResult{host=" + host + ", " + (isSuccess() ? "value=" + value : "error=" + error)
+                + ", elapsedMs=" + elapsedMs + "}";
+    }
+}
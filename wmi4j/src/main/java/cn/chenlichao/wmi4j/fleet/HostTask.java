@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j.fleet;
+
+import cn.chenlichao.wmi4j.SWbemServices;
+import cn.chenlichao.wmi4j.pool.PoolKey;
+
+/**
+ * Work executed by {@link FanOutExecutor} against one host.
+ */
+public interface HostTask<T> {
+
+    /**
+     * Execute the work with a connection of the host. The connection is returned to the pool after this method
+     * returns, so the result must not hold WMI objects obtained from it.
+     * @param host Identity of the host connection.
+     * @param services Connection of the host.
+     * @return Result of the host.
+     * @throws Exception Any failure, reported as the failure of the host.
+     */
+    T execute(PoolKey host, SWbemServices services) throws Exception;
+}
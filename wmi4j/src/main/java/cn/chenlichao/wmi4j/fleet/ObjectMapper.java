@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j.fleet;
+
+import cn.chenlichao.wmi4j.SWbemObject;
+import cn.chenlichao.wmi4j.WMIException;
+
+/**
+ * Converts each object of a query result into a value detached from the connection,
+ * used by {@link FanOutExecutor#execQuery(java.util.Collection, String, ObjectMapper)}.
+ */
+public interface ObjectMapper<R> {
+
+    /**
+     * @param object Object of the query result, released with the objects read from it when this method returns,
+     *               so the value must not reference them.
+     * @return Value of the object.
+     * @throws WMIException
+     */
+    R map(SWbemObject object) throws WMIException;
+}
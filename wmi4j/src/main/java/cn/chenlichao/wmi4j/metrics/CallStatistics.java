@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics of the calls of one member of a wrapper class, collected by {@link DefaultMetricsCollector}.
+ */
+public final class CallStatistics {
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    CallStatistics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return Wrapper class simple name and member, such as <code>SWbemObject.Properties_</code>.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Duration of the completed calls, in nanoseconds, the failed ones included.
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return Number of completed calls.
+     */
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    /**
+     * @return Number of failed calls.
+     */
+    public long getErrors() {
+        return errors.get();
+    }
+
+    /**
+     * @return Number of calls in progress.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    void started() {
+        inFlight.incrementAndGet();
+    }
+
+    void completed(long durationNanos, int errorCode) {
+        inFlight.decrementAndGet();
+        latency.record(durationNanos);
+        if(errorCode != 0) {
+            errors.incrementAndGet();
+        }
+    }
+
+    void reset() {
+        latency.reset();
+        errors.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + latency + " errors=" + getErrors() + " inFlight=" + getInFlight();
+    }
+}
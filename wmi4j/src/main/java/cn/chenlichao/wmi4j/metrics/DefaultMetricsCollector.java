@@ -0,0 +1,179 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link MetricsCollector} keeping the metrics in memory, without dependencies: a {@link LatencyHistogram} per
+ * wrapper member and per operation, the number of failures per error code and the number of calls in progress.
+ *
+ * <pre>
+ *     DefaultMetricsCollector metrics = new DefaultMetricsCollector();
+ *     WMIMetrics.setCollector(metrics);
+ *     ...
+ *     CallStatistics values = metrics.getCallStatistics(SWbemProperty.class, "Value");
+ *     System.out.println(values.getLatency().getValueAtPercentile(99));
+ * </pre>
+ * Recording a call does not allocate once its member has been seen.
+ */
+public class DefaultMetricsCollector implements MetricsCollector {
+
+    private final ClassValue<ConcurrentMap<String, CallStatistics>> calls = new ClassValue<ConcurrentMap<String, CallStatistics>>() {
+        @Override
+        protected ConcurrentMap<String, CallStatistics> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<String, CallStatistics>();
+        }
+    };
+    private final ConcurrentMap<String, CallStatistics> callsByName = new ConcurrentHashMap<String, CallStatistics>();
+    private final ConcurrentMap<String, OperationStatistics> operations = new ConcurrentHashMap<String, OperationStatistics>();
+    private final ConcurrentMap<Integer, AtomicLong> errors = new ConcurrentHashMap<Integer, AtomicLong>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @Override
+    public void callStarted(Class<?> wrapper, String member) {
+        inFlight.incrementAndGet();
+        statistics(wrapper, member).started();
+    }
+
+    @Override
+    public void callCompleted(Class<?> wrapper, String member, long durationNanos, int errorCode) {
+        inFlight.decrementAndGet();
+        statistics(wrapper, member).completed(durationNanos, errorCode);
+        if(errorCode != 0) {
+            AtomicLong count = errors.get(errorCode);
+            if(count == null) {
+                AtomicLong created = new AtomicLong();
+                count = errors.putIfAbsent(errorCode, created);
+                if(count == null) {
+                    count = created;
+                }
+            }
+            count.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void operationCompleted(String operation, int roundTrips, long durationNanos, int errorCode) {
+        OperationStatistics statistics = operations.get(operation);
+        if(statistics == null) {
+            OperationStatistics created = new OperationStatistics(operation);
+            statistics = operations.putIfAbsent(operation, created);
+            if(statistics == null) {
+                statistics = created;
+            }
+        }
+        statistics.completed(roundTrips, durationNanos, errorCode);
+    }
+
+    /**
+     * @return Number of calls in progress.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return Metrics of a member of a wrapper class, null if it was never called.
+     */
+    public CallStatistics getCallStatistics(Class<?> wrapper, String member) {
+        return calls.get(wrapper).get(member);
+    }
+
+    /**
+     * @return Metrics of all the members called, by name, such as <code>SWbemObject.Properties_</code>.
+     */
+    public Map<String, CallStatistics> getCallStatistics() {
+        return Collections.unmodifiableMap(new TreeMap<String, CallStatistics>(callsByName));
+    }
+
+    /**
+     * @return Metrics of an operation, null if it was never completed.
+     */
+    public OperationStatistics getOperationStatistics(String operation) {
+        return operations.get(operation);
+    }
+
+    /**
+     * @return Metrics of all the operations, by name.
+     */
+    public Map<String, OperationStatistics> getOperationStatistics() {
+        return Collections.unmodifiableMap(new TreeMap<String, OperationStatistics>(operations));
+    }
+
+    /**
+     * @return Number of failed calls per error code.
+     */
+    public Map<Integer, Long> getErrorCounts() {
+        Map<Integer, Long> counts = new TreeMap<Integer, Long>();
+        for(Map.Entry<Integer, AtomicLong> entry : errors.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().get());
+        }
+        return counts;
+    }
+
+    /**
+     * Clear the recorded values. Calls in progress are still counted.
+     */
+    public void reset() {
+        for(CallStatistics statistics : callsByName.values()) {
+            statistics.reset();
+        }
+        for(OperationStatistics statistics : operations.values()) {
+            statistics.reset();
+        }
+        errors.clear();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("inFlight=").append(getInFlight());
+        for(CallStatistics statistics : getCallStatistics().values()) {
+            sb.append('\n').append(statistics);
+        }
+        for(OperationStatistics statistics : getOperationStatistics().values()) {
+            sb.append('\n').append(statistics);
+        }
+        for(Map.Entry<Integer, Long> entry : getErrorCounts().entrySet()) {
+            sb.append("\nerror 0x").append(Integer.toHexString(entry.getKey())).append(": ").append(entry.getValue());
+        }
+        return sb.toString();
+    }
+
+    private CallStatistics statistics(Class<?> wrapper, String member) {
+        ConcurrentMap<String, CallStatistics> members = calls.get(wrapper);
+        CallStatistics statistics = members.get(member);
+        if(statistics == null) {
+            CallStatistics created = new CallStatistics(wrapper.getSimpleName() + "." + member);
+            statistics = members.putIfAbsent(member, created);
+            if(statistics == null) {
+                statistics = created;
+                callsByName.put(created.getName(), created);
+            }
+        }
+        return statistics;
+    }
+}
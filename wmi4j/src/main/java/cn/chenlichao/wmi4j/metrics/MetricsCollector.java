@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.metrics;
+
+/**
+ * Receives the metrics of the WMI calls, installed with {@link cn.chenlichao.wmi4j.WMIMetrics#setCollector(MetricsCollector)}
+ * or found by {@link java.util.ServiceLoader} as a provider of this interface.
+ *
+ * <p>A call is one IDispatch::Invoke of a wrapper member, a method call, a property read or write, or one
+ * IEnumVARIANT::Next of a collection, named <code>Next</code>. The methods are called by the threads making the
+ * calls, so they must be thread-safe and fast; a collector must not call WMI.</p>
+ */
+public interface MetricsCollector {
+
+    /**
+     * A call is about to be made.
+     * @param wrapper Wrapper class of the object, such as {@link cn.chenlichao.wmi4j.SWbemObject}.
+     * @param member Member name, as passed to GetIDsOfNames.
+     */
+    void callStarted(Class<?> wrapper, String member);
+
+    /**
+     * A call started by {@link #callStarted(Class, String)} returned.
+     * @param durationNanos Duration of the call.
+     * @param errorCode HRESULT of a failed call, the error code of the {@link cn.chenlichao.wmi4j.WMIException}
+     *                  thrown to the caller, or 0.
+     */
+    void callCompleted(Class<?> wrapper, String member, long durationNanos, int errorCode);
+
+    /**
+     * An operation is completed, see {@link cn.chenlichao.wmi4j.WMIMetrics#operation(String)}.
+     * @param operation Operation name.
+     * @param roundTrips Number of calls and GetIDsOfNames requests made by the thread during the operation.
+     * @param durationNanos Duration of the operation.
+     * @param errorCode Error code of the last failed call of the operation, or 0.
+     */
+    void operationCompleted(String operation, int roundTrips, long durationNanos, int errorCode);
+}
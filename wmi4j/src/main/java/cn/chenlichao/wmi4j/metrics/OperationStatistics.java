@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics of an operation, collected by {@link DefaultMetricsCollector}.
+ */
+public final class OperationStatistics {
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram roundTrips = new LatencyHistogram();
+    private final AtomicLong errors = new AtomicLong();
+
+    OperationStatistics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Duration of the operations, in nanoseconds.
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return Number of round trips of each operation, exact up to 32.
+     */
+    public LatencyHistogram getRoundTrips() {
+        return roundTrips;
+    }
+
+    /**
+     * @return Number of completed operations.
+     */
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    /**
+     * @return Number of operations with a failed call.
+     */
+    public long getErrors() {
+        return errors.get();
+    }
+
+    void completed(int roundTripCount, long durationNanos, int errorCode) {
+        latency.record(durationNanos);
+        roundTrips.record(roundTripCount);
+        if(errorCode != 0) {
+            errors.incrementAndGet();
+        }
+    }
+
+    void reset() {
+        latency.reset();
+        roundTrips.reset();
+        errors.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + latency + " roundTrips[" + roundTrips + "] errors=" + getErrors();
+    }
+}
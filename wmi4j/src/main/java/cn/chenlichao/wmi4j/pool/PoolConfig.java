@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.pool;
+
+/**
+ * Configuration of {@link ServicesPool}. All sizes are per {@link PoolKey}, all durations are in milliseconds.
+ * Changes made after the pool is created have no effect.
+ */
+public class PoolConfig implements Cloneable {
+
+    private int minIdle = 0;
+    private int maxTotal = 8;
+    private long maxWaitMs = 30000;
+    private long idleTimeoutMs = 10 * 60 * 1000;
+    private long maxLifetimeMs = 60 * 60 * 1000;
+    private long evictionIntervalMs = 60 * 1000;
+    private boolean validateOnBorrow = true;
+
+    /**
+     * Min number of idle connections kept for each key borrowed within the {@link #getIdleTimeoutMs() idle timeout},
+     * default 0. The evictor opens new connections in background to keep this number.
+     */
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public void setMinIdle(int minIdle) {
+        if(minIdle < 0) {
+            throw new IllegalArgumentException("Min idle must not be negative.");
+        }
+        this.minIdle = minIdle;
+    }
+
+    /**
+     * Max number of connections, idle and borrowed, for each key, default 8.
+     */
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public void setMaxTotal(int maxTotal) {
+        if(maxTotal <= 0) {
+            throw new IllegalArgumentException("Max total must be greater than zero.");
+        }
+        this.maxTotal = maxTotal;
+    }
+
+    /**
+     * How long a borrow waits for a connection when the key already has {@link #getMaxTotal()} connections,
+     * default 30 seconds. Zero or negative value fails immediately.
+     */
+    public long getMaxWaitMs() {
+        return maxWaitMs;
+    }
+
+    public void setMaxWaitMs(long maxWaitMs) {
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    /**
+     * How long a connection can stay idle before it is closed by the evictor, default 10 minutes.
+     * Zero or negative value disables idle eviction.
+     */
+    public long getIdleTimeoutMs() {
+        return idleTimeoutMs;
+    }
+
+    public void setIdleTimeoutMs(long idleTimeoutMs) {
+        this.idleTimeoutMs = idleTimeoutMs;
+    }
+
+    /**
+     * Max lifetime of a connection since it is opened, default 1 hour. An expired connection is closed when it is
+     * returned or found idle. Zero or negative value disables the lifetime limit.
+     */
+    public long getMaxLifetimeMs() {
+        return maxLifetimeMs;
+    }
+
+    public void setMaxLifetimeMs(long maxLifetimeMs) {
+        this.maxLifetimeMs = maxLifetimeMs;
+    }
+
+    /**
+     * Interval of the evictor, default 1 minute. Zero or negative value disables the evictor,
+     * then idle connections are only checked on borrow and {@link #getMinIdle()} is not maintained.
+     */
+    public long getEvictionIntervalMs() {
+        return evictionIntervalMs;
+    }
+
+    public void setEvictionIntervalMs(long evictionIntervalMs) {
+        this.evictionIntervalMs = evictionIntervalMs;
+    }
+
+    /**
+     * Whether to verify an idle connection is alive before it is borrowed, default true.
+     * Validation costs one round trip, see {@link cn.chenlichao.wmi4j.SWbemLocator#isConnected()}.
+     */
+    public boolean isValidateOnBorrow() {
+        return validateOnBorrow;
+    }
+
+    public void setValidateOnBorrow(boolean validateOnBorrow) {
+        this.validateOnBorrow = validateOnBorrow;
+    }
+
+    @Override
+    protected PoolConfig clone() {
+        try {
+            return (PoolConfig) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
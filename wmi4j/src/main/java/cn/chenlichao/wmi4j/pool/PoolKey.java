@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.pool;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Identifies the connections of a {@link ServicesPool} that can be shared: the server, namespace,
+ * user and authority the connection is authenticated with.
+ *
+ * <p>The password is part of the identity as well, so a caller with a wrong password never borrows a connection
+ * opened by someone else. It is not included in {@link #toString()}.</p>
+ */
+public final class PoolKey {
+
+    /**
+     * Namespace of keys created with a null namespace.
+     */
+    public static final String DEFAULT_NAMESPACE = "root\\cimv2";
+
+    private final String server;
+    private final String namespace;
+    private final String username;
+    private final String password;
+    private final String authority;
+
+    /**
+     * @param server Computer name or ip to which you are connecting.
+     * @param namespace Namespace to which you log on, null for the default namespace root\CIMv2.
+     *                  Slashes are treated as backslashes, so root/cimv2, root\CIMV2 and null are the same key.
+     * @param username User name to use to connect, in the form of either a user name or a Domain\Username.
+     * @param password Password to use to connect.
+     * @param authority <strong>[Optional]</strong> Authority passed to
+     *                  {@link cn.chenlichao.wmi4j.SWbemLocator#connectServer(String, String, cn.chenlichao.wmi4j.consts.Flags.SecurityFlag, cn.chenlichao.wmi4j.SWbemNamedValueSet) SWbemLocator.connectServer()}, may be null.
+     */
+    public PoolKey(String server, String namespace, String username, String password, String authority) {
+        if(StringUtils.isEmpty(server)) {
+            throw new IllegalArgumentException("Server is empty.");
+        }
+        if(StringUtils.isEmpty(username)) {
+            throw new IllegalArgumentException("Username is empty.");
+        }
+        this.server = server;
+        this.namespace = normalizeNamespace(namespace);
+        this.username = username;
+        this.password = password;
+        this.authority = authority;
+    }
+
+    /**
+     * Use null authority for {@link #PoolKey(String, String, String, String, String)}
+     */
+    public PoolKey(String server, String namespace, String username, String password) {
+        this(server, namespace, username, password, null);
+    }
+
+    public String getServer() {
+        return server;
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * @return Password to use to connect, for {@link ServicesConnector} implementations.
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    public String getAuthority() {
+        return authority;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) {
+            return true;
+        }
+        if(!(o instanceof PoolKey)) {
+            return false;
+        }
+        PoolKey other = (PoolKey) o;
+        return server.equalsIgnoreCase(other.server)
+                && namespace.equalsIgnoreCase(other.namespace)
+                && username.equalsIgnoreCase(other.username)
+                && StringUtils.equals(password, other.password)
+                && StringUtils.equalsIgnoreCase(authority, other.authority);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = server.toLowerCase().hashCode();
+        result = 31 * result + namespace.toLowerCase().hashCode();
+        result = 31 * result + username.toLowerCase().hashCode();
+        result = 31 * result + (authority == null ? 0 : authority.toLowerCase().hashCode());
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(username).append("@\\\\").append(server).append('\\').append(namespace);
+        if(authority != null) {
+            sb.append(" (").append(authority).append(')');
+        }
+        return sb.toString();
+    }
+
+    private static String normalizeNamespace(String namespace) {
+        if(StringUtils.isBlank(namespace)) {
+            return DEFAULT_NAMESPACE;
+        }
+        String normalized = namespace.trim().replace('/', '\\');
+        while (normalized.startsWith("\\")) {
+            normalized = normalized.substring(1);
+        }
+        while (normalized.endsWith("\\")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+}
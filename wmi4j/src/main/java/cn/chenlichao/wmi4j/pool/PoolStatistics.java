@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.pool;
+
+/**
+ * Snapshot of the statistics of a {@link ServicesPool}. Counters are accumulated since the pool is created.
+ */
+public class PoolStatistics {
+
+    private final int keys;
+    private final int idle;
+    private final int active;
+    private final long borrowed;
+    private final long created;
+    private final long destroyed;
+    private final long connectFailures;
+    private final long validationFailures;
+    private final long expired;
+    private final long evicted;
+    private final long timeouts;
+
+    PoolStatistics(int keys, int idle, int active, long borrowed, long created, long destroyed,
+                   long connectFailures, long validationFailures, long expired, long evicted, long timeouts) {
+        this.keys = keys;
+        this.idle = idle;
+        this.active = active;
+        this.borrowed = borrowed;
+        this.created = created;
+        this.destroyed = destroyed;
+        this.connectFailures = connectFailures;
+        this.validationFailures = validationFailures;
+        this.expired = expired;
+        this.evicted = evicted;
+        this.timeouts = timeouts;
+    }
+
+    /**
+     * @return Number of keys that have connections or borrowers.
+     */
+    public int getKeys() {
+        return keys;
+    }
+
+    /**
+     * @return Number of idle connections.
+     */
+    public int getIdle() {
+        return idle;
+    }
+
+    /**
+     * @return Number of borrowed connections.
+     */
+    public int getActive() {
+        return active;
+    }
+
+    /**
+     * @return Number of successful borrows.
+     */
+    public long getBorrowed() {
+        return borrowed;
+    }
+
+    /**
+     * @return Number of connections opened.
+     */
+    public long getCreated() {
+        return created;
+    }
+
+    /**
+     * @return Number of connections closed.
+     */
+    public long getDestroyed() {
+        return destroyed;
+    }
+
+    /**
+     * @return Number of failed attempts to open a connection.
+     */
+    public long getConnectFailures() {
+        return connectFailures;
+    }
+
+    /**
+     * @return Number of idle connections found dead on borrow.
+     */
+    public long getValidationFailures() {
+        return validationFailures;
+    }
+
+    /**
+     * @return Number of connections closed because they exceeded the max lifetime.
+     */
+    public long getExpired() {
+        return expired;
+    }
+
+    /**
+     * @return Number of connections closed because they were idle too long.
+     */
+    public long getEvicted() {
+        return evicted;
+    }
+
+    /**
+     * @return Number of borrows that timed out waiting for a connection.
+     */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStatistics{keys=" + keys + ", idle=" + idle + ", active=" + active + ", borrowed=" + borrowed
+                + ", created=" + created + ", destroyed=" + destroyed + ", connectFailures=" + connectFailures
+                + ", validationFailures=" + validationFailures + ", expired=" + expired + ", evicted=" + evicted
+                + ", timeouts=" + timeouts + "}";
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.pool;
+
+import cn.chenlichao.wmi4j.SWbemServices;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A connection borrowed from {@link ServicesPool}. Call {@link #close()} to return it to the pool,
+ * the {@link SWbemServices} object and every object obtained from it must not be used after that.
+ *
+ * <pre>
+ *     try (PooledServices pooled = pool.borrow(key)) {
+ *         SWbemObjectSet result = pooled.getServices().execQuery("SELECT Name,State FROM Win32_Service");
+ *         ...
+ *     }
+ * </pre>
+ */
+public class PooledServices implements AutoCloseable {
+
+    private final ServicesPool pool;
+    private final ServicesPool.KeyedPool keyedPool;
+    private final int generation;
+    private final ServicesConnector.Connection connection;
+    private final long createdAt;
+
+    private final AtomicBoolean borrowed = new AtomicBoolean();
+    private volatile boolean broken;
+    private volatile long lastReturnedAt;
+
+    PooledServices(ServicesPool pool, ServicesPool.KeyedPool keyedPool, int generation,
+                   ServicesConnector.Connection connection) {
+        this.pool = pool;
+        this.keyedPool = keyedPool;
+        this.generation = generation;
+        this.connection = connection;
+        this.createdAt = System.nanoTime();
+        this.lastReturnedAt = createdAt;
+    }
+
+    /**
+     * @return The pooled connection.
+     */
+    public SWbemServices getServices() {
+        return connection.getServices();
+    }
+
+    /**
+     * @return Key of this connection.
+     */
+    public PoolKey getKey() {
+        return keyedPool.key;
+    }
+
+    /**
+     * Mark this connection broken, so it is closed instead of being reused when it is returned.
+     * Call this method if a call failed because the connection is dead.
+     */
+    public void invalidate() {
+        broken = true;
+    }
+
+    /**
+     * Return this connection to the pool. Calling this method more than once has no effect.
+     */
+    @Override
+    public void close() {
+        if(borrowed.compareAndSet(true, false)) {
+            pool.release(this);
+        }
+    }
+
+    ServicesPool.KeyedPool getKeyedPool() {
+        return keyedPool;
+    }
+
+    int getGeneration() {
+        return generation;
+    }
+
+    ServicesConnector.Connection getConnection() {
+        return connection;
+    }
+
+    boolean markBorrowed() {
+        return borrowed.compareAndSet(false, true);
+    }
+
+    boolean isBroken() {
+        return broken;
+    }
+
+    long getCreatedAt() {
+        return createdAt;
+    }
+
+    long getLastReturnedAt() {
+        return lastReturnedAt;
+    }
+
+    void setLastReturnedAt(long lastReturnedAt) {
+        this.lastReturnedAt = lastReturnedAt;
+    }
+}
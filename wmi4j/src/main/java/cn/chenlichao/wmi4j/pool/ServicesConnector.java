@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.pool;
+
+import cn.chenlichao.wmi4j.SWbemLocator;
+import cn.chenlichao.wmi4j.SWbemServices;
+import cn.chenlichao.wmi4j.WMIException;
+
+import java.net.UnknownHostException;
+
+/**
+ * Opens the connections of a {@link ServicesPool}. The default connector {@link #LOCATOR} connects by
+ * {@link SWbemLocator}, set another one to pool connections opened in a different way.
+ */
+public interface ServicesConnector {
+
+    /**
+     * Connect by {@link SWbemLocator#connectServer(String, String, cn.chenlichao.wmi4j.consts.Flags.SecurityFlag, cn.chenlichao.wmi4j.SWbemNamedValueSet)}.
+     */
+    ServicesConnector LOCATOR = new ServicesConnector() {
+        @Override
+        public Connection connect(PoolKey key) throws WMIException, UnknownHostException {
+            final SWbemLocator locator = new SWbemLocator(key.getServer(), key.getUsername(), key.getPassword(),
+                    key.getNamespace());
+            final SWbemServices services;
+            try {
+                services = locator.connectServer(null, key.getAuthority(), null, null);
+            } catch (WMIException e) {
+                disconnectQuietly(locator);
+                throw e;
+            } catch (UnknownHostException e) {
+                disconnectQuietly(locator);
+                throw e;
+            } catch (RuntimeException e) {
+                disconnectQuietly(locator);
+                throw e;
+            }
+            return new Connection() {
+                @Override
+                public SWbemServices getServices() {
+                    return services;
+                }
+
+                @Override
+                public boolean isConnected() {
+                    return locator.isConnected();
+                }
+
+                @Override
+                public void disconnect() throws WMIException {
+                    locator.disconnect();
+                }
+            };
+        }
+
+        private void disconnectQuietly(SWbemLocator locator) {
+            try {
+                locator.disconnect();
+            } catch (Exception e) {
+                // the connection failed, nothing left to close
+            }
+        }
+    };
+
+    /**
+     * Open a connection of the key.
+     * @param key Identity of the connection.
+     * @return The open connection.
+     * @throws WMIException Failed to connect to the server.
+     * @throws UnknownHostException
+     */
+    Connection connect(PoolKey key) throws WMIException, UnknownHostException;
+
+    /**
+     * A connection opened by {@link ServicesConnector}.
+     */
+    interface Connection {
+
+        /**
+         * @return The connected services.
+         */
+        SWbemServices getServices();
+
+        /**
+         * @return Whether the connection is still usable, checked before an idle connection is borrowed.
+         */
+        boolean isConnected();
+
+        /**
+         * Close the connection.
+         * @throws WMIException Failed to close the connection.
+         */
+        void disconnect() throws WMIException;
+    }
+}
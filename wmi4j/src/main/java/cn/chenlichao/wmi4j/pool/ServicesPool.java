@@ -0,0 +1,460 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.pool;
+
+import cn.chenlichao.wmi4j.SWbemServices;
+import cn.chenlichao.wmi4j.WMIException;
+import cn.chenlichao.wmi4j.WMIScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.UnknownHostException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of authenticated {@link SWbemServices} connections, keyed by {@link PoolKey}.
+ *
+ * <p>Opening a connection by {@link cn.chenlichao.wmi4j.SWbemLocator#connectServer()} costs an NTLM handshake and several DCOM round trips.
+ * This pool keeps connections open after use, so callers that poll the same hosts repeatedly pay that cost once.
+ * Each borrowed connection is used by one caller at a time.</p>
+ *
+ * <pre>
+ *     ServicesPool pool = new ServicesPool(config);
+ *     PoolKey key = new PoolKey("192.168.1.201", "root\\cimv2", "administrator", "password");
+ *     try (PooledServices pooled = pool.borrow(key)) {
+ *         SWbemObject object = pooled.getServices().get("Win32_Service.Name='AppMgmt'");
+ *     }
+ * </pre>
+ */
+public class ServicesPool implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServicesPool.class);
+
+    private static final AtomicLong poolCounter = new AtomicLong();
+
+    private final PoolConfig config;
+    private final ServicesConnector connector;
+    private final ConcurrentMap<PoolKey, KeyedPool> pools = new ConcurrentHashMap<PoolKey, KeyedPool>();
+    private final ScheduledExecutorService evictor;
+
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong destroyed = new AtomicLong();
+    private final AtomicLong connectFailures = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    private volatile boolean closed;
+
+    /**
+     * Create a pool with default {@link PoolConfig}.
+     */
+    public ServicesPool() {
+        this(new PoolConfig());
+    }
+
+    /**
+     * Use {@link ServicesConnector#LOCATOR} for {@link #ServicesPool(PoolConfig, ServicesConnector)}
+     */
+    public ServicesPool(PoolConfig config) {
+        this(config, ServicesConnector.LOCATOR);
+    }
+
+    /**
+     * @param config Configuration of the pool, a copy is taken.
+     * @param connector Opens the connections of the pool.
+     */
+    public ServicesPool(PoolConfig config, ServicesConnector connector) {
+        if(connector == null) {
+            throw new IllegalArgumentException("Connector is null.");
+        }
+        if(config.getMinIdle() > config.getMaxTotal()) {
+            throw new IllegalArgumentException("Min idle must not be greater than max total.");
+        }
+        this.config = config.clone();
+        this.connector = connector;
+        long interval = this.config.getEvictionIntervalMs();
+        if(interval > 0) {
+            final String threadName = "wmi4j-pool-evictor-" + poolCounter.incrementAndGet();
+            evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, threadName);
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            evictor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        evict();
+                    } catch (Throwable e) {
+                        logger.warn("Exception occurred when evict idle connections.", e);
+                    }
+                }
+            }, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            evictor = null;
+        }
+    }
+
+    /**
+     * Borrow a connection of the key. An idle connection is reused if there is one,
+     * otherwise a new connection is opened if the key has less than {@link PoolConfig#getMaxTotal()} connections,
+     * otherwise waits up to {@link PoolConfig#getMaxWaitMs()} for a connection to be returned.
+     *
+     * @param key Identity of the connection.
+     * @return The borrowed connection, call {@link PooledServices#close()} to return it.
+     * @throws WMIException Failed to connect to the server, or timed out waiting for a connection.
+     * @throws UnknownHostException
+     * @exception IllegalStateException If the pool is closed.
+     */
+    public PooledServices borrow(PoolKey key) throws WMIException, UnknownHostException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, config.getMaxWaitMs()));
+        while (true) {
+            checkOpen();
+            KeyedPool keyedPool = getKeyedPool(key);
+            PooledServices candidate = null;
+            synchronized (keyedPool) {
+                if(keyedPool.retired) {
+                    continue;
+                }
+                keyedPool.lastBorrowAt = System.nanoTime();
+                while (keyedPool.idle.isEmpty() && keyedPool.total >= config.getMaxTotal()) {
+                    long remaining = deadline - System.nanoTime();
+                    if(remaining <= 0) {
+                        timeouts.incrementAndGet();
+                        throw new WMIException(0, "Timeout waiting for an idle connection of " + key + ".");
+                    }
+                    keyedPool.waiters++;
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(keyedPool, remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new WMIException(0, "Interrupted waiting for an idle connection of " + key + ".", e);
+                    } finally {
+                        keyedPool.waiters--;
+                    }
+                    checkOpen();
+                }
+                if(!keyedPool.idle.isEmpty()) {
+                    candidate = keyedPool.idle.pollFirst();
+                } else {
+                    keyedPool.total++;
+                }
+            }
+            if(candidate == null) {
+                PooledServices connection = open(keyedPool);
+                connection.markBorrowed();
+                borrowed.incrementAndGet();
+                return connection;
+            }
+            if(isExpired(candidate, System.nanoTime())) {
+                expired.incrementAndGet();
+                destroy(keyedPool, candidate);
+                continue;
+            }
+            if(config.isValidateOnBorrow() && !validate(candidate)) {
+                validationFailures.incrementAndGet();
+                destroy(keyedPool, candidate);
+                continue;
+            }
+            candidate.markBorrowed();
+            borrowed.incrementAndGet();
+            return candidate;
+        }
+    }
+
+    /**
+     * Use the default namespace and null authority for {@link #borrow(PoolKey)}
+     */
+    public PooledServices borrow(String server, String username, String password) throws WMIException, UnknownHostException {
+        return borrow(new PoolKey(server, null, username, password));
+    }
+
+    /**
+     * Close idle connections of the key, borrowed connections are closed when they are returned.
+     * @param key Identity of the connections.
+     */
+    public void clear(PoolKey key) {
+        KeyedPool keyedPool = pools.get(key);
+        if(keyedPool == null) {
+            return;
+        }
+        List<PooledServices> toDestroy;
+        synchronized (keyedPool) {
+            toDestroy = new ArrayList<PooledServices>(keyedPool.idle);
+            keyedPool.idle.clear();
+            keyedPool.generation++;
+        }
+        for(PooledServices connection : toDestroy) {
+            destroy(keyedPool, connection);
+        }
+    }
+
+    /**
+     * Get the statistics of this pool.
+     * @return Snapshot of the statistics.
+     */
+    public PoolStatistics getStatistics() {
+        int keys = 0;
+        int idle = 0;
+        int active = 0;
+        for(KeyedPool keyedPool : pools.values()) {
+            synchronized (keyedPool) {
+                keys++;
+                idle += keyedPool.idle.size();
+                active += keyedPool.total - keyedPool.idle.size();
+            }
+        }
+        return new PoolStatistics(keys, idle, active, borrowed.get(), created.get(), destroyed.get(),
+                connectFailures.get(), validationFailures.get(), expired.get(), evicted.get(), timeouts.get());
+    }
+
+    /**
+     * Close this pool and all idle connections. Borrowed connections are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        if(closed) {
+            return;
+        }
+        closed = true;
+        if(evictor != null) {
+            evictor.shutdownNow();
+        }
+        for(KeyedPool keyedPool : pools.values()) {
+            List<PooledServices> toDestroy;
+            synchronized (keyedPool) {
+                keyedPool.retired = true;
+                toDestroy = new ArrayList<PooledServices>(keyedPool.idle);
+                keyedPool.idle.clear();
+                keyedPool.notifyAll();
+            }
+            for(PooledServices connection : toDestroy) {
+                destroy(keyedPool, connection);
+            }
+        }
+        pools.clear();
+    }
+
+    void release(PooledServices connection) {
+        KeyedPool keyedPool = connection.getKeyedPool();
+        long now = System.nanoTime();
+        boolean keep = false;
+        if(!closed && !connection.isBroken()) {
+            if(isExpired(connection, now)) {
+                expired.incrementAndGet();
+            } else {
+                synchronized (keyedPool) {
+                    if(!keyedPool.retired && connection.getGeneration() == keyedPool.generation) {
+                        connection.setLastReturnedAt(now);
+                        keyedPool.idle.addFirst(connection);
+                        keyedPool.notify();
+                        keep = true;
+                    }
+                }
+            }
+        }
+        if(!keep) {
+            destroy(keyedPool, connection);
+        }
+    }
+
+    /**
+     * Close expired and idle connections, then open connections to keep the min idle number.
+     */
+    void evict() {
+        long now = System.nanoTime();
+        long idleTimeout = TimeUnit.MILLISECONDS.toNanos(config.getIdleTimeoutMs());
+        for(KeyedPool keyedPool : pools.values()) {
+            List<PooledServices> toDestroy = new ArrayList<PooledServices>();
+            int toCreate = 0;
+            synchronized (keyedPool) {
+                if(keyedPool.retired) {
+                    continue;
+                }
+                // Keys not borrowed within the idle timeout do not keep min idle connections
+                boolean stale = idleTimeout > 0 && now - keyedPool.lastBorrowAt > idleTimeout;
+                int minIdle = stale ? 0 : config.getMinIdle();
+                // The oldest idle connections are at the tail
+                Iterator<PooledServices> it = keyedPool.idle.descendingIterator();
+                while (it.hasNext()) {
+                    PooledServices connection = it.next();
+                    if(isExpired(connection, now)) {
+                        expired.incrementAndGet();
+                    } else if(idleTimeout > 0 && now - connection.getLastReturnedAt() > idleTimeout
+                            && keyedPool.idle.size() > minIdle) {
+                        evicted.incrementAndGet();
+                    } else {
+                        continue;
+                    }
+                    it.remove();
+                    toDestroy.add(connection);
+                }
+                int idleAfter = keyedPool.idle.size();
+                int totalAfter = keyedPool.total - toDestroy.size();
+                if(idleAfter < minIdle) {
+                    toCreate = Math.min(minIdle - idleAfter, config.getMaxTotal() - totalAfter);
+                }
+                if(totalAfter == 0 && toCreate <= 0 && keyedPool.waiters == 0 && (stale || idleTimeout <= 0)) {
+                    keyedPool.retired = true;
+                    pools.remove(keyedPool.key, keyedPool);
+                }
+                keyedPool.total += Math.max(0, toCreate);
+            }
+            for(PooledServices connection : toDestroy) {
+                destroy(keyedPool, connection);
+            }
+            for(int i=0; i<toCreate; i++) {
+                try {
+                    release(open(keyedPool));
+                } catch (Exception e) {
+                    logger.warn("Failed to open idle connection of {}: {}", keyedPool.key, e.getMessage());
+                    for(int j=i+1; j<toCreate; j++) {
+                        synchronized (keyedPool) {
+                            keyedPool.total--;
+                        }
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    private KeyedPool getKeyedPool(PoolKey key) {
+        KeyedPool keyedPool = pools.get(key);
+        if(keyedPool == null) {
+            KeyedPool newPool = new KeyedPool(key);
+            keyedPool = pools.putIfAbsent(key, newPool);
+            if(keyedPool == null) {
+                keyedPool = newPool;
+            }
+        }
+        return keyedPool;
+    }
+
+    /**
+     * Open a new connection, the caller must have reserved a slot of the key by increasing the total number.
+     */
+    private PooledServices open(KeyedPool keyedPool) throws WMIException, UnknownHostException {
+        PoolKey key = keyedPool.key;
+        ServicesConnector.Connection connection;
+        try {
+            connection = connector.connect(key);
+        } catch (WMIException e) {
+            connectFailed(keyedPool);
+            throw e;
+        } catch (UnknownHostException e) {
+            connectFailed(keyedPool);
+            throw e;
+        } catch (RuntimeException e) {
+            connectFailed(keyedPool);
+            throw e;
+        }
+        // the pool owns the connection, it must outlive the scope of the borrower that happened to open it
+        WMIScope scope = WMIScope.current();
+        if(scope != null) {
+            scope.detach(connection.getServices());
+        }
+        created.incrementAndGet();
+        logger.debug("Opened pooled connection of {}.", key);
+        int generation;
+        synchronized (keyedPool) {
+            generation = keyedPool.generation;
+        }
+        return new PooledServices(this, keyedPool, generation, connection);
+    }
+
+    private void connectFailed(KeyedPool keyedPool) {
+        connectFailures.incrementAndGet();
+        synchronized (keyedPool) {
+            keyedPool.total--;
+            keyedPool.notify();
+        }
+    }
+
+    private void destroy(KeyedPool keyedPool, PooledServices connection) {
+        synchronized (keyedPool) {
+            keyedPool.total--;
+            keyedPool.notify();
+        }
+        destroyed.incrementAndGet();
+        try {
+            connection.getConnection().disconnect();
+            logger.debug("Closed pooled connection of {}.", keyedPool.key);
+        } catch (Exception e) {
+            logger.debug("Exception occurred when close pooled connection of " + keyedPool.key + ".", e);
+        }
+    }
+
+    private boolean validate(PooledServices connection) {
+        try {
+            return connection.getConnection().isConnected();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private boolean isExpired(PooledServices connection, long now) {
+        long maxLifetime = config.getMaxLifetimeMs();
+        return maxLifetime > 0 && now - connection.getCreatedAt() > TimeUnit.MILLISECONDS.toNanos(maxLifetime);
+    }
+
+    private void checkOpen() {
+        if(closed) {
+            throw new IllegalStateException("Pool is closed.");
+        }
+    }
+
+    /**
+     * Connections of one key, guarded by its own monitor.
+     */
+    static class KeyedPool {
+        final PoolKey key;
+        /** Idle connections, the most recently returned first. */
+        final Deque<PooledServices> idle = new ArrayDeque<PooledServices>();
+        /** Number of idle, borrowed and opening connections. */
+        int total;
+        int waiters;
+        /** Increased by {@link #clear(PoolKey)}, connections of older generations are closed when returned. */
+        int generation;
+        long lastBorrowAt = System.nanoTime();
+        boolean retired;
+
+        KeyedPool(PoolKey key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.trace;
+
+import cn.chenlichao.wmi4j.DispIdCache;
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.core.IJIComObject;
+import org.jinterop.dcom.core.JIArray;
+import org.jinterop.dcom.core.JICallBuilder;
+import org.jinterop.dcom.core.JIVariant;
+import org.jinterop.dcom.impls.JIObjectFactory;
+import org.jinterop.dcom.impls.automation.IJIDispatch;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A COM object returned during a recording, every call made on it is recorded by the {@link TraceRecorder}.
+ *
+ * <p>The recording object is a proxy of {@link IJIDispatch}, or of {@link IJIComObject} for the IEnumVARIANT
+ * of collections. Invoke calls, QueryInterface and IEnumVARIANT::Next are recorded, objects in their results are
+ * replaced by recording objects and objects in the parameters by the real ones. Other calls, like addRef and
+ * release, are passed through.</p>
+ */
+final class RecordingComObject implements InvocationHandler {
+
+    private static final int S_FALSE = 1;
+
+    /**
+     * Opnum of IEnumVARIANT::Next on the wire, j-interop adds the IUnknown methods to the method index.
+     */
+    private static final int NEXT_OPNUM;
+
+    static {
+        JICallBuilder next = new JICallBuilder(true);
+        next.setOpnum(0);
+        NEXT_OPNUM = next.getOpnum();
+    }
+
+    private final TraceRecorder recorder;
+    private final IJIComObject target;
+    private final int id;
+    private final IJIComObject proxy;
+    private final Map<Integer, String> names = new HashMap<Integer, String>();
+
+    private RecordingComObject(TraceRecorder recorder, IJIComObject target, int id) {
+        this.recorder = recorder;
+        this.target = target;
+        this.id = id;
+        Class<?>[] interfaces = (target instanceof IJIDispatch) ? new Class<?>[]{IJIDispatch.class, DispIdCache.Listener.class}
+                : new Class<?>[]{IJIComObject.class};
+        this.proxy = (IJIComObject) Proxy.newProxyInstance(RecordingComObject.class.getClassLoader(), interfaces, this);
+    }
+
+    /**
+     * Wrap an object returned during the recording. Objects supporting IDispatch are narrowed first,
+     * like wmi4j does before wrapping them.
+     */
+    static IJIComObject wrap(TraceRecorder recorder, IJIComObject comObject, int id) throws JIException {
+        IJIComObject target = comObject;
+        if(!(target instanceof IJIDispatch) && target.isDispatchSupported()) {
+            target = JIObjectFactory.narrowObject(target);
+            if(!(target instanceof IJIDispatch)) {
+                target = JIObjectFactory.narrowObject(target.queryInterface(IJIDispatch.IID));
+            }
+        }
+        return new RecordingComObject(recorder, target, id).proxy;
+    }
+
+    /**
+     * @return The recording object behind a j-interop interface, or null.
+     */
+    static RecordingComObject of(Object comObject) {
+        if(comObject != null && Proxy.isProxyClass(comObject.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(comObject);
+            if(handler instanceof RecordingComObject) {
+                return (RecordingComObject) handler;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Number of a recording object in the trace, 0 for any other object.
+     */
+    static int idOf(Object comObject) {
+        RecordingComObject object = of(comObject);
+        return object == null ? 0 : object.id;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if(method.getDeclaringClass() == Object.class) {
+            if("equals".equals(name)) {
+                return proxy == args[0];
+            } else if("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            }
+            return "Recording[" + id + "]" + target;
+        }
+        if("dispIdResolved".equals(name)) {
+            synchronized (names) {
+                names.put((Integer) args[0], (String) args[1]);
+            }
+            return null;
+        }
+        if("get".equals(name)) {
+            return invoke(method, args, TraceRecord.PROPERTY_GET);
+        } else if("put".equals(name) || "putRef".equals(name)) {
+            return invoke(method, args, TraceRecord.PROPERTY_PUT);
+        } else if("callMethod".equals(name) || "callMethodA".equals(name)) {
+            return invoke(method, args, TraceRecord.METHOD);
+        } else if("queryInterface".equals(name)) {
+            return queryInterface((String) args[0]);
+        } else if("call".equals(name) && !(target instanceof IJIDispatch)
+                && ((JICallBuilder) args[0]).getOpnum() == NEXT_OPNUM) {
+            return next(method, args);
+        }
+        return passThrough(method, args);
+    }
+
+    private Object passThrough(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Invoke a member with the real objects in the parameters, record the call and the results.
+     */
+    private Object invoke(Method method, Object[] args, int kind) throws Throwable {
+        String member;
+        if(args[0] instanceof String) {
+            member = (String) args[0];
+        } else {
+            synchronized (names) {
+                member = names.get(args[0]);
+            }
+            if(member == null) {
+                member = "#" + args[0];
+            }
+        }
+        Object[] params = null;
+        Object[] targetArgs = args;
+        if(args.length > 1 && args[1] != null) {
+            params = (args[1] instanceof Object[]) ? (Object[]) args[1] : new Object[]{args[1]};
+            Object[] unwrapped = unwrap(params);
+            if(unwrapped != params) {
+                targetArgs = args.clone();
+                targetArgs[1] = (args[1] instanceof Object[]) ? unwrapped : unwrapped[0];
+            }
+        }
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = method.invoke(target, targetArgs);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof JIException) {
+                recorder.invoke(id, kind, member, start, System.nanoTime() - start, ((JIException) cause).getErrorCode(),
+                        params, null);
+            }
+            throw cause;
+        }
+        long duration = System.nanoTime() - start;
+        Object[] results = null;
+        if(result instanceof JIVariant) {
+            result = wrap(result);
+            results = new Object[]{result};
+        } else if(result instanceof JIVariant[]) {
+            JIVariant[] variants = (JIVariant[]) result;
+            for(int i = 0; i < variants.length; i++) {
+                variants[i] = (JIVariant) wrap(variants[i]);
+            }
+            results = variants;
+        }
+        recorder.invoke(id, kind, member, start, duration, 0, params, results);
+        return result;
+    }
+
+    private IJIComObject queryInterface(String iid) throws JIException {
+        long start = System.nanoTime();
+        IJIComObject result;
+        try {
+            result = target.queryInterface(iid);
+        } catch (JIException e) {
+            recorder.queryInterface(id, iid, start, System.nanoTime() - start, e.getErrorCode(), 0);
+            throw e;
+        }
+        long duration = System.nanoTime() - start;
+        IJIComObject wrapped = recorder.wrap(result);
+        recorder.queryInterface(id, iid, start, duration, 0, idOf(wrapped));
+        return wrapped;
+    }
+
+    /**
+     * IEnumVARIANT::Next. The elements are returned in a new JIArray, since the JIArray of the real results cannot
+     * hold the recording objects. The S_FALSE of the last call is turned into a normal return, which WbemEnumerator
+     * handles the same way.
+     */
+    private Object[] next(Method method, Object[] args) throws Throwable {
+        JICallBuilder callObject = (JICallBuilder) args[0];
+        Object requestedParam = callObject.getInParamAt(0);
+        int requested = (requestedParam instanceof Integer) ? (Integer) requestedParam : 0;
+        long start = System.nanoTime();
+        Object[] results;
+        int hresult = 0;
+        try {
+            results = (Object[]) method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if(!(cause instanceof JIException)) {
+                throw cause;
+            }
+            hresult = ((JIException) cause).getErrorCode();
+            if(hresult != S_FALSE) {
+                recorder.next(id, requested, start, System.nanoTime() - start, hresult, null);
+                throw cause;
+            }
+            results = callObject.getResultsInCaseOfException();
+        }
+        long duration = System.nanoTime() - start;
+        JIVariant[] elements = new JIVariant[0];
+        if(results != null && results.length >= 2 && results[0] != null) {
+            Object[] array = (Object[]) ((JIArray) results[0]).getArrayInstance();
+            int fetched = (Integer) results[1];
+            if(array != null && fetched > 0) {
+                elements = new JIVariant[Math.min(fetched, array.length)];
+                for(int i = 0; i < elements.length; i++) {
+                    elements[i] = (JIVariant) wrap(array[i]);
+                }
+            }
+        }
+        recorder.next(id, requested, start, duration, hresult, elements);
+        return new Object[]{toJIArray(elements), elements.length};
+    }
+
+    private Object wrap(Object value) throws JIException {
+        return map(value, true);
+    }
+
+    private Object[] unwrap(Object[] params) throws JIException {
+        Object[] unwrapped = params;
+        for(int i = 0; i < params.length; i++) {
+            Object param = map(params[i], false);
+            if(param != params[i]) {
+                if(unwrapped == params) {
+                    unwrapped = params.clone();
+                }
+                unwrapped[i] = param;
+            }
+        }
+        return unwrapped;
+    }
+
+    /**
+     * Replace the objects in a value by recording objects, or the recording objects by the real ones.
+     * @return The value, or a copy of it if an object was replaced. Values without objects are not copied.
+     */
+    private Object map(Object value, boolean wrap) throws JIException {
+        if(value instanceof IJIComObject) {
+            if(wrap) {
+                return recorder.wrap((IJIComObject) value);
+            }
+            RecordingComObject recording = of(value);
+            return recording == null ? value : recording.target;
+        } else if(value instanceof JIVariant) {
+            JIVariant variant = (JIVariant) value;
+            int type = variant.getType() & ~JIVariant.VT_BYREF;
+            if(type != JIVariant.VT_DISPATCH && type != JIVariant.VT_UNKNOWN && type != JIVariant.VT_VARIANT
+                    && (type & JIVariant.VT_ARRAY) == 0) {
+                return value;
+            }
+            Object object = variant.getObject();
+            Object mapped = map(object, wrap);
+            if(mapped == object) {
+                return value;
+            } else if(mapped instanceof IJIComObject) {
+                return new JIVariant((IJIComObject) mapped);
+            } else if(mapped instanceof JIVariant) {
+                return new JIVariant((JIVariant) mapped);
+            }
+            return new JIVariant((JIArray) mapped);
+        } else if(value instanceof JIArray && ((JIArray) value).getArrayInstance() instanceof Object[]) {
+            Object[] elements = (Object[]) ((JIArray) value).getArrayInstance();
+            Object[] mapped = elements;
+            for(int i = 0; i < elements.length; i++) {
+                Object element = map(elements[i], wrap);
+                if(element != elements[i]) {
+                    if(mapped == elements) {
+                        mapped = elements.clone();
+                    }
+                    mapped[i] = element;
+                }
+            }
+            return mapped == elements ? value : new JIArray(mapped, true);
+        }
+        return value;
+    }
+
+    /**
+     * Put the elements of IEnumVARIANT::Next into a JIArray, the way j-interop unmarshals them. The public
+     * constructors compute the marshalled length of every element, which fails for objects served in the JVM.
+     */
+    static JIArray toJIArray(JIVariant[] elements) {
+        try {
+            Constructor<JIArray> constructor = JIArray.class.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            JIArray array = constructor.newInstance();
+            setField(array, "memberArray", elements);
+            setField(array, "clazz", JIVariant.class);
+            setField(array, "upperBounds", new int[]{elements.length});
+            setField(array, "dimension", 1);
+            setField(array, "numElementsInAllDimensions", elements.length);
+            setField(array, "isConformant", true);
+            return array;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unsupported j-interop version.", e);
+        }
+    }
+
+    private static void setField(JIArray array, String name, Object value) throws ReflectiveOperationException {
+        Field field = JIArray.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(array, value);
+    }
+}
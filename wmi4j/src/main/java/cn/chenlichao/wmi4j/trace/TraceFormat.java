@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.trace;
+
+import org.jinterop.dcom.core.IJIComObject;
+import org.jinterop.dcom.core.JIString;
+import org.jinterop.dcom.core.JIVariant;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Date;
+
+/**
+ * Constants and primitive encodings of the binary trace format.
+ *
+ * <p>A trace starts with the magic bytes, the format version and the wall clock time of the recording in
+ * milliseconds, followed by records until the end of the stream. Each record starts with its type; times are
+ * in nanoseconds and the start of a record is stored as the difference to the start of the previous record.
+ * Integers are variable-length, strings up to {@link #MAX_INTERNED_LENGTH} chars are written once and then
+ * referenced by index. A value starts with a tag; {@link #IN_VARIANT} on the tag means the value is held by a
+ * variant.</p>
+ */
+final class TraceFormat {
+
+    static final byte[] MAGIC = {'W', 'M', 'I', '4', 'J', 'T', 'R', 'C'};
+    static final int VERSION = 1;
+
+    static final int RECORD_ROOT = 1;
+    static final int RECORD_INVOKE = 2;
+    static final int RECORD_QUERY_INTERFACE = 3;
+    static final int RECORD_NEXT = 4;
+
+    static final int T_NULL = 0;
+    static final int T_EMPTY = 1;
+    static final int T_VARIANT_NULL = 2;
+    static final int T_SCODE = 3;
+    static final int T_NESTED = 4;
+    static final int T_INT = 5;
+    static final int T_LONG = 6;
+    static final int T_SHORT = 7;
+    static final int T_FLOAT = 8;
+    static final int T_DOUBLE = 9;
+    static final int T_TRUE = 10;
+    static final int T_FALSE = 11;
+    static final int T_CHAR = 12;
+    static final int T_BSTR = 13;
+    static final int T_STRING = 14;
+    static final int T_DATE = 15;
+    static final int T_UNSIGNED = 16;
+    static final int T_OBJECT = 17;
+    static final int T_ARRAY = 18;
+    /**
+     * A value of a type the format does not know, kept as its string form.
+     */
+    static final int T_OTHER = 19;
+
+    static final int IN_VARIANT = 0x80;
+
+    /**
+     * Element classes of arrays, by index.
+     */
+    static final Class<?>[] COMPONENTS = {JIVariant.class, JIString.class, Integer.class, Short.class, Float.class,
+            Double.class, Boolean.class, Date.class, Long.class, Character.class, IJIComObject.class, Object.class};
+
+    static final int MAX_INTERNED_LENGTH = 256;
+    static final int MAX_INTERNED_STRINGS = 1 << 16;
+
+    /**
+     * String reference: the string is written inline and not interned.
+     */
+    static final int STRING_INLINE = 0;
+    /**
+     * String reference: the string is written inline and added to the table, later references are index + 2.
+     */
+    static final int STRING_NEW = 1;
+
+    private TraceFormat() {
+    }
+
+    static int componentCode(Class<?> componentType) {
+        for(int i = 0; i < COMPONENTS.length - 1; i++) {
+            if(COMPONENTS[i].isAssignableFrom(componentType)) {
+                return i;
+            }
+        }
+        return COMPONENTS.length - 1;
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for(int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer.");
+    }
+
+    static void writeSignedVarLong(DataOutput out, long value) throws IOException {
+        writeVarLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    static long readSignedVarLong(DataInput in) throws IOException {
+        long value = readVarLong(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        return (int) readVarLong(in);
+    }
+}
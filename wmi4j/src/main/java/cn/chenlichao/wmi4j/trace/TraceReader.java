@@ -0,0 +1,305 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.trace;
+
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.core.IJIComObject;
+import org.jinterop.dcom.core.JIArray;
+import org.jinterop.dcom.core.JIFlags;
+import org.jinterop.dcom.core.JIString;
+import org.jinterop.dcom.core.JIUnsignedFactory;
+import org.jinterop.dcom.core.JIVariant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static cn.chenlichao.wmi4j.trace.TraceFormat.*;
+
+/**
+ * Reads a trace written by {@link TraceRecorder}.
+ *
+ * <pre>
+ *     try (TraceReader reader = new TraceReader(new FileInputStream("session.trace"), null)) {
+ *         TraceRecord record;
+ *         while((record = reader.read()) != null) {
+ *             System.out.println(record);
+ *         }
+ *     }
+ * </pre>
+ */
+public class TraceReader implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TraceReader.class);
+
+    /**
+     * Provides the objects referenced by the parameters and results of the records.
+     */
+    public interface ObjectResolver {
+
+        /**
+         * @param objectId Number of the object in the trace.
+         * @return The object to put in place of the recorded one.
+         */
+        IJIComObject resolve(int objectId);
+    }
+
+    private final DataInputStream in;
+    private final ObjectResolver resolver;
+    private final long startTime;
+    private final List<String> strings = new ArrayList<String>();
+    private long lastStart;
+
+    /**
+     * @param in The trace, read from the current position.
+     * @param resolver Resolves the objects in the parameters and results, null to read them as null.
+     * @throws IOException Failed to read the header, or the stream is not a trace.
+     */
+    public TraceReader(InputStream in, ObjectResolver resolver) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        this.resolver = resolver;
+        byte[] magic = new byte[MAGIC.length];
+        this.in.readFully(magic);
+        if(!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a wmi4j trace.");
+        }
+        int version = this.in.readUnsignedByte();
+        if(version != VERSION) {
+            throw new IOException("Unsupported trace version " + version + ".");
+        }
+        this.startTime = this.in.readLong();
+    }
+
+    /**
+     * @return Wall clock time when the recording started, in milliseconds.
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Read the next record.
+     * @return The record, or null at the end of the trace. A record cut short, when the recording process died,
+     *         is logged and treated as the end.
+     * @throws IOException Failed to read the stream, or the trace is corrupted.
+     */
+    public TraceRecord read() throws IOException {
+        int recordType = in.read();
+        if(recordType < 0) {
+            return null;
+        }
+        try {
+            switch (recordType) {
+                case RECORD_ROOT:
+                    return new TraceRecord(TraceRecord.Type.ROOT, readVarInt(in), 0, null, lastStart, 0, 0, 0, null, null);
+                case RECORD_INVOKE: {
+                    int objectId = readVarInt(in);
+                    int kind = in.readUnsignedByte();
+                    String member = readString();
+                    long start = readStart();
+                    long duration = readVarLong(in);
+                    int hresult = in.readInt();
+                    Object[] params = readValues();
+                    Object[] results = readValues();
+                    return new TraceRecord(TraceRecord.Type.INVOKE, objectId, kind, member, start, duration, hresult,
+                            0, params, results);
+                }
+                case RECORD_QUERY_INTERFACE: {
+                    int objectId = readVarInt(in);
+                    String iid = readString();
+                    long start = readStart();
+                    long duration = readVarLong(in);
+                    int hresult = in.readInt();
+                    int resultId = readVarInt(in);
+                    return new TraceRecord(TraceRecord.Type.QUERY_INTERFACE, objectId, 0, iid, start, duration, hresult,
+                            resultId, null, null);
+                }
+                case RECORD_NEXT: {
+                    int objectId = readVarInt(in);
+                    int requested = readVarInt(in);
+                    long start = readStart();
+                    long duration = readVarLong(in);
+                    int hresult = in.readInt();
+                    Object[] elements = readValues();
+                    return new TraceRecord(TraceRecord.Type.NEXT, objectId, 0, null, start, duration, hresult,
+                            requested, null, elements);
+                }
+                default:
+                    throw new IOException("Corrupted trace, unknown record type " + recordType + ".");
+            }
+        } catch (EOFException e) {
+            logger.warn("The last record of the trace is incomplete, ignored.");
+            return null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private long readStart() throws IOException {
+        lastStart += readSignedVarLong(in);
+        return lastStart;
+    }
+
+    private Object[] readValues() throws IOException {
+        int count = readVarInt(in);
+        Object[] values = new Object[count];
+        for(int i = 0; i < count; i++) {
+            values[i] = readValue();
+        }
+        return values;
+    }
+
+    private Object readValue() throws IOException {
+        int tag = in.readUnsignedByte();
+        boolean inVariant = (tag & IN_VARIANT) != 0;
+        tag &= ~IN_VARIANT;
+        switch (tag) {
+            case T_NULL:
+                return null;
+            case T_EMPTY:
+                return JIVariant.EMPTY();
+            case T_VARIANT_NULL:
+                return JIVariant.NULL();
+            case T_SCODE:
+                return new JIVariant(JIVariant.SCODE, in.readInt());
+            case T_NESTED:
+                return new JIVariant((JIVariant) readValue());
+            case T_INT: {
+                int value = (int) readSignedVarLong(in);
+                return inVariant ? new JIVariant(value) : value;
+            }
+            case T_LONG: {
+                long value = readSignedVarLong(in);
+                return inVariant ? new JIVariant(value, false) : value;
+            }
+            case T_SHORT: {
+                short value = (short) readSignedVarLong(in);
+                return inVariant ? new JIVariant(value) : value;
+            }
+            case T_FLOAT: {
+                float value = in.readFloat();
+                return inVariant ? new JIVariant(value) : value;
+            }
+            case T_DOUBLE: {
+                double value = in.readDouble();
+                return inVariant ? new JIVariant(value) : value;
+            }
+            case T_TRUE:
+            case T_FALSE: {
+                boolean value = tag == T_TRUE;
+                return inVariant ? new JIVariant(value) : value;
+            }
+            case T_CHAR: {
+                char value = in.readChar();
+                return inVariant ? new JIVariant(value) : value;
+            }
+            case T_BSTR:
+            case T_OTHER: {
+                JIString value = new JIString(readString());
+                return inVariant ? new JIVariant(value) : value;
+            }
+            case T_STRING: {
+                String value = readString();
+                return inVariant ? new JIVariant(new JIString(value)) : value;
+            }
+            case T_DATE: {
+                Date value = new Date(in.readLong());
+                return inVariant ? new JIVariant(value) : value;
+            }
+            case T_UNSIGNED: {
+                int type = readVarInt(in);
+                long value = readVarLong(in);
+                Number number;
+                if(type == JIFlags.FLAG_REPRESENTATION_UNSIGNED_BYTE) {
+                    number = (short) value;
+                } else if(type == JIFlags.FLAG_REPRESENTATION_UNSIGNED_SHORT) {
+                    number = (int) value;
+                } else {
+                    number = value;
+                }
+                return inVariant ? new JIVariant(JIUnsignedFactory.getUnsigned(number, type))
+                        : JIUnsignedFactory.getUnsigned(number, type);
+            }
+            case T_OBJECT: {
+                int objectId = readVarInt(in);
+                IJIComObject object = (resolver == null || objectId == 0) ? null : resolver.resolve(objectId);
+                if(!inVariant) {
+                    return object;
+                }
+                return object == null ? JIVariant.NULL() : new JIVariant(object);
+            }
+            case T_ARRAY: {
+                int component = in.readUnsignedByte();
+                if(component >= COMPONENTS.length) {
+                    throw new IOException("Corrupted trace, unknown array element type " + component + ".");
+                }
+                Object[] elements = readValues();
+                Object[] array = (Object[]) Array.newInstance(COMPONENTS[component], elements.length);
+                for(int i = 0; i < elements.length; i++) {
+                    array[i] = elements[i];
+                }
+                JIArray value = new JIArray(array, true);
+                return inVariant ? new JIVariant(value) : value;
+            }
+            default:
+                throw new IOException("Corrupted trace, unknown value tag " + tag + ".");
+        }
+    }
+
+    private String readString() throws IOException {
+        int ref = readVarInt(in);
+        if(ref == STRING_INLINE) {
+            return readChars();
+        } else if(ref == STRING_NEW) {
+            String s = readChars();
+            strings.add(s);
+            return s;
+        }
+        int index = ref - 2;
+        if(index < 0 || index >= strings.size()) {
+            throw new IOException("Corrupted trace, unknown string " + index + ".");
+        }
+        return strings.get(index);
+    }
+
+    private String readChars() throws IOException {
+        int length = readVarInt(in);
+        if(length < 0) {
+            throw new IOException("Corrupted trace, negative string length.");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.trace;
+
+import java.util.Arrays;
+
+/**
+ * A call recorded by {@link TraceRecorder}, read back by {@link TraceReader}.
+ *
+ * <p>Objects are identified by numbers assigned in the order they were returned during the recording, the roots
+ * passed to {@link TraceRecorder#record(org.jinterop.dcom.impls.automation.IJIDispatch)} included. Parameters and
+ * results are j-interop values as they were marshalled, objects in them are resolved by the
+ * {@link TraceReader.ObjectResolver} of the reader.</p>
+ */
+public final class TraceRecord {
+
+    /**
+     * Invoke kind of a method call, same as DISPATCH_METHOD of IDispatch::Invoke.
+     */
+    public static final int METHOD = 1;
+    /**
+     * Invoke kind of a property read, same as DISPATCH_PROPERTYGET of IDispatch::Invoke.
+     */
+    public static final int PROPERTY_GET = 2;
+    /**
+     * Invoke kind of a property write, same as DISPATCH_PROPERTYPUT of IDispatch::Invoke.
+     */
+    public static final int PROPERTY_PUT = 4;
+
+    private static final Object[] NO_VALUES = new Object[0];
+
+    public enum Type {
+        /**
+         * A connection was recorded, the object is the SWbemServices.
+         */
+        ROOT,
+        /**
+         * IDispatch::Invoke of a member.
+         */
+        INVOKE,
+        /**
+         * IUnknown::QueryInterface, such as the IEnumVARIANT of a _NewEnum property.
+         */
+        QUERY_INTERFACE,
+        /**
+         * IEnumVARIANT::Next.
+         */
+        NEXT
+    }
+
+    private final Type type;
+    private final int objectId;
+    private final int kind;
+    private final String member;
+    private final long startNanos;
+    private final long durationNanos;
+    private final int hresult;
+    private final int count;
+    private final Object[] params;
+    private final Object[] results;
+
+    TraceRecord(Type type, int objectId, int kind, String member, long startNanos, long durationNanos,
+                int hresult, int count, Object[] params, Object[] results) {
+        this.type = type;
+        this.objectId = objectId;
+        this.kind = kind;
+        this.member = member;
+        this.startNanos = startNanos;
+        this.durationNanos = durationNanos;
+        this.hresult = hresult;
+        this.count = count;
+        this.params = params == null ? NO_VALUES : params;
+        this.results = results == null ? NO_VALUES : results;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return The object the call was made on.
+     */
+    public int getObjectId() {
+        return objectId;
+    }
+
+    /**
+     * @return {@link #METHOD}, {@link #PROPERTY_GET} or {@link #PROPERTY_PUT} for an {@link Type#INVOKE} record, else 0.
+     */
+    public int getKind() {
+        return kind;
+    }
+
+    /**
+     * @return Member name of an {@link Type#INVOKE} record, the interface identifier of a
+     *         {@link Type#QUERY_INTERFACE} record, else null. A member invoked without its DISPID being resolved
+     *         by wmi4j is named <code>#dispId</code>.
+     */
+    public String getMember() {
+        return member;
+    }
+
+    /**
+     * @return Start of the call since the start of the recording, in nanoseconds.
+     */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * @return Duration of the call, in nanoseconds.
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * @return HRESULT of the call, 0 if succeeded. IEnumVARIANT::Next returns S_FALSE (1) at the end.
+     */
+    public int getHResult() {
+        return hresult;
+    }
+
+    /**
+     * @return Number of elements requested by a {@link Type#NEXT} record, the object returned by a
+     *         {@link Type#QUERY_INTERFACE} record, else 0.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return Parameters of an {@link Type#INVOKE} record.
+     */
+    public Object[] getParams() {
+        return params;
+    }
+
+    /**
+     * @return Results of an {@link Type#INVOKE} record, the return value first, or the elements returned by
+     *         a {@link Type#NEXT} record.
+     */
+    public Object[] getResults() {
+        return results;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(type).append(" #").append(objectId);
+        if(member != null) {
+            sb.append(' ').append(member);
+        }
+        if(kind != 0) {
+            sb.append(" kind=").append(kind);
+        }
+        if(count != 0) {
+            sb.append(" count=").append(count);
+        }
+        sb.append(" start=").append(startNanos).append("ns duration=").append(durationNanos).append("ns");
+        if(hresult != 0) {
+            sb.append(" hresult=0x").append(Integer.toHexString(hresult));
+        }
+        if(params.length > 0) {
+            sb.append(" params=").append(Arrays.toString(params));
+        }
+        if(results.length > 0) {
+            sb.append(" results=").append(Arrays.toString(results));
+        }
+        return sb.toString();
+    }
+}
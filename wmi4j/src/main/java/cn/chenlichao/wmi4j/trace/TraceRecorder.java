@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.trace;
+
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.core.IJIComObject;
+import org.jinterop.dcom.impls.automation.IJIDispatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the dispatch calls of a session and their marshalled results to a compact binary trace, which
+ * <code>cn.chenlichao.wmi4j.fake.ReplayTransport</code> of the wmi4j test-jar serves without a Windows host.
+ *
+ * <p>The recorder sits between the wmi4j objects and j-interop: it wraps the IDispatch of a connection, and every
+ * object returned by it, so call patterns like one {@link cn.chenlichao.wmi4j.SWbemObject#getPropertyByName(String)}
+ * per object of a query are captured exactly as they hit the wire, with their durations.</p>
+ *
+ * <pre>
+ *     TraceRecorder recorder = new TraceRecorder(new FileOutputStream("session.trace"));
+ *     locator.setTraceRecorder(recorder);
+ *     SWbemServices services = locator.connectServer();
+ *     ...
+ *     recorder.close();
+ * </pre>
+ * Recording costs an encoding of each call under a lock. A failure to write the trace is logged and stops the
+ * recording, the session itself is not affected.
+ */
+public class TraceRecorder implements Closeable, Flushable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TraceRecorder.class);
+
+    private final TraceWriter writer;
+    private final AtomicInteger objectIds = new AtomicInteger();
+    private final AtomicLong records = new AtomicLong();
+    private volatile boolean stopped;
+
+    /**
+     * @param out Stream the trace is written to, closed by {@link #close()}. It is buffered by the recorder.
+     * @throws IOException Failed to write the header.
+     */
+    public TraceRecorder(OutputStream out) throws IOException {
+        this.writer = new TraceWriter(out);
+    }
+
+    /**
+     * Start recording a connection.
+     * @param dispatch IDispatch of an SWbemServices object.
+     * @return The IDispatch to use instead, calls made on it and on the objects it returns are recorded.
+     */
+    public IJIDispatch record(IJIDispatch dispatch) {
+        if(dispatch == null) {
+            throw new IllegalArgumentException("Dispatch is null.");
+        }
+        IJIDispatch recording;
+        try {
+            recording = (IJIDispatch) wrap(dispatch);
+        } catch (JIException e) {
+            // IJIDispatch is never narrowed
+            throw new IllegalStateException(e);
+        }
+        if(!stopped) {
+            try {
+                writer.root(RecordingComObject.idOf(recording));
+            } catch (IOException e) {
+                stop(e);
+            }
+        }
+        return recording;
+    }
+
+    /**
+     * @return Number of calls recorded.
+     */
+    public long getRecordCount() {
+        return records.get();
+    }
+
+    /**
+     * @return true if the recording was stopped by {@link #close()} or a write failure.
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Stop recording and close the stream. Calls made afterwards on recorded objects are passed through.
+     */
+    @Override
+    public void close() throws IOException {
+        stopped = true;
+        writer.close();
+    }
+
+    IJIComObject wrap(IJIComObject comObject) throws JIException {
+        if(comObject == null) {
+            return null;
+        }
+        return RecordingComObject.wrap(this, comObject, objectIds.incrementAndGet());
+    }
+
+    void invoke(int objectId, int kind, String member, long start, long duration, int hresult,
+                Object[] params, Object[] results) {
+        if(stopped) {
+            return;
+        }
+        try {
+            writer.invoke(objectId, kind, member, start, duration, hresult, params, results);
+            records.incrementAndGet();
+        } catch (Exception e) {
+            stop(e);
+        }
+    }
+
+    void queryInterface(int objectId, String iid, long start, long duration, int hresult, int resultId) {
+        if(stopped) {
+            return;
+        }
+        try {
+            writer.queryInterface(objectId, iid, start, duration, hresult, resultId);
+            records.incrementAndGet();
+        } catch (Exception e) {
+            stop(e);
+        }
+    }
+
+    void next(int objectId, int requested, long start, long duration, int hresult, Object[] elements) {
+        if(stopped) {
+            return;
+        }
+        try {
+            writer.next(objectId, requested, start, duration, hresult, elements);
+            records.incrementAndGet();
+        } catch (Exception e) {
+            stop(e);
+        }
+    }
+
+    private void stop(Exception e) {
+        if(!stopped) {
+            stopped = true;
+            logger.warn("Failed to write the trace, recording stopped: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.trace;
+
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.core.IJIComObject;
+import org.jinterop.dcom.core.IJIUnsigned;
+import org.jinterop.dcom.core.JIArray;
+import org.jinterop.dcom.core.JIString;
+import org.jinterop.dcom.core.JIVariant;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static cn.chenlichao.wmi4j.trace.TraceFormat.*;
+
+/**
+ * Writes records in the format of {@link TraceFormat}. Records are written by the threads making the calls,
+ * so all methods are synchronized.
+ */
+final class TraceWriter implements Closeable, Flushable {
+
+    private final DataOutputStream out;
+    private final long origin;
+    private final Map<String, Integer> strings = new HashMap<String, Integer>();
+    private long lastStart;
+
+    TraceWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.origin = System.nanoTime();
+        this.out.write(MAGIC);
+        this.out.writeByte(VERSION);
+        this.out.writeLong(System.currentTimeMillis());
+    }
+
+    synchronized void root(int objectId) throws IOException {
+        out.writeByte(RECORD_ROOT);
+        writeVarInt(out, objectId);
+    }
+
+    synchronized void invoke(int objectId, int kind, String member, long start, long duration, int hresult,
+                             Object[] params, Object[] results) throws IOException, JIException {
+        out.writeByte(RECORD_INVOKE);
+        writeVarInt(out, objectId);
+        out.writeByte(kind);
+        writeString(member);
+        writeTimes(start, duration, hresult);
+        writeValues(params);
+        writeValues(results);
+    }
+
+    synchronized void queryInterface(int objectId, String iid, long start, long duration, int hresult,
+                                     int resultId) throws IOException {
+        out.writeByte(RECORD_QUERY_INTERFACE);
+        writeVarInt(out, objectId);
+        writeString(iid);
+        writeTimes(start, duration, hresult);
+        writeVarInt(out, resultId);
+    }
+
+    synchronized void next(int objectId, int requested, long start, long duration, int hresult,
+                           Object[] elements) throws IOException, JIException {
+        out.writeByte(RECORD_NEXT);
+        writeVarInt(out, objectId);
+        writeVarInt(out, requested);
+        writeTimes(start, duration, hresult);
+        writeValues(elements);
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * @param start {@link System#nanoTime()} at the start of the call.
+     */
+    private void writeTimes(long start, long duration, int hresult) throws IOException {
+        long relative = start - origin;
+        writeSignedVarLong(out, relative - lastStart);
+        lastStart = relative;
+        writeVarLong(out, duration);
+        out.writeInt(hresult);
+    }
+
+    private void writeValues(Object[] values) throws IOException, JIException {
+        if(values == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        writeVarInt(out, values.length);
+        for(Object value : values) {
+            writeValue(value, 0);
+        }
+    }
+
+    private void writeValue(Object value, int flag) throws IOException, JIException {
+        if(value == null) {
+            out.writeByte(T_NULL);
+        } else if(value instanceof JIVariant) {
+            writeVariant((JIVariant) value);
+        } else if(value instanceof Integer) {
+            out.writeByte(T_INT | flag);
+            writeSignedVarLong(out, (Integer) value);
+        } else if(value instanceof Long) {
+            out.writeByte(T_LONG | flag);
+            writeSignedVarLong(out, (Long) value);
+        } else if(value instanceof Short) {
+            out.writeByte(T_SHORT | flag);
+            writeSignedVarLong(out, (Short) value);
+        } else if(value instanceof Float) {
+            out.writeByte(T_FLOAT | flag);
+            out.writeFloat((Float) value);
+        } else if(value instanceof Double) {
+            out.writeByte(T_DOUBLE | flag);
+            out.writeDouble((Double) value);
+        } else if(value instanceof Boolean) {
+            out.writeByte(((Boolean) value ? T_TRUE : T_FALSE) | flag);
+        } else if(value instanceof Character) {
+            out.writeByte(T_CHAR | flag);
+            out.writeChar((Character) value);
+        } else if(value instanceof JIString) {
+            out.writeByte(T_BSTR | flag);
+            writeString(((JIString) value).getString());
+        } else if(value instanceof String) {
+            out.writeByte(T_STRING | flag);
+            writeString((String) value);
+        } else if(value instanceof Date) {
+            out.writeByte(T_DATE | flag);
+            out.writeLong(((Date) value).getTime());
+        } else if(value instanceof IJIUnsigned) {
+            IJIUnsigned unsigned = (IJIUnsigned) value;
+            out.writeByte(T_UNSIGNED | flag);
+            writeVarInt(out, unsigned.getType());
+            writeVarLong(out, unsigned.getValue().longValue());
+        } else if(value instanceof IJIComObject) {
+            out.writeByte(T_OBJECT | flag);
+            writeVarInt(out, RecordingComObject.idOf(value));
+        } else if(value instanceof JIArray && ((JIArray) value).getDimensions() == 1
+                && ((JIArray) value).getArrayInstance() instanceof Object[]) {
+            Object[] elements = (Object[]) ((JIArray) value).getArrayInstance();
+            out.writeByte(T_ARRAY | flag);
+            out.writeByte(componentCode(elements.getClass().getComponentType()));
+            writeValues(elements);
+        } else {
+            out.writeByte(T_OTHER | flag);
+            writeString(String.valueOf(value));
+        }
+    }
+
+    private void writeVariant(JIVariant variant) throws IOException, JIException {
+        int type = variant.getType() & ~JIVariant.VT_BYREF;
+        if(type == JIVariant.VT_EMPTY) {
+            out.writeByte(T_EMPTY);
+        } else if(type == JIVariant.VT_NULL || variant.isNull()) {
+            out.writeByte(T_VARIANT_NULL);
+        } else if(type == JIVariant.VT_ERROR) {
+            // variants created locally, like JIVariant.OPTIONAL_PARAM(), hold the code as an Integer
+            Object code = variant.getObject();
+            out.writeByte(T_SCODE);
+            out.writeInt((code instanceof Integer) ? (Integer) code : variant.getObjectAsSCODE());
+        } else {
+            Object object = variant.getObject();
+            if(object instanceof JIVariant) {
+                out.writeByte(T_NESTED);
+                writeVariant((JIVariant) object);
+            } else if(object == null) {
+                out.writeByte(T_VARIANT_NULL);
+            } else {
+                writeValue(object, IN_VARIANT);
+            }
+        }
+    }
+
+    private void writeString(String s) throws IOException {
+        if(s.length() <= MAX_INTERNED_LENGTH) {
+            Integer index = strings.get(s);
+            if(index != null) {
+                writeVarInt(out, index + 2);
+                return;
+            }
+            if(strings.size() < MAX_INTERNED_STRINGS) {
+                strings.put(s, strings.size());
+                writeVarInt(out, STRING_NEW);
+                writeChars(s);
+                return;
+            }
+        }
+        writeVarInt(out, STRING_INLINE);
+        writeChars(s);
+    }
+
+    private void writeChars(String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CimXmlParserTest {
+
+    private static final String SPOOLER = "<INSTANCE CLASSNAME=\"Win32_Service\">"
+            + "<PROPERTY NAME=\"__PATH\" TYPE=\"string\"><VALUE>\\\\HOST\\root\\cimv2:Win32_Service.Name=\"Spooler\"</VALUE></PROPERTY>"
+            + "<PROPERTY NAME=\"Name\" TYPE=\"string\"><VALUE>Spooler</VALUE></PROPERTY>"
+            + "<PROPERTY NAME=\"ProcessId\" TYPE=\"uint32\"><VALUE>1204</VALUE></PROPERTY>"
+            + "<PROPERTY NAME=\"Started\" TYPE=\"boolean\"><VALUE>TRUE</VALUE></PROPERTY>"
+            + "<PROPERTY NAME=\"Description\" TYPE=\"string\"></PROPERTY>"
+            + "</INSTANCE>";
+
+    @Test
+    public void testScalarsAndNulls() throws WMIException {
+        SWbemObjectSnapshot snapshot = CimXmlParser.parse("<INSTANCE CLASSNAME=\"Test\">"
+                + "<PROPERTY NAME=\"S8\" TYPE=\"sint8\"><VALUE>-8</VALUE></PROPERTY>"
+                + "<PROPERTY NAME=\"U8\" TYPE=\"uint8\"><VALUE>255</VALUE></PROPERTY>"
+                + "<PROPERTY NAME=\"U16\" TYPE=\"uint16\"><VALUE>65535</VALUE></PROPERTY>"
+                + "<PROPERTY NAME=\"U32\" TYPE=\"uint32\"><VALUE>4294967295</VALUE></PROPERTY>"
+                + "<PROPERTY NAME=\"U64\" TYPE=\"uint64\"><VALUE>18446744073709551615</VALUE></PROPERTY>"
+                + "<PROPERTY NAME=\"R32\" TYPE=\"real32\"><VALUE>1.5</VALUE></PROPERTY>"
+                + "<PROPERTY NAME=\"R64\" TYPE=\"real64\"><VALUE>2.25</VALUE></PROPERTY>"
+                + "<PROPERTY NAME=\"C16\" TYPE=\"char16\"><VALUE>x</VALUE></PROPERTY>"
+                + "<PROPERTY NAME=\"Flag\" TYPE=\"boolean\"><VALUE>false</VALUE></PROPERTY>"
+                + "<PROPERTY NAME=\"Nothing\" TYPE=\"uint32\"></PROPERTY>"
+                + "</INSTANCE>");
+        assertEquals("Test", snapshot.getClassName());
+        assertEquals(Byte.valueOf((byte) -8), snapshot.get("S8"));
+        assertEquals(Short.valueOf((short) 255), snapshot.get("U8"));
+        assertEquals(65535, snapshot.get("U16"));
+        assertEquals(4294967295L, snapshot.get("U32"));
+        assertEquals(new BigInteger("18446744073709551615"), snapshot.get("U64"));
+        assertEquals(1.5f, snapshot.get("R32"));
+        assertEquals(2.25d, snapshot.get("R64"));
+        assertEquals('x', snapshot.get("C16"));
+        assertEquals(Boolean.FALSE, snapshot.getBoolean("flag"));
+        assertTrue(snapshot.contains("Nothing"));
+        assertNull(snapshot.get("Nothing"));
+        assertNull(snapshot.getLong("nothing"));
+    }
+
+    @Test
+    public void testArrays() throws WMIException {
+        SWbemObjectSnapshot snapshot = CimXmlParser.parse("<INSTANCE CLASSNAME=\"Test\">"
+                + "<PROPERTY.ARRAY NAME=\"Names\" TYPE=\"string\"><VALUE.ARRAY>"
+                + "<VALUE>RPCSS</VALUE><VALUE.NULL/><VALUE>http</VALUE></VALUE.ARRAY></PROPERTY.ARRAY>"
+                + "<PROPERTY.ARRAY NAME=\"Codes\" TYPE=\"uint16\"><VALUE.ARRAY>"
+                + "<VALUE>1</VALUE><VALUE>2</VALUE></VALUE.ARRAY></PROPERTY.ARRAY>"
+                + "<PROPERTY.ARRAY NAME=\"Empty\" TYPE=\"string\"><VALUE.ARRAY></VALUE.ARRAY></PROPERTY.ARRAY>"
+                + "<PROPERTY.ARRAY NAME=\"Missing\" TYPE=\"string\"></PROPERTY.ARRAY>"
+                + "</INSTANCE>");
+        assertEquals(Arrays.asList("RPCSS", null, "http"), snapshot.getList("Names"));
+        assertEquals(Arrays.<Object>asList(1, 2), snapshot.getList("Codes"));
+        assertEquals(Collections.emptyList(), snapshot.getList("Empty"));
+        assertNull(snapshot.getList("Missing"));
+        try {
+            snapshot.getList("Names").add("x");
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testReferences() throws WMIException {
+        String instancePath = "<INSTANCEPATH><NAMESPACEPATH><HOST>HOST</HOST><LOCALNAMESPACEPATH>"
+                + "<NAMESPACE NAME=\"root\"/><NAMESPACE NAME=\"cimv2\"/></LOCALNAMESPACEPATH></NAMESPACEPATH>"
+                + "<INSTANCENAME CLASSNAME=\"Win32_Service\">"
+                + "<KEYBINDING NAME=\"Name\"><KEYVALUE VALUETYPE=\"string\">Spooler</KEYVALUE></KEYBINDING>"
+                + "</INSTANCENAME></INSTANCEPATH>";
+        SWbemObjectSnapshot snapshot = CimXmlParser.parse("<INSTANCE CLASSNAME=\"Win32_DependentService\">"
+                + "<PROPERTY.REFERENCE NAME=\"Dependent\"><VALUE.REFERENCE>" + instancePath
+                + "</VALUE.REFERENCE></PROPERTY.REFERENCE>"
+                + "<PROPERTY.REFERENCE NAME=\"Antecedent\"><VALUE.REFERENCE><LOCALINSTANCEPATH><LOCALNAMESPACEPATH>"
+                + "<NAMESPACE NAME=\"root\"/><NAMESPACE NAME=\"cimv2\"/></LOCALNAMESPACEPATH>"
+                + "<INSTANCENAME CLASSNAME=\"Win32_Process\">"
+                + "<KEYBINDING NAME=\"Handle\"><KEYVALUE VALUETYPE=\"string\">4</KEYVALUE></KEYBINDING>"
+                + "<KEYBINDING NAME=\"Id\"><KEYVALUE VALUETYPE=\"numeric\">7</KEYVALUE></KEYBINDING>"
+                + "</INSTANCENAME></LOCALINSTANCEPATH></VALUE.REFERENCE></PROPERTY.REFERENCE>"
+                + "<PROPERTY.REFERENCE NAME=\"Unset\"></PROPERTY.REFERENCE>"
+                + "</INSTANCE>");
+        assertEquals("\\\\HOST\\root\\cimv2:Win32_Service.Name=\"Spooler\"", snapshot.get("Dependent"));
+        assertEquals("root\\cimv2:Win32_Process.Handle=\"4\",Id=7", snapshot.get("Antecedent"));
+        assertNull(snapshot.get("Unset"));
+    }
+
+    @Test
+    public void testEmbeddedObject() throws WMIException {
+        SWbemObjectSnapshot event = CimXmlParser.parse("<INSTANCE CLASSNAME=\"__InstanceModificationEvent\">"
+                + "<PROPERTY NAME=\"TargetInstance\" TYPE=\"string\">"
+                + "<QUALIFIER NAME=\"EmbeddedObject\" TYPE=\"boolean\"><VALUE>TRUE</VALUE></QUALIFIER>"
+                + "<VALUE>" + escape(SPOOLER) + "</VALUE></PROPERTY>"
+                + "<PROPERTY NAME=\"PreviousInstance\" TYPE=\"string\"></PROPERTY>"
+                + "</INSTANCE>");
+        SWbemObjectSnapshot target = event.getObject("TargetInstance");
+        assertEquals("Win32_Service", target.getClassName());
+        assertEquals("\\\\HOST\\root\\cimv2:Win32_Service.Name=\"Spooler\"", target.getPath());
+        assertEquals(Long.valueOf(1204), target.getLong("ProcessId"));
+        assertEquals(Boolean.TRUE, target.getBoolean("Started"));
+        assertNull(target.get("Description"));
+        assertNull(event.getObject("PreviousInstance"));
+    }
+
+    @Test
+    public void testDatetime() throws WMIException {
+        SWbemObjectSnapshot snapshot = CimXmlParser.parse("<INSTANCE CLASSNAME=\"Win32_OperatingSystem\">"
+                + "<PROPERTY NAME=\"LastBootUpTime\" TYPE=\"datetime\"><VALUE>20261017083000.250000+120</VALUE></PROPERTY>"
+                + "<PROPERTY NAME=\"Uptime\" TYPE=\"datetime\"><VALUE>00000001020304.000000:000</VALUE></PROPERTY>"
+                + "</INSTANCE>");
+        assertEquals("20261017083000.250000+120", snapshot.get("LastBootUpTime"));
+        // 08:30 at UTC+2 is 06:30 UTC
+        assertEquals(new Date(1792218600250L), snapshot.getDate("LastBootUpTime"));
+        try {
+            snapshot.getDate("Uptime");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // an interval is not a date
+        }
+    }
+
+    @Test
+    public void testFormatRoundTrip() throws WMIException {
+        LinkedHashMap<String, Object> properties = new LinkedHashMap<String, Object>();
+        properties.put("Name", "a<b & \"c\"");
+        properties.put("Count", 3);
+        properties.put("Size", 5000000000L);
+        properties.put("Ratio", 0.5d);
+        properties.put("Enabled", true);
+        properties.put("Missing", null);
+        properties.put("Tags", Arrays.asList("x", null, "y"));
+        properties.put("Embedded", CimXmlParser.format(CimXmlParser.parse(SPOOLER)));
+        SWbemObjectSnapshot original = SWbemObjectSnapshot.of("Test", properties);
+
+        SWbemObjectSnapshot parsed = CimXmlParser.parse(CimXmlParser.format(original));
+        assertEquals("Test", parsed.getClassName());
+        assertEquals(original.getProperties(), parsed.getProperties());
+        assertEquals("Spooler", parsed.getObject("Embedded").getString("Name"));
+        List<Object> tags = parsed.getList("Tags");
+        assertEquals(3, tags.size());
+    }
+
+    private static String escape(String xml) {
+        return xml.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
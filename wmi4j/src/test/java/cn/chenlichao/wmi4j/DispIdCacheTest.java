@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j;
+
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.core.JIVariant;
+import org.jinterop.dcom.impls.automation.IJIDispatch;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class DispIdCacheTest {
+
+    /** DISPID the objects currently accept for RelPath. */
+    private final AtomicInteger validDispId = new AtomicInteger(1);
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final AtomicInteger gets = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        DispIdCache.clear();
+    }
+
+    @Test
+    public void testCachedAcrossInstances() throws WMIException {
+        assertEquals("Win32_Service.Name=\"Spooler\"", new SWbemObjectPath(dispatch()).getRelPath());
+        assertEquals("Win32_Service.Name=\"Spooler\"", new SWbemObjectPath(dispatch()).getRelPath());
+        assertEquals(1, lookups.get());
+        assertEquals(1, DispIdCache.getHits());
+    }
+
+    @Test
+    public void testStaleDispIdIsResolvedAndRetried() throws WMIException {
+        new SWbemObjectPath(dispatch()).getRelPath();
+        validDispId.set(7);
+
+        assertEquals("Win32_Service.Name=\"Spooler\"", new SWbemObjectPath(dispatch()).getRelPath());
+        assertEquals(2, lookups.get());
+        assertEquals(3, gets.get());
+
+        // The new DISPID is cached
+        new SWbemObjectPath(dispatch()).getRelPath();
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void testRetriedOnlyOnce() {
+        validDispId.set(-1);
+        try {
+            new SWbemObjectPath(dispatch()).getRelPath();
+            fail();
+        } catch (WMIException e) {
+            assertEquals(DispIdCache.DISP_E_MEMBERNOTFOUND, e.getErrorCode());
+        }
+        assertEquals(2, lookups.get());
+        assertEquals(2, gets.get());
+    }
+
+    /**
+     * Dispatch resolving RelPath to the DISPID currently valid, and rejecting any other DISPID.
+     */
+    private IJIDispatch dispatch() {
+        return (IJIDispatch) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{IJIDispatch.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        String name = method.getName();
+                        if("getIDsOfNames".equals(name) && args.length == 1 && args[0] instanceof String) {
+                            lookups.incrementAndGet();
+                            return Math.abs(validDispId.get());
+                        } else if("get".equals(name) && args.length == 1 && args[0] instanceof Integer) {
+                            gets.incrementAndGet();
+                            if((Integer) args[0] != validDispId.get()) {
+                                throw new JIException(DispIdCache.DISP_E_MEMBERNOTFOUND);
+                            }
+                            return new JIVariant("Win32_Service.Name=\"Spooler\"");
+                        } else if("isLocalReference".equals(name)) {
+                            return true;
+                        } else if("hashCode".equals(name)) {
+                            return System.identityHashCode(proxy);
+                        } else if("equals".equals(name)) {
+                            return proxy == args[0];
+                        }
+                        return null;
+                    }
+                });
+    }
+}
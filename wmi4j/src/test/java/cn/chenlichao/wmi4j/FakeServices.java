@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j;
+
+import org.jinterop.dcom.impls.automation.IJIDispatch;
+
+/**
+ * Entry point of the fake provider (cn.chenlichao.wmi4j.fake) into the package-private wrapper factories, so the
+ * main jar does not expose a way to wrap arbitrary dispatches.
+ */
+public final class FakeServices {
+
+    private FakeServices() {
+    }
+
+    /**
+     * @param dispatch IDispatch of an in-memory SWbemServices object.
+     * @return The services.
+     */
+    public static SWbemServices wrap(IJIDispatch dispatch) {
+        return SWbemServices.wrap(dispatch);
+    }
+}
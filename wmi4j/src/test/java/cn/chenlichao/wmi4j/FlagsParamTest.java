@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j;
+
+import cn.chenlichao.wmi4j.consts.Flags;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FlagsParamTest {
+
+    @Test
+    public void testEveryCombination() {
+        Flags.PutFlag[] constants = Flags.PutFlag.values();
+        for(int bits = 0; bits < (1 << constants.length); bits++) {
+            Flags.PutFlag[] flags = new Flags.PutFlag[Integer.bitCount(bits)];
+            int n = 0;
+            for(int i = 0; i < constants.length; i++) {
+                if((bits & (1 << i)) != 0) {
+                    flags[n++] = constants[i];
+                }
+            }
+            Object param = AbstractScriptingObject.flagsParam(flags);
+            if(flags.length == 0) {
+                assertSame(AbstractScriptingObject.OPTIONAL_PARAM, param);
+            } else {
+                assertEquals(Flags.toInt(flags), param);
+                // Precomputed, not boxed again
+                assertSame(param, AbstractScriptingObject.flagsParam(flags.clone()));
+            }
+        }
+    }
+
+    @Test
+    public void testDuplicatesAndMixedTypes() {
+        Object param = AbstractScriptingObject.flagsParam(new Flags.WbemFlag[]{
+                Flags.ExecQueryFlag.wbemFlagUseAmendedQualifiers, Flags.ExecQueryFlag.wbemFlagUseAmendedQualifiers});
+        assertEquals(0x20000, param);
+        assertSame(param, AbstractScriptingObject.flagsParam(new Flags.WbemFlag[]{
+                Flags.ExecQueryFlag.wbemFlagUseAmendedQualifiers}));
+
+        assertEquals(0x20030, AbstractScriptingObject.flagsParam(new Flags.WbemFlag[]{
+                Flags.ExecQueryFlag.wbemFlagForwardOnly, Flags.ExecQueryFlag.wbemFlagReturnImmediately,
+                Flags.GetFlag.wbemFlagUseAmendedQualifiers}));
+        assertSame(AbstractScriptingObject.OPTIONAL_PARAM, AbstractScriptingObject.flagsParam(null));
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cn.chenlichao.wmi4j;
+
+import cn.chenlichao.wmi4j.fake.DispatchHandler;
+import cn.chenlichao.wmi4j.fake.InMemoryDispatch;
+import cn.chenlichao.wmi4j.fake.InMemoryTransport;
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.core.JIVariant;
+import org.jinterop.dcom.impls.automation.IJIDispatch;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ScriptingObjectFactoryTest {
+
+    /** Round trips of a remote registry lookup: winreg pipe, OpenHKLM, OpenKey, QueryValue and two CloseKey. */
+    private static final int REGISTRY_ROUND_TRIPS = 5;
+
+    /** ProgIDs activated on a cold connect, by connectServer() and createObject(). */
+    private static final String[] COLD_CONNECT = {"WbemScripting.SWbemLocator",
+            "WbemScripting.SWbemNamedValueSet", "WbemScripting.SWbemLastError"};
+
+    private final InMemoryTransport transport = new InMemoryTransport();
+    private final FakeActivator activator = new FakeActivator();
+    /** Objects a Clone or Clone_ call was made on. */
+    private final List<IJIDispatch> cloned = new CopyOnWriteArrayList<IJIDispatch>();
+
+    private final DispatchHandler handler = new DispatchHandler() {
+        @Override
+        public JIVariant[] invoke(InMemoryDispatch target, String member, int kind, Object[] params)
+                throws JIException {
+            if("Clone".equals(member) || "Clone_".equals(member)) {
+                cloned.add(target.getDispatch());
+                return new JIVariant[]{transport.createDispatch(this).toVariant()};
+            }
+            throw new JIException(InMemoryDispatch.DISP_E_MEMBERNOTFOUND);
+        }
+    };
+
+    @Test
+    public void testPrototypeActivatedOnce() throws WMIException {
+        ScriptingObjectFactory factory = new ScriptingObjectFactory(activator, 0);
+        IJIDispatch first = factory.create(SWbemNamedValueSet.class, "Clone");
+        IJIDispatch second = factory.create(SWbemNamedValueSet.class, "Clone");
+        assertNotSame(first, second);
+        assertEquals(1, activator.activations.get());
+        assertEquals(2, cloned.size());
+        assertSame(cloned.get(0), cloned.get(1));
+
+        factory.create(SWbemLastError.class, "Clone_");
+        assertEquals(2, activator.activations.get());
+        assertEquals(3, cloned.size());
+        assertNotSame(cloned.get(0), cloned.get(2));
+    }
+
+    @Test
+    public void testActivatedWithoutCloneMethod() throws WMIException {
+        ScriptingObjectFactory factory = new ScriptingObjectFactory(activator, 2);
+        assertNotSame(factory.create(SWbemNamedValueSet.class, null), factory.create(SWbemNamedValueSet.class, null));
+        assertEquals(2, activator.activations.get());
+        assertEquals(0, cloned.size());
+        assertEquals(0, factory.getPooled(SWbemNamedValueSet.class));
+    }
+
+    @Test
+    public void testRefill() throws Exception {
+        ScriptingObjectFactory factory = new ScriptingObjectFactory(activator, 2);
+        factory.create(SWbemNamedValueSet.class, "Clone");
+        awaitPooled(factory, 2);
+        assertEquals(3, cloned.size());
+
+        // Taken from the pool, then refilled in background
+        factory.create(SWbemNamedValueSet.class, "Clone");
+        awaitPooled(factory, 2);
+        assertEquals(4, cloned.size());
+        assertEquals(1, activator.activations.get());
+        assertTrue(activator.discarded.isEmpty());
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        ScriptingObjectFactory factory = new ScriptingObjectFactory(activator, 2);
+        factory.create(SWbemNamedValueSet.class, "Clone");
+        awaitPooled(factory, 2);
+        factory.close();
+        assertTrue(factory.isClosed());
+        assertTrue(activator.closed);
+        assertEquals(0, factory.getPooled(SWbemNamedValueSet.class));
+        try {
+            factory.create(SWbemNamedValueSet.class, "Clone");
+            fail();
+        } catch (WMIException e) {
+            // disconnected
+        }
+        assertEquals(1, activator.activations.get());
+    }
+
+    @Test
+    public void testRacingActivationDiscardsLoser() throws Exception {
+        final ScriptingObjectFactory factory = new ScriptingObjectFactory(activator, 0);
+        activator.barrier = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Callable<IJIDispatch> create = new Callable<IJIDispatch>() {
+                @Override
+                public IJIDispatch call() throws Exception {
+                    return factory.create(SWbemNamedValueSet.class, "Clone");
+                }
+            };
+            Future<IJIDispatch> first = executor.submit(create);
+            Future<IJIDispatch> second = executor.submit(create);
+            assertNotSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(2, activator.activations.get());
+        assertEquals(1, activator.discarded.size());
+        // Both clones come from the prototype that was kept
+        assertSame(cloned.get(0), cloned.get(1));
+        assertFalse(cloned.contains(activator.discarded.get(0)));
+    }
+
+    @Test
+    public void testColdConnectRegistryLookups() throws WMIException {
+        int lookups = 0;
+        int avoided = 0;
+        for(String progId : COLD_CONNECT) {
+            try {
+                // No session at all, a registry lookup would fail
+                assertTrue(progId, WbemScriptingClsids.getClsid(progId)
+                        .equalsIgnoreCase(ScriptingObjectFactory.clsidOf(progId).getCLSID()));
+                avoided++;
+            } catch (WMIException e) {
+                lookups++;
+            }
+        }
+        assertEquals(0, lookups);
+        assertEquals(15, avoided * REGISTRY_ROUND_TRIPS);
+    }
+
+    @Test
+    public void testUnknownProgIdFailsFast() {
+        // A null session would fail the activation, the ProgID must be rejected before
+        ScriptingObjectFactory factory = new ScriptingObjectFactory(null, "host.invalid", 0);
+        try {
+            factory.create(SWbemPrivilege.class, null);
+            fail();
+        } catch (WMIException e) {
+            assertEquals(ScriptingObjectFactory.REGDB_E_CLASSNOTREG, e.getErrorCode());
+            assertTrue(e.getMessage().contains("WbemScripting.SWbemPrivilege"));
+        }
+    }
+
+    private static void awaitPooled(ScriptingObjectFactory factory, int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (factory.getPooled(SWbemNamedValueSet.class) < size) {
+            assertTrue("Pool not refilled", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private class FakeActivator implements ScriptingObjectFactory.Activator {
+
+        private final AtomicInteger activations = new AtomicInteger();
+        private final List<IJIDispatch> discarded = new CopyOnWriteArrayList<IJIDispatch>();
+        private volatile CyclicBarrier barrier;
+        private volatile boolean closed;
+
+        @Override
+        public IJIDispatch activate(String progId) throws WMIException {
+            ScriptingObjectFactory.clsidOf(progId);
+            activations.incrementAndGet();
+            if(barrier != null) {
+                try {
+                    // Both callers activate before either keeps its object as prototype
+                    barrier.await(5, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return transport.createDispatch(handler).getDispatch();
+        }
+
+        @Override
+        public void discard(IJIDispatch dispatch) {
+            discarded.add(dispatch);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
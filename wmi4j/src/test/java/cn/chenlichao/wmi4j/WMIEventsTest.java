@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j;
+
+import org.jinterop.dcom.core.JISession;
+import org.junit.Test;
+
+import java.net.UnknownHostException;
+
+import static org.junit.Assert.*;
+
+public class WMIEventsTest {
+
+    @Test
+    public void testFailedConnectIsNotRegistered() throws Exception {
+        int connections = WMIEvents.getConnectionCount();
+        SWbemLocator locator = new SWbemLocator("host.invalid", "user", "password", "root\\cimv2");
+        try {
+            locator.connectServer();
+            fail();
+        } catch (UnknownHostException e) {
+            // expected
+        } catch (WMIException e) {
+            assertNotEquals(0, e.getErrorCode());
+        }
+        assertEquals(connections, WMIEvents.getConnectionCount());
+    }
+
+    @Test
+    public void testDroppedSessionIsRemoved() throws Exception {
+        int connections = WMIEvents.getConnectionCount();
+        JISession session = JISession.createSession("domain", "user", "password");
+        WMIEvents.connected(session, "host", "root\\cimv2");
+        assertEquals(connections + 1, WMIEvents.getConnectionCount());
+        WMIEvents.disconnected(session);
+        assertEquals(connections, WMIEvents.getConnectionCount());
+
+        // Destroyed without disconnected()
+        session = JISession.createSession("domain", "user", "password");
+        WMIEvents.connected(session, "host", "root\\cimv2");
+        JISession.destroySession(session);
+        session = null;
+        long deadline = System.currentTimeMillis() + 10000;
+        while (WMIEvents.getConnectionCount() > connections) {
+            assertTrue("Session still registered", System.currentTimeMillis() < deadline);
+            System.gc();
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j;
+
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.core.IJIComObject;
+import org.jinterop.dcom.core.JIArray;
+import org.jinterop.dcom.core.JICallBuilder;
+import org.jinterop.dcom.core.JISession;
+import org.jinterop.dcom.core.JIVariant;
+import org.jinterop.dcom.impls.automation.IJIDispatch;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class WbemSetIteratorTest {
+
+    private static final JISession SESSION = JISession.createSession("domain", "user", "password");
+
+    private final AtomicInteger released = new AtomicInteger();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger enumeratorReleased = new AtomicInteger();
+
+    /**
+     * A remote object as far as the wrappers can tell, which counts its releases.
+     */
+    private IJIComObject remote(Class<? extends IJIComObject> type, final InvocationHandler calls,
+                                final AtomicInteger releases) {
+        return (IJIComObject) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        String name = method.getName();
+                        if("release".equals(name)) {
+                            releases.incrementAndGet();
+                            return null;
+                        } else if("getAssociatedSession".equals(name)) {
+                            return SESSION;
+                        } else if("isLocalReference".equals(name)) {
+                            return false;
+                        } else if("call".equals(name) && calls != null) {
+                            return calls.invoke(proxy, method, args);
+                        } else if("hashCode".equals(name)) {
+                            return System.identityHashCode(proxy);
+                        } else if("equals".equals(name)) {
+                            return proxy == args[0];
+                        }
+                        return null;
+                    }
+                });
+    }
+
+    /**
+     * Enumerator of elements, which ends with S_FALSE like IEnumVARIANT when fewer elements are left than requested.
+     */
+    private WbemEnumerator enumerator(int size) {
+        final List<JIVariant> elements = new ArrayList<JIVariant>();
+        for(int i = 0; i < size; i++) {
+            elements.add(new JIVariant(remote(IJIDispatch.class, null, released)));
+        }
+        InvocationHandler next = new InvocationHandler() {
+            private int position;
+
+            @Override
+            public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                calls.incrementAndGet();
+                JICallBuilder call = (JICallBuilder) args[0];
+                int count = (Integer) call.getInParamAt(0);
+                int fetched = Math.min(count, elements.size() - position);
+                JIVariant[] variants = elements.subList(position, position + fetched).toArray(new JIVariant[fetched]);
+                position += fetched;
+                Object[] results = {array(variants), fetched};
+                if(fetched < count) {
+                    Field field = JICallBuilder.class.getDeclaredField("resultsOfException");
+                    field.setAccessible(true);
+                    field.set(call, results);
+                    throw new JIException(1);
+                }
+                return results;
+            }
+        };
+        return new WbemEnumerator(SWbemObjectSet.class, remote(IJIComObject.class, next, enumeratorReleased));
+    }
+
+    /**
+     * An array of unmarshalled variants, JIArray computes the wire size of its elements, which local objects lack.
+     */
+    static JIArray array(JIVariant[] variants) throws Exception {
+        JIArray array = new JIArray(new JIVariant[0], true);
+        Field members = JIArray.class.getDeclaredField("memberArray");
+        members.setAccessible(true);
+        members.set(array, variants);
+        return array;
+    }
+
+    private WbemSetIterator<SWbemObject> iterator(int size, int count, int batchSize, boolean prefetch) {
+        return new WbemSetIterator<SWbemObject>(enumerator(size), WrapperFactories.OBJECT, count, batchSize, prefetch);
+    }
+
+    private static int drain(WbemSetIterator<SWbemObject> iterator) {
+        int n = 0;
+        while(iterator.hasNext()) {
+            assertNotNull(iterator.next());
+            n++;
+        }
+        return n;
+    }
+
+    @Test
+    public void testBatchBoundaries() {
+        // the count ends the iteration without an extra round trip
+        assertEquals(7, drain(iterator(7, 7, 3, false)));
+        assertEquals(3, calls.getAndSet(0));
+        assertEquals(6, drain(iterator(6, 6, 3, true)));
+        assertEquals(2, calls.getAndSet(0));
+        assertEquals(2, enumeratorReleased.getAndSet(0));
+        assertEquals(0, drain(iterator(0, 0, 3, false)));
+        assertEquals(0, calls.getAndSet(0));
+        assertEquals(0, released.get());
+    }
+
+    @Test
+    public void testPartialBatchAtEnd() {
+        // the last batch comes with S_FALSE and is not lost
+        WbemSetIterator<SWbemObject> iterator = iterator(7, -1, 3, true);
+        assertEquals(7, drain(iterator));
+        assertEquals(3, calls.getAndSet(0));
+        assertEquals(1, enumeratorReleased.get());
+        assertFalse(iterator.hasNext());
+
+        // an exact multiple needs an empty batch to end
+        assertEquals(6, drain(iterator(6, -1, 3, false)));
+        assertEquals(3, calls.get());
+        assertEquals(0, released.get());
+    }
+
+    @Test
+    public void testEarlyAbandon() throws Exception {
+        WbemSetIterator<SWbemObject> iterator = iterator(10, -1, 4, true);
+        assertTrue(iterator.hasNext());
+        iterator.next();
+        iterator.close();
+        // the rest of the first batch, then the prefetched one when it arrives
+        long deadline = System.currentTimeMillis() + 5000;
+        while(released.get() < 7 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(7, released.get());
+        assertEquals(1, enumeratorReleased.get());
+        assertFalse(iterator.hasNext());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testStreamClose() throws Exception {
+        AtomicInteger setReleased = new AtomicInteger();
+        SWbemObjectSet set = new SWbemObjectSet((IJIDispatch) remote(IJIDispatch.class, null, setReleased));
+        Stream<SWbemObject> stream = AbstractWbemSet.stream(iterator(10, -1, 4, true), set);
+        try {
+            assertNotNull(stream.findFirst().orElse(null));
+        } finally {
+            stream.close();
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while(released.get() < 7 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(7, released.get());
+        assertEquals(1, enumeratorReleased.get());
+        assertTrue(set.isReleased());
+        assertEquals(1, setReleased.get());
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.fake;
+
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.core.JIVariant;
+
+/**
+ * Implements the members of an {@link InMemoryDispatch}.
+ */
+public interface DispatchHandler {
+
+    /**
+     * Invoke kind of a method call, same as DISPATCH_METHOD of IDispatch::Invoke.
+     */
+    int METHOD = 1;
+    /**
+     * Invoke kind of a property read, same as DISPATCH_PROPERTYGET of IDispatch::Invoke.
+     */
+    int PROPERTY_GET = 2;
+    /**
+     * Invoke kind of a property write, same as DISPATCH_PROPERTYPUT of IDispatch::Invoke.
+     */
+    int PROPERTY_PUT = 4;
+
+    /**
+     * Invoke a member of the object.
+     * @param target The object the member is invoked on.
+     * @param member Member name, as passed to GetIDsOfNames.
+     * @param kind {@link #METHOD}, {@link #PROPERTY_GET} or {@link #PROPERTY_PUT}.
+     * @param params Parameters of the call, the new value of a property write. Omitted optional parameters
+     *               are {@link JIVariant#OPTIONAL_PARAM()} variants.
+     * @return Results of the call, the first element is the return value. May be null for a method without
+     *         return value or a property write.
+     * @throws JIException The HRESULT returned to the caller, use
+     *                     {@link InMemoryDispatch#DISP_E_MEMBERNOTFOUND} for an unknown member.
+     */
+    JIVariant[] invoke(InMemoryDispatch target, String member, int kind, Object[] params) throws JIException;
+}
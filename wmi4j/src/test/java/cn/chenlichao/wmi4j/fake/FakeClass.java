@@ -0,0 +1,330 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.fake;
+
+import cn.chenlichao.wmi4j.consts.WbemCimTypeEnum;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Definition of a class served by {@link FakeWmiProvider}.
+ *
+ * <pre>
+ *     FakeClass service = FakeClass.builder("Win32_Service")
+ *             .superclass("CIM_Service")
+ *             .key("Name", WbemCimTypeEnum.String)
+ *             .property("State", WbemCimTypeEnum.String)
+ *             .property("ProcessId", WbemCimTypeEnum.Uint32)
+ *             .method("StartService")
+ *             .build();
+ * </pre>
+ * Properties of the superclass are inherited when the class is defined in a provider.
+ */
+public final class FakeClass {
+
+    private final String name;
+    private final String superclass;
+    private final Map<String, Property> properties;
+    private final List<String> methods;
+    private final List<String> derivation;
+
+    private FakeClass(String name, String superclass, Map<String, Property> properties, List<String> methods,
+                      List<String> derivation) {
+        this.name = name;
+        this.superclass = superclass;
+        this.properties = properties;
+        this.methods = methods;
+        this.derivation = derivation;
+    }
+
+    /**
+     * Start to define a class.
+     * @param name Class name.
+     */
+    public static Builder builder(String name) {
+        if(name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Class name is empty.");
+        }
+        return new Builder(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Name of the parent class, or null.
+     */
+    public String getSuperclass() {
+        return superclass;
+    }
+
+    /**
+     * @return Class derivation hierarchy, the first element is the parent class. Only known once the class
+     *         is defined in a provider.
+     */
+    public List<String> getDerivation() {
+        return derivation;
+    }
+
+    /**
+     * @return true if this class is the class or derives from it, case-insensitive.
+     */
+    public boolean isA(String className) {
+        if(name.equalsIgnoreCase(className)) {
+            return true;
+        }
+        for(String parent : derivation) {
+            if(parent.equalsIgnoreCase(className)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Properties in declaration order, inherited properties first.
+     */
+    public List<Property> getProperties() {
+        return Collections.unmodifiableList(new ArrayList<Property>(properties.values()));
+    }
+
+    /**
+     * @return The property, case-insensitive, or null if the class has no such property.
+     */
+    public Property getProperty(String name) {
+        return properties.get(name.toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * @return Names of the key properties.
+     */
+    public List<String> getKeys() {
+        List<String> keys = new ArrayList<String>();
+        for(Property property : properties.values()) {
+            if(property.isKey()) {
+                keys.add(property.getName());
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * @return Names of the methods.
+     */
+    public List<String> getMethods() {
+        return methods;
+    }
+
+    /**
+     * @return true if the class declares the method, case-insensitive.
+     */
+    public boolean hasMethod(String method) {
+        for(String m : methods) {
+            if(m.equalsIgnoreCase(method)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return This class with the properties and methods of the parent class added in front.
+     */
+    FakeClass inherit(FakeClass parent) {
+        Map<String, Property> merged = new LinkedHashMap<String, Property>(parent.properties);
+        merged.putAll(properties);
+        List<String> mergedMethods = new ArrayList<String>(parent.methods);
+        for(String method : methods) {
+            if(!parent.hasMethod(method)) {
+                mergedMethods.add(method);
+            }
+        }
+        List<String> mergedDerivation = new ArrayList<String>();
+        mergedDerivation.add(parent.name);
+        mergedDerivation.addAll(parent.derivation);
+        return new FakeClass(name, superclass, merged, Collections.unmodifiableList(mergedMethods),
+                Collections.unmodifiableList(mergedDerivation));
+    }
+
+    /**
+     * @return This class with only the given properties and the keys, for the result of a query that selects properties.
+     * @exception IllegalArgumentException A property does not exist.
+     */
+    FakeClass project(Collection<String> selected) {
+        Map<String, Property> projected = new LinkedHashMap<String, Property>();
+        for(String propertyName : selected) {
+            if(getProperty(propertyName) == null) {
+                throw new IllegalArgumentException(name + " has no property " + propertyName + ".");
+            }
+        }
+        for(Map.Entry<String, Property> entry : properties.entrySet()) {
+            Property property = entry.getValue();
+            if(property.isKey() || containsIgnoreCase(selected, property.getName())) {
+                projected.put(entry.getKey(), property);
+            }
+        }
+        return new FakeClass(name, superclass, projected, methods, derivation);
+    }
+
+    /**
+     * @return This class with one more property, used by the open in-parameter objects.
+     */
+    FakeClass withProperty(String propertyName, WbemCimTypeEnum cimType, boolean array) {
+        Map<String, Property> extended = new LinkedHashMap<String, Property>(properties);
+        extended.put(propertyName.toLowerCase(Locale.ENGLISH), new Property(propertyName, cimType, array, false, name));
+        return new FakeClass(name, superclass, extended, methods, derivation);
+    }
+
+    private static boolean containsIgnoreCase(Collection<String> names, String name) {
+        for(String n : names) {
+            if(n.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parse a MOF data type name, such as <code>uint32</code> or <code>datetime</code>.
+     * @exception IllegalArgumentException Unknown type.
+     */
+    static WbemCimTypeEnum parseType(String type) {
+        for(WbemCimTypeEnum cimType : WbemCimTypeEnum.values()) {
+            if(cimType.name().equalsIgnoreCase(type)) {
+                return cimType;
+            }
+        }
+        if("ref".equalsIgnoreCase(type)) {
+            return WbemCimTypeEnum.Reference;
+        }
+        throw new IllegalArgumentException("Unknown CIM type " + type);
+    }
+
+    @Override
+    public String toString() {
+        return "FakeClass{" + name + (superclass == null ? "" : " : " + superclass) + ", properties="
+                + properties.values() + ", methods=" + methods + "}";
+    }
+
+    /**
+     * A property of a {@link FakeClass}.
+     */
+    public static final class Property {
+
+        private final String name;
+        private final WbemCimTypeEnum cimType;
+        private final boolean array;
+        private final boolean key;
+        private final String origin;
+
+        Property(String name, WbemCimTypeEnum cimType, boolean array, boolean key, String origin) {
+            this.name = name;
+            this.cimType = cimType;
+            this.array = array;
+            this.key = key;
+            this.origin = origin;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public WbemCimTypeEnum getCimType() {
+            return cimType;
+        }
+
+        public boolean isArray() {
+            return array;
+        }
+
+        public boolean isKey() {
+            return key;
+        }
+
+        /**
+         * @return Name of the class that declares this property.
+         */
+        public String getOrigin() {
+            return origin;
+        }
+
+        @Override
+        public String toString() {
+            return cimType + (array ? "[] " : " ") + name + (key ? " (key)" : "");
+        }
+    }
+
+    public static final class Builder {
+
+        private final String name;
+        private String superclass;
+        private final Map<String, Property> properties = new LinkedHashMap<String, Property>();
+        private final List<String> methods = new ArrayList<String>();
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder superclass(String superclass) {
+            this.superclass = superclass;
+            return this;
+        }
+
+        public Builder key(String name, WbemCimTypeEnum cimType) {
+            return add(name, cimType, false, true);
+        }
+
+        public Builder property(String name, WbemCimTypeEnum cimType) {
+            return add(name, cimType, false, false);
+        }
+
+        public Builder arrayProperty(String name, WbemCimTypeEnum cimType) {
+            return add(name, cimType, true, false);
+        }
+
+        public Builder method(String name) {
+            methods.add(name);
+            return this;
+        }
+
+        Builder add(String propertyName, WbemCimTypeEnum cimType, boolean array, boolean key) {
+            if(propertyName == null || propertyName.isEmpty()) {
+                throw new IllegalArgumentException("Property name is empty.");
+            }
+            if(cimType == null) {
+                throw new IllegalArgumentException("CIM type of " + propertyName + " is null.");
+            }
+            properties.put(propertyName.toLowerCase(Locale.ENGLISH), new Property(propertyName, cimType, array, key, name));
+            return this;
+        }
+
+        public FakeClass build() {
+            return new FakeClass(name, superclass, new LinkedHashMap<String, Property>(properties),
+                    Collections.unmodifiableList(new ArrayList<String>(methods)), Collections.<String>emptyList());
+        }
+    }
+}
@@ -0,0 +1,646 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.fake;
+
+import cn.chenlichao.wmi4j.ObjectPath;
+import cn.chenlichao.wmi4j.consts.WbemCimTypeEnum;
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.core.IJIComObject;
+import org.jinterop.dcom.core.IJIUnsigned;
+import org.jinterop.dcom.core.JIArray;
+import org.jinterop.dcom.core.JIString;
+import org.jinterop.dcom.core.JIVariant;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The scripting objects of a {@link FakeWmiProvider}: services, objects, property and method sets, object paths,
+ * object sets and event sources. Every dispatch applies the faults of the provider before a member is invoked.
+ */
+final class FakeDispatches {
+
+    /** WBEM_E_TYPE_MISMATCH */
+    static final int WBEM_E_TYPE_MISMATCH = 0x80041005;
+    /** WBEM_E_INVALID_OBJECT_PATH */
+    static final int WBEM_E_INVALID_OBJECT_PATH = 0x8004103A;
+    /** wbemObjectTextFormatCIMDTD20 */
+    private static final int TEXT_FORMAT_CIM_DTD20 = 1;
+    /** VT_ERROR value of an omitted optional parameter. */
+    private static final int DISP_E_PARAMNOTFOUND = 0x80020004;
+
+    private final FakeWmiProvider provider;
+    private final InMemoryTransport transport;
+
+    FakeDispatches(FakeWmiProvider provider) {
+        this.provider = provider;
+        this.transport = provider.getTransport();
+    }
+
+    private InMemoryDispatch create(DispatchHandler handler) {
+        return transport.createDispatch(new Faulting(provider, handler));
+    }
+
+    /**
+     * Applies the faults of the provider, then invokes the member.
+     */
+    private static final class Faulting implements DispatchHandler {
+
+        private final FakeWmiProvider provider;
+        private final DispatchHandler delegate;
+
+        Faulting(FakeWmiProvider provider, DispatchHandler delegate) {
+            this.provider = provider;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public JIVariant[] invoke(InMemoryDispatch target, String member, int kind, Object[] params) throws JIException {
+            provider.beforeInvoke(member);
+            return delegate.invoke(target, member, kind, params);
+        }
+    }
+
+    // ---------------------------------------------------------------- SWbemServices
+
+    InMemoryDispatch services() {
+        return create(new DispatchHandler() {
+            @Override
+            public JIVariant[] invoke(InMemoryDispatch target, String member, int kind, Object[] params) throws JIException {
+                if("Get".equalsIgnoreCase(member)) {
+                    return result(get(pathParam(params, 0)));
+                } else if("InstancesOf".equalsIgnoreCase(member)) {
+                    FakeClass fakeClass = classOf(stringParam(params, 0));
+                    return result(objectSet(copies(provider.getInstances(fakeClass.getName())), false));
+                } else if("ExecQuery".equalsIgnoreCase(member)) {
+                    return result(execQuery(stringParam(params, 0)));
+                } else if("ExecMethod".equalsIgnoreCase(member)) {
+                    ObjectPath path = pathParam(params, 0);
+                    FakeClass fakeClass = classOf(path.getClassName());
+                    FakeInstance instance = path.isClass() ? null : stored(path);
+                    FakeInstance out = provider.execMethod(fakeClass, instance, stringParam(params, 1),
+                            parametersParam(params, 2));
+                    return result(object(out, false));
+                } else if("ExecNotificationQuery".equalsIgnoreCase(member)) {
+                    return result(eventSource(provider.subscribe(stringParam(params, 0))));
+                } else if("Delete".equalsIgnoreCase(member)) {
+                    ObjectPath path = pathParam(params, 0);
+                    if(path.isClass()) {
+                        throw new JIException(FakeWmiProvider.WBEM_E_NOT_SUPPORTED, "Classes can not be deleted.");
+                    }
+                    if(!provider.removeInstance(stored(path).getRelPath())) {
+                        throw new JIException(FakeWmiProvider.WBEM_E_NOT_FOUND);
+                    }
+                    return null;
+                } else if("SubclassesOf".equalsIgnoreCase(member)) {
+                    String superclass = stringParam(params, 0);
+                    List<FakeInstance> subclasses = new ArrayList<FakeInstance>();
+                    for(FakeClass fakeClass : provider.getClasses()) {
+                        if(superclass == null ? !fakeClass.getName().startsWith("__")
+                                : !fakeClass.getName().equalsIgnoreCase(superclass) && fakeClass.isA(superclass)) {
+                            subclasses.add(new FakeInstance(fakeClass, null));
+                        }
+                    }
+                    return result(objectSet(subclasses, true));
+                } else if("AssociatorsOf".equalsIgnoreCase(member) || "ReferencesTo".equalsIgnoreCase(member)) {
+                    throw new JIException(FakeWmiProvider.WBEM_E_NOT_SUPPORTED, member + " is not supported.");
+                }
+                throw new JIException(InMemoryDispatch.DISP_E_MEMBERNOTFOUND);
+            }
+        });
+    }
+
+    private InMemoryDispatch get(ObjectPath path) throws JIException {
+        FakeClass fakeClass = classOf(path.getClassName());
+        if(path.isClass()) {
+            return object(new FakeInstance(fakeClass, null), true);
+        }
+        return object(stored(path).copy(), false);
+    }
+
+    private InMemoryDispatch execQuery(String wql) throws JIException {
+        if(wql == null) {
+            throw new JIException(FakeWmiProvider.WBEM_E_INVALID_PARAMETER);
+        }
+        WqlQuery query = WqlQuery.parse(wql);
+        FakeClass fakeClass = classOf(query.getClassName());
+        if(fakeClass.isA("__Event")) {
+            throw new JIException(FakeWmiProvider.WBEM_E_INVALID_QUERY, "Use ExecNotificationQuery for events.");
+        }
+        FakeClass projected = null;
+        List<FakeInstance> results = new ArrayList<FakeInstance>();
+        for(FakeInstance instance : provider.getInstances(fakeClass.getName())) {
+            if(!query.matches(instance)) {
+                continue;
+            }
+            if(query.getProperties().isEmpty()) {
+                results.add(instance.copy());
+                continue;
+            }
+            if(projected == null || !projected.getName().equals(instance.getClassName())) {
+                try {
+                    projected = instance.getFakeClass().project(query.getProperties());
+                } catch (IllegalArgumentException e) {
+                    throw new JIException(FakeWmiProvider.WBEM_E_INVALID_QUERY, e.getMessage());
+                }
+            }
+            FakeInstance result = new FakeInstance(projected, null);
+            for(FakeClass.Property property : projected.getProperties()) {
+                result.set(property.getName(), instance.get(property.getName()));
+            }
+            results.add(result);
+        }
+        return objectSet(results, false);
+    }
+
+    private FakeClass classOf(String className) throws JIException {
+        if(className == null) {
+            throw new JIException(FakeWmiProvider.WBEM_E_INVALID_PARAMETER);
+        }
+        FakeClass fakeClass = provider.getFakeClass(className);
+        if(fakeClass == null) {
+            throw new JIException(FakeWmiProvider.WBEM_E_INVALID_CLASS, "Class " + className + " is not defined.");
+        }
+        return fakeClass;
+    }
+
+    private FakeInstance stored(ObjectPath path) throws JIException {
+        classOf(path.getClassName());
+        FakeInstance instance = provider.getInstance(path.getRelPath());
+        if(instance == null) {
+            throw new JIException(FakeWmiProvider.WBEM_E_NOT_FOUND, "Instance " + path.getRelPath() + " not found.");
+        }
+        return instance;
+    }
+
+    private static List<FakeInstance> copies(List<FakeInstance> instances) {
+        List<FakeInstance> copies = new ArrayList<FakeInstance>(instances.size());
+        for(FakeInstance instance : instances) {
+            copies.add(instance.copy());
+        }
+        return copies;
+    }
+
+    // ---------------------------------------------------------------- SWbemObject
+
+    /**
+     * @param instance The object, a class object is an instance with null values.
+     * @param isClass Whether the object is a class.
+     */
+    InMemoryDispatch object(FakeInstance instance, boolean isClass) {
+        return create(new ObjectHandler(instance, isClass));
+    }
+
+    private final class ObjectHandler implements DispatchHandler {
+
+        private final FakeInstance instance;
+        private final boolean isClass;
+
+        ObjectHandler(FakeInstance instance, boolean isClass) {
+            this.instance = instance;
+            this.isClass = isClass;
+        }
+
+        @Override
+        public JIVariant[] invoke(InMemoryDispatch target, String member, int kind, Object[] params) throws JIException {
+            FakeClass fakeClass = instance.getFakeClass();
+            if("Properties_".equalsIgnoreCase(member)) {
+                return result(propertySet(instance, isClass));
+            } else if("Path_".equalsIgnoreCase(member)) {
+                return result(path(instance, isClass));
+            } else if("Methods_".equalsIgnoreCase(member)) {
+                return result(methodSet(fakeClass));
+            } else if("Derivation_".equalsIgnoreCase(member)) {
+                return new JIVariant[]{toVariant(fakeClass.getDerivation())};
+            } else if("GetObjectText_".equalsIgnoreCase(member)) {
+                return new JIVariant[]{toVariant(FakeText.mof(instance, isClass))};
+            } else if("GetText_".equalsIgnoreCase(member)) {
+                Object format = param(params, 0);
+                if(!(format instanceof Number) || ((Number) format).intValue() != TEXT_FORMAT_CIM_DTD20) {
+                    throw new JIException(FakeWmiProvider.WBEM_E_NOT_SUPPORTED, "Only CIM DTD 2.0 is supported.");
+                }
+                return new JIVariant[]{toVariant(FakeText.cimXml(instance, isClass))};
+            } else if("SpawnInstance_".equalsIgnoreCase(member)) {
+                if(!isClass) {
+                    throw new JIException(FakeWmiProvider.WBEM_E_NOT_SUPPORTED, "Not a class.");
+                }
+                return result(object(new FakeInstance(fakeClass, null), false));
+            } else if("Instances_".equalsIgnoreCase(member)) {
+                if(!isClass) {
+                    throw new JIException(FakeWmiProvider.WBEM_E_NOT_SUPPORTED, "Not a class.");
+                }
+                return result(objectSet(copies(provider.getInstances(fakeClass.getName())), false));
+            } else if("Put_".equalsIgnoreCase(member)) {
+                if(isClass || !isInstanceClass(fakeClass)) {
+                    throw new JIException(FakeWmiProvider.WBEM_E_NOT_SUPPORTED, "Only instances can be written.");
+                }
+                provider.putInstance(instance);
+                return result(path(instance, false));
+            } else if("Delete_".equalsIgnoreCase(member)) {
+                if(isClass || !provider.removeInstance(instance.getRelPath())) {
+                    throw new JIException(FakeWmiProvider.WBEM_E_NOT_FOUND);
+                }
+                return null;
+            } else if("Clone_".equalsIgnoreCase(member)) {
+                return result(object(instance.copy(), isClass));
+            } else if("CompareTo_".equalsIgnoreCase(member)) {
+                Object other = param(params, 0);
+                return new JIVariant[]{new JIVariant(other instanceof FakeInstance
+                        && instance.getClassName().equalsIgnoreCase(((FakeInstance) other).getClassName())
+                        && instance.getValues().equals(((FakeInstance) other).getValues()))};
+            } else if("ExecMethod_".equalsIgnoreCase(member)) {
+                FakeInstance methodTarget = null;
+                if(!isClass) {
+                    methodTarget = isInstanceClass(fakeClass) ? provider.getInstance(instance.getRelPath()) : null;
+                    if(methodTarget == null) {
+                        methodTarget = instance;
+                    }
+                }
+                FakeInstance out = provider.execMethod(fakeClass, methodTarget, stringParam(params, 0),
+                        parametersParam(params, 1));
+                return result(object(out, false));
+            } else if("Associators_".equalsIgnoreCase(member) || "References_".equalsIgnoreCase(member)
+                    || "Subclasses_".equalsIgnoreCase(member) || "Qualifiers_".equalsIgnoreCase(member)) {
+                throw new JIException(FakeWmiProvider.WBEM_E_NOT_SUPPORTED, member + " is not supported.");
+            }
+            throw new JIException(InMemoryDispatch.DISP_E_MEMBERNOTFOUND);
+        }
+    }
+
+    /**
+     * @return false for events and parameters, which have no path and are not stored.
+     */
+    private static boolean isInstanceClass(FakeClass fakeClass) {
+        return !fakeClass.isA("__Event") && !fakeClass.isA(FakeWmiProvider.PARAMETERS);
+    }
+
+    private InMemoryDispatch path(FakeInstance instance, boolean isClass) {
+        String className = instance.getClassName();
+        if(isClass) {
+            String relPath = className;
+            return path(className, relPath, fullPath(relPath), true, false);
+        }
+        if(!isInstanceClass(instance.getFakeClass())) {
+            return path(className, "", "", false, false);
+        }
+        String relPath = instance.getRelPath();
+        return path(className, relPath, fullPath(relPath), false, instance.getFakeClass().getKeys().isEmpty());
+    }
+
+    private String fullPath(String relPath) {
+        return "\\\\" + provider.getServer() + "\\" + provider.getNamespace() + ":" + relPath;
+    }
+
+    // ---------------------------------------------------------------- SWbemObjectPath
+
+    private InMemoryDispatch path(final String className, final String relPath, final String path,
+                                  final boolean isClass, final boolean singleton) {
+        return create(new DispatchHandler() {
+            @Override
+            public JIVariant[] invoke(InMemoryDispatch target, String member, int kind, Object[] params) throws JIException {
+                if("Path".equalsIgnoreCase(member)) {
+                    return new JIVariant[]{toVariant(path)};
+                } else if("RelPath".equalsIgnoreCase(member)) {
+                    return new JIVariant[]{toVariant(relPath)};
+                } else if("Class".equalsIgnoreCase(member)) {
+                    return new JIVariant[]{toVariant(className)};
+                } else if("Server".equalsIgnoreCase(member)) {
+                    return new JIVariant[]{toVariant(path.isEmpty() ? "" : provider.getServer())};
+                } else if("Namespace".equalsIgnoreCase(member)) {
+                    return new JIVariant[]{toVariant(path.isEmpty() ? "" : provider.getNamespace())};
+                } else if("ParentNamespace".equalsIgnoreCase(member)) {
+                    String namespace = provider.getNamespace();
+                    int separator = namespace.lastIndexOf('\\');
+                    return new JIVariant[]{toVariant(path.isEmpty() || separator < 0 ? "" : namespace.substring(0, separator))};
+                } else if("DisplayName".equalsIgnoreCase(member)) {
+                    return new JIVariant[]{toVariant(path.isEmpty() ? "" : "WINMGMTS:" + path)};
+                } else if("IsClass".equalsIgnoreCase(member)) {
+                    return new JIVariant[]{new JIVariant(isClass)};
+                } else if("IsSingleton".equalsIgnoreCase(member)) {
+                    return new JIVariant[]{new JIVariant(singleton)};
+                } else if("Authority".equalsIgnoreCase(member) || "Locale".equalsIgnoreCase(member)) {
+                    return new JIVariant[]{toVariant("")};
+                } else if("Keys".equalsIgnoreCase(member) || "Security_".equalsIgnoreCase(member)
+                        || "SetAsClass".equalsIgnoreCase(member) || "SetAsSingleton".equalsIgnoreCase(member)) {
+                    throw new JIException(FakeWmiProvider.WBEM_E_NOT_SUPPORTED, member + " is not supported.");
+                }
+                throw new JIException(InMemoryDispatch.DISP_E_MEMBERNOTFOUND);
+            }
+        });
+    }
+
+    // ---------------------------------------------------------------- SWbemPropertySet and SWbemProperty
+
+    private InMemoryDispatch propertySet(final FakeInstance instance, final boolean isClass) {
+        final boolean open = !isClass && instance.getFakeClass().getName().equalsIgnoreCase(FakeWmiProvider.PARAMETERS);
+        return create(new DispatchHandler() {
+            @Override
+            public JIVariant[] invoke(InMemoryDispatch target, String member, int kind, Object[] params) throws JIException {
+                if("Count".equalsIgnoreCase(member)) {
+                    return new JIVariant[]{new JIVariant(instance.getFakeClass().getProperties().size())};
+                } else if("_NewEnum".equalsIgnoreCase(member)) {
+                    List<JIVariant> properties = new ArrayList<JIVariant>();
+                    for(FakeClass.Property property : instance.getFakeClass().getProperties()) {
+                        properties.add(property(instance, property.getName(), open).toVariant());
+                    }
+                    return new JIVariant[]{transport.createEnumeration(properties)};
+                } else if("Item".equalsIgnoreCase(member)) {
+                    String name = stringParam(params, 0);
+                    if(name == null || (!open && instance.getFakeClass().getProperty(name) == null)) {
+                        throw new JIException(FakeWmiProvider.WBEM_E_NOT_FOUND, "Property " + name + " not found.");
+                    }
+                    return result(property(instance, name, open));
+                } else if("Add".equalsIgnoreCase(member)) {
+                    String name = stringParam(params, 0);
+                    Object cimType = param(params, 1);
+                    if(!open) {
+                        throw new JIException(FakeWmiProvider.WBEM_E_NOT_SUPPORTED, "Properties can only be added to parameters.");
+                    }
+                    if(name == null || !(cimType instanceof Number)) {
+                        throw new JIException(FakeWmiProvider.WBEM_E_INVALID_PARAMETER);
+                    }
+                    WbemCimTypeEnum type;
+                    try {
+                        type = WbemCimTypeEnum.parse(((Number) cimType).intValue());
+                    } catch (IllegalArgumentException e) {
+                        throw new JIException(FakeWmiProvider.WBEM_E_INVALID_PARAMETER, e.getMessage());
+                    }
+                    instance.extend(name, type, Boolean.TRUE.equals(param(params, 2)));
+                    return result(property(instance, name, true));
+                } else if("Remove".equalsIgnoreCase(member)) {
+                    throw new JIException(FakeWmiProvider.WBEM_E_NOT_SUPPORTED, "Properties can not be removed.");
+                }
+                throw new JIException(InMemoryDispatch.DISP_E_MEMBERNOTFOUND);
+            }
+        });
+    }
+
+    /**
+     * @param open Whether the property is created by the first write if it does not exist.
+     */
+    private InMemoryDispatch property(final FakeInstance instance, final String name, final boolean open) {
+        return create(new DispatchHandler() {
+            @Override
+            public JIVariant[] invoke(InMemoryDispatch target, String member, int kind, Object[] params) throws JIException {
+                FakeClass.Property property = instance.getFakeClass().getProperty(name);
+                if("Value".equalsIgnoreCase(member)) {
+                    if(kind == PROPERTY_PUT) {
+                        Object value = param(params, 0);
+                        if(property == null) {
+                            instance.extend(name, FakeWmiProvider.cimTypeOf(value), value instanceof List);
+                        }
+                        try {
+                            instance.set(name, value);
+                        } catch (IllegalArgumentException e) {
+                            throw new JIException(WBEM_E_TYPE_MISMATCH, e.getMessage());
+                        }
+                        return null;
+                    }
+                    return new JIVariant[]{property == null ? JIVariant.NULL() : toVariant(instance.get(name))};
+                } else if("Name".equalsIgnoreCase(member)) {
+                    return new JIVariant[]{toVariant(property == null ? name : property.getName())};
+                } else if("CIMType".equalsIgnoreCase(member)) {
+                    return new JIVariant[]{new JIVariant((property == null ? WbemCimTypeEnum.String : property.getCimType()).getValue())};
+                } else if("IsArray".equalsIgnoreCase(member)) {
+                    return new JIVariant[]{new JIVariant(property != null && property.isArray())};
+                } else if("Origin".equalsIgnoreCase(member)) {
+                    return new JIVariant[]{toVariant(property == null ? instance.getClassName() : property.getOrigin())};
+                } else if("IsLocal".equalsIgnoreCase(member)) {
+                    return new JIVariant[]{new JIVariant(property == null || instance.getClassName().equalsIgnoreCase(property.getOrigin()))};
+                } else if("Qualifiers_".equalsIgnoreCase(member)) {
+                    throw new JIException(FakeWmiProvider.WBEM_E_NOT_SUPPORTED, "Qualifiers are not supported.");
+                }
+                throw new JIException(InMemoryDispatch.DISP_E_MEMBERNOTFOUND);
+            }
+        });
+    }
+
+    // ---------------------------------------------------------------- SWbemMethodSet and SWbemMethod
+
+    private InMemoryDispatch methodSet(final FakeClass fakeClass) {
+        return create(new DispatchHandler() {
+            @Override
+            public JIVariant[] invoke(InMemoryDispatch target, String member, int kind, Object[] params) throws JIException {
+                if("Count".equalsIgnoreCase(member)) {
+                    return new JIVariant[]{new JIVariant(fakeClass.getMethods().size())};
+                } else if("_NewEnum".equalsIgnoreCase(member)) {
+                    List<JIVariant> methods = new ArrayList<JIVariant>();
+                    for(String method : fakeClass.getMethods()) {
+                        methods.add(method(fakeClass, method).toVariant());
+                    }
+                    return new JIVariant[]{transport.createEnumeration(methods)};
+                } else if("Item".equalsIgnoreCase(member)) {
+                    String name = stringParam(params, 0);
+                    for(String method : fakeClass.getMethods()) {
+                        if(method.equalsIgnoreCase(name)) {
+                            return result(method(fakeClass, method));
+                        }
+                    }
+                    throw new JIException(FakeWmiProvider.WBEM_E_NOT_FOUND, "Method " + name + " not found.");
+                }
+                throw new JIException(InMemoryDispatch.DISP_E_MEMBERNOTFOUND);
+            }
+        });
+    }
+
+    private InMemoryDispatch method(final FakeClass fakeClass, final String name) {
+        return create(new DispatchHandler() {
+            @Override
+            public JIVariant[] invoke(InMemoryDispatch target, String member, int kind, Object[] params) throws JIException {
+                if("Name".equalsIgnoreCase(member)) {
+                    return new JIVariant[]{toVariant(name)};
+                } else if("Origin".equalsIgnoreCase(member)) {
+                    return new JIVariant[]{toVariant(fakeClass.getName())};
+                } else if("InParameters".equalsIgnoreCase(member) || "OutParameters".equalsIgnoreCase(member)) {
+                    return result(object(new FakeInstance(provider.getFakeClass(FakeWmiProvider.PARAMETERS), null), true));
+                } else if("Qualifiers_".equalsIgnoreCase(member)) {
+                    throw new JIException(FakeWmiProvider.WBEM_E_NOT_SUPPORTED, "Qualifiers are not supported.");
+                }
+                throw new JIException(InMemoryDispatch.DISP_E_MEMBERNOTFOUND);
+            }
+        });
+    }
+
+    // ---------------------------------------------------------------- SWbemObjectSet and SWbemEventSource
+
+    private InMemoryDispatch objectSet(final List<FakeInstance> objects, final boolean classes) {
+        return create(new DispatchHandler() {
+            @Override
+            public JIVariant[] invoke(InMemoryDispatch target, String member, int kind, Object[] params) throws JIException {
+                if("Count".equalsIgnoreCase(member)) {
+                    return new JIVariant[]{new JIVariant(objects.size())};
+                } else if("_NewEnum".equalsIgnoreCase(member)) {
+                    List<JIVariant> elements = new ArrayList<JIVariant>(objects.size());
+                    for(FakeInstance object : objects) {
+                        elements.add(object(object, classes).toVariant());
+                    }
+                    return new JIVariant[]{transport.createEnumeration(elements)};
+                } else if("Item".equalsIgnoreCase(member)) {
+                    String relPath = stringParam(params, 0);
+                    for(FakeInstance object : objects) {
+                        String objectPath = classes ? object.getClassName() : object.getRelPath();
+                        if(objectPath.equalsIgnoreCase(relPath)) {
+                            return result(object(object, classes));
+                        }
+                    }
+                    throw new JIException(FakeWmiProvider.WBEM_E_NOT_FOUND, relPath + " not found.");
+                } else if("ItemIndex".equalsIgnoreCase(member)) {
+                    Object index = param(params, 0);
+                    if(!(index instanceof Number) || ((Number) index).intValue() < 0
+                            || ((Number) index).intValue() >= objects.size()) {
+                        throw new JIException(FakeWmiProvider.WBEM_E_NOT_FOUND, "Index " + index + " out of range.");
+                    }
+                    return result(object(objects.get(((Number) index).intValue()), classes));
+                }
+                throw new JIException(InMemoryDispatch.DISP_E_MEMBERNOTFOUND);
+            }
+        });
+    }
+
+    private InMemoryDispatch eventSource(final FakeWmiProvider.Subscription subscription) {
+        return create(new DispatchHandler() {
+            @Override
+            public JIVariant[] invoke(InMemoryDispatch target, String member, int kind, Object[] params) throws JIException {
+                if("NextEvent".equalsIgnoreCase(member)) {
+                    Object timeout = param(params, 0);
+                    long timeoutMs = (timeout instanceof Number) ? ((Number) timeout).longValue() : -1;
+                    return result(object(subscription.next(timeoutMs), false));
+                }
+                throw new JIException(InMemoryDispatch.DISP_E_MEMBERNOTFOUND);
+            }
+        });
+    }
+
+    // ---------------------------------------------------------------- conversion
+
+    private static JIVariant[] result(InMemoryDispatch dispatch) {
+        return new JIVariant[]{dispatch.toVariant()};
+    }
+
+    /**
+     * @return The parameter as a java value, null if it is omitted.
+     */
+    private static Object param(Object[] params, int index) throws JIException {
+        return (index < params.length) ? toJava(params[index]) : null;
+    }
+
+    private static String stringParam(Object[] params, int index) throws JIException {
+        Object value = param(params, index);
+        return (value == null) ? null : value.toString();
+    }
+
+    private static ObjectPath pathParam(Object[] params, int index) throws JIException {
+        String path = stringParam(params, index);
+        if(path == null || path.isEmpty()) {
+            throw new JIException(FakeWmiProvider.WBEM_E_INVALID_PARAMETER, "Object path is empty.");
+        }
+        try {
+            return ObjectPath.parse(path);
+        } catch (IllegalArgumentException e) {
+            throw new JIException(WBEM_E_INVALID_OBJECT_PATH, e.getMessage());
+        }
+    }
+
+    private static FakeInstance parametersParam(Object[] params, int index) throws JIException {
+        Object value = param(params, index);
+        if(value != null && !(value instanceof FakeInstance)) {
+            throw new JIException(FakeWmiProvider.WBEM_E_INVALID_PARAMETER, "In parameters is not an object.");
+        }
+        return (FakeInstance) value;
+    }
+
+    /**
+     * Convert a parameter or a property value written by the caller to the java types of {@link FakeInstance}.
+     */
+    static Object toJava(Object value) throws JIException {
+        if(value instanceof JIVariant) {
+            JIVariant variant = (JIVariant) value;
+            if(variant.isNull() || variant.getType() == JIVariant.VT_EMPTY) {
+                return null;
+            }
+            Object object = variant.getObject();
+            if(variant.getType() == JIVariant.VT_ERROR && object instanceof Integer
+                    && (Integer) object == DISP_E_PARAMNOTFOUND) {
+                return null;
+            }
+            return toJava(object);
+        } else if(value instanceof JIString) {
+            return ((JIString) value).getString();
+        } else if(value instanceof JIArray) {
+            Object instance = ((JIArray) value).getArrayInstance();
+            List<Object> list = new ArrayList<Object>();
+            if(instance instanceof Object[]) {
+                for(Object element : (Object[]) instance) {
+                    list.add(toJava(element));
+                }
+            }
+            return list;
+        } else if(value instanceof IJIComObject) {
+            InMemoryComObject object = InMemoryComObject.of(value);
+            DispatchHandler handler = (object instanceof InMemoryDispatch) ? ((InMemoryDispatch) object).getHandler() : null;
+            if(handler instanceof Faulting) {
+                handler = ((Faulting) handler).delegate;
+            }
+            if(handler instanceof ObjectHandler) {
+                return ((ObjectHandler) handler).instance;
+            }
+            throw new JIException(FakeWmiProvider.WBEM_E_INVALID_PARAMETER, "Not an object of the provider.");
+        } else if(value instanceof IJIUnsigned) {
+            return ((IJIUnsigned) value).getValue();
+        } else if(value instanceof Date) {
+            return FakeInstance.toDmtf((Date) value);
+        } else if(value instanceof Character) {
+            return value.toString();
+        }
+        return value;
+    }
+
+    /**
+     * Convert a value of a {@link FakeInstance} to the variant returned by WMI: 64 bit integers are strings
+     * like in the scripting API, arrays are arrays of variants, embedded objects are objects.
+     */
+    JIVariant toVariant(Object value) {
+        if(value == null) {
+            return JIVariant.NULL();
+        } else if(value instanceof String) {
+            return new JIVariant(new JIString((String) value));
+        } else if(value instanceof Integer) {
+            return new JIVariant((Integer) value);
+        } else if(value instanceof Long) {
+            return new JIVariant(new JIString(value.toString()));
+        } else if(value instanceof Double) {
+            return new JIVariant((Double) value);
+        } else if(value instanceof Boolean) {
+            return new JIVariant((Boolean) value);
+        } else if(value instanceof FakeInstance) {
+            return object((FakeInstance) value, false).toVariant();
+        } else if(value instanceof List) {
+            List<?> list = (List<?>) value;
+            JIVariant[] elements = new JIVariant[list.size()];
+            for(int i = 0; i < elements.length; i++) {
+                elements[i] = toVariant(list.get(i));
+            }
+            return new JIVariant(new JIArray(elements, true));
+        }
+        return new JIVariant(new JIString(value.toString()));
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.fake;
+
+import cn.chenlichao.wmi4j.ObjectPath;
+import cn.chenlichao.wmi4j.consts.WbemCimTypeEnum;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * An instance served by {@link FakeWmiProvider}. Values are converted to the CIM type of the property:
+ * 8 to 32 bit integers are {@link Integer}, 64 bit integers are {@link Long}, reals are {@link Double},
+ * strings, datetimes (DMTF format) and references are {@link String}, embedded objects are {@link FakeInstance},
+ * and arrays are unmodifiable {@link List}s. The instance can be modified, for example by a {@link MethodHook}.
+ */
+public final class FakeInstance {
+
+    private volatile FakeClass fakeClass;
+    private final Map<String, Object> values = new HashMap<String, Object>();
+
+    /**
+     * Create an instance that is not stored in a provider, such as an event or the parameters of a method.
+     * @param fakeClass Class of the instance, as returned by {@link FakeWmiProvider#getFakeClass(String)}.
+     * @param values Property values, keyed by property name.
+     * @exception IllegalArgumentException If the class has no such property or a value cannot be converted.
+     */
+    public FakeInstance(FakeClass fakeClass, Map<String, ?> values) {
+        if(fakeClass == null) {
+            throw new IllegalArgumentException("Class is null.");
+        }
+        this.fakeClass = fakeClass;
+        if(values != null) {
+            for(Map.Entry<String, ?> entry : values.entrySet()) {
+                set(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    public FakeClass getFakeClass() {
+        return fakeClass;
+    }
+
+    public String getClassName() {
+        return fakeClass.getName();
+    }
+
+    /**
+     * @param name Property name, case-insensitive.
+     * @return The value, null if not set.
+     * @exception IllegalArgumentException If the class has no such property.
+     */
+    public synchronized Object get(String name) {
+        return values.get(property(name).getName().toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * @param name Property name, case-insensitive.
+     * @param value The new value, converted to the CIM type of the property.
+     * @exception IllegalArgumentException If the class has no such property or the value cannot be converted.
+     */
+    public synchronized void set(String name, Object value) {
+        FakeClass.Property property = property(name);
+        values.put(property.getName().toLowerCase(Locale.ENGLISH), convert(property, value));
+    }
+
+    /**
+     * @return All the properties and their values in declaration order, null for the values not set.
+     */
+    public synchronized Map<String, Object> getValues() {
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        for(FakeClass.Property property : fakeClass.getProperties()) {
+            result.put(property.getName(), values.get(property.getName().toLowerCase(Locale.ENGLISH)));
+        }
+        return result;
+    }
+
+    /**
+     * @return Relative path of this instance built from its keys, <code>Class=@</code> if the class has no key.
+     */
+    public String getRelPath() {
+        List<String> keys = fakeClass.getKeys();
+        ObjectPath.Builder builder = ObjectPath.builder(fakeClass.getName());
+        if(keys.isEmpty()) {
+            builder.singleton();
+        } else {
+            for(String key : keys) {
+                Object value = get(key);
+                builder.key(key, value == null ? "" : value);
+            }
+        }
+        return builder.build().getRelPath();
+    }
+
+    /**
+     * @return A copy of this instance, for the PreviousInstance of a modification event.
+     */
+    public synchronized FakeInstance copy() {
+        FakeInstance copy = new FakeInstance(fakeClass, null);
+        copy.values.putAll(values);
+        return copy;
+    }
+
+    /**
+     * Add a property to this instance only, used by the open in-parameter objects.
+     */
+    synchronized FakeClass.Property extend(String name, WbemCimTypeEnum cimType, boolean array) {
+        FakeClass.Property property = fakeClass.getProperty(name);
+        if(property == null) {
+            fakeClass = fakeClass.withProperty(name, cimType, array);
+            property = fakeClass.getProperty(name);
+        }
+        return property;
+    }
+
+    private FakeClass.Property property(String name) {
+        FakeClass.Property property = fakeClass.getProperty(name);
+        if(property == null) {
+            throw new IllegalArgumentException(fakeClass.getName() + " has no property " + name + ".");
+        }
+        return property;
+    }
+
+    /**
+     * Convert a value to the java type of a property.
+     */
+    static Object convert(FakeClass.Property property, Object value) {
+        if(value == null) {
+            return null;
+        }
+        if(property.isArray()) {
+            Collection<?> elements;
+            if(value instanceof Collection) {
+                elements = (Collection<?>) value;
+            } else if(value instanceof Object[]) {
+                elements = Arrays.asList((Object[]) value);
+            } else {
+                elements = Collections.singletonList(value);
+            }
+            List<Object> list = new ArrayList<Object>(elements.size());
+            for(Object element : elements) {
+                list.add(convert(property.getName(), property.getCimType(), element));
+            }
+            return Collections.unmodifiableList(list);
+        }
+        return convert(property.getName(), property.getCimType(), value);
+    }
+
+    private static Object convert(String name, WbemCimTypeEnum type, Object value) {
+        if(value == null) {
+            return null;
+        }
+        try {
+            switch (type) {
+                case Sint8:
+                case Uint8:
+                case Sint16:
+                case Uint16:
+                case Sint32:
+                case Uint32:
+                    return (value instanceof Number) ? ((Number) value).intValue() : Integer.valueOf(value.toString().trim());
+                case Sint64:
+                case Uint64:
+                    return (value instanceof Number) ? ((Number) value).longValue() : Long.valueOf(value.toString().trim());
+                case Real32:
+                case Real64:
+                    return (value instanceof Number) ? ((Number) value).doubleValue() : Double.valueOf(value.toString().trim());
+                case Boolean:
+                    if(value instanceof Boolean) {
+                        return value;
+                    }
+                    String text = value.toString().trim();
+                    if(!"true".equalsIgnoreCase(text) && !"false".equalsIgnoreCase(text)) {
+                        throw new IllegalArgumentException(text);
+                    }
+                    return java.lang.Boolean.valueOf(text);
+                case Datetime:
+                    return (value instanceof Date) ? toDmtf((Date) value) : value.toString();
+                case Object:
+                    if(!(value instanceof FakeInstance)) {
+                        throw new IllegalArgumentException("not a FakeInstance");
+                    }
+                    return value;
+                default:
+                    return value.toString();
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + type + " value of " + name + ": " + value, e);
+        }
+    }
+
+    /**
+     * Format a date as a DMTF datetime, such as <code>20141017103000.000000+480</code>.
+     */
+    static String toDmtf(Date date) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyyMMddHHmmss.SSS'000'", Locale.ENGLISH);
+        TimeZone timeZone = TimeZone.getDefault();
+        format.setTimeZone(timeZone);
+        int offset = timeZone.getOffset(date.getTime()) / 60000;
+        return format.format(date) + (offset < 0 ? '-' : '+') + String.format(Locale.ENGLISH, "%03d", Math.abs(offset));
+    }
+
+    @Override
+    public String toString() {
+        return getClassName() + getValues();
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.fake;
+
+import cn.chenlichao.wmi4j.consts.WbemCimTypeEnum;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Text of the objects of a {@link FakeWmiProvider}: MOF for GetObjectText_ and CIM-XML (DTD 2.0) for GetText_.
+ */
+final class FakeText {
+
+    private FakeText() {
+    }
+
+    static String mof(FakeInstance object, boolean isClass) {
+        FakeClass fakeClass = object.getFakeClass();
+        StringBuilder sb = new StringBuilder();
+        if(isClass) {
+            sb.append("class ").append(fakeClass.getName());
+            if(fakeClass.getSuperclass() != null) {
+                sb.append(" : ").append(fakeClass.getSuperclass());
+            }
+            sb.append("\n{\n");
+            for(FakeClass.Property property : fakeClass.getProperties()) {
+                if(!property.getOrigin().equalsIgnoreCase(fakeClass.getName())) {
+                    continue;
+                }
+                sb.append('\t');
+                if(property.isKey()) {
+                    sb.append("[key] ");
+                }
+                if(property.getCimType() == WbemCimTypeEnum.Reference) {
+                    sb.append("object ref ");
+                } else {
+                    sb.append(typeName(property.getCimType())).append(' ');
+                }
+                sb.append(property.getName()).append(property.isArray() ? "[];\n" : ";\n");
+            }
+            for(String method : fakeClass.getMethods()) {
+                sb.append("\tuint32 ").append(method).append("();\n");
+            }
+            return sb.append("};\n").toString();
+        }
+        sb.append("\ninstance of ").append(fakeClass.getName()).append("\n{\n");
+        for(Map.Entry<String, Object> entry : object.getValues().entrySet()) {
+            if(entry.getValue() != null) {
+                sb.append('\t').append(entry.getKey()).append(" = ");
+                appendMofValue(sb, entry.getValue());
+                sb.append(";\n");
+            }
+        }
+        return sb.append("};\n").toString();
+    }
+
+    private static void appendMofValue(StringBuilder sb, Object value) {
+        if(value instanceof List) {
+            sb.append('{');
+            boolean first = true;
+            for(Object element : (List<?>) value) {
+                if(!first) {
+                    sb.append(", ");
+                }
+                appendMofValue(sb, element);
+                first = false;
+            }
+            sb.append('}');
+        } else if(value instanceof FakeInstance) {
+            sb.append(mof((FakeInstance) value, false).trim());
+        } else if(value instanceof Boolean) {
+            sb.append(((Boolean) value) ? "TRUE" : "FALSE");
+        } else if(value instanceof Number) {
+            sb.append(value);
+        } else {
+            sb.append('"').append(value.toString().replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        }
+    }
+
+    static String cimXml(FakeInstance object, boolean isClass) {
+        FakeClass fakeClass = object.getFakeClass();
+        StringBuilder sb = new StringBuilder();
+        if(isClass) {
+            sb.append("<CLASS NAME=\"").append(escape(fakeClass.getName())).append('"');
+            if(fakeClass.getSuperclass() != null) {
+                sb.append(" SUPERCLASS=\"").append(escape(fakeClass.getSuperclass())).append('"');
+            }
+            sb.append('>');
+            if(!fakeClass.getDerivation().isEmpty()) {
+                sb.append("<PROPERTY.ARRAY NAME=\"__DERIVATION\" TYPE=\"string\"><VALUE.ARRAY>");
+                for(String parent : fakeClass.getDerivation()) {
+                    sb.append("<VALUE>").append(escape(parent)).append("</VALUE>");
+                }
+                sb.append("</VALUE.ARRAY></PROPERTY.ARRAY>");
+            }
+            for(FakeClass.Property property : fakeClass.getProperties()) {
+                String tag = tag(property);
+                sb.append('<').append(tag).append(" NAME=\"").append(escape(property.getName()))
+                        .append("\" CLASSORIGIN=\"").append(escape(property.getOrigin())).append('"');
+                if(property.getCimType() != WbemCimTypeEnum.Reference) {
+                    sb.append(" TYPE=\"").append(xmlType(property)).append('"');
+                }
+                sb.append('>');
+                if(property.isKey()) {
+                    sb.append("<QUALIFIER NAME=\"key\" TYPE=\"boolean\"><VALUE>TRUE</VALUE></QUALIFIER>");
+                }
+                appendEmbeddedQualifier(sb, property);
+                sb.append("</").append(tag).append('>');
+            }
+            for(String method : fakeClass.getMethods()) {
+                sb.append("<METHOD NAME=\"").append(escape(method)).append("\" TYPE=\"uint32\"></METHOD>");
+            }
+            return sb.append("</CLASS>").toString();
+        }
+        sb.append("<INSTANCE CLASSNAME=\"").append(escape(fakeClass.getName())).append("\">");
+        for(FakeClass.Property property : fakeClass.getProperties()) {
+            Object value = object.get(property.getName());
+            String tag = tag(property);
+            sb.append('<').append(tag).append(" NAME=\"").append(escape(property.getName())).append('"');
+            if(property.getCimType() != WbemCimTypeEnum.Reference) {
+                sb.append(" TYPE=\"").append(xmlType(property)).append('"');
+            }
+            sb.append('>');
+            appendEmbeddedQualifier(sb, property);
+            if(value instanceof List) {
+                sb.append("<VALUE.ARRAY>");
+                for(Object element : (List<?>) value) {
+                    appendXmlValue(sb, property, element);
+                }
+                sb.append("</VALUE.ARRAY>");
+            } else if(value != null) {
+                appendXmlValue(sb, property, value);
+            }
+            sb.append("</").append(tag).append('>');
+        }
+        return sb.append("</INSTANCE>").toString();
+    }
+
+    private static String tag(FakeClass.Property property) {
+        if(property.getCimType() == WbemCimTypeEnum.Reference) {
+            return property.isArray() ? "PROPERTY.REFARRAY" : "PROPERTY.REFERENCE";
+        }
+        return property.isArray() ? "PROPERTY.ARRAY" : "PROPERTY";
+    }
+
+    /**
+     * Embedded objects are strings with the EmbeddedObject qualifier, like in the text of WMI.
+     */
+    private static String xmlType(FakeClass.Property property) {
+        return (property.getCimType() == WbemCimTypeEnum.Object) ? "string" : typeName(property.getCimType());
+    }
+
+    private static void appendEmbeddedQualifier(StringBuilder sb, FakeClass.Property property) {
+        if(property.getCimType() == WbemCimTypeEnum.Object) {
+            sb.append("<QUALIFIER NAME=\"EmbeddedObject\" TYPE=\"boolean\"><VALUE>TRUE</VALUE></QUALIFIER>");
+        }
+    }
+
+    private static void appendXmlValue(StringBuilder sb, FakeClass.Property property, Object value) {
+        if(value == null) {
+            sb.append("<VALUE.NULL/>");
+        } else if(property.getCimType() == WbemCimTypeEnum.Reference) {
+            sb.append("<VALUE.REFERENCE><VALUE>").append(escape(value.toString())).append("</VALUE></VALUE.REFERENCE>");
+        } else if(value instanceof FakeInstance) {
+            sb.append("<VALUE>").append(escape(cimXml((FakeInstance) value, false))).append("</VALUE>");
+        } else if(value instanceof Boolean) {
+            sb.append("<VALUE>").append(((Boolean) value) ? "TRUE" : "FALSE").append("</VALUE>");
+        } else {
+            sb.append("<VALUE>").append(escape(value.toString())).append("</VALUE>");
+        }
+    }
+
+    private static String typeName(WbemCimTypeEnum cimType) {
+        return cimType.name().toLowerCase(Locale.ENGLISH);
+    }
+
+    private static String escape(String text) {
+        StringBuilder sb = null;
+        for(int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String replacement;
+            switch (c) {
+                case '&': replacement = "&amp;"; break;
+                case '<': replacement = "&lt;"; break;
+                case '>': replacement = "&gt;"; break;
+                case '"': replacement = "&quot;"; break;
+                case '\'': replacement = "&apos;"; break;
+                default: replacement = null;
+            }
+            if(replacement != null && sb == null) {
+                sb = new StringBuilder(text.length() + 16).append(text, 0, i);
+            }
+            if(sb != null) {
+                if(replacement != null) {
+                    sb.append(replacement);
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        return (sb == null) ? text : sb.toString();
+    }
+}
@@ -0,0 +1,829 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.fake;
+
+import cn.chenlichao.wmi4j.ObjectPath;
+import cn.chenlichao.wmi4j.FakeServices;
+import cn.chenlichao.wmi4j.SWbemServices;
+import cn.chenlichao.wmi4j.consts.WbemCimTypeEnum;
+import cn.chenlichao.wmi4j.trace.TraceRecorder;
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.impls.automation.IJIDispatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A WMI namespace served from memory, for testing code built on wmi4j without a Windows host.
+ *
+ * <p>Classes and instances are defined with the API, in MOF or in JSON. {@link #connect()} returns an
+ * {@link SWbemServices} that supports Get, InstancesOf, ExecQuery (see {@link WqlQuery} for the WQL subset),
+ * ExecMethod, Delete, SubclassesOf and ExecNotificationQuery, and objects that support Properties_, Path_,
+ * Methods_, Derivation_, GetObjectText_, GetText_ (CIM-XML), SpawnInstance_, Instances_, Put_, Delete_, Clone_
+ * and ExecMethod_. Objects returned to the caller are copies, changes are stored by Put_.</p>
+ *
+ * <p>Methods are implemented by {@link MethodHook}s. The in-parameter objects accept any property, so
+ * <code>inParams.setPropertyByName("CommandLine", ...)</code> works without declaring the parameters.</p>
+ *
+ * <p>Adding, updating and removing instances, through this class or by the caller, raise the intrinsic
+ * __InstanceCreationEvent, __InstanceModificationEvent and __InstanceDeletionEvent to the event queries
+ * that match them; extrinsic events are raised by {@link #injectEvent(String, Map)}. NextEvent fails with
+ * {@link #WBEM_E_TIMED_OUT} when no event arrives within the timeout, like WMI.</p>
+ *
+ * <p>Latency is simulated by the {@link InMemoryTransport} for every call, and per member by
+ * {@link #setLatency(String, long, TimeUnit)}. {@link #failNext(String, int)} and {@link #setErrorRate(double, int)}
+ * make calls fail with a HRESULT.</p>
+ *
+ * <pre>
+ *     FakeWmiProvider provider = new FakeWmiProvider();
+ *     provider.loadMof("class Win32_Service { [key] string Name; string State; uint32 StartService(); };"
+ *             + "instance of Win32_Service { Name = \"AppMgmt\"; State = \"Stopped\"; };");
+ *     provider.setMethodHook("Win32_Service", "StartService", new MethodHook() {...});
+ *     SWbemServices services = provider.connect();
+ *     SWbemObjectSet stopped = services.execQuery("SELECT * FROM Win32_Service WHERE State = 'Stopped'");
+ * </pre>
+ * The provider is thread safe.
+ */
+public class FakeWmiProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(FakeWmiProvider.class);
+
+    /** WBEM_E_FAILED */
+    public static final int WBEM_E_FAILED = 0x80041001;
+    /** WBEM_E_NOT_FOUND */
+    public static final int WBEM_E_NOT_FOUND = 0x80041002;
+    /** WBEM_E_INVALID_PARAMETER */
+    public static final int WBEM_E_INVALID_PARAMETER = 0x80041008;
+    /** WBEM_E_NOT_SUPPORTED */
+    public static final int WBEM_E_NOT_SUPPORTED = 0x8004100C;
+    /** WBEM_E_INVALID_CLASS */
+    public static final int WBEM_E_INVALID_CLASS = 0x80041010;
+    /** WBEM_E_INVALID_QUERY */
+    public static final int WBEM_E_INVALID_QUERY = WqlQuery.WBEM_E_INVALID_QUERY;
+    /** WBEM_E_ALREADY_EXISTS */
+    public static final int WBEM_E_ALREADY_EXISTS = 0x80041019;
+    /** WBEM_E_INVALID_METHOD */
+    public static final int WBEM_E_INVALID_METHOD = 0x8004102E;
+    /** WBEM_E_CALL_CANCELLED */
+    public static final int WBEM_E_CALL_CANCELLED = 0x80041032;
+    /** wbemErrTimedout, NextEvent found no event within the timeout. */
+    public static final int WBEM_E_TIMED_OUT = 0x80043001;
+
+    /** Class of the in and out parameter objects of methods. */
+    static final String PARAMETERS = "__PARAMETERS";
+
+    private final InMemoryTransport transport;
+    private final String server;
+    private final String namespace;
+    private final FakeDispatches dispatches;
+
+    private final Map<String, FakeClass> classes = new LinkedHashMap<String, FakeClass>();
+    private final Map<String, Map<String, FakeInstance>> instances = new HashMap<String, Map<String, FakeInstance>>();
+    private final ConcurrentMap<String, MethodHook> hooks = new ConcurrentHashMap<String, MethodHook>();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<Subscription>();
+
+    private final Map<String, Deque<Integer>> failures = new HashMap<String, Deque<Integer>>();
+    private final ConcurrentMap<String, Long> memberLatency = new ConcurrentHashMap<String, Long>();
+    private volatile double errorRate;
+    private volatile int errorCode = WBEM_E_FAILED;
+    private volatile TraceRecorder traceRecorder;
+
+    /**
+     * Create the namespace root\cimv2 on server localhost, with a transport without latency.
+     */
+    public FakeWmiProvider() {
+        this("localhost", "root\\cimv2", new InMemoryTransport());
+    }
+
+    /**
+     * @param server Server name in object paths.
+     * @param namespace Namespace name in object paths, such as root\cimv2.
+     * @param transport Transport serving the objects, it simulates the latency of every call.
+     */
+    public FakeWmiProvider(String server, String namespace, InMemoryTransport transport) {
+        if(server == null || server.isEmpty()) {
+            throw new IllegalArgumentException("Server is empty.");
+        }
+        if(namespace == null || namespace.isEmpty()) {
+            throw new IllegalArgumentException("Namespace is empty.");
+        }
+        if(transport == null) {
+            throw new IllegalArgumentException("Transport is null.");
+        }
+        this.server = server;
+        this.namespace = namespace;
+        this.transport = transport;
+        this.dispatches = new FakeDispatches(this);
+        defineClass(FakeClass.builder(PARAMETERS).build());
+        defineClass(FakeClass.builder("__Event").property("TIME_CREATED", WbemCimTypeEnum.Uint64).build());
+        defineClass(FakeClass.builder("__ExtrinsicEvent").superclass("__Event").build());
+        defineClass(FakeClass.builder("__InstanceOperationEvent").superclass("__Event")
+                .property("TargetInstance", WbemCimTypeEnum.Object).build());
+        defineClass(FakeClass.builder("__InstanceCreationEvent").superclass("__InstanceOperationEvent").build());
+        defineClass(FakeClass.builder("__InstanceDeletionEvent").superclass("__InstanceOperationEvent").build());
+        defineClass(FakeClass.builder("__InstanceModificationEvent").superclass("__InstanceOperationEvent")
+                .property("PreviousInstance", WbemCimTypeEnum.Object).build());
+    }
+
+    public InMemoryTransport getTransport() {
+        return transport;
+    }
+
+    public String getServer() {
+        return server;
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * Open a connection to this namespace. Each call returns a new {@link SWbemServices} object.
+     */
+    public SWbemServices connect() {
+        IJIDispatch dispatch = dispatches.services().getDispatch();
+        TraceRecorder recorder = traceRecorder;
+        return FakeServices.wrap(recorder == null ? dispatch : recorder.record(dispatch));
+    }
+
+    /**
+     * Record the calls of the connections opened afterwards, to replay them with {@link ReplayTransport}.
+     * @param traceRecorder The recorder, null to stop recording new connections.
+     */
+    public void setTraceRecorder(TraceRecorder traceRecorder) {
+        this.traceRecorder = traceRecorder;
+    }
+
+    // ---------------------------------------------------------------- classes and instances
+
+    /**
+     * Define a class. The superclass, if any, must be defined first; its properties and methods are inherited.
+     * The intrinsic event classes and __ExtrinsicEvent are predefined.
+     * @return The class with the inherited properties.
+     * @exception IllegalArgumentException The class is already defined or the superclass is not.
+     */
+    public FakeClass defineClass(FakeClass definition) {
+        synchronized (classes) {
+            String key = definition.getName().toLowerCase(Locale.ENGLISH);
+            if(classes.containsKey(key)) {
+                throw new IllegalArgumentException("Class " + definition.getName() + " is already defined.");
+            }
+            FakeClass defined = definition;
+            if(definition.getSuperclass() != null) {
+                FakeClass parent = classes.get(definition.getSuperclass().toLowerCase(Locale.ENGLISH));
+                if(parent == null) {
+                    throw new IllegalArgumentException("Superclass " + definition.getSuperclass() + " of "
+                            + definition.getName() + " is not defined.");
+                }
+                defined = definition.inherit(parent);
+            }
+            classes.put(key, defined);
+            return defined;
+        }
+    }
+
+    /**
+     * @return The class, case-insensitive, or null if it is not defined.
+     */
+    public FakeClass getFakeClass(String className) {
+        synchronized (classes) {
+            return classes.get(className.toLowerCase(Locale.ENGLISH));
+        }
+    }
+
+    /**
+     * @return All the defined classes, in definition order.
+     */
+    public List<FakeClass> getClasses() {
+        synchronized (classes) {
+            return new ArrayList<FakeClass>(classes.values());
+        }
+    }
+
+    /**
+     * Add an instance and raise __InstanceCreationEvent.
+     * @param className Class of the instance.
+     * @param values Property values, keyed by property name.
+     * @return The stored instance.
+     * @exception IllegalArgumentException The class is not defined, a value is invalid, or an instance with
+     *                                     the same path exists.
+     */
+    public FakeInstance addInstance(String className, Map<String, ?> values) {
+        FakeClass fakeClass = getFakeClass(className);
+        if(fakeClass == null) {
+            throw new IllegalArgumentException("Class " + className + " is not defined.");
+        }
+        FakeInstance instance = new FakeInstance(fakeClass, values);
+        synchronized (instances) {
+            Map<String, FakeInstance> ofClass = instancesOf(fakeClass);
+            String path = pathKey(instance);
+            if(ofClass.containsKey(path)) {
+                throw new IllegalArgumentException("Instance " + instance.getRelPath() + " already exists.");
+            }
+            ofClass.put(path, instance);
+        }
+        raiseInstanceEvent("__InstanceCreationEvent", instance, null);
+        return instance;
+    }
+
+    /**
+     * @param path Relative or full path of the instance, such as <code>Win32_Service.Name="AppMgmt"</code>.
+     * @return The stored instance, or null if there is no such instance.
+     * @exception IllegalArgumentException The path is malformed.
+     */
+    public FakeInstance getInstance(String path) {
+        ObjectPath parsed = ObjectPath.parse(path);
+        synchronized (instances) {
+            for(Map<String, FakeInstance> ofClass : instances.values()) {
+                for(FakeInstance instance : ofClass.values()) {
+                    if(instance.getFakeClass().isA(parsed.getClassName()) && matchesKeys(instance, parsed)) {
+                        return instance;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The stored instances of the class and its subclasses.
+     */
+    public List<FakeInstance> getInstances(String className) {
+        List<FakeInstance> result = new ArrayList<FakeInstance>();
+        synchronized (instances) {
+            for(Map<String, FakeInstance> ofClass : instances.values()) {
+                for(FakeInstance instance : ofClass.values()) {
+                    if(instance.getFakeClass().isA(className)) {
+                        result.add(instance);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Change properties of an instance and raise __InstanceModificationEvent.
+     * @param path Path of the instance.
+     * @param values New property values, other properties are unchanged. Keys can not be changed.
+     * @return The stored instance.
+     * @exception IllegalArgumentException There is no such instance, or a value is invalid.
+     */
+    public FakeInstance updateInstance(String path, Map<String, ?> values) {
+        FakeInstance instance = getInstance(path);
+        if(instance == null) {
+            throw new IllegalArgumentException("Instance " + path + " not found.");
+        }
+        FakeInstance previous = instance.copy();
+        FakeInstance updated = previous.copy();
+        for(Map.Entry<String, ?> entry : values.entrySet()) {
+            FakeClass.Property property = instance.getFakeClass().getProperty(entry.getKey());
+            if(property != null && property.isKey()) {
+                throw new IllegalArgumentException("Key " + entry.getKey() + " can not be changed.");
+            }
+            updated.set(entry.getKey(), entry.getValue());
+        }
+        for(Map.Entry<String, Object> entry : updated.getValues().entrySet()) {
+            instance.set(entry.getKey(), entry.getValue());
+        }
+        raiseInstanceEvent("__InstanceModificationEvent", instance, previous);
+        return instance;
+    }
+
+    /**
+     * Remove an instance and raise __InstanceDeletionEvent.
+     * @return false if there is no such instance.
+     */
+    public boolean removeInstance(String path) {
+        FakeInstance instance = getInstance(path);
+        if(instance == null) {
+            return false;
+        }
+        synchronized (instances) {
+            if(instancesOf(instance.getFakeClass()).remove(pathKey(instance)) == null) {
+                return false;
+            }
+        }
+        raiseInstanceEvent("__InstanceDeletionEvent", instance, null);
+        return true;
+    }
+
+    /**
+     * Store an instance written by Put_, raising a creation or modification event.
+     */
+    void putInstance(FakeInstance written) {
+        FakeInstance existing;
+        synchronized (instances) {
+            Map<String, FakeInstance> ofClass = instancesOf(written.getFakeClass());
+            existing = ofClass.get(pathKey(written));
+            if(existing == null) {
+                ofClass.put(pathKey(written), written.copy());
+            }
+        }
+        if(existing == null) {
+            raiseInstanceEvent("__InstanceCreationEvent", written, null);
+        } else {
+            FakeInstance previous = existing.copy();
+            for(Map.Entry<String, Object> entry : written.getValues().entrySet()) {
+                existing.set(entry.getKey(), entry.getValue());
+            }
+            raiseInstanceEvent("__InstanceModificationEvent", existing, previous);
+        }
+    }
+
+    private Map<String, FakeInstance> instancesOf(FakeClass fakeClass) {
+        String key = fakeClass.getName().toLowerCase(Locale.ENGLISH);
+        Map<String, FakeInstance> ofClass = instances.get(key);
+        if(ofClass == null) {
+            ofClass = new LinkedHashMap<String, FakeInstance>();
+            instances.put(key, ofClass);
+        }
+        return ofClass;
+    }
+
+    private static String pathKey(FakeInstance instance) {
+        return instance.getRelPath().toLowerCase(Locale.ENGLISH);
+    }
+
+    private static boolean matchesKeys(FakeInstance instance, ObjectPath path) {
+        List<String> keys = instance.getFakeClass().getKeys();
+        if(path.isSingleton()) {
+            return keys.isEmpty();
+        }
+        if(path.getKeyCount() != keys.size() || keys.isEmpty()) {
+            return false;
+        }
+        for(int i = 0; i < path.getKeyCount(); i++) {
+            String name = path.getKeyName(i);
+            if(name.isEmpty()) {
+                name = keys.get(0);
+            } else if(instance.getFakeClass().getProperty(name) == null) {
+                return false;
+            }
+            Object value = instance.get(name);
+            if(value == null || !value.toString().equalsIgnoreCase(String.valueOf(path.getKeyValue(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ---------------------------------------------------------------- MOF and JSON
+
+    /**
+     * Define the classes and add the instances of a MOF text. Supported are class declarations with
+     * a superclass, properties, arrays, references, methods and the key qualifier, and <code>instance of</code>
+     * with literal values, arrays and embedded instances. Other qualifiers, default values, method parameters
+     * and pragmas are ignored.
+     * @exception IOException Failed to read.
+     * @exception IllegalArgumentException Invalid or unsupported MOF, the message has the line number.
+     */
+    public void loadMof(Reader reader) throws IOException {
+        new MofParser(this, read(reader)).parse();
+    }
+
+    /**
+     * See {@link #loadMof(Reader)}.
+     */
+    public void loadMof(String mof) {
+        new MofParser(this, mof).parse();
+    }
+
+    /**
+     * Define the classes and add the instances of a JSON document:
+     * <pre>
+     * {
+     *   "classes": [
+     *     {"name": "Win32_Service", "superclass": "CIM_Service",
+     *      "properties": [{"name": "Name", "type": "string", "key": true},
+     *                     {"name": "Dependencies", "type": "string", "array": true}],
+     *      "methods": ["StartService"]}
+     *   ],
+     *   "instances": [
+     *     {"class": "Win32_Service", "properties": {"Name": "AppMgmt", "Dependencies": ["RpcSs"]}}
+     *   ]
+     * }
+     * </pre>
+     * Types are MOF type names, or <code>ref</code> for references. A value of an embedded object property is
+     * an instance object like those of "instances".
+     * @exception IOException Failed to read.
+     * @exception IllegalArgumentException Invalid JSON or definitions.
+     */
+    public void loadJson(Reader reader) throws IOException {
+        loadJson(read(reader));
+    }
+
+    /**
+     * See {@link #loadJson(Reader)}.
+     */
+    @SuppressWarnings("unchecked")
+    public void loadJson(String json) {
+        Object document = JsonParser.parse(json);
+        if(!(document instanceof Map)) {
+            throw new IllegalArgumentException("JSON document is not an object.");
+        }
+        Map<String, Object> root = (Map<String, Object>) document;
+        for(Object definition : JsonParser.list(root.get("classes"), "classes")) {
+            Map<String, Object> map = JsonParser.map(definition, "class");
+            FakeClass.Builder builder = FakeClass.builder(JsonParser.string(map.get("name"), "class name"));
+            if(map.get("superclass") != null) {
+                builder.superclass(JsonParser.string(map.get("superclass"), "superclass"));
+            }
+            for(Object property : JsonParser.list(map.get("properties"), "properties")) {
+                Map<String, Object> p = JsonParser.map(property, "property");
+                builder.add(JsonParser.string(p.get("name"), "property name"),
+                        FakeClass.parseType(JsonParser.string(p.get("type"), "property type")),
+                        Boolean.TRUE.equals(p.get("array")), Boolean.TRUE.equals(p.get("key")));
+            }
+            for(Object method : JsonParser.list(map.get("methods"), "methods")) {
+                builder.method(JsonParser.string(method, "method"));
+            }
+            defineClass(builder.build());
+        }
+        for(Object instance : JsonParser.list(root.get("instances"), "instances")) {
+            Map<String, Object> map = JsonParser.map(instance, "instance");
+            addInstance(JsonParser.string(map.get("class"), "instance class"), jsonValues(map));
+        }
+    }
+
+    private Map<String, Object> jsonValues(Map<String, Object> instance) {
+        Map<String, Object> values = new LinkedHashMap<String, Object>();
+        if(instance.get("properties") == null) {
+            return values;
+        }
+        for(Map.Entry<String, Object> entry : JsonParser.map(instance.get("properties"), "properties").entrySet()) {
+            values.put(entry.getKey(), jsonValue(entry.getValue()));
+        }
+        return values;
+    }
+
+    private Object jsonValue(Object value) {
+        if(value instanceof Map) {
+            Map<String, Object> map = JsonParser.map(value, "embedded instance");
+            String className = JsonParser.string(map.get("class"), "embedded instance class");
+            FakeClass fakeClass = getFakeClass(className);
+            if(fakeClass == null) {
+                throw new IllegalArgumentException("Class " + className + " is not defined.");
+            }
+            return new FakeInstance(fakeClass, jsonValues(map));
+        } else if(value instanceof List) {
+            List<Object> list = new ArrayList<Object>();
+            for(Object element : (List<?>) value) {
+                list.add(jsonValue(element));
+            }
+            return list;
+        }
+        return value;
+    }
+
+    private static String read(Reader reader) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] buffer = new char[4096];
+        int n;
+        while ((n = reader.read(buffer)) >= 0) {
+            sb.append(buffer, 0, n);
+        }
+        return sb.toString();
+    }
+
+    // ---------------------------------------------------------------- methods
+
+    /**
+     * Implement a method of a class, for ExecMethod and ExecMethod_. The hook of a class is used for its
+     * subclasses too, unless they have their own. Calling a method without hook fails with WBEM_E_NOT_SUPPORTED.
+     * @param hook The implementation, null to remove it.
+     */
+    public void setMethodHook(String className, String method, MethodHook hook) {
+        String key = (className + "." + method).toLowerCase(Locale.ENGLISH);
+        if(hook == null) {
+            hooks.remove(key);
+        } else {
+            hooks.put(key, hook);
+        }
+    }
+
+    /**
+     * Execute a method of a class, or of an instance if target is not null.
+     */
+    FakeInstance execMethod(FakeClass fakeClass, FakeInstance target, String method, FakeInstance inParameters)
+            throws JIException {
+        if(!fakeClass.hasMethod(method)) {
+            throw new JIException(WBEM_E_INVALID_METHOD, "Method " + method + " is not defined in " + fakeClass.getName());
+        }
+        MethodHook hook = hooks.get((fakeClass.getName() + "." + method).toLowerCase(Locale.ENGLISH));
+        for(int i = 0; hook == null && i < fakeClass.getDerivation().size(); i++) {
+            hook = hooks.get((fakeClass.getDerivation().get(i) + "." + method).toLowerCase(Locale.ENGLISH));
+        }
+        if(hook == null) {
+            throw new JIException(WBEM_E_NOT_SUPPORTED, "Method " + fakeClass.getName() + "." + method + " has no hook.");
+        }
+        Map<String, Object> in = new LinkedHashMap<String, Object>();
+        if(inParameters != null) {
+            for(Map.Entry<String, Object> entry : inParameters.getValues().entrySet()) {
+                if(entry.getValue() != null) {
+                    in.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        Map<String, Object> out;
+        try {
+            out = hook.invoke(target, method, Collections.unmodifiableMap(in));
+        } catch (RuntimeException e) {
+            logger.warn("Method hook of {}.{} failed.", fakeClass.getName(), method, e);
+            throw new JIException(WBEM_E_FAILED, e.getMessage());
+        }
+        return parameters(out);
+    }
+
+    /**
+     * @return An open parameters object holding the values, the CIM types are inferred from the java types.
+     */
+    FakeInstance parameters(Map<String, Object> values) {
+        FakeInstance parameters = new FakeInstance(getFakeClass(PARAMETERS), null);
+        if(values != null) {
+            for(Map.Entry<String, Object> entry : values.entrySet()) {
+                parameters.extend(entry.getKey(), cimTypeOf(entry.getValue()), entry.getValue() instanceof List);
+                parameters.set(entry.getKey(), entry.getValue());
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * CIM type of a parameter value set by the caller or a hook.
+     */
+    static WbemCimTypeEnum cimTypeOf(Object value) {
+        if(value instanceof List) {
+            List<?> list = (List<?>) value;
+            return list.isEmpty() ? WbemCimTypeEnum.String : cimTypeOf(list.get(0));
+        } else if(value instanceof Long) {
+            return WbemCimTypeEnum.Sint64;
+        } else if(value instanceof Float || value instanceof Double) {
+            return WbemCimTypeEnum.Real64;
+        } else if(value instanceof Number) {
+            return WbemCimTypeEnum.Sint32;
+        } else if(value instanceof Boolean) {
+            return WbemCimTypeEnum.Boolean;
+        } else if(value instanceof Date) {
+            return WbemCimTypeEnum.Datetime;
+        } else if(value instanceof FakeInstance) {
+            return WbemCimTypeEnum.Object;
+        }
+        return WbemCimTypeEnum.String;
+    }
+
+    // ---------------------------------------------------------------- events
+
+    /**
+     * Raise an extrinsic event, delivered to every event query it matches.
+     * @param eventClass Class of the event, derived from __ExtrinsicEvent.
+     * @param values Property values of the event. TIME_CREATED is set to now if not given.
+     * @return The event.
+     * @exception IllegalArgumentException The class is not defined or not an event class.
+     */
+    public FakeInstance injectEvent(String eventClass, Map<String, ?> values) {
+        FakeClass fakeClass = getFakeClass(eventClass);
+        if(fakeClass == null || !fakeClass.isA("__Event")) {
+            throw new IllegalArgumentException(eventClass + " is not an event class.");
+        }
+        FakeInstance event = new FakeInstance(fakeClass, values);
+        if(event.get("TIME_CREATED") == null) {
+            event.set("TIME_CREATED", timeCreated());
+        }
+        deliver(event);
+        return event;
+    }
+
+    /**
+     * @return Number of event queries served, including those whose caller is gone; see {@link #cancelSubscriptions()}.
+     */
+    public int getSubscriptionCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Cancel all the event queries, pending and later NextEvent calls fail with WBEM_E_CALL_CANCELLED.
+     */
+    public void cancelSubscriptions() {
+        for(Subscription subscription : subscriptions) {
+            subscription.cancel();
+        }
+        subscriptions.clear();
+    }
+
+    Subscription subscribe(String wql) throws JIException {
+        WqlQuery query = WqlQuery.parse(wql);
+        FakeClass eventClass = getFakeClass(query.getClassName());
+        if(eventClass == null || !eventClass.isA("__Event")) {
+            throw new JIException(WBEM_E_INVALID_CLASS, query.getClassName() + " is not an event class.");
+        }
+        Subscription subscription = new Subscription(query);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    private void raiseInstanceEvent(String eventClass, FakeInstance target, FakeInstance previous) {
+        if(subscriptions.isEmpty()) {
+            return;
+        }
+        FakeInstance event = new FakeInstance(getFakeClass(eventClass), null);
+        event.set("TIME_CREATED", timeCreated());
+        event.set("TargetInstance", target.copy());
+        if(previous != null) {
+            event.set("PreviousInstance", previous);
+        }
+        deliver(event);
+    }
+
+    private void deliver(FakeInstance event) {
+        for(Subscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    /**
+     * @return Now, in 100 nanoseconds since 1601-01-01 like FILETIME.
+     */
+    private static long timeCreated() {
+        return (System.currentTimeMillis() + 11644473600000L) * 10000L;
+    }
+
+    // ---------------------------------------------------------------- faults
+
+    /**
+     * Make the next call of a member fail. Calls are queued, so calling this twice fails the next two calls.
+     * @param member Member name such as ExecQuery or NextEvent, case-insensitive.
+     * @param hresult The HRESULT of the failure.
+     */
+    public void failNext(String member, int hresult) {
+        synchronized (failures) {
+            String key = member.toLowerCase(Locale.ENGLISH);
+            Deque<Integer> queue = failures.get(key);
+            if(queue == null) {
+                queue = new ArrayDeque<Integer>();
+                failures.put(key, queue);
+            }
+            queue.add(hresult);
+        }
+    }
+
+    /**
+     * Make a random fraction of all calls fail.
+     * @param rate Fraction from 0 (default) to 1.
+     * @param hresult The HRESULT of the failures.
+     */
+    public void setErrorRate(double rate, int hresult) {
+        if(rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("Error rate must be between 0 and 1.");
+        }
+        this.errorRate = rate;
+        this.errorCode = hresult;
+    }
+
+    /**
+     * Set the latency of every call, see {@link InMemoryTransport#setLatency(long, TimeUnit)}.
+     */
+    public void setLatency(long latency, TimeUnit unit) {
+        transport.setLatency(latency, unit);
+    }
+
+    /**
+     * Set an additional latency of a member, such as a slow ExecQuery.
+     * @param member Member name, case-insensitive.
+     * @param latency Latency, zero to remove it.
+     */
+    public void setLatency(String member, long latency, TimeUnit unit) {
+        String key = member.toLowerCase(Locale.ENGLISH);
+        if(latency <= 0) {
+            memberLatency.remove(key);
+        } else {
+            memberLatency.put(key, unit.toNanos(latency));
+        }
+    }
+
+    /**
+     * Remove the failures and member latencies. The transport latency is unchanged.
+     */
+    public void clearFaults() {
+        synchronized (failures) {
+            failures.clear();
+        }
+        memberLatency.clear();
+        errorRate = 0;
+    }
+
+    /**
+     * Apply the faults before a member is invoked.
+     */
+    void beforeInvoke(String member) throws JIException {
+        String key = member.toLowerCase(Locale.ENGLISH);
+        Long latency = memberLatency.get(key);
+        if(latency != null) {
+            LockSupport.parkNanos(latency);
+        }
+        Integer failure = null;
+        synchronized (failures) {
+            Deque<Integer> queue = failures.get(key);
+            if(queue != null) {
+                failure = queue.poll();
+                if(queue.isEmpty()) {
+                    failures.remove(key);
+                }
+            }
+        }
+        if(failure != null) {
+            throw new JIException(failure, "Injected failure of " + member);
+        }
+        double rate = errorRate;
+        if(rate > 0 && ThreadLocalRandom.current().nextDouble() < rate) {
+            throw new JIException(errorCode, "Injected failure of " + member);
+        }
+    }
+
+    // ---------------------------------------------------------------- subscriptions
+
+    /**
+     * The events of one ExecNotificationQuery, waiting for NextEvent.
+     */
+    final class Subscription {
+
+        private final WqlQuery query;
+        private final LinkedBlockingQueue<FakeInstance> queue = new LinkedBlockingQueue<FakeInstance>();
+        private volatile boolean cancelled;
+
+        Subscription(WqlQuery query) {
+            this.query = query;
+        }
+
+        void offer(FakeInstance event) {
+            if(!cancelled && event.getFakeClass().isA(query.getClassName()) && query.matches(event)) {
+                queue.offer(event.copy());
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            queue.offer(new FakeInstance(getFakeClass("__Event"), null));
+        }
+
+        /**
+         * @param timeoutMs Max time to wait, negative to wait forever.
+         */
+        FakeInstance next(long timeoutMs) throws JIException {
+            if(cancelled) {
+                throw new JIException(WBEM_E_CALL_CANCELLED, "Event query is cancelled.");
+            }
+            FakeInstance event;
+            try {
+                event = (timeoutMs < 0) ? queue.take() : queue.poll(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new JIException(WBEM_E_CALL_CANCELLED, "Interrupted.");
+            }
+            if(cancelled) {
+                queue.offer(new FakeInstance(getFakeClass("__Event"), null));
+                throw new JIException(WBEM_E_CALL_CANCELLED, "Event query is cancelled.");
+            }
+            if(event == null) {
+                throw new JIException(WBEM_E_TIMED_OUT, "Timed out.");
+            }
+            return event;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.fake;
+
+import org.jinterop.dcom.common.IJIUnreferenced;
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.core.IJIComObject;
+import org.jinterop.dcom.core.JICallBuilder;
+import org.jinterop.dcom.core.JISession;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Common part of the COM objects served by an {@link InMemoryTransport}: no session, no reference counting
+ * and no connection points.
+ *
+ * <p>j-interop interfaces refer to package-private types, so they cannot be implemented outside j-interop.
+ * The object is exposed through a {@link Proxy} instead, which forwards each interface method to the public method
+ * of this class with the same signature.</p>
+ */
+abstract class InMemoryComObject implements InvocationHandler {
+
+    /**
+     * Implementing method of each interface method, per class.
+     */
+    private static final ClassValue<ConcurrentMap<Method, Method>> IMPLEMENTATIONS = new ClassValue<ConcurrentMap<Method, Method>>() {
+        @Override
+        protected ConcurrentMap<Method, Method> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<Method, Method>();
+        }
+    };
+
+    /**
+     * The method is not implemented.
+     */
+    public static final int E_NOTIMPL = 0x80004001;
+    /**
+     * The interface is not supported.
+     */
+    public static final int E_NOINTERFACE = 0x80004002;
+
+    final InMemoryTransport transport;
+    private final String ipid;
+    private int socketTimeout;
+    private volatile IJIUnreferenced unreferencedHandler;
+
+    private final IJIComObject proxy;
+
+    InMemoryComObject(InMemoryTransport transport, long id, Class<? extends IJIComObject> comInterface) {
+        this.transport = transport;
+        this.ipid = "in-memory-" + id;
+        this.proxy = (IJIComObject) Proxy.newProxyInstance(InMemoryComObject.class.getClassLoader(),
+                new Class<?>[]{comInterface}, this);
+    }
+
+    /**
+     * @return The j-interop interface of this object.
+     */
+    IJIComObject getComObject() {
+        return proxy;
+    }
+
+    /**
+     * Obtain the object behind a j-interop interface.
+     * @return The object, or null if the interface is not served by an {@link InMemoryTransport}.
+     */
+    static InMemoryComObject of(Object comObject) {
+        if(comObject != null && Proxy.isProxyClass(comObject.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(comObject);
+            if(handler instanceof InMemoryComObject) {
+                return (InMemoryComObject) handler;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if(method.getDeclaringClass() == Object.class) {
+            if("equals".equals(method.getName())) {
+                return proxy == args[0];
+            } else if("hashCode".equals(method.getName())) {
+                return System.identityHashCode(proxy);
+            }
+            return toString();
+        }
+        ConcurrentMap<Method, Method> implementations = IMPLEMENTATIONS.get(getClass());
+        Method implementation = implementations.get(method);
+        if(implementation == null) {
+            try {
+                implementation = getClass().getMethod(method.getName(), method.getParameterTypes());
+            } catch (NoSuchMethodException e) {
+                // internal_getInterfacePointer, there is no interface pointer to marshal
+                return null;
+            }
+            implementations.put(method, implementation);
+        }
+        try {
+            return implementation.invoke(this, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * @return The transport serving this object.
+     */
+    public InMemoryTransport getTransport() {
+        return transport;
+    }
+
+    public void addRef() throws JIException {
+    }
+
+    public void release() throws JIException {
+    }
+
+    public String getIpid() {
+        return ipid;
+    }
+
+    public Object[] call(JICallBuilder obj) throws JIException {
+        throw new JIException(E_NOTIMPL);
+    }
+
+    public Object[] call(JICallBuilder obj, int socketTimeout) throws JIException {
+        return call(obj);
+    }
+
+    public void setInstanceLevelSocketTimeout(int timeout) {
+        this.socketTimeout = timeout;
+    }
+
+    public int getInstanceLevelSocketTimeout() {
+        return socketTimeout;
+    }
+
+    public JISession getAssociatedSession() {
+        return null;
+    }
+
+    public String internal_setConnectionInfo(IJIComObject connectionPoint, Integer cookie) {
+        return null;
+    }
+
+    public Object[] internal_getConnectionInfo(String identifier) {
+        return null;
+    }
+
+    public Object[] internal_removeConnectionInfo(String identifier) {
+        return null;
+    }
+
+    public void registerUnreferencedHandler(IJIUnreferenced unreferenced) {
+        this.unreferencedHandler = unreferenced;
+    }
+
+    public IJIUnreferenced getUnreferencedHandler() {
+        return unreferencedHandler;
+    }
+
+    public void unregisterUnreferencedHandler() {
+        this.unreferencedHandler = null;
+    }
+
+    public void internal_setDeffered(boolean deffered) {
+    }
+
+    public boolean isLocalReference() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + ipid + "]";
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.fake;
+
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.core.IJIComObject;
+import org.jinterop.dcom.core.JIVariant;
+import org.jinterop.dcom.impls.automation.IJIDispatch;
+import org.jinterop.dcom.impls.automation.IJITypeInfo;
+import org.jinterop.dcom.impls.automation.JIExcepInfo;
+
+/**
+ * An IDispatch object living in the JVM, created by {@link InMemoryTransport#createDispatch(DispatchHandler)}.
+ * The methods of this class implement the {@link IJIDispatch} interface returned by {@link #getDispatch()}.
+ *
+ * <p>Members are resolved to DISPIDs by the transport and invoked on the {@link DispatchHandler}. Named arguments
+ * are not supported, their DISPIDs are ignored and the parameters are passed in order. The object has no
+ * session, so it is treated as a local reference by wmi4j and never released remotely.</p>
+ */
+public class InMemoryDispatch extends InMemoryComObject {
+
+    /**
+     * The requested member does not exist.
+     */
+    public static final int DISP_E_MEMBERNOTFOUND = 0x80020003;
+
+    private static final JIVariant[] NO_RESULTS = new JIVariant[0];
+
+    private final DispatchHandler handler;
+
+    InMemoryDispatch(InMemoryTransport transport, DispatchHandler handler, long id) {
+        super(transport, id, IJIDispatch.class);
+        this.handler = handler;
+    }
+
+    /**
+     * @return The IDispatch interface of this object, to be passed to wmi4j.
+     */
+    public IJIDispatch getDispatch() {
+        return (IJIDispatch) getComObject();
+    }
+
+    /**
+     * Obtain the object behind an IDispatch interface.
+     * @param dispatch IDispatch interface, such as {@link cn.chenlichao.wmi4j.SWbemObject} property values.
+     * @return The object, or null if the dispatch is not served by an {@link InMemoryTransport}.
+     */
+    public static InMemoryDispatch of(IJIDispatch dispatch) {
+        InMemoryComObject object = InMemoryComObject.of(dispatch);
+        return (object instanceof InMemoryDispatch) ? (InMemoryDispatch) object : null;
+    }
+
+    /**
+     * @return A variant holding the IDispatch interface of this object, the return value of a member
+     *         that returns this object.
+     */
+    public JIVariant toVariant() {
+        return new JIVariant(getComObject());
+    }
+
+    /**
+     * @return The handler implementing the members of this object.
+     */
+    public DispatchHandler getHandler() {
+        return handler;
+    }
+
+    private JIVariant[] invoke(int dispId, int kind, Object[] params) throws JIException {
+        String member = transport.getMemberName(dispId);
+        transport.roundTrip();
+        JIVariant[] results = handler.invoke(this, member, kind, params == null ? new Object[0] : params);
+        return results == null ? NO_RESULTS : results;
+    }
+
+    private static JIVariant first(JIVariant[] results) {
+        return results.length == 0 ? JIVariant.EMPTY() : results[0];
+    }
+
+    public int getTypeInfoCount() throws JIException {
+        return 0;
+    }
+
+    public int getIDsOfNames(String apiName) throws JIException {
+        transport.roundTrip();
+        return transport.getDispId(apiName);
+    }
+
+    public int[] getIDsOfNames(String[] apiName) throws JIException {
+        transport.roundTrip();
+        int[] dispIds = new int[apiName.length];
+        for(int i = 0; i < apiName.length; i++) {
+            dispIds[i] = transport.getDispId(apiName[i]);
+        }
+        return dispIds;
+    }
+
+    public IJITypeInfo getTypeInfo(int typeInfo) throws JIException {
+        throw new JIException(E_NOTIMPL);
+    }
+
+    public void put(int dispId, JIVariant inParam) throws JIException {
+        invoke(dispId, DispatchHandler.PROPERTY_PUT, new Object[]{inParam});
+    }
+
+    public void put(String name, JIVariant inParam) throws JIException {
+        put(getIDsOfNames(name), inParam);
+    }
+
+    public void putRef(int dispId, JIVariant inParam) throws JIException {
+        put(dispId, inParam);
+    }
+
+    public void putRef(String name, JIVariant inParam) throws JIException {
+        put(name, inParam);
+    }
+
+    public JIVariant get(int dispId) throws JIException {
+        return first(invoke(dispId, DispatchHandler.PROPERTY_GET, null));
+    }
+
+    public JIVariant[] get(int dispId, Object[] inparams) throws JIException {
+        return invoke(dispId, DispatchHandler.PROPERTY_GET, inparams);
+    }
+
+    public JIVariant[] get(String name, Object[] inparams) throws JIException {
+        return get(getIDsOfNames(name), inparams);
+    }
+
+    public JIVariant get(String name) throws JIException {
+        return get(getIDsOfNames(name));
+    }
+
+    public void callMethod(String name) throws JIException {
+        callMethodA(name);
+    }
+
+    public void callMethod(int dispId) throws JIException {
+        callMethodA(dispId);
+    }
+
+    public JIVariant callMethodA(String name) throws JIException {
+        return callMethodA(getIDsOfNames(name));
+    }
+
+    public JIVariant callMethodA(int dispId) throws JIException {
+        return first(invoke(dispId, DispatchHandler.METHOD, null));
+    }
+
+    public void callMethod(String name, Object[] inparams) throws JIException {
+        callMethodA(name, inparams);
+    }
+
+    public void callMethod(int dispId, Object[] inparams) throws JIException {
+        callMethodA(dispId, inparams);
+    }
+
+    public JIVariant[] callMethodA(String name, Object[] inparams) throws JIException {
+        return callMethodA(getIDsOfNames(name), inparams);
+    }
+
+    public JIVariant[] callMethodA(int dispId, Object[] inparams) throws JIException {
+        return invoke(dispId, DispatchHandler.METHOD, inparams);
+    }
+
+    public void callMethod(String name, Object[] inparams, int[] dispIds) throws JIException {
+        callMethodA(name, inparams);
+    }
+
+    public void callMethod(int dispId, Object[] inparams, int[] dispIds) throws JIException {
+        callMethodA(dispId, inparams);
+    }
+
+    public JIVariant[] callMethodA(String name, Object[] inparams, int[] dispIds) throws JIException {
+        return callMethodA(name, inparams);
+    }
+
+    public JIVariant[] callMethodA(int dispId, Object[] inparams, int[] dispIds) throws JIException {
+        return callMethodA(dispId, inparams);
+    }
+
+    public void callMethod(String name, Object[] inparams, String[] paramNames) throws JIException {
+        callMethodA(name, inparams);
+    }
+
+    public JIVariant[] callMethodA(String name, Object[] inparams, String[] paramNames) throws JIException {
+        return callMethodA(name, inparams);
+    }
+
+    public void put(int dispId, Object[] params) throws JIException {
+        invoke(dispId, DispatchHandler.PROPERTY_PUT, params);
+    }
+
+    public void put(String name, Object[] params) throws JIException {
+        put(getIDsOfNames(name), params);
+    }
+
+    public void putRef(int dispId, Object[] params) throws JIException {
+        put(dispId, params);
+    }
+
+    public void putRef(String name, Object[] params) throws JIException {
+        put(name, params);
+    }
+
+    public JIExcepInfo getLastExcepInfo() {
+        return null;
+    }
+
+    public IJIComObject queryInterface(String iid) throws JIException {
+        if(IJIDispatch.IID.equalsIgnoreCase(iid)) {
+            return getComObject();
+        }
+        throw new JIException(E_NOINTERFACE);
+    }
+
+    public String getInterfaceIdentifier() {
+        return IJIDispatch.IID;
+    }
+
+    public boolean isDispatchSupported() {
+        return true;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.fake;
+
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.core.IJIComObject;
+import org.jinterop.dcom.core.JIArray;
+import org.jinterop.dcom.core.JICallBuilder;
+import org.jinterop.dcom.core.JIVariant;
+import org.jinterop.dcom.impls.automation.IJIEnumVariant;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * IEnumVARIANT of an in-memory collection. Only Next is implemented, which is all wmi4j uses.
+ */
+class InMemoryEnumVariant extends InMemoryComObject {
+
+    /**
+     * Opnum of IEnumVARIANT::Next on the wire, j-interop adds the IUnknown methods to the method index.
+     */
+    static final int NEXT_OPNUM;
+
+    static {
+        JICallBuilder next = new JICallBuilder(true);
+        next.setOpnum(0);
+        NEXT_OPNUM = next.getOpnum();
+    }
+
+    private final List<JIVariant> elements;
+    private int position;
+
+    InMemoryEnumVariant(InMemoryTransport transport, List<JIVariant> elements, long id) {
+        super(transport, id, IJIComObject.class);
+        this.elements = elements;
+    }
+
+    public IJIComObject queryInterface(String iid) throws JIException {
+        if(IJIEnumVariant.IID.equalsIgnoreCase(iid)) {
+            return getComObject();
+        }
+        throw new JIException(E_NOINTERFACE);
+    }
+
+    /**
+     * IEnumVARIANT::Next, the only in parameter is the number of elements requested.
+     * Returns the elements and the number fetched, fewer than requested when the enumerator is exhausted.
+     */
+    public Object[] call(JICallBuilder obj) throws JIException {
+        if(obj.getOpnum() != NEXT_OPNUM) {
+            throw new JIException(E_NOTIMPL);
+        }
+        int count = (Integer) obj.getInParamAt(0);
+        transport.roundTrip();
+        JIVariant[] fetched;
+        synchronized (this) {
+            int size = Math.max(0, Math.min(count, elements.size() - position));
+            fetched = new JIVariant[size];
+            for(int i = 0; i < size; i++) {
+                fetched[i] = elements.get(position++);
+            }
+        }
+        return new Object[]{toJIArray(fetched), fetched.length};
+    }
+
+    public String getInterfaceIdentifier() {
+        return IJIEnumVariant.IID;
+    }
+
+    public boolean isDispatchSupported() {
+        return false;
+    }
+
+    /**
+     * Put the elements of IEnumVARIANT::Next into a JIArray, the way j-interop unmarshals them. The public
+     * constructors compute the marshalled length of every element, which fails for objects served in the JVM.
+     */
+    static JIArray toJIArray(JIVariant[] elements) {
+        try {
+            Constructor<JIArray> constructor = JIArray.class.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            JIArray array = constructor.newInstance();
+            setField(array, "memberArray", elements);
+            setField(array, "clazz", JIVariant.class);
+            setField(array, "upperBounds", new int[]{elements.length});
+            setField(array, "dimension", 1);
+            setField(array, "numElementsInAllDimensions", elements.length);
+            setField(array, "isConformant", true);
+            return array;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unsupported j-interop version.", e);
+        }
+    }
+
+    private static void setField(JIArray array, String name, Object value) throws ReflectiveOperationException {
+        Field field = JIArray.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(array, value);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.fake;
+
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.core.JIVariant;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An in-process stand-in of the DCOM transport, for benchmarks and tests that run without a Windows host.
+ *
+ * <p>The transport creates {@link InMemoryDispatch} objects whose members are implemented by a
+ * {@link DispatchHandler}. Every call that would be a round trip to the server (GetIDsOfNames, Invoke and
+ * IEnumVARIANT::Next) is counted and delayed by the configured latency, so client side costs can be measured
+ * reproducibly.</p>
+ */
+public class InMemoryTransport {
+
+    /**
+     * DISPIDs of all the transports. They must not differ between transports, because {@link cn.chenlichao.wmi4j.DispIdCache}
+     * keeps the DISPIDs of each interface for the JVM, like the fixed DISPIDs of the WbemScripting interfaces.
+     */
+    private static final ConcurrentMap<String, Integer> DISP_IDS = new ConcurrentHashMap<String, Integer>();
+    private static final List<String> MEMBER_NAMES = new CopyOnWriteArrayList<String>();
+    private final AtomicLong roundTrips = new AtomicLong();
+    private final AtomicLong objectIds = new AtomicLong();
+    private volatile long latencyNanos;
+
+    public InMemoryTransport() {
+    }
+
+    /**
+     * @param latency Simulated latency of each round trip.
+     * @param unit Unit of the latency.
+     */
+    public InMemoryTransport(long latency, TimeUnit unit) {
+        setLatency(latency, unit);
+    }
+
+    /**
+     * @return Simulated latency of each round trip, in nanoseconds.
+     */
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    /**
+     * Set the simulated latency of each round trip, zero to disable.
+     */
+    public void setLatency(long latency, TimeUnit unit) {
+        if(latency < 0) {
+            throw new IllegalArgumentException("Latency must not be negative.");
+        }
+        this.latencyNanos = unit.toNanos(latency);
+    }
+
+    /**
+     * @return Number of round trips made through this transport.
+     */
+    public long getRoundTrips() {
+        return roundTrips.get();
+    }
+
+    /**
+     * Reset the round trip counter.
+     */
+    public void resetRoundTrips() {
+        roundTrips.set(0);
+    }
+
+    /**
+     * Create an object served by this transport.
+     * @param handler Implements the members of the object.
+     * @return The object.
+     */
+    public InMemoryDispatch createDispatch(DispatchHandler handler) {
+        if(handler == null) {
+            throw new IllegalArgumentException("Handler is null.");
+        }
+        return new InMemoryDispatch(this, handler, objectIds.incrementAndGet());
+    }
+
+    /**
+     * Create the value of the _NewEnum property of a collection.
+     * @param elements Elements of the collection, typically variants of {@link InMemoryDispatch} objects.
+     * @return A variant holding an IEnumVARIANT enumerator of the elements.
+     */
+    public JIVariant createEnumeration(Collection<JIVariant> elements) {
+        InMemoryEnumVariant enumVariant = new InMemoryEnumVariant(this, new ArrayList<JIVariant>(elements), objectIds.incrementAndGet());
+        return new JIVariant(enumVariant.getComObject());
+    }
+
+    /**
+     * Count a round trip and wait for the simulated latency.
+     */
+    void roundTrip() {
+        roundTrips.incrementAndGet();
+        long latency = latencyNanos;
+        if(latency > 0) {
+            long deadline = System.nanoTime() + latency;
+            long left = latency;
+            while(left > 0) {
+                LockSupport.parkNanos(left);
+                left = deadline - System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * DISPIDs are assigned per member name, case-insensitive like IDispatch, and shared by all objects and transports.
+     */
+    int getDispId(String name) {
+        String key = name.toLowerCase(Locale.ENGLISH);
+        Integer dispId = DISP_IDS.get(key);
+        if(dispId == null) {
+            synchronized (MEMBER_NAMES) {
+                dispId = DISP_IDS.get(key);
+                if(dispId == null) {
+                    MEMBER_NAMES.add(name);
+                    dispId = MEMBER_NAMES.size();
+                    DISP_IDS.put(key, dispId);
+                }
+            }
+        }
+        return dispId;
+    }
+
+    String getMemberName(int dispId) throws JIException {
+        if(dispId <= 0 || dispId > MEMBER_NAMES.size()) {
+            throw new JIException(InMemoryDispatch.DISP_E_MEMBERNOTFOUND);
+        }
+        return MEMBER_NAMES.get(dispId - 1);
+    }
+}
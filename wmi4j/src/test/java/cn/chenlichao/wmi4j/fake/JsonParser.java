@@ -0,0 +1,216 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.fake;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON reader for {@link FakeWmiProvider#loadJson(String)}. Objects are read into {@link LinkedHashMap}s,
+ * arrays into {@link ArrayList}s, integral numbers into {@link Long}s and other numbers into {@link Double}s.
+ * Errors are reported as IllegalArgumentException.
+ */
+final class JsonParser {
+
+    private final String json;
+    private int position;
+
+    private JsonParser(String json) {
+        this.json = json;
+    }
+
+    static Object parse(String json) {
+        JsonParser parser = new JsonParser(json);
+        Object value = parser.value();
+        parser.skipWhitespace();
+        if(parser.position < json.length()) {
+            throw parser.error("Unexpected text after the document");
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> map(Object value, String what) {
+        if(!(value instanceof Map)) {
+            throw new IllegalArgumentException("JSON " + what + " is not an object: " + value);
+        }
+        return (Map<String, Object>) value;
+    }
+
+    /**
+     * @return The list, empty if the value is null.
+     */
+    static List<?> list(Object value, String what) {
+        if(value == null) {
+            return Collections.emptyList();
+        }
+        if(!(value instanceof List)) {
+            throw new IllegalArgumentException("JSON " + what + " is not an array: " + value);
+        }
+        return (List<?>) value;
+    }
+
+    static String string(Object value, String what) {
+        if(!(value instanceof String) || ((String) value).isEmpty()) {
+            throw new IllegalArgumentException("JSON " + what + " is not a string: " + value);
+        }
+        return (String) value;
+    }
+
+    private Object value() {
+        skipWhitespace();
+        if(position >= json.length()) {
+            throw error("Unexpected end");
+        }
+        char c = json.charAt(position);
+        if(c == '{') {
+            position++;
+            Map<String, Object> map = new LinkedHashMap<String, Object>();
+            skipWhitespace();
+            if(peek('}')) {
+                return map;
+            }
+            do {
+                skipWhitespace();
+                if(position >= json.length() || json.charAt(position) != '"') {
+                    throw error("Name expected");
+                }
+                String name = string();
+                skipWhitespace();
+                expect(':');
+                map.put(name, value());
+                skipWhitespace();
+            } while (peek(','));
+            expect('}');
+            return map;
+        } else if(c == '[') {
+            position++;
+            List<Object> list = new ArrayList<Object>();
+            skipWhitespace();
+            if(peek(']')) {
+                return list;
+            }
+            do {
+                list.add(value());
+                skipWhitespace();
+            } while (peek(','));
+            expect(']');
+            return list;
+        } else if(c == '"') {
+            return string();
+        } else if(json.startsWith("true", position)) {
+            position += 4;
+            return Boolean.TRUE;
+        } else if(json.startsWith("false", position)) {
+            position += 5;
+            return Boolean.FALSE;
+        } else if(json.startsWith("null", position)) {
+            position += 4;
+            return null;
+        }
+        return number();
+    }
+
+    private String string() {
+        StringBuilder sb = new StringBuilder();
+        position++;
+        while (position < json.length()) {
+            char c = json.charAt(position++);
+            if(c == '"') {
+                return sb.toString();
+            }
+            if(c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if(position >= json.length()) {
+                break;
+            }
+            char escaped = json.charAt(position++);
+            switch (escaped) {
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'u':
+                    if(position + 4 > json.length()) {
+                        throw error("Invalid unicode escape");
+                    }
+                    try {
+                        sb.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid unicode escape");
+                    }
+                    position += 4;
+                    break;
+                default: sb.append(escaped);
+            }
+        }
+        throw error("Unclosed string");
+    }
+
+    private Object number() {
+        int start = position;
+        while (position < json.length() && "+-0123456789.eE".indexOf(json.charAt(position)) >= 0) {
+            position++;
+        }
+        String text = json.substring(start, position);
+        if(text.isEmpty()) {
+            throw error("Unexpected character '" + json.charAt(start) + "'");
+        }
+        try {
+            if(text.indexOf('.') < 0 && text.indexOf('e') < 0 && text.indexOf('E') < 0) {
+                return Long.valueOf(text);
+            }
+            return Double.valueOf(text);
+        } catch (NumberFormatException e) {
+            position = start;
+            throw error("Invalid number " + text);
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+            position++;
+        }
+    }
+
+    private boolean peek(char c) {
+        if(position < json.length() && json.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if(!peek(c)) {
+            throw error("'" + c + "' expected");
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at offset " + position + " of JSON document.");
+    }
+}
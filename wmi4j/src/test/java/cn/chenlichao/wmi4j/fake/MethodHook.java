@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.fake;
+
+import org.jinterop.dcom.common.JIException;
+
+import java.util.Map;
+
+/**
+ * Implements a method of a {@link FakeClass}, called for ExecMethod and ExecMethod_.
+ */
+public interface MethodHook {
+
+    /**
+     * @param target The instance the method is executed on, null for a static method called on the class.
+     * @param method Method name.
+     * @param inParameters Values of the in parameters, keyed by name, empty if none are given.
+     * @return Values of the out parameters, typically with a <code>ReturnValue</code>, may be null.
+     * @throws JIException The HRESULT returned to the caller, for example WBEM_E_INVALID_PARAMETER (0x80041008).
+     */
+    Map<String, Object> invoke(FakeInstance target, String method, Map<String, Object> inParameters) throws JIException;
+}
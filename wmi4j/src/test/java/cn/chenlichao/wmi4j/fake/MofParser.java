@@ -0,0 +1,447 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.fake;
+
+import cn.chenlichao.wmi4j.consts.WbemCimTypeEnum;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads the MOF subset of {@link FakeWmiProvider#loadMof(String)}. Errors are reported as
+ * IllegalArgumentException with the line number.
+ */
+final class MofParser {
+
+    private static final Object END = new Object();
+
+    private final FakeWmiProvider provider;
+    private final String mof;
+    private int position;
+    private int line = 1;
+    /** Current token, a String for identifiers and punctuation, a {@link Literal} for strings and numbers. */
+    private Object token;
+
+    MofParser(FakeWmiProvider provider, String mof) {
+        this.provider = provider;
+        this.mof = mof;
+    }
+
+    void parse() {
+        try {
+            next();
+            while (token != END) {
+                qualifiers();
+                if(isKeyword("class")) {
+                    classDeclaration();
+                } else if(isKeyword("instance")) {
+                    next();
+                    expectKeyword("of");
+                    String className = instanceClass();
+                    provider.addInstance(className, instanceBody());
+                    expect(";");
+                } else if(isKeyword("qualifier")) {
+                    skipTo(";");
+                } else {
+                    throw error("class or instance expected but found " + describe());
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            if(e.getMessage() != null && e.getMessage().startsWith("MOF line ")) {
+                throw e;
+            }
+            throw new IllegalArgumentException("MOF line " + line + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void classDeclaration() {
+        next();
+        FakeClass.Builder builder = FakeClass.builder(identifier());
+        if(accept(":")) {
+            builder.superclass(identifier());
+        }
+        expect("{");
+        while (!accept("}")) {
+            List<String> qualifiers = qualifiers();
+            String type = identifier();
+            WbemCimTypeEnum cimType;
+            if(isKeyword("ref")) {
+                next();
+                cimType = WbemCimTypeEnum.Reference;
+            } else {
+                cimType = FakeClass.parseType(type);
+                if(cimType == WbemCimTypeEnum.String && qualifiers.contains("embeddedobject")) {
+                    cimType = WbemCimTypeEnum.Object;
+                }
+            }
+            String name = identifier();
+            if("(".equals(token)) {
+                skipTo(")");
+                builder.method(name);
+            } else {
+                boolean array = false;
+                if(accept("[")) {
+                    if(token instanceof Literal) {
+                        next();
+                    }
+                    expect("]");
+                    array = true;
+                }
+                if(accept("=")) {
+                    value();
+                }
+                builder.add(name, cimType, array, qualifiers.contains("key"));
+            }
+            expect(";");
+        }
+        expect(";");
+        provider.defineClass(builder.build());
+    }
+
+    /**
+     * Read the class name of <code>instance of</code>.
+     */
+    private String instanceClass() {
+        String className = identifier();
+        if(provider.getFakeClass(className) == null) {
+            throw error("class " + className + " is not defined");
+        }
+        if(isKeyword("as")) {
+            throw error("aliases are not supported");
+        }
+        return className;
+    }
+
+    /**
+     * Read the property values of <code>instance of</code>.
+     */
+    private Map<String, Object> instanceBody() {
+        expect("{");
+        Map<String, Object> values = new LinkedHashMap<String, Object>();
+        while (!accept("}")) {
+            qualifiers();
+            String name = identifier();
+            expect("=");
+            values.put(name, value());
+            expect(";");
+        }
+        return values;
+    }
+
+    private Object value() {
+        if(accept("{")) {
+            List<Object> list = new ArrayList<Object>();
+            if(accept("}")) {
+                return list;
+            }
+            do {
+                list.add(value());
+            } while (accept(","));
+            expect("}");
+            return list;
+        } else if(isKeyword("instance")) {
+            next();
+            expectKeyword("of");
+            String className = instanceClass();
+            return new FakeInstance(provider.getFakeClass(className), instanceBody());
+        } else if(isKeyword("true") || isKeyword("false")) {
+            boolean value = isKeyword("true");
+            next();
+            return value;
+        } else if(isKeyword("null")) {
+            next();
+            return null;
+        } else if(token instanceof Literal) {
+            Object value = ((Literal) token).value;
+            next();
+            if(value instanceof String) {
+                StringBuilder sb = new StringBuilder((String) value);
+                while (token instanceof Literal && ((Literal) token).value instanceof String) {
+                    sb.append((String) ((Literal) token).value);
+                    next();
+                }
+                return sb.toString();
+            }
+            return value;
+        }
+        throw error("value expected");
+    }
+
+    /**
+     * Read an optional qualifier list.
+     * @return Lower case names of the qualifiers.
+     */
+    private List<String> qualifiers() {
+        List<String> names = new ArrayList<String>();
+        if(!accept("[")) {
+            return names;
+        }
+        int depth = 0;
+        boolean expectName = true;
+        while (true) {
+            if(token == END) {
+                throw error("unclosed qualifier list");
+            }
+            if(depth == 0 && "]".equals(token)) {
+                next();
+                return names;
+            }
+            if("(".equals(token) || "{".equals(token)) {
+                depth++;
+            } else if(")".equals(token) || "}".equals(token)) {
+                depth--;
+            } else if(depth == 0 && ",".equals(token)) {
+                expectName = true;
+                next();
+                continue;
+            } else if(depth == 0 && expectName && token instanceof String) {
+                names.add(((String) token).toLowerCase(Locale.ENGLISH));
+                expectName = false;
+            }
+            next();
+        }
+    }
+
+    private void skipTo(String end) {
+        while (!end.equals(token)) {
+            if(token == END) {
+                throw error("'" + end + "' expected");
+            }
+            next();
+        }
+        next();
+    }
+
+    private String identifier() {
+        if(!(token instanceof String) || !isIdentifier((String) token)) {
+            throw error("identifier expected but found " + describe());
+        }
+        String identifier = (String) token;
+        next();
+        return identifier;
+    }
+
+    private boolean isKeyword(String keyword) {
+        return token instanceof String && ((String) token).equalsIgnoreCase(keyword);
+    }
+
+    private void expectKeyword(String keyword) {
+        if(!isKeyword(keyword)) {
+            throw error("'" + keyword + "' expected but found " + describe());
+        }
+        next();
+    }
+
+    private boolean accept(String punctuation) {
+        if(punctuation.equals(token)) {
+            next();
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String punctuation) {
+        if(!accept(punctuation)) {
+            throw error("'" + punctuation + "' expected but found " + describe());
+        }
+    }
+
+    private String describe() {
+        if(token == END) {
+            return "end of text";
+        }
+        return (token instanceof Literal) ? String.valueOf(((Literal) token).value) : "'" + token + "'";
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("MOF line " + line + ": " + message);
+    }
+
+    private static boolean isIdentifier(String token) {
+        char c = token.charAt(0);
+        return Character.isLetter(c) || c == '_';
+    }
+
+    // ---------------------------------------------------------------- tokenizer
+
+    private void next() {
+        skipWhitespaceAndComments();
+        if(position >= mof.length()) {
+            token = END;
+            return;
+        }
+        char c = mof.charAt(position);
+        if(c == '"') {
+            token = new Literal(string());
+        } else if(c == '\'') {
+            position++;
+            String text = (position < mof.length() && mof.charAt(position) == '\\') ? escape() : String.valueOf(mof.charAt(position++));
+            if(position >= mof.length() || mof.charAt(position) != '\'') {
+                throw error("unclosed character literal");
+            }
+            position++;
+            token = new Literal(text);
+        } else if(Character.isDigit(c) || ((c == '-' || c == '+' || c == '.') && position + 1 < mof.length()
+                && Character.isDigit(mof.charAt(position + 1)))) {
+            token = new Literal(number());
+        } else if(Character.isLetter(c) || c == '_') {
+            int start = position;
+            while (position < mof.length() && (Character.isLetterOrDigit(mof.charAt(position)) || mof.charAt(position) == '_')) {
+                position++;
+            }
+            token = mof.substring(start, position);
+        } else {
+            position++;
+            token = String.valueOf(c);
+        }
+    }
+
+    private void skipWhitespaceAndComments() {
+        while (position < mof.length()) {
+            char c = mof.charAt(position);
+            if(c == '\n') {
+                line++;
+                position++;
+            } else if(Character.isWhitespace(c)) {
+                position++;
+            } else if(mof.startsWith("//", position) || c == '#') {
+                // comments and pragmas
+                while (position < mof.length() && mof.charAt(position) != '\n') {
+                    position++;
+                }
+            } else if(mof.startsWith("/*", position)) {
+                int end = mof.indexOf("*/", position + 2);
+                if(end < 0) {
+                    throw error("unclosed comment");
+                }
+                for(int i = position; i < end; i++) {
+                    if(mof.charAt(i) == '\n') {
+                        line++;
+                    }
+                }
+                position = end + 2;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private String string() {
+        StringBuilder sb = new StringBuilder();
+        position++;
+        while (position < mof.length()) {
+            char c = mof.charAt(position);
+            if(c == '"') {
+                position++;
+                return sb.toString();
+            } else if(c == '\n') {
+                break;
+            } else if(c == '\\') {
+                sb.append(escape());
+            } else {
+                sb.append(c);
+                position++;
+            }
+        }
+        throw error("unclosed string");
+    }
+
+    /**
+     * Read an escape sequence at the position, which is a backslash.
+     */
+    private String escape() {
+        position++;
+        if(position >= mof.length()) {
+            throw error("invalid escape");
+        }
+        char c = mof.charAt(position++);
+        switch (c) {
+            case 'n': return "\n";
+            case 't': return "\t";
+            case 'r': return "\r";
+            case 'b': return "\b";
+            case 'f': return "\f";
+            case 'x':
+            case 'X':
+                int start = position;
+                while (position < mof.length() && position - start < 4
+                        && Character.digit(mof.charAt(position), 16) >= 0) {
+                    position++;
+                }
+                if(start == position) {
+                    throw error("invalid hex escape");
+                }
+                return String.valueOf((char) Integer.parseInt(mof.substring(start, position), 16));
+            default: return String.valueOf(c);
+        }
+    }
+
+    private Object number() {
+        int start = position;
+        boolean negative = mof.charAt(position) == '-';
+        if(negative || mof.charAt(position) == '+') {
+            position++;
+        }
+        if(mof.startsWith("0x", position) || mof.startsWith("0X", position)) {
+            position += 2;
+            int digits = position;
+            while (position < mof.length() && Character.digit(mof.charAt(position), 16) >= 0) {
+                position++;
+            }
+            try {
+                long value = Long.parseLong(mof.substring(digits, position), 16);
+                return negative ? -value : value;
+            } catch (NumberFormatException e) {
+                throw error("invalid number " + mof.substring(start, position));
+            }
+        }
+        boolean real = false;
+        while (position < mof.length()) {
+            char c = mof.charAt(position);
+            if(c == '.' || c == 'e' || c == 'E') {
+                real = true;
+            } else if(!Character.isDigit(c) && !((c == '-' || c == '+') && real)) {
+                break;
+            }
+            position++;
+        }
+        String text = mof.substring(start, position);
+        try {
+            return real ? (Object) Double.valueOf(text) : (Object) Long.valueOf(text);
+        } catch (NumberFormatException e) {
+            throw error("invalid number " + text);
+        }
+    }
+
+    /**
+     * A string or number token, so a string "class" is not taken for the keyword.
+     */
+    private static final class Literal {
+
+        final Object value;
+
+        Literal(Object value) {
+            this.value = value;
+        }
+    }
+}
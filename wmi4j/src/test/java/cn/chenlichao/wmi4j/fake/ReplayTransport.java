@@ -0,0 +1,293 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.fake;
+
+import cn.chenlichao.wmi4j.FakeServices;
+import cn.chenlichao.wmi4j.SWbemServices;
+import cn.chenlichao.wmi4j.trace.TraceReader;
+import cn.chenlichao.wmi4j.trace.TraceRecord;
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.core.IJIComObject;
+import org.jinterop.dcom.core.JICallBuilder;
+import org.jinterop.dcom.core.JIVariant;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Serves a trace recorded by {@link cn.chenlichao.wmi4j.trace.TraceRecorder}, so a real session can be reproduced
+ * and benchmarked offline.
+ *
+ * <pre>
+ *     ReplayTransport replay = new ReplayTransport(new FileInputStream("session.trace"));
+ *     replay.setSpeed(10);
+ *     SWbemServices services = replay.connect();
+ *     // run the same code as during the recording
+ *     System.out.println(replay.getRoundTrips());
+ * </pre>
+ *
+ * <p>Each object answers its recorded calls in the recorded order with the recorded results and HRESULTs,
+ * after waiting the recorded duration divided by the {@link #setSpeed(double) speed}. The member and kind of each
+ * call are checked against the trace; a call the trace does not have fails with {@link #E_UNEXPECTED}, since
+ * the results would no longer match the code being run. GetIDsOfNames calls are not recorded and are answered
+ * without delay.</p>
+ */
+public class ReplayTransport extends InMemoryTransport {
+
+    /**
+     * Speed to replay without waiting.
+     */
+    public static final double MAX_SPEED = Double.POSITIVE_INFINITY;
+
+    /**
+     * The call does not match the trace.
+     */
+    public static final int E_UNEXPECTED = 0x8000FFFF;
+
+    private static final int S_FALSE = 1;
+
+    private final ConcurrentMap<Integer, ReplayDispatch> objects = new ConcurrentHashMap<Integer, ReplayDispatch>();
+    private final Map<Integer, Deque<TraceRecord>> calls = new HashMap<Integer, Deque<TraceRecord>>();
+    private final Queue<Integer> roots = new ConcurrentLinkedQueue<Integer>();
+    private final AtomicLong remaining = new AtomicLong();
+    private final DispatchHandler handler = new DispatchHandler() {
+        @Override
+        public JIVariant[] invoke(InMemoryDispatch target, String member, int kind, Object[] params) throws JIException {
+            return replayInvoke(((ReplayDispatch) target).traceId, member, kind);
+        }
+    };
+    private volatile double speed = 1;
+
+    /**
+     * Load a trace, the stream is read to the end and closed.
+     * @throws IOException Failed to read the trace.
+     */
+    public ReplayTransport(InputStream in) throws IOException {
+        TraceReader reader = new TraceReader(in, new TraceReader.ObjectResolver() {
+            @Override
+            public IJIComObject resolve(int objectId) {
+                return object(objectId).getComObject();
+            }
+        });
+        try {
+            TraceRecord record;
+            while((record = reader.read()) != null) {
+                if(record.getType() == TraceRecord.Type.ROOT) {
+                    roots.add(record.getObjectId());
+                    continue;
+                }
+                Deque<TraceRecord> objectCalls = calls.get(record.getObjectId());
+                if(objectCalls == null) {
+                    objectCalls = new ArrayDeque<TraceRecord>();
+                    calls.put(record.getObjectId(), objectCalls);
+                }
+                objectCalls.add(record);
+                remaining.incrementAndGet();
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * @return Replay speed, 1 waits the recorded durations, 10 waits a tenth of them.
+     */
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Set the replay speed, default 1. Use {@link #MAX_SPEED} to replay without waiting.
+     */
+    public void setSpeed(double speed) {
+        if(!(speed > 0)) {
+            throw new IllegalArgumentException("Speed must be greater than zero.");
+        }
+        this.speed = speed;
+    }
+
+    /**
+     * Open the next recorded connection, in the order they were recorded.
+     * @exception IllegalStateException All the recorded connections are opened.
+     */
+    public SWbemServices connect() {
+        Integer root = roots.poll();
+        if(root == null) {
+            throw new IllegalStateException("No more recorded connections.");
+        }
+        return FakeServices.wrap(object(root).getDispatch());
+    }
+
+    /**
+     * @return Number of recorded calls not replayed yet, 0 when the code replayed made all the recorded calls.
+     */
+    public long getRemainingCalls() {
+        return remaining.get();
+    }
+
+    private ReplayDispatch object(int traceId) {
+        ReplayDispatch object = objects.get(traceId);
+        if(object == null) {
+            object = new ReplayDispatch(this, traceId);
+            ReplayDispatch existing = objects.putIfAbsent(traceId, object);
+            if(existing != null) {
+                object = existing;
+            }
+        }
+        return object;
+    }
+
+    /**
+     * Take the next recorded call of an object, it must be the given call.
+     */
+    private TraceRecord expect(int traceId, TraceRecord.Type type, String member) throws JIException {
+        TraceRecord record;
+        Deque<TraceRecord> objectCalls = calls.get(traceId);
+        if(objectCalls == null) {
+            record = null;
+        } else {
+            synchronized (objectCalls) {
+                record = objectCalls.peek();
+                if(record != null && record.getType() == type
+                        && (member == null || member.equalsIgnoreCase(record.getMember()))) {
+                    objectCalls.poll();
+                    remaining.decrementAndGet();
+                    return record;
+                }
+            }
+        }
+        String call = type + (member == null ? "" : " " + member);
+        throw new JIException(E_UNEXPECTED, "Replay diverged on object " + traceId + ": " + call
+                + (record == null ? " was not recorded." : ", expected " + record.getType()
+                + (record.getMember() == null ? "" : " " + record.getMember()) + "."));
+    }
+
+    private TraceRecord poll(int traceId, TraceRecord.Type type, String member) {
+        Deque<TraceRecord> objectCalls = calls.get(traceId);
+        if(objectCalls == null) {
+            return null;
+        }
+        synchronized (objectCalls) {
+            TraceRecord record = objectCalls.peek();
+            if(record != null && record.getType() == type && member.equalsIgnoreCase(record.getMember())) {
+                remaining.decrementAndGet();
+                return objectCalls.poll();
+            }
+        }
+        return null;
+    }
+
+    private JIVariant[] replayInvoke(int traceId, String member, int kind) throws JIException {
+        TraceRecord record = expect(traceId, TraceRecord.Type.INVOKE, member);
+        if(record.getKind() != kind) {
+            throw new JIException(E_UNEXPECTED, "Replay diverged on object " + traceId + ": " + member
+                    + " invoked with kind " + kind + ", recorded with kind " + record.getKind() + ".");
+        }
+        pause(record.getDurationNanos());
+        if(record.getHResult() != 0) {
+            throw new JIException(record.getHResult());
+        }
+        Object[] results = record.getResults();
+        JIVariant[] variants = new JIVariant[results.length];
+        for(int i = 0; i < results.length; i++) {
+            variants[i] = (JIVariant) results[i];
+        }
+        return variants;
+    }
+
+    private Object[] replayNext(int traceId) throws JIException {
+        roundTrip();
+        TraceRecord record = expect(traceId, TraceRecord.Type.NEXT, null);
+        pause(record.getDurationNanos());
+        if(record.getHResult() != 0 && record.getHResult() != S_FALSE) {
+            throw new JIException(record.getHResult());
+        }
+        Object[] results = record.getResults();
+        JIVariant[] elements = new JIVariant[results.length];
+        for(int i = 0; i < results.length; i++) {
+            elements[i] = (JIVariant) results[i];
+        }
+        return new Object[]{InMemoryEnumVariant.toJIArray(elements), elements.length};
+    }
+
+    /**
+     * Wait the recorded duration of a call at the replay speed.
+     */
+    private void pause(long durationNanos) {
+        double s = speed;
+        if(durationNanos <= 0 || s == MAX_SPEED) {
+            return;
+        }
+        long wait = (long) (durationNanos / s);
+        long deadline = System.nanoTime() + wait;
+        while(wait > 0) {
+            LockSupport.parkNanos(wait);
+            wait = deadline - System.nanoTime();
+        }
+    }
+
+    /**
+     * A recorded object. All objects are dispatches, the IEnumVARIANT of a collection included, since whether
+     * an object is enumerated is only known from the records that follow it.
+     */
+    static final class ReplayDispatch extends InMemoryDispatch {
+
+        private final ReplayTransport replay;
+        private final int traceId;
+
+        ReplayDispatch(ReplayTransport replay, int traceId) {
+            super(replay, replay.handler, traceId);
+            this.replay = replay;
+            this.traceId = traceId;
+        }
+
+        @Override
+        public IJIComObject queryInterface(String iid) throws JIException {
+            TraceRecord record = replay.poll(traceId, TraceRecord.Type.QUERY_INTERFACE, iid);
+            if(record == null) {
+                return super.queryInterface(iid);
+            }
+            replay.roundTrip();
+            replay.pause(record.getDurationNanos());
+            if(record.getHResult() != 0) {
+                throw new JIException(record.getHResult());
+            }
+            return replay.object(record.getCount()).getComObject();
+        }
+
+        @Override
+        public Object[] call(JICallBuilder obj) throws JIException {
+            if(obj.getOpnum() != InMemoryEnumVariant.NEXT_OPNUM) {
+                throw new JIException(E_NOTIMPL);
+            }
+            return replay.replayNext(traceId);
+        }
+    }
+}
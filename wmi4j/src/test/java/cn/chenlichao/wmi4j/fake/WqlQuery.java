@@ -0,0 +1,483 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.fake;
+
+import org.jinterop.dcom.common.JIException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * The WQL subset understood by {@link FakeWmiProvider}:
+ * <pre>
+ *     SELECT * | property [, property...] FROM class [WITHIN seconds] [WHERE condition]
+ * </pre>
+ * A condition combines with AND, OR, NOT and parentheses the comparisons
+ * <code>property (= | &lt;&gt; | != | &lt; | &lt;= | &gt; | &gt;=) literal</code>, <code>property [NOT] LIKE 'pattern'</code>,
+ * <code>property IS [NOT] NULL</code> and <code>property ISA 'class'</code>. Properties of embedded objects are
+ * referred to with dots, such as <code>TargetInstance.Name</code>. String comparisons are case-insensitive,
+ * like WMI.
+ */
+final class WqlQuery {
+
+    /**
+     * WBEM_E_INVALID_QUERY
+     */
+    static final int WBEM_E_INVALID_QUERY = 0x80041017;
+
+    private final List<String> properties;
+    private final String className;
+    private final int within;
+    private final Condition where;
+
+    private WqlQuery(List<String> properties, String className, int within, Condition where) {
+        this.properties = properties;
+        this.className = className;
+        this.within = within;
+        this.where = where;
+    }
+
+    /**
+     * @return Selected properties, empty for <code>*</code>.
+     */
+    List<String> getProperties() {
+        return properties;
+    }
+
+    String getClassName() {
+        return className;
+    }
+
+    /**
+     * @return Polling interval of an event query in seconds, 0 if not specified.
+     */
+    int getWithin() {
+        return within;
+    }
+
+    /**
+     * @return true if the instance satisfies the WHERE clause. The class is not checked.
+     */
+    boolean matches(FakeInstance instance) {
+        return where == null || where.eval(instance);
+    }
+
+    static WqlQuery parse(String wql) throws JIException {
+        try {
+            return new Parser(wql).parse();
+        } catch (IllegalArgumentException e) {
+            throw new JIException(WBEM_E_INVALID_QUERY, "Invalid query: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Value of a property, dotted names are resolved through embedded objects.
+     * @return The value, or null if the property does not exist.
+     */
+    static Object resolve(FakeInstance instance, String name) {
+        Object current = instance;
+        for(String part : name.split("\\.")) {
+            if(!(current instanceof FakeInstance)) {
+                return null;
+            }
+            FakeInstance object = (FakeInstance) current;
+            if(object.getFakeClass().getProperty(part) == null) {
+                return null;
+            }
+            current = object.get(part);
+        }
+        return current;
+    }
+
+    private interface Condition {
+        boolean eval(FakeInstance instance);
+    }
+
+    private static final class Comparison implements Condition {
+
+        private final String property;
+        private final String operator;
+        private final Object literal;
+
+        Comparison(String property, String operator, Object literal) {
+            this.property = property;
+            this.operator = operator;
+            this.literal = literal;
+        }
+
+        @Override
+        public boolean eval(FakeInstance instance) {
+            Object value = resolve(instance, property);
+            if(value == null || literal == null || value instanceof List || value instanceof FakeInstance) {
+                return false;
+            }
+            int result;
+            if(value instanceof Number && literal instanceof Number) {
+                result = Double.compare(((Number) value).doubleValue(), ((Number) literal).doubleValue());
+            } else if(value instanceof Boolean) {
+                if(!"=".equals(operator) && !"<>".equals(operator)) {
+                    return false;
+                }
+                result = value.toString().equalsIgnoreCase(literal.toString()) ? 0 : 1;
+            } else {
+                result = value.toString().compareToIgnoreCase(literal.toString());
+            }
+            if("=".equals(operator)) {
+                return result == 0;
+            } else if("<>".equals(operator)) {
+                return result != 0;
+            } else if("<".equals(operator)) {
+                return result < 0;
+            } else if("<=".equals(operator)) {
+                return result <= 0;
+            } else if(">".equals(operator)) {
+                return result > 0;
+            }
+            return result >= 0;
+        }
+    }
+
+    private static final class Like implements Condition {
+
+        private final String property;
+        private final Pattern pattern;
+
+        Like(String property, String like) {
+            this.property = property;
+            StringBuilder regex = new StringBuilder();
+            boolean inSet = false;
+            for(char c : like.toCharArray()) {
+                if(inSet) {
+                    if(c == ']') {
+                        inSet = false;
+                        regex.append(']');
+                    } else if(c == '^' && regex.charAt(regex.length() - 1) == '[') {
+                        regex.append('^');
+                    } else if(c == '-') {
+                        regex.append('-');
+                    } else {
+                        regex.append(Pattern.quote(String.valueOf(c)));
+                    }
+                } else if(c == '%') {
+                    regex.append(".*");
+                } else if(c == '_') {
+                    regex.append('.');
+                } else if(c == '[') {
+                    inSet = true;
+                    regex.append('[');
+                } else {
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+            if(inSet) {
+                throw new IllegalArgumentException("Unclosed [ in LIKE pattern " + like);
+            }
+            this.pattern = Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+        }
+
+        @Override
+        public boolean eval(FakeInstance instance) {
+            Object value = resolve(instance, property);
+            return value != null && !(value instanceof List) && !(value instanceof FakeInstance)
+                    && pattern.matcher(value.toString()).matches();
+        }
+    }
+
+    private static final class IsNull implements Condition {
+
+        private final String property;
+
+        IsNull(String property) {
+            this.property = property;
+        }
+
+        @Override
+        public boolean eval(FakeInstance instance) {
+            return resolve(instance, property) == null;
+        }
+    }
+
+    private static final class IsA implements Condition {
+
+        private final String property;
+        private final String className;
+
+        IsA(String property, String className) {
+            this.property = property;
+            this.className = className;
+        }
+
+        @Override
+        public boolean eval(FakeInstance instance) {
+            Object value = resolve(instance, property);
+            return value instanceof FakeInstance && ((FakeInstance) value).getFakeClass().isA(className);
+        }
+    }
+
+    private static final class Not implements Condition {
+
+        private final Condition condition;
+
+        Not(Condition condition) {
+            this.condition = condition;
+        }
+
+        @Override
+        public boolean eval(FakeInstance instance) {
+            return !condition.eval(instance);
+        }
+    }
+
+    private static final class Logical implements Condition {
+
+        private final boolean and;
+        private final Condition left;
+        private final Condition right;
+
+        Logical(boolean and, Condition left, Condition right) {
+            this.and = and;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean eval(FakeInstance instance) {
+            return and ? (left.eval(instance) && right.eval(instance)) : (left.eval(instance) || right.eval(instance));
+        }
+    }
+
+    /**
+     * Recursive descent parser, errors are reported as IllegalArgumentException.
+     */
+    private static final class Parser {
+
+        private final List<String> tokens = new ArrayList<String>();
+        /** Tokens that were quoted strings, the quotes are removed from tokens. */
+        private final List<Boolean> quoted = new ArrayList<Boolean>();
+        private int position;
+
+        Parser(String wql) {
+            tokenize(wql);
+        }
+
+        private void tokenize(String wql) {
+            int i = 0;
+            while(i < wql.length()) {
+                char c = wql.charAt(i);
+                if(Character.isWhitespace(c)) {
+                    i++;
+                } else if(c == '\'' || c == '"') {
+                    StringBuilder sb = new StringBuilder();
+                    int j = i + 1;
+                    while(j < wql.length() && wql.charAt(j) != c) {
+                        if(wql.charAt(j) == '\\' && j + 1 < wql.length()) {
+                            j++;
+                        }
+                        sb.append(wql.charAt(j++));
+                    }
+                    if(j >= wql.length()) {
+                        throw new IllegalArgumentException("Unclosed string at " + i);
+                    }
+                    add(sb.toString(), true);
+                    i = j + 1;
+                } else if(c == '<' || c == '>' || c == '!') {
+                    if(i + 1 < wql.length() && (wql.charAt(i + 1) == '=' || (c == '<' && wql.charAt(i + 1) == '>'))) {
+                        String operator = wql.substring(i, i + 2);
+                        add("!=".equals(operator) ? "<>" : operator, false);
+                        i += 2;
+                    } else if(c == '!') {
+                        throw new IllegalArgumentException("Unexpected ! at " + i);
+                    } else {
+                        add(String.valueOf(c), false);
+                        i++;
+                    }
+                } else if(c == '=' || c == '(' || c == ')' || c == ',' || c == '*') {
+                    add(String.valueOf(c), false);
+                    i++;
+                } else if(Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.') {
+                    int j = i + 1;
+                    while(j < wql.length() && (Character.isLetterOrDigit(wql.charAt(j)) || wql.charAt(j) == '_'
+                            || wql.charAt(j) == '.')) {
+                        j++;
+                    }
+                    add(wql.substring(i, j), false);
+                    i = j;
+                } else {
+                    throw new IllegalArgumentException("Unexpected " + c + " at " + i);
+                }
+            }
+        }
+
+        private void add(String token, boolean isString) {
+            tokens.add(token);
+            quoted.add(isString);
+        }
+
+        WqlQuery parse() {
+            expectKeyword("SELECT");
+            List<String> properties = new ArrayList<String>();
+            if(accept("*")) {
+                properties = Collections.emptyList();
+            } else {
+                do {
+                    properties.add(identifier());
+                } while(accept(","));
+            }
+            expectKeyword("FROM");
+            String className = identifier();
+            int within = 0;
+            if(acceptKeyword("WITHIN")) {
+                within = (int) Math.ceil(Double.parseDouble(next()));
+            }
+            Condition where = null;
+            if(acceptKeyword("WHERE")) {
+                where = or();
+            }
+            if(position < tokens.size()) {
+                throw new IllegalArgumentException("Unexpected " + tokens.get(position));
+            }
+            return new WqlQuery(properties, className, within, where);
+        }
+
+        private Condition or() {
+            Condition condition = and();
+            while(acceptKeyword("OR")) {
+                condition = new Logical(false, condition, and());
+            }
+            return condition;
+        }
+
+        private Condition and() {
+            Condition condition = not();
+            while(acceptKeyword("AND")) {
+                condition = new Logical(true, condition, not());
+            }
+            return condition;
+        }
+
+        private Condition not() {
+            if(acceptKeyword("NOT")) {
+                return new Not(not());
+            }
+            if(accept("(")) {
+                Condition condition = or();
+                expect(")");
+                return condition;
+            }
+            String property = identifier();
+            if(acceptKeyword("IS")) {
+                boolean negate = acceptKeyword("NOT");
+                expectKeyword("NULL");
+                return negate ? new Not(new IsNull(property)) : new IsNull(property);
+            } else if(acceptKeyword("ISA")) {
+                return new IsA(property, string());
+            } else if(acceptKeyword("LIKE")) {
+                return new Like(property, string());
+            } else if(acceptKeyword("NOT")) {
+                expectKeyword("LIKE");
+                return new Not(new Like(property, string()));
+            }
+            String operator = next();
+            if(!"=".equals(operator) && !"<>".equals(operator) && !"<".equals(operator) && !"<=".equals(operator)
+                    && !">".equals(operator) && !">=".equals(operator)) {
+                throw new IllegalArgumentException("Unexpected " + operator + " after " + property);
+            }
+            return new Comparison(property, operator, literal());
+        }
+
+        private Object literal() {
+            boolean isString = position < tokens.size() && quoted.get(position);
+            String token = next();
+            if(isString) {
+                return token;
+            }
+            if("TRUE".equalsIgnoreCase(token) || "FALSE".equalsIgnoreCase(token)) {
+                return Boolean.valueOf(token);
+            }
+            if("NULL".equalsIgnoreCase(token)) {
+                return null;
+            }
+            try {
+                if(token.contains(".")) {
+                    return Double.valueOf(token);
+                }
+                return Long.decode(token);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid literal " + token);
+            }
+        }
+
+        private String string() {
+            if(position >= tokens.size() || !quoted.get(position)) {
+                throw new IllegalArgumentException("String expected at " + (position < tokens.size() ? tokens.get(position) : "end"));
+            }
+            return next();
+        }
+
+        private String identifier() {
+            if(position >= tokens.size() || quoted.get(position)) {
+                throw new IllegalArgumentException("Identifier expected");
+            }
+            String token = next();
+            if(!Character.isLetter(token.charAt(0)) && token.charAt(0) != '_') {
+                throw new IllegalArgumentException("Invalid identifier " + token);
+            }
+            return token;
+        }
+
+        private String next() {
+            if(position >= tokens.size()) {
+                throw new IllegalArgumentException("Unexpected end of query");
+            }
+            return tokens.get(position++);
+        }
+
+        private boolean accept(String token) {
+            if(position < tokens.size() && !quoted.get(position) && tokens.get(position).equals(token)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean acceptKeyword(String keyword) {
+            if(position < tokens.size() && !quoted.get(position) && tokens.get(position).equalsIgnoreCase(keyword)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            if(!accept(token)) {
+                throw new IllegalArgumentException(token + " expected");
+            }
+        }
+
+        private void expectKeyword(String keyword) {
+            if(!acceptKeyword(keyword)) {
+                throw new IllegalArgumentException(keyword.toUpperCase(Locale.ENGLISH) + " expected");
+            }
+        }
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.fleet;
+
+import cn.chenlichao.wmi4j.SWbemObject;
+import cn.chenlichao.wmi4j.SWbemPropertySet;
+import cn.chenlichao.wmi4j.SWbemServices;
+import cn.chenlichao.wmi4j.WMIException;
+import cn.chenlichao.wmi4j.fake.FakeWmiProvider;
+import cn.chenlichao.wmi4j.pool.PoolConfig;
+import cn.chenlichao.wmi4j.pool.PoolKey;
+import cn.chenlichao.wmi4j.pool.ServicesConnector;
+import cn.chenlichao.wmi4j.pool.ServicesPool;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class FanOutExecutorTest {
+
+    private final FakeWmiProvider provider = new FakeWmiProvider();
+    private final AtomicInteger disconnected = new AtomicInteger();
+    private final AtomicInteger threads = new AtomicInteger();
+    private ServicesPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new ServicesPool(new PoolConfig(), new ServicesConnector() {
+            @Override
+            public Connection connect(PoolKey key) {
+                final SWbemServices services = provider.connect();
+                return new Connection() {
+                    @Override
+                    public SWbemServices getServices() {
+                        return services;
+                    }
+
+                    @Override
+                    public boolean isConnected() {
+                        return true;
+                    }
+
+                    @Override
+                    public void disconnect() {
+                        disconnected.incrementAndGet();
+                    }
+                };
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    public void testConcurrencyLimits() throws Exception {
+        FanOutExecutor executor = newExecutor(3, 1, 0);
+        final AtomicInteger current = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        final List<String> servers = new ArrayList<String>();
+        final List<String> running = new ArrayList<String>();
+        final AtomicInteger perHostViolations = new AtomicInteger();
+        FanOutBatch<String> batch = executor.submit(hosts("a", "a", "a", "b", "b", "c", "d", "e"), new HostTask<String>() {
+            @Override
+            public String execute(PoolKey host, SWbemServices services) throws Exception {
+                synchronized (running) {
+                    if(running.contains(host.getServer())) {
+                        perHostViolations.incrementAndGet();
+                    }
+                    running.add(host.getServer());
+                    servers.add(host.getServer());
+                }
+                int now = current.incrementAndGet();
+                while (true) {
+                    int seen = max.get();
+                    if(now <= seen || max.compareAndSet(seen, now)) {
+                        break;
+                    }
+                }
+                Thread.sleep(20);
+                current.decrementAndGet();
+                synchronized (running) {
+                    running.remove(host.getServer());
+                }
+                return host.getServer();
+            }
+        });
+        List<HostResult<String>> results = batch.awaitAll();
+        assertEquals(8, results.size());
+        for(HostResult<String> result : results) {
+            assertTrue(result.isSuccess());
+            assertEquals(result.getHost().getServer(), result.getValue());
+        }
+        assertTrue(max.get() <= 3);
+        assertEquals(0, perHostViolations.get());
+        // Hosts waiting for a slot do not occupy a thread
+        assertEquals(8, threads.get());
+        waitForIdle(executor);
+        executor.close();
+    }
+
+    @Test
+    public void testTimeoutKeepsSlotAndDiscardsConnection() throws Exception {
+        FanOutExecutor executor = newExecutor(1, 1, 50);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger started = new AtomicInteger();
+        FanOutBatch<String> batch = executor.submit(hosts("slow", "fast"), new HostTask<String>() {
+            @Override
+            public String execute(PoolKey host, SWbemServices services) throws Exception {
+                started.incrementAndGet();
+                if(host.getServer().equals("slow")) {
+                    release.await(10, TimeUnit.SECONDS);
+                }
+                return host.getServer();
+            }
+        });
+        HostResult<String> first = batch.poll(5, TimeUnit.SECONDS);
+        assertNotNull(first);
+        assertTrue(first.isTimeout());
+        assertTrue(first.getError() instanceof TimeoutException);
+        // The timed out call still holds the only slot
+        Thread.sleep(100);
+        assertEquals(1, started.get());
+        assertEquals(0, disconnected.get());
+
+        release.countDown();
+        HostResult<String> second = batch.poll(5, TimeUnit.SECONDS);
+        assertNotNull(second);
+        assertEquals("fast", second.getValue());
+        waitForIdle(executor);
+        assertEquals(1, disconnected.get());
+        assertEquals(1, pool.getStatistics().getIdle());
+        executor.close();
+    }
+
+    @Test
+    public void testCloseCancelsPendingAndKeepsDeadlines() throws Exception {
+        FanOutExecutor executor = newExecutor(1, 1, 50);
+        final CountDownLatch release = new CountDownLatch(1);
+        FanOutBatch<String> batch = executor.submit(hosts("a", "b", "c"), new HostTask<String>() {
+            @Override
+            public String execute(PoolKey host, SWbemServices services) throws Exception {
+                release.await(10, TimeUnit.SECONDS);
+                return host.getServer();
+            }
+        });
+        while (executor.getActiveHosts() == 0) {
+            Thread.sleep(5);
+        }
+        executor.close();
+        HostResult<String> result = batch.poll(5, TimeUnit.SECONDS);
+        assertTrue(result.getError() instanceof CancellationException);
+        result = batch.poll(5, TimeUnit.SECONDS);
+        assertTrue(result.getError() instanceof CancellationException);
+        result = batch.poll(5, TimeUnit.SECONDS);
+        assertNotNull(result);
+        assertTrue(result.isTimeout());
+        release.countDown();
+        waitForIdle(executor);
+        try {
+            executor.submit(hosts("a"), null);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCancelBatch() throws Exception {
+        FanOutExecutor executor = newExecutor(1, 1, 0);
+        final CountDownLatch release = new CountDownLatch(1);
+        FanOutBatch<String> batch = executor.submit(hosts("a", "b", "c"), new HostTask<String>() {
+            @Override
+            public String execute(PoolKey host, SWbemServices services) throws Exception {
+                release.await(10, TimeUnit.SECONDS);
+                return host.getServer();
+            }
+        });
+        batch.cancel();
+        release.countDown();
+        int cancelled = 0;
+        for(HostResult<String> result : batch) {
+            if(result.getError() instanceof CancellationException) {
+                cancelled++;
+            }
+        }
+        assertTrue(cancelled >= 2);
+        waitForIdle(executor);
+        executor.close();
+    }
+
+    @Test
+    public void testExecQueryReleasesObjects() throws Exception {
+        provider.loadMof("class Win32_Service\n{\n    [key] string Name;\n};\n"
+                + "instance of Win32_Service { Name = \"AppMgmt\"; };\n"
+                + "instance of Win32_Service { Name = \"Spooler\"; };\n");
+        FanOutExecutor executor = newExecutor(2, 1, 0);
+        final List<SWbemObject> read = Collections.synchronizedList(new ArrayList<SWbemObject>());
+        final List<SWbemPropertySet> sets = Collections.synchronizedList(new ArrayList<SWbemPropertySet>());
+        FanOutBatch<List<String>> batch = executor.execQuery(hosts("a"), "SELECT * FROM Win32_Service",
+                new ObjectMapper<String>() {
+                    @Override
+                    public String map(SWbemObject object) throws WMIException {
+                        SWbemPropertySet properties = object.getProperties();
+                        read.add(object);
+                        sets.add(properties);
+                        return properties.item("Name").getValue().getStringValue();
+                    }
+                });
+        HostResult<List<String>> result = batch.awaitAll().get(0);
+        assertEquals(Arrays.asList("AppMgmt", "Spooler"), result.getValue());
+        assertEquals(2, read.size());
+        for(int i = 0; i < read.size(); i++) {
+            assertTrue(read.get(i).isReleased());
+            assertTrue(sets.get(i).isReleased());
+        }
+
+        // also when the mapper fails
+        read.clear();
+        batch = executor.execQuery(hosts("a"), "SELECT * FROM Win32_Service", new ObjectMapper<String>() {
+            @Override
+            public String map(SWbemObject object) throws WMIException {
+                read.add(object);
+                throw new WMIException(0x80004005, "mapper failed");
+            }
+        });
+        result = batch.awaitAll().get(0);
+        assertTrue(result.getError() instanceof WMIException);
+        assertEquals(1, read.size());
+        assertTrue(read.get(0).isReleased());
+        waitForIdle(executor);
+        executor.close();
+    }
+
+    private FanOutExecutor newExecutor(int maxConcurrency, int maxPerHost, long hostTimeoutMs) {
+        FanOutExecutor executor = new FanOutExecutor(pool, maxConcurrency, maxPerHost, hostTimeoutMs);
+        executor.setExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                threads.incrementAndGet();
+                new Thread(command).start();
+            }
+        });
+        return executor;
+    }
+
+    private static List<PoolKey> hosts(String... servers) {
+        List<PoolKey> hosts = new ArrayList<PoolKey>();
+        for(String server : servers) {
+            hosts.add(new PoolKey(server, null, "user", "password"));
+        }
+        return hosts;
+    }
+
+    private static void waitForIdle(FanOutExecutor executor) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executor.getActiveHosts() > 0) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+}
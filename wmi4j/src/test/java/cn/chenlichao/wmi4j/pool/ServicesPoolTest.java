@@ -0,0 +1,233 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.chenlichao.wmi4j.pool;
+
+import cn.chenlichao.wmi4j.SWbemServices;
+import cn.chenlichao.wmi4j.WMIException;
+import cn.chenlichao.wmi4j.WMIScope;
+import cn.chenlichao.wmi4j.fake.FakeWmiProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ServicesPoolTest {
+
+    private static final PoolKey KEY = new PoolKey("server", null, "user", "password");
+
+    private final FakeWmiProvider provider = new FakeWmiProvider();
+    private final List<FakeConnection> connections = new ArrayList<FakeConnection>();
+    private ServicesPool pool;
+
+    @Before
+    public void setUp() {
+        pool = newPool(new PoolConfig());
+    }
+
+    @After
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    public void testBorrowAndReturn() throws Exception {
+        PooledServices first = pool.borrow(KEY);
+        SWbemServices services = first.getServices();
+        assertEquals(1, pool.getStatistics().getActive());
+        first.close();
+        first.close();
+        assertEquals(1, pool.getStatistics().getIdle());
+
+        PooledServices second = pool.borrow(KEY);
+        assertSame(services, second.getServices());
+        PooledServices third = pool.borrow(KEY);
+        assertNotSame(services, third.getServices());
+        second.close();
+        third.close();
+        assertEquals(2, connections.size());
+        assertEquals(2, pool.getStatistics().getIdle());
+        assertEquals(3, pool.getStatistics().getBorrowed());
+    }
+
+    @Test
+    public void testNamespaceIsNormalized() throws Exception {
+        assertEquals(KEY, new PoolKey("SERVER", "root\\cimv2", "user", "password"));
+        assertEquals(KEY, new PoolKey("server", "ROOT/CIMV2", "user", "password"));
+        assertEquals(KEY.hashCode(), new PoolKey("server", "\\root\\cimv2\\", "user", "password").hashCode());
+        assertNotEquals(KEY, new PoolKey("server", "root\\default", "user", "password"));
+        assertNotEquals(KEY, new PoolKey("server", null, "user", "wrong"));
+
+        pool.borrow(KEY).close();
+        pool.borrow("server", "user", "password").close();
+        pool.borrow(new PoolKey("server", "root/cimv2", "user", "password")).close();
+        assertEquals(1, connections.size());
+        assertEquals(1, pool.getStatistics().getKeys());
+    }
+
+    @Test
+    public void testValidateOnBorrow() throws Exception {
+        PooledServices pooled = pool.borrow(KEY);
+        pooled.close();
+        connections.get(0).connected = false;
+
+        pooled = pool.borrow(KEY);
+        assertEquals(2, connections.size());
+        assertSame(connections.get(1).services, pooled.getServices());
+        assertTrue(connections.get(0).disconnected);
+        assertEquals(1, pool.getStatistics().getValidationFailures());
+        pooled.close();
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        PooledServices pooled = pool.borrow(KEY);
+        pooled.invalidate();
+        pooled.close();
+        assertTrue(connections.get(0).disconnected);
+        assertEquals(0, pool.getStatistics().getIdle());
+        assertEquals(1, pool.getStatistics().getDestroyed());
+    }
+
+    @Test
+    public void testEvict() throws Exception {
+        pool.close();
+        PoolConfig config = new PoolConfig();
+        config.setEvictionIntervalMs(0);
+        config.setIdleTimeoutMs(50);
+        pool = newPool(config);
+
+        PooledServices first = pool.borrow(KEY);
+        PooledServices second = pool.borrow(KEY);
+        first.close();
+        pool.evict();
+        assertEquals(1, pool.getStatistics().getIdle());
+
+        Thread.sleep(100);
+        pool.evict();
+        assertTrue(connections.get(0).disconnected);
+        assertEquals(1, pool.getStatistics().getEvicted());
+        assertEquals(0, pool.getStatistics().getIdle());
+        assertEquals(1, pool.getStatistics().getKeys());
+
+        second.close();
+        Thread.sleep(100);
+        pool.evict();
+        assertTrue(connections.get(1).disconnected);
+        assertEquals(0, pool.getStatistics().getKeys());
+    }
+
+    @Test
+    public void testMaxTotal() throws Exception {
+        pool.close();
+        PoolConfig config = new PoolConfig();
+        config.setMaxTotal(1);
+        config.setMaxWaitMs(50);
+        pool = newPool(config);
+
+        PooledServices pooled = pool.borrow(KEY);
+        try {
+            pool.borrow(KEY);
+            fail();
+        } catch (WMIException e) {
+            assertEquals(1, pool.getStatistics().getTimeouts());
+        }
+        pooled.close();
+        pool.borrow(KEY).close();
+        assertEquals(1, connections.size());
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        PooledServices idle = pool.borrow(KEY);
+        PooledServices borrowed = pool.borrow(KEY);
+        idle.close();
+        pool.close();
+        assertTrue(connections.get(0).disconnected);
+        assertFalse(connections.get(1).disconnected);
+
+        borrowed.close();
+        assertTrue(connections.get(1).disconnected);
+        try {
+            pool.borrow(KEY);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testConnectionOutlivesScope() throws Exception {
+        provider.loadMof("class Win32_Service\n{\n    [key] string Name;\n};\n"
+                + "instance of Win32_Service\n{\n    Name = \"Dnscache\";\n};\n");
+        SWbemServices services;
+        try (WMIScope scope = WMIScope.open()) {
+            PooledServices pooled = pool.borrow(KEY);
+            services = pooled.getServices();
+            assertEquals(0, scope.size());
+            pooled.close();
+        }
+        assertFalse(services.isReleased());
+        PooledServices pooled = pool.borrow(KEY);
+        assertSame(services, pooled.getServices());
+        assertEquals(1, services.instancesOf("Win32_Service").getCount());
+        pooled.close();
+        assertEquals(1, connections.size());
+    }
+
+    private ServicesPool newPool(PoolConfig config) {
+        return new ServicesPool(config, new ServicesConnector() {
+            @Override
+            public Connection connect(PoolKey key) {
+                FakeConnection connection = new FakeConnection(provider.connect());
+                connections.add(connection);
+                return connection;
+            }
+        });
+    }
+
+    private static class FakeConnection implements ServicesConnector.Connection {
+        final SWbemServices services;
+        volatile boolean connected = true;
+        volatile boolean disconnected;
+
+        FakeConnection(SWbemServices services) {
+            this.services = services;
+        }
+
+        @Override
+        public SWbemServices getServices() {
+            return services;
+        }
+
+        @Override
+        public boolean isConnected() {
+            return connected;
+        }
+
+        @Override
+        public void disconnect() {
+            disconnected = true;
+        }
+    }
+}
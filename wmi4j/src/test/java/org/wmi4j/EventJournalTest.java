@@ -0,0 +1,250 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wmi4j;
+
+import cn.chenlichao.wmi4j.SWbemObject;
+import cn.chenlichao.wmi4j.SWbemObjectSnapshot;
+import cn.chenlichao.wmi4j.SWbemServices;
+import cn.chenlichao.wmi4j.WMIException;
+import cn.chenlichao.wmi4j.events.EventListener;
+import cn.chenlichao.wmi4j.events.EventQueue;
+import cn.chenlichao.wmi4j.events.EventSubscription;
+import cn.chenlichao.wmi4j.events.EventSubscriptionEngine;
+import cn.chenlichao.wmi4j.events.OverflowPolicy;
+import cn.chenlichao.wmi4j.events.SubscriptionConfig;
+import cn.chenlichao.wmi4j.events.journal.EventJournal;
+import cn.chenlichao.wmi4j.events.journal.JournalConfig;
+import cn.chenlichao.wmi4j.events.journal.JournalReader;
+import cn.chenlichao.wmi4j.events.journal.JournalRecord;
+import cn.chenlichao.wmi4j.events.journal.JournalingEventListener;
+import cn.chenlichao.wmi4j.fake.FakeWmiProvider;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+public class EventJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static SWbemObjectSnapshot event(int i) {
+        Map<String, Object> properties = new LinkedHashMap<String, Object>();
+        properties.put("Name", "Service" + i);
+        properties.put("State", i % 2 == 0 ? "Running" : null);
+        properties.put("Started", i % 3 == 0);
+        properties.put("ProcessId", i);
+        properties.put("TIME_CREATED", new BigInteger("133000000000000000").add(BigInteger.valueOf(i)));
+        properties.put("Load", i / 4.0);
+        properties.put("Dependencies", Arrays.asList("RpcSs", "Service" + (i - 1)));
+        return SWbemObjectSnapshot.of("Win32_Service", properties);
+    }
+
+    private static JournalConfig smallSegments() {
+        JournalConfig config = new JournalConfig();
+        config.setSegmentSize(4096);
+        config.setFlushIntervalMs(0);
+        return config;
+    }
+
+    @Test
+    public void testAppendAndRecover() throws Exception {
+        File directory = folder.newFolder("journal");
+        EventJournal journal = new EventJournal(directory, smallSegments());
+        for(int i = 0; i < 100; i++) {
+            assertEquals(i, journal.append("query", event(i)));
+        }
+        assertTrue(journal.getSegmentCount() > 1);
+
+        JournalReader reader = journal.reader(0);
+        for(int i = 0; i < 60; i++) {
+            JournalRecord record = reader.next();
+            assertEquals(i, record.getOffset());
+            assertEquals("query", record.getSource());
+            assertEquals(event(i).getClassName(), record.getEvent().getClassName());
+            assertEquals(event(i).getProperties(), record.getEvent().getProperties());
+        }
+        journal.commit("collector", reader.getPosition());
+        journal.close();
+
+        journal = new EventJournal(directory, smallSegments());
+        assertEquals(100, journal.getNextOffset());
+        assertEquals(60, journal.getCommittedOffset("collector"));
+        assertEquals(-1, journal.getCommittedOffset("other"));
+        // the names written before the restart are known to the records after it
+        journal.append(null, event(100));
+        reader = journal.reader("collector");
+        JournalRecord record = null;
+        int read = 0;
+        JournalRecord next;
+        while((next = reader.next()) != null) {
+            record = next;
+            read++;
+        }
+        assertEquals(41, read);
+        assertEquals(100, record.getOffset());
+        assertNull(record.getSource());
+        assertEquals(event(100).getProperties(), record.getEvent().getProperties());
+        assertNull(reader.next());
+
+        // records appended after the reader caught up
+        journal.append("query", event(101));
+        assertEquals(101, reader.next().getOffset());
+        reader.seek(5);
+        assertEquals(5, reader.next().getOffset());
+        journal.close();
+    }
+
+    @Test
+    public void testRetention() throws Exception {
+        JournalConfig config = smallSegments();
+        config.setMaxSegments(2);
+        EventJournal journal = new EventJournal(folder.newFolder("journal"), config);
+        try {
+            for(int i = 0; i < 200; i++) {
+                journal.append("query", event(i));
+            }
+            assertEquals(2, journal.getSegmentCount());
+            long first = journal.getFirstOffset();
+            assertTrue(first > 0);
+            JournalReader reader = journal.reader(0);
+            assertEquals(first, reader.next().getOffset());
+            assertEquals(first, reader.getSkipped());
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void testTornRecord() throws Exception {
+        File directory = folder.newFolder("journal");
+        EventJournal journal = new EventJournal(directory, smallSegments());
+        journal.append("query", event(0));
+        journal.append("query", event(1));
+        journal.close();
+
+        // a record whose payload did not reach the disk
+        File segment = new File(directory, String.format("%020d.wmj", 0));
+        RandomAccessFile raf = new RandomAccessFile(segment, "rw");
+        try {
+            int position = 32;
+            for(int i = 0; i < 2; i++) {
+                raf.seek(position);
+                position += 8 + raf.readInt();
+            }
+            raf.seek(position);
+            raf.writeInt(100);
+            raf.writeInt(12345);
+            raf.write(new byte[]{1, 2, 3});
+        } finally {
+            raf.close();
+        }
+
+        journal = new EventJournal(directory, smallSegments());
+        try {
+            assertEquals(2, journal.getNextOffset());
+            assertEquals(2, journal.append("query", event(2)));
+            JournalReader reader = journal.reader(0);
+            assertEquals(0, reader.next().getOffset());
+            assertEquals(1, reader.next().getOffset());
+            assertEquals(event(2).getProperties(), reader.next().getEvent().getProperties());
+            assertNull(reader.next());
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void testJournalingListener() throws Exception {
+        String query = "SELECT * FROM __InstanceModificationEvent WITHIN 1 WHERE TargetInstance ISA 'Win32_Service'";
+        FakeWmiProvider provider = new FakeWmiProvider();
+        provider.loadMof("class Win32_Service\n{\n    [key] string Name;\n    string State;\n};\n"
+                + "instance of Win32_Service { Name = \"AppMgmt\"; State = \"Stopped\"; };\n");
+        SWbemServices services = provider.connect();
+        EventSubscriptionEngine engine = new EventSubscriptionEngine(1);
+        EventJournal journal = new EventJournal(folder.newFolder("journal"));
+        try {
+            SubscriptionConfig config = new SubscriptionConfig();
+            config.setPollIntervalMs(10);
+            // journaled and passed on by the executor, not by the polling thread
+            final List<String> threads = Collections.synchronizedList(new ArrayList<String>());
+            final List<SWbemObject> events = Collections.synchronizedList(new ArrayList<SWbemObject>());
+            Executor executor = new Executor() {
+                @Override
+                public void execute(Runnable command) {
+                    new Thread(command, "journal-test").start();
+                }
+            };
+            JournalingEventListener listener = new JournalingEventListener(journal, new EventListener() {
+                @Override
+                public void onEvents(EventSubscription subscription, List<SWbemObject> received) {
+                    threads.add(Thread.currentThread().getName());
+                    events.addAll(received);
+                }
+
+                @Override
+                public void onError(EventSubscription subscription, WMIException e) {
+                }
+            }, new EventQueue(16, OverflowPolicy.BLOCK), executor);
+            engine.subscribe(services, query, listener, config);
+            Thread.sleep(100);
+            provider.updateInstance("Win32_Service.Name=\"AppMgmt\"", Collections.singletonMap("State", "A"));
+            provider.updateInstance("Win32_Service.Name=\"AppMgmt\"", Collections.singletonMap("State", "B"));
+            long deadline = System.currentTimeMillis() + 5000;
+            while(listener.getAppended() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, listener.getAppended());
+            assertEquals(0, listener.getFailed());
+            deadline = System.currentTimeMillis() + 5000;
+            while(events.size() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, events.size());
+            for(String thread : threads) {
+                assertEquals("journal-test", thread);
+            }
+
+            JournalReader reader = journal.reader("collector");
+            JournalRecord record = reader.next();
+            assertEquals(query, record.getSource());
+            assertEquals("__InstanceModificationEvent", record.getEvent().getClassName());
+            assertEquals("A", record.getEvent().getObject("TargetInstance").getString("State"));
+            assertEquals("B", reader.next().getEvent().getObject("TargetInstance").getString("State"));
+            journal.commit("collector", reader.getPosition());
+            assertEquals(2, journal.getCommittedOffset("collector"));
+        } finally {
+            engine.close();
+            journal.close();
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wmi4j;
+
+import cn.chenlichao.wmi4j.SWbemObject;
+import cn.chenlichao.wmi4j.SWbemServices;
+import cn.chenlichao.wmi4j.WMIException;
+import cn.chenlichao.wmi4j.events.EventKeyExtractor;
+import cn.chenlichao.wmi4j.events.EventPublisher;
+import cn.chenlichao.wmi4j.events.EventQueue;
+import cn.chenlichao.wmi4j.events.EventSubscriptionEngine;
+import cn.chenlichao.wmi4j.events.OverflowPolicy;
+import cn.chenlichao.wmi4j.events.SubscriptionConfig;
+import cn.chenlichao.wmi4j.fake.FakeWmiProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class EventQueueTest {
+
+    private FakeWmiProvider provider;
+    private SWbemServices services;
+    private List<SWbemObject> objects;
+
+    @Before
+    public void setUp() throws WMIException {
+        provider = new FakeWmiProvider();
+        provider.loadMof("class Win32_Service\n{\n    [key] string Name;\n    string State;\n};\n"
+                + "instance of Win32_Service { Name = \"AppMgmt\"; State = \"Stopped\"; };\n");
+        services = provider.connect();
+        objects = newEvents(6);
+    }
+
+    private List<SWbemObject> newEvents(int count) throws WMIException {
+        List<SWbemObject> events = new ArrayList<SWbemObject>();
+        for(int i = 0; i < count; i++) {
+            events.add(services.get("Win32_Service.Name=\"AppMgmt\""));
+        }
+        return events;
+    }
+
+    @Test
+    public void testPolicies() throws WMIException {
+        EventQueue newest = new EventQueue(3, OverflowPolicy.DROP_NEWEST);
+        assertEquals(4, newest.getCapacity());
+        for(SWbemObject object : objects) {
+            newest.offer(object);
+        }
+        assertEquals(4, newest.getDepth());
+        assertEquals(2, newest.getDropped());
+        assertFalse(objects.get(3).isReleased());
+        assertTrue(objects.get(4).isReleased());
+        assertTrue(objects.get(5).isReleased());
+        assertSame(objects.get(0), newest.poll());
+
+        objects = newEvents(6);
+        EventQueue oldest = new EventQueue(4, OverflowPolicy.DROP_OLDEST);
+        for(SWbemObject object : objects) {
+            assertTrue(oldest.offer(object));
+        }
+        assertEquals(2, oldest.getDropped());
+        assertTrue(objects.get(0).isReleased());
+        assertTrue(objects.get(1).isReleased());
+        assertEquals(objects.subList(2, 6), oldest.drain(10));
+        assertFalse(objects.get(2).isReleased());
+        assertTrue(oldest.isEmpty());
+        assertEquals(4, oldest.getMaxDepth());
+
+        oldest.close();
+        SWbemObject late = services.get("Win32_Service.Name=\"AppMgmt\"");
+        assertFalse(oldest.offer(late));
+        assertTrue(late.isReleased());
+    }
+
+    @Test
+    public void testCoalescing() throws WMIException {
+        // keys a, b, a, b, c, a
+        final Map<SWbemObject, String> keys = new IdentityHashMap<SWbemObject, String>();
+        String[] names = {"a", "b", "a", "b", "c", "a"};
+        for(int i = 0; i < names.length; i++) {
+            keys.put(objects.get(i), names[i]);
+        }
+        final AtomicInteger reads = new AtomicInteger();
+        EventQueue coalescing = new EventQueue(4, OverflowPolicy.COALESCE, new EventKeyExtractor() {
+            @Override
+            public String key(SWbemObject event) {
+                reads.incrementAndGet();
+                return keys.get(event);
+            }
+        });
+        for(int i = 0; i < 4; i++) {
+            coalescing.offer(objects.get(i));
+        }
+        assertEquals("no key is read while there is room", 0, reads.get());
+
+        // c is new and drops the oldest a, the last a replaces the other a
+        coalescing.offer(objects.get(4));
+        coalescing.offer(objects.get(5));
+        assertEquals(6, reads.get());
+        assertEquals(1, coalescing.getDropped());
+        assertEquals(1, coalescing.getCoalesced());
+        assertTrue(objects.get(0).isReleased());
+        assertTrue(objects.get(2).isReleased());
+        assertEquals(4, coalescing.getDepth());
+        assertSame(objects.get(1), coalescing.poll());
+        assertSame(objects.get(5), coalescing.poll());
+
+        // a new event of a taken key is queued again, and replaced when full
+        List<SWbemObject> more = newEvents(3);
+        keys.put(more.get(0), "a");
+        keys.put(more.get(1), "d");
+        keys.put(more.get(2), "a");
+        for(SWbemObject object : more) {
+            assertTrue(coalescing.offer(object));
+        }
+        assertEquals(8, reads.get());
+        assertEquals(2, coalescing.getCoalesced());
+        assertTrue(more.get(0).isReleased());
+        assertEquals(Arrays.asList(objects.get(3), objects.get(4), more.get(2), more.get(1)), coalescing.drain(10));
+        assertNull(coalescing.poll());
+    }
+
+    @Test
+    public void testConcurrentBlocking() throws Exception {
+        final EventQueue queue = new EventQueue(8, OverflowPolicy.BLOCK);
+        final int perProducer = 5000;
+        final AtomicInteger consumed = new AtomicInteger();
+        List<Thread> threads = new ArrayList<Thread>();
+        for(int p = 0; p < 3; p++) {
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    for(int i = 0; i < perProducer; i++) {
+                        assertTrue(queue.offer(objects.get(i % objects.size())));
+                    }
+                }
+            });
+        }
+        for(int c = 0; c < 2; c++) {
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    while(consumed.get() < 3 * perProducer) {
+                        if(queue.poll() != null) {
+                            consumed.incrementAndGet();
+                        }
+                    }
+                }
+            });
+        }
+        for(Thread thread : threads) {
+            thread.start();
+        }
+        for(Thread thread : threads) {
+            thread.join(10000);
+        }
+        assertEquals(3 * perProducer, consumed.get());
+        assertEquals(0, queue.getDropped());
+        assertTrue(queue.getMaxDepth() <= 8);
+    }
+
+    @Test
+    public void testPublisher() throws Exception {
+        EventSubscriptionEngine engine = new EventSubscriptionEngine(1);
+        try {
+            SubscriptionConfig config = new SubscriptionConfig();
+            config.setPollIntervalMs(10);
+            final EventPublisher publisher = new EventPublisher(new EventQueue(16, OverflowPolicy.DROP_OLDEST));
+            engine.subscribe(services, "SELECT * FROM __InstanceModificationEvent WITHIN 1"
+                    + " WHERE TargetInstance ISA 'Win32_Service'", publisher, config);
+
+            final List<SWbemObject> received = Collections.synchronizedList(new ArrayList<SWbemObject>());
+            final CountDownLatch firstTwo = new CountDownLatch(2);
+            final CountDownLatch completed = new CountDownLatch(1);
+            final Subscription[] subscription = new Subscription[1];
+            publisher.subscribe(new Subscriber<SWbemObject>() {
+                @Override
+                public void onSubscribe(Subscription s) {
+                    subscription[0] = s;
+                    s.request(2);
+                }
+
+                @Override
+                public void onNext(SWbemObject event) {
+                    received.add(event);
+                    firstTwo.countDown();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                }
+
+                @Override
+                public void onComplete() {
+                    completed.countDown();
+                }
+            });
+            for(int i = 0; i < 5; i++) {
+                provider.updateInstance("Win32_Service.Name=\"AppMgmt\"", Collections.singletonMap("State", "S" + i));
+            }
+            assertTrue(firstTwo.await(5, TimeUnit.SECONDS));
+            long deadline = System.currentTimeMillis() + 5000;
+            while(publisher.getQueue().getDepth() < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, received.size());
+            assertEquals(3, publisher.getQueue().getDepth());
+
+            publisher.complete();
+            subscription[0].request(Long.MAX_VALUE);
+            assertTrue(completed.await(5, TimeUnit.SECONDS));
+            assertEquals(5, received.size());
+            assertEquals("S4", received.get(4).getPropertyByName("TargetInstance").getSWbemObjectValue()
+                    .getPropertyByName("State").getStringValue());
+        } finally {
+            engine.close();
+        }
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wmi4j;
+
+import cn.chenlichao.wmi4j.SWbemObject;
+import cn.chenlichao.wmi4j.SWbemServices;
+import cn.chenlichao.wmi4j.WMIException;
+import cn.chenlichao.wmi4j.WMIScope;
+import cn.chenlichao.wmi4j.events.CoalescedEvent;
+import cn.chenlichao.wmi4j.events.CoalescedEventListener;
+import cn.chenlichao.wmi4j.events.CoalescingEventListener;
+import cn.chenlichao.wmi4j.events.EventListener;
+import cn.chenlichao.wmi4j.events.EventMultiplexer;
+import cn.chenlichao.wmi4j.events.EventSubscription;
+import cn.chenlichao.wmi4j.events.EventSubscriptionEngine;
+import cn.chenlichao.wmi4j.events.MultiplexedSubscription;
+import cn.chenlichao.wmi4j.events.SubscriptionConfig;
+import cn.chenlichao.wmi4j.events.SubscriptionStatistics;
+import cn.chenlichao.wmi4j.fake.FakeWmiProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class EventSubscriptionTest {
+
+    private static final String QUERY = "SELECT * FROM __InstanceModificationEvent WITHIN 1"
+            + " WHERE TargetInstance ISA 'Win32_Service'";
+
+    private FakeWmiProvider provider;
+    private SWbemServices services;
+    private EventSubscriptionEngine engine;
+
+    @Before
+    public void setUp() {
+        provider = new FakeWmiProvider();
+        provider.loadMof("class Win32_Service\n{\n    [key] string Name;\n    string State;\n};\n"
+                + "instance of Win32_Service { Name = \"AppMgmt\"; State = \"Stopped\"; };\n");
+        services = provider.connect();
+        engine = new EventSubscriptionEngine(2);
+    }
+
+    @After
+    public void tearDown() {
+        engine.close();
+    }
+
+    private static class Recorder implements EventListener {
+
+        final List<Integer> batches = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<SWbemObject> objects = Collections.synchronizedList(new ArrayList<SWbemObject>());
+        final CountDownLatch events;
+        final CountDownLatch error = new CountDownLatch(1);
+        volatile WMIException failure;
+
+        Recorder(int expected) {
+            events = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void onEvents(EventSubscription subscription, List<SWbemObject> received) {
+            batches.add(received.size());
+            objects.addAll(received);
+            for(int i = 0; i < received.size(); i++) {
+                events.countDown();
+            }
+        }
+
+        @Override
+        public void onError(EventSubscription subscription, WMIException e) {
+            failure = e;
+            error.countDown();
+        }
+    }
+
+    @Test
+    public void testDelivery() throws Exception {
+        for(int i = 0; i < 10; i++) {
+            provider.updateInstance("Win32_Service.Name=\"AppMgmt\"", Collections.singletonMap("State", "S" + i));
+        }
+        SubscriptionConfig config = new SubscriptionConfig();
+        config.setMaxBatchSize(4);
+        config.setPollIntervalMs(20);
+        config.setMeasureLag(true);
+        Recorder recorder = new Recorder(2);
+        EventSubscription subscription = engine.subscribe(services, QUERY, recorder, config);
+        assertEquals(1, engine.getSubscriptions().size());
+
+        // events raised before the query are not delivered
+        Thread.sleep(100);
+        provider.updateInstance("Win32_Service.Name=\"AppMgmt\"", Collections.singletonMap("State", "A"));
+        provider.updateInstance("Win32_Service.Name=\"AppMgmt\"", Collections.singletonMap("State", "B"));
+        assertTrue(recorder.events.await(5, TimeUnit.SECONDS));
+        SubscriptionStatistics statistics = subscription.getStatistics();
+        assertEquals(2, statistics.getReceived());
+        assertTrue(statistics.getTimeouts() > 0);
+        assertEquals(2, statistics.getLagCount());
+        assertTrue(statistics.getLagMaxMs() < 5000);
+        assertNull(recorder.failure);
+
+        recorder = new Recorder(10);
+        subscription.cancel();
+        subscription = engine.subscribe(services, QUERY, recorder, config);
+        for(int i = 0; i < 10; i++) {
+            provider.updateInstance("Win32_Service.Name=\"AppMgmt\"", Collections.singletonMap("State", "C" + i));
+        }
+        assertTrue(recorder.events.await(5, TimeUnit.SECONDS));
+        assertTrue(recorder.batches.size() >= 3);
+        for(int size : recorder.batches) {
+            assertTrue(size <= 4);
+        }
+
+        subscription.cancel();
+        assertEquals(EventSubscription.State.CANCELLED, subscription.getState());
+        assertTrue(engine.getSubscriptions().isEmpty());
+    }
+
+    @Test
+    public void testSubscriptionOutlivesScope() throws Exception {
+        SubscriptionConfig config = new SubscriptionConfig();
+        config.setPollIntervalMs(20);
+        Recorder recorder = new Recorder(1);
+        EventSubscription subscription;
+        try (WMIScope scope = WMIScope.open()) {
+            subscription = engine.subscribe(services, QUERY, recorder, config);
+            assertEquals(0, scope.size());
+        }
+        provider.updateInstance("Win32_Service.Name=\"AppMgmt\"", Collections.singletonMap("State", "A"));
+        assertTrue(recorder.events.await(5, TimeUnit.SECONDS));
+        assertNull(recorder.failure);
+        subscription.cancel();
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        SubscriptionConfig config = new SubscriptionConfig();
+        config.setPollIntervalMs(10);
+        Recorder recorder = new Recorder(1);
+        EventSubscription subscription = engine.subscribe(services, QUERY, recorder, config);
+        provider.cancelSubscriptions();
+        assertTrue(recorder.error.await(5, TimeUnit.SECONDS));
+        assertEquals(EventSubscription.State.FAILED, subscription.getState());
+        assertSame(recorder.failure, subscription.getFailure());
+        assertTrue(engine.getSubscriptions().isEmpty());
+    }
+
+    @Test
+    public void testMultiplexer() throws Exception {
+        provider.loadMof("class CIM_Service\n{\n    [key] string Name;\n};\n"
+                + "class Win32_BaseService : CIM_Service\n{\n    string State;\n};\n"
+                + "class Win32_Process\n{\n    [key] string Handle;\n};\n");
+        SubscriptionConfig config = new SubscriptionConfig();
+        config.setPollIntervalMs(10);
+        EventMultiplexer multiplexer = new EventMultiplexer(engine, services, config);
+        String creation = "SELECT * FROM __InstanceCreationEvent WITHIN 1 WHERE TargetInstance ISA ";
+        Recorder processes = new Recorder(1);
+        Recorder cimServices = new Recorder(2);
+        Recorder baseServices = new Recorder(1);
+        Recorder deletions = new Recorder(1);
+        Recorder sameDeletions = new Recorder(1);
+        multiplexer.subscribe(creation + "'Win32_Process'", processes);
+        multiplexer.subscribe(creation + "'CIM_Service'", cimServices);
+        MultiplexedSubscription base = multiplexer.subscribe(creation + "\"Win32_BaseService\"", baseServices);
+        multiplexer.subscribe("SELECT * FROM __InstanceDeletionEvent WITHIN 1 WHERE TargetInstance.Name = 'a'",
+                deletions);
+        multiplexer.subscribe("SELECT  *  FROM __InstanceDeletionEvent WITHIN 1 WHERE TargetInstance.Name = 'a'",
+                sameDeletions);
+        assertEquals(5, multiplexer.getSubscriptionCount());
+        assertEquals(2, multiplexer.getServerSubscriptions().size());
+        // the replaced queries of the creation group are cancelled once drained
+        awaitSubscriptions(2);
+
+        provider.addInstance("Win32_Process", Collections.singletonMap("Handle", "4"));
+        provider.addInstance("Win32_BaseService", Collections.singletonMap("Name", "a"));
+        provider.addInstance("CIM_Service", Collections.singletonMap("Name", "b"));
+        provider.removeInstance("Win32_BaseService.Name=\"a\"");
+        assertTrue(processes.events.await(5, TimeUnit.SECONDS));
+        assertTrue(cimServices.events.await(5, TimeUnit.SECONDS));
+        assertTrue(baseServices.events.await(5, TimeUnit.SECONDS));
+        assertTrue(deletions.events.await(5, TimeUnit.SECONDS));
+        assertTrue(sameDeletions.events.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertEquals(1, sum(processes.batches));
+        assertEquals(2, sum(cimServices.batches));
+        assertEquals(1, sum(baseServices.batches));
+
+        // each subscription owns its own reference to a shared event
+        for(SWbemObject event : cimServices.objects) {
+            assertNotSame(baseServices.objects.get(0), event);
+        }
+        SWbemObject deleted = deletions.objects.get(0);
+        SWbemObject sameDeleted = sameDeletions.objects.get(0);
+        assertNotSame(deleted, sameDeleted);
+        deleted.close();
+        assertFalse(sameDeleted.isReleased());
+        assertEquals("__InstanceDeletionEvent", sameDeleted.snapshot().getClassName());
+
+        base.cancel();
+        assertEquals(4, multiplexer.getSubscriptionCount());
+        multiplexer.close();
+        assertTrue(engine.getSubscriptions().isEmpty());
+    }
+
+    @Test
+    public void testReplacedQueryIsDrained() throws Exception {
+        provider.loadMof("class Win32_Process\n{\n    [key] string Handle;\n};\n");
+        SubscriptionConfig config = new SubscriptionConfig();
+        config.setPollIntervalMs(60000);
+        EventMultiplexer multiplexer = new EventMultiplexer(engine, services, config);
+        String creation = "SELECT * FROM __InstanceCreationEvent WITHIN 1 WHERE TargetInstance ISA ";
+        Recorder processes = new Recorder(1);
+        multiplexer.subscribe(creation + "'Win32_Process'", processes);
+        EventSubscription first = multiplexer.getServerSubscriptions().get(0);
+        while (first.getStatistics().getPolls() == 0) {
+            Thread.sleep(5);
+        }
+        // queued by the first query, which does not poll again before the replacement
+        provider.addInstance("Win32_Process", Collections.singletonMap("Handle", "4"));
+        multiplexer.subscribe(creation + "'Win32_Service'", new Recorder(0));
+        assertNotSame(first, multiplexer.getServerSubscriptions().get(0));
+
+        assertTrue(processes.events.await(5, TimeUnit.SECONDS));
+        awaitSubscriptions(1);
+        assertEquals(EventSubscription.State.CANCELLED, first.getState());
+        assertEquals(1, first.getStatistics().getReceived());
+        multiplexer.close();
+        assertTrue(engine.getSubscriptions().isEmpty());
+    }
+
+    private void awaitSubscriptions(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (engine.getSubscriptions().size() != count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, engine.getSubscriptions().size());
+    }
+
+    private static int sum(List<Integer> sizes) {
+        int sum = 0;
+        synchronized (sizes) {
+            for(int size : sizes) {
+                sum += size;
+            }
+        }
+        return sum;
+    }
+
+    @Test
+    public void testCoalescing() throws Exception {
+        provider.addInstance("Win32_Service", Collections.singletonMap("Name", "Spooler"));
+        final BlockingQueue<List<CoalescedEvent>> windows = new LinkedBlockingQueue<List<CoalescedEvent>>();
+        CoalescingEventListener coalescing = new CoalescingEventListener(engine, 300, new CoalescedEventListener() {
+            @Override
+            public void onEvents(EventSubscription subscription, List<CoalescedEvent> events) {
+                windows.add(events);
+            }
+
+            @Override
+            public void onError(EventSubscription subscription, WMIException e) {
+            }
+        });
+        coalescing.setDropUnchanged(true);
+        SubscriptionConfig config = new SubscriptionConfig();
+        config.setPollIntervalMs(10);
+        final List<SWbemObject> received = Collections.synchronizedList(new ArrayList<SWbemObject>());
+        final CoalescingEventListener delegate = coalescing;
+        engine.subscribe(services, QUERY, new EventListener() {
+            @Override
+            public void onEvents(EventSubscription subscription, List<SWbemObject> events) {
+                received.addAll(events);
+                delegate.onEvents(subscription, events);
+            }
+
+            @Override
+            public void onError(EventSubscription subscription, WMIException e) {
+                delegate.onError(subscription, e);
+            }
+        }, config);
+
+        provider.updateInstance("Win32_Service.Name=\"AppMgmt\"", Collections.singletonMap("State", "A"));
+        provider.updateInstance("Win32_Service.Name=\"Spooler\"", Collections.singletonMap("State", "Running"));
+        provider.updateInstance("Win32_Service.Name=\"AppMgmt\"", Collections.singletonMap("State", "B"));
+        provider.updateInstance("Win32_Service.Name=\"AppMgmt\"", Collections.singletonMap("State", "C"));
+        List<CoalescedEvent> window = windows.poll(5, TimeUnit.SECONDS);
+        assertNotNull(window);
+        // a poll may split the updates across two windows
+        List<CoalescedEvent> next = windows.poll(500, TimeUnit.MILLISECONDS);
+        if(next != null) {
+            window = new ArrayList<CoalescedEvent>(window);
+            window.addAll(next);
+        }
+        CoalescedEvent appMgmt = null;
+        for(CoalescedEvent event : window) {
+            if(event.getKey().contains("AppMgmt")) {
+                appMgmt = event;
+            }
+        }
+        assertNotNull(appMgmt);
+        assertEquals("__InstanceModificationEvent", appMgmt.getEventClass());
+        assertEquals("C", appMgmt.getTargetInstance().getString("State"));
+        if(next == null) {
+            assertEquals(2, window.size());
+            assertEquals(3, appMgmt.getCount());
+            assertEquals("Stopped", appMgmt.getPreviousInstance().getString("State"));
+            assertEquals(1, appMgmt.getChanges().size());
+            assertEquals("State", appMgmt.getChanges().get(0).getName());
+            assertEquals("Stopped", appMgmt.getChanges().get(0).getOldValue());
+        }
+        assertEquals(4, coalescing.getReceived());
+        // only the forwarded events are left open
+        List<SWbemObject> forwarded = new ArrayList<SWbemObject>();
+        for(CoalescedEvent event : window) {
+            forwarded.add(event.getEvent());
+        }
+        for(SWbemObject event : received) {
+            assertEquals(!forwarded.contains(event), event.isReleased());
+        }
+
+        // back to the state before the window
+        provider.updateInstance("Win32_Service.Name=\"AppMgmt\"", Collections.singletonMap("State", "D"));
+        provider.updateInstance("Win32_Service.Name=\"AppMgmt\"", Collections.singletonMap("State", "C"));
+        long deadline = System.currentTimeMillis() + 5000;
+        while(coalescing.getReceived() < 6 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(400);
+        coalescing.flush();
+        window = windows.poll();
+        if(window != null) {
+            // split by a poll
+            assertEquals(1, window.size());
+            assertEquals(1, window.get(0).getCount());
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wmi4j;
+
+import cn.chenlichao.wmi4j.SWbemEventSource;
+import cn.chenlichao.wmi4j.SWbemObject;
+import cn.chenlichao.wmi4j.SWbemObjectSet;
+import cn.chenlichao.wmi4j.SWbemObjectSnapshot;
+import cn.chenlichao.wmi4j.SWbemServices;
+import cn.chenlichao.wmi4j.WMIException;
+import cn.chenlichao.wmi4j.WMIScope;
+import cn.chenlichao.wmi4j.WMIVariant;
+import cn.chenlichao.wmi4j.fake.FakeInstance;
+import cn.chenlichao.wmi4j.fake.FakeWmiProvider;
+import cn.chenlichao.wmi4j.fake.MethodHook;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class FakeWmiProviderTest {
+
+    private static final String MOF = "#pragma namespace(\"\\\\\\\\.\\\\root\\\\cimv2\")\n"
+            + "class Win32_Service\n{\n"
+            + "    [key] string Name;\n"
+            + "    string State;\n"
+            + "    uint32 ProcessId;\n"
+            + "    string Dependencies[];\n"
+            + "    [Implemented] uint32 StartService();\n"
+            + "};\n"
+            + "instance of Win32_Service { Name = \"AppMgmt\"; State = \"Stopped\"; ProcessId = 0; };\n"
+            + "instance of Win32_Service { Name = \"Spooler\"; State = \"Running\"; ProcessId = 1204;"
+            + " Dependencies = {\"RPCSS\", \"http\"}; };\n";
+
+    private FakeWmiProvider provider;
+    private SWbemServices services;
+
+    @Before
+    public void setUp() {
+        provider = new FakeWmiProvider();
+        provider.loadMof(MOF);
+        services = provider.connect();
+    }
+
+    @Test
+    public void testQuery() throws WMIException {
+        assertEquals(2, services.instancesOf("Win32_Service").getCount());
+        assertEquals(names(services.execQuery("SELECT * FROM Win32_Service WHERE State = 'running'")),
+                Collections.singletonList("Spooler"));
+        assertEquals(names(services.execQuery("SELECT Name FROM Win32_Service WHERE Name LIKE 'App%' OR ProcessId > 1000")),
+                Arrays.asList("AppMgmt", "Spooler"));
+        assertEquals(0, services.execQuery("SELECT * FROM Win32_Service WHERE NOT (ProcessId >= 0)").getCount());
+        try {
+            services.execQuery("SELECT * FROM Win32_Nothing");
+            fail();
+        } catch (WMIException e) {
+            assertEquals(FakeWmiProvider.WBEM_E_INVALID_CLASS, e.getErrorCode());
+        }
+    }
+
+    @Test
+    public void testStreams() throws WMIException {
+        Stream<SWbemObject> stream = services.execQueryStream("SELECT * FROM Win32_Service WHERE ProcessId > 0");
+        try {
+            assertEquals(Collections.singletonList("Spooler"), names(stream));
+        } finally {
+            stream.close();
+        }
+        stream = services.instancesOfStream("Win32_Service");
+        try {
+            assertEquals(1, stream.limit(1).count());
+        } finally {
+            stream.close();
+        }
+        try {
+            services.associatorsOfStream("Win32_Service.Name=\"Spooler\"");
+            fail();
+        } catch (WMIException e) {
+            assertEquals(FakeWmiProvider.WBEM_E_NOT_SUPPORTED, e.getErrorCode());
+        }
+        try {
+            services.referencesToStream("Win32_Service.Name=\"Spooler\"");
+            fail();
+        } catch (WMIException e) {
+            assertEquals(FakeWmiProvider.WBEM_E_NOT_SUPPORTED, e.getErrorCode());
+        }
+    }
+
+    @Test
+    public void testGet() throws WMIException {
+        SWbemObject spooler = services.get("Win32_Service.Name=\"Spooler\"");
+        assertEquals(1204, spooler.getPropertyByName("ProcessId").getIntValue());
+        assertEquals("Win32_Service.Name=\"Spooler\"", spooler.getPath().getRelPath());
+        SWbemObjectSnapshot snapshot = spooler.snapshot();
+        assertEquals("Running", snapshot.getString("State"));
+        assertEquals(Arrays.asList("RPCSS", "http"), snapshot.get("Dependencies"));
+
+        spooler.setPropertyByName("State", new WMIVariant("Stopped"));
+        assertEquals("Running", provider.getInstance("Win32_Service.Name=\"Spooler\"").get("State"));
+        spooler.put();
+        assertEquals("Stopped", provider.getInstance("Win32_Service.Name=\"Spooler\"").get("State"));
+    }
+
+    @Test
+    public void testExecMethod() throws WMIException {
+        provider.setMethodHook("Win32_Service", "StartService", new MethodHook() {
+            @Override
+            public Map<String, Object> invoke(FakeInstance target, String method, Map<String, Object> inParameters) {
+                target.set("State", inParameters.containsKey("State") ? inParameters.get("State") : "Running");
+                Map<String, Object> out = new HashMap<String, Object>();
+                out.put("ReturnValue", 0);
+                return out;
+            }
+        });
+        SWbemObject out = services.execMethod("Win32_Service.Name=\"AppMgmt\"", "StartService");
+        assertEquals(0, out.getPropertyByName("ReturnValue").getIntValue());
+        assertEquals("Running", provider.getInstance("Win32_Service.Name=\"AppMgmt\"").get("State"));
+
+        SWbemObject inParameters = services.get("Win32_Service").getInParametersByMethodName("StartService");
+        inParameters.setPropertyByName("State", new WMIVariant("Start Pending"));
+        services.execMethod("Win32_Service.Name=\"Spooler\"", "StartService", inParameters);
+        assertEquals("Start Pending", provider.getInstance("Win32_Service.Name=\"Spooler\"").get("State"));
+    }
+
+    @Test
+    public void testEvents() throws WMIException {
+        SWbemEventSource events = services.execNotificationQuery(
+                "SELECT * FROM __InstanceModificationEvent WITHIN 1 WHERE TargetInstance ISA 'Win32_Service'"
+                        + " AND TargetInstance.State = 'Running'");
+        try {
+            events.nextEvent(10L);
+            fail();
+        } catch (WMIException e) {
+            assertEquals(FakeWmiProvider.WBEM_E_TIMED_OUT, e.getErrorCode());
+        }
+        provider.updateInstance("Win32_Service.Name=\"AppMgmt\"", Collections.singletonMap("State", "Paused"));
+        provider.updateInstance("Win32_Service.Name=\"AppMgmt\"", Collections.singletonMap("State", "Running"));
+        SWbemObject event = events.nextEvent(1000L);
+        assertEquals("Win32_Service.Name=\"AppMgmt\"",
+                event.getPropertyByName("TargetInstance").getSWbemObjectValue().getPath().getRelPath());
+        assertEquals("Paused", event.getPropertyByName("PreviousInstance").getSWbemObjectValue()
+                .getPropertyByName("State").getStringValue());
+    }
+
+    @Test
+    public void testFaults() throws WMIException {
+        provider.failNext("ExecQuery", 0x800706BA);
+        try {
+            services.execQuery("SELECT * FROM Win32_Service");
+            fail();
+        } catch (WMIException e) {
+            assertEquals(0x800706BA, e.getErrorCode());
+        }
+        assertEquals(2, services.execQuery("SELECT * FROM Win32_Service").getCount());
+    }
+
+    @Test
+    public void testJson() throws WMIException {
+        provider.loadJson("{\"classes\": [{\"name\": \"Win32_Share\", \"properties\": ["
+                + "{\"name\": \"Name\", \"type\": \"string\", \"key\": true}, {\"name\": \"MaximumAllowed\", \"type\": \"uint32\"}]}],"
+                + "\"instances\": [{\"class\": \"Win32_Share\", \"properties\": {\"Name\": \"C$\", \"MaximumAllowed\": 10}}]}");
+        assertEquals(10, services.get("Win32_Share.Name=\"C$\"").getPropertyByName("MaximumAllowed").getIntValue());
+    }
+
+    @Test
+    public void testAsync() throws Exception {
+        final AtomicInteger executed = new AtomicInteger();
+        Executor executor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                executed.incrementAndGet();
+                new Thread(command).start();
+            }
+        };
+        SWbemObject spooler;
+        SWbemObjectSet set;
+        try (WMIScope scope = WMIScope.open()) {
+            spooler = services.getAsync(executor, "Win32_Service.Name=\"Spooler\"").get(10, TimeUnit.SECONDS);
+            set = services.instancesOfAsync(executor, "Win32_Service").get(10, TimeUnit.SECONDS);
+            assertEquals(2, executed.get());
+            assertEquals(1204, spooler.getPropertyByName("ProcessId").getIntValue());
+            assertEquals(2, set.getCount());
+            assertTrue(scope.size() >= 2);
+        }
+        assertTrue(spooler.isReleased());
+        assertTrue(set.isReleased());
+
+        // A null named value set is not taken for the executor
+        try (WMIScope scope = WMIScope.open()) {
+            assertNotNull(services.getAsync("Win32_Service.Name=\"Spooler\"", null).get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(2, executed.get());
+
+        try {
+            services.getAsync(executor, "Win32_Service.Name=\"Nothing\"").get(10, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof WMIException);
+        }
+    }
+
+    private static List<String> names(SWbemObjectSet set) throws WMIException {
+        List<String> names = new ArrayList<String>();
+        Iterator<SWbemObject> it = set.iterator();
+        while (it.hasNext()) {
+            names.add(it.next().getPropertyByName("Name").getStringValue());
+        }
+        return names;
+    }
+
+    private static List<String> names(Stream<SWbemObject> stream) throws WMIException {
+        List<String> names = new ArrayList<String>();
+        Iterator<SWbemObject> it = stream.iterator();
+        while (it.hasNext()) {
+            names.add(it.next().getPropertyByName("Name").getStringValue());
+        }
+        return names;
+    }
+}
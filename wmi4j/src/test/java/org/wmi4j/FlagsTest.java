@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wmi4j;
+
+import cn.chenlichao.wmi4j.consts.Flags;
+import org.junit.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.Assert.*;
+
+public class FlagsTest {
+
+    @Test
+    public void testToInt() {
+        assertEquals(0, Flags.toInt((Flags.WbemFlag[]) null));
+        assertEquals(0, Flags.toInt());
+        assertEquals(0x30, Flags.toInt(Flags.ExecQueryFlag.wbemFlagForwardOnly, Flags.ExecQueryFlag.wbemFlagReturnImmediately));
+        // duplicated flags must not be added twice
+        assertEquals(0x20, Flags.toInt(Flags.ExecQueryFlag.wbemFlagForwardOnly, Flags.ExecQueryFlag.wbemFlagForwardOnly));
+        assertEquals(0x30, Flags.toInt(EnumSet.of(Flags.ExecQueryFlag.wbemFlagForwardOnly, Flags.ExecQueryFlag.wbemFlagReturnImmediately)));
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wmi4j;
+
+import cn.chenlichao.wmi4j.SWbemObject;
+import cn.chenlichao.wmi4j.SWbemObjectSet;
+import cn.chenlichao.wmi4j.SWbemProperty;
+import cn.chenlichao.wmi4j.SWbemServices;
+import cn.chenlichao.wmi4j.WMIException;
+import cn.chenlichao.wmi4j.WMIMetrics;
+import cn.chenlichao.wmi4j.fake.FakeWmiProvider;
+import cn.chenlichao.wmi4j.metrics.DefaultMetricsCollector;
+import cn.chenlichao.wmi4j.metrics.LatencyHistogram;
+import cn.chenlichao.wmi4j.metrics.OperationStatistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+
+import static org.junit.Assert.*;
+
+public class MetricsTest {
+
+    private DefaultMetricsCollector metrics;
+    private SWbemServices services;
+
+    @Before
+    public void setUp() {
+        FakeWmiProvider provider = new FakeWmiProvider();
+        provider.loadMof("class Win32_Service\n{\n    [key] string Name;\n    string State;\n};\n"
+                + "instance of Win32_Service { Name = \"AppMgmt\"; State = \"Stopped\"; };\n"
+                + "instance of Win32_Service { Name = \"Spooler\"; State = \"Running\"; };\n");
+        services = provider.connect();
+        metrics = new DefaultMetricsCollector();
+        WMIMetrics.setCollector(metrics);
+    }
+
+    @After
+    public void tearDown() {
+        WMIMetrics.setCollector(null);
+    }
+
+    private void readStates() throws WMIException {
+        Iterator<SWbemObject> it = services.execQuery("SELECT * FROM Win32_Service").iterator();
+        while(it.hasNext()) {
+            it.next().getPropertyByName("State");
+        }
+    }
+
+    @Test
+    public void testCalls() throws WMIException {
+        readStates();
+        metrics.reset();
+        WMIMetrics.Operation operation = WMIMetrics.operation("readStates");
+        readStates();
+        operation.close();
+
+        assertEquals(2, metrics.getCallStatistics(SWbemProperty.class, "Value").getCount());
+        assertTrue(metrics.getCallStatistics(SWbemObjectSet.class, "Next").getCount() > 0);
+        OperationStatistics getProperty = metrics.getOperationStatistics("SWbemObject.getPropertyByName");
+        assertEquals(2, getProperty.getCount());
+        assertEquals(3, getProperty.getRoundTrips().getMax());
+        // ExecQuery, the enumerator, and the two reads
+        assertTrue(metrics.getOperationStatistics("readStates").getRoundTrips().getMax() >= 8);
+        assertEquals(0, metrics.getInFlight());
+
+        try {
+            services.get("Win32_Service.Name=\"Nothing\"");
+            fail();
+        } catch (WMIException e) {
+            assertEquals(Long.valueOf(1), metrics.getErrorCounts().get(e.getErrorCode()));
+            assertEquals(1, metrics.getCallStatistics(SWbemServices.class, "Get").getErrors());
+        }
+    }
+
+    @Test
+    public void testHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for(int i = 1; i <= 100000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(100000, histogram.getCount());
+        assertEquals(100000, histogram.getMax());
+        assertEquals(50000, histogram.getValueAtPercentile(50), 50000 * 0.04);
+        assertEquals(99000, histogram.getValueAtPercentile(99), 99000 * 0.04);
+        assertEquals(1, histogram.getValueAtPercentile(0));
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.getMax());
+    }
+
+    @Test
+    public void testFlightRecorderEvents() throws WMIException, IOException {
+        WMIMetrics.setCollector(null);
+        File file = File.createTempFile("wmi4j", ".jfr");
+        Recording recording = new Recording();
+        try {
+            recording.enable("cn.chenlichao.wmi4j.DispatchCall").withoutThreshold();
+            recording.start();
+            readStates();
+            try {
+                services.get("Win32_Service.Name=\"Nothing\"");
+                fail();
+            } catch (WMIException e) {
+                // expected
+            }
+            recording.stop();
+            recording.dump(file.toPath());
+
+            int values = 0;
+            int failed = 0;
+            for(RecordedEvent event : RecordingFile.readAllEvents(file.toPath())) {
+                if("Value".equals(event.getString("member"))) {
+                    assertEquals(SWbemProperty.class.getName(), event.getClass("wrapperClass").getName());
+                    assertEquals(0, event.getInt("hresult"));
+                    values++;
+                } else if(event.getInt("hresult") != 0) {
+                    assertEquals("Get", event.getString("member"));
+                    failed++;
+                }
+            }
+            assertEquals(2, values);
+            assertEquals(1, failed);
+        } finally {
+            recording.close();
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wmi4j;
+
+import cn.chenlichao.wmi4j.ObjectPath;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ObjectPathTest {
+
+    @Test
+    public void testParseFullPath() {
+        ObjectPath path = ObjectPath.parse("\\\\HOST\\root\\cimv2:Win32_Service.Name=\"Dnscache\"");
+        assertEquals("HOST", path.getServer());
+        assertEquals("root\\cimv2", path.getNamespace());
+        assertEquals("Win32_Service", path.getClassName());
+        assertEquals("Dnscache", path.getKey("name"));
+        assertEquals("Win32_Service.Name=\"Dnscache\"", path.getRelPath());
+        assertFalse(path.isClass());
+    }
+
+    @Test
+    public void testParseForwardSlashes() {
+        ObjectPath path = ObjectPath.parse("//HOST/root/cimv2:Win32_Service");
+        assertEquals("root\\cimv2", path.getNamespace());
+        assertTrue(path.isClass());
+        assertEquals("\\\\HOST\\root\\cimv2:Win32_Service", path.toString());
+    }
+
+    @Test
+    public void testCompositeKeysAndEscaping() {
+        String text = "Win32_Directory.Name=\"C:\\\\Program Files\\\\a \\\"b\\\"\",Depth=3,Hidden=FALSE";
+        ObjectPath path = ObjectPath.parse(text);
+        assertEquals(3, path.getKeyCount());
+        assertEquals("C:\\Program Files\\a \"b\"", path.getKey("Name"));
+        assertEquals(3L, path.getKey("Depth"));
+        assertEquals(Boolean.FALSE, path.getKey("Hidden"));
+        assertEquals(text, path.toString());
+    }
+
+    @Test
+    public void testSingletonAndUnnamedKey() {
+        ObjectPath singleton = ObjectPath.parse("root\\cimv2:Win32_WMISetting=@");
+        assertTrue(singleton.isSingleton());
+        assertFalse(singleton.isClass());
+        assertEquals("root\\cimv2:Win32_WMISetting=@", singleton.toString());
+
+        ObjectPath disk = ObjectPath.parse("Win32_LogicalDisk=\"C:\"");
+        assertEquals("", disk.getKeyName(0));
+        assertEquals("C:", disk.getKeyValue(0));
+        assertEquals("Win32_LogicalDisk=\"C:\"", disk.toString());
+    }
+
+    @Test
+    public void testReferenceKey() {
+        ObjectPath service = ObjectPath.builder("Win32_Service").server("HOST").namespace("root/cimv2")
+                .key("Name", "Spooler").build();
+        ObjectPath assoc = ObjectPath.builder("Win32_DependentService")
+                .key("Antecedent", service).key("Dependent", service).build();
+        ObjectPath parsed = ObjectPath.parse(assoc.toString());
+        assertEquals(assoc, parsed);
+        assertEquals(service, ObjectPath.parse((String) parsed.getKey("Antecedent")));
+    }
+
+    @Test
+    public void testBuilderEqualsParsed() {
+        ObjectPath built = ObjectPath.builder("Win32_Process").key("Handle", 4).build();
+        assertEquals(ObjectPath.parse("win32_process.handle=4"), built);
+        assertEquals(built.hashCode(), ObjectPath.parse("win32_process.handle=4").hashCode());
+    }
+
+    @Test
+    public void testSingleQuotedKeys() {
+        ObjectPath path = ObjectPath.parse("root\\cimv2:Win32_Account.Domain='DOMAIN',Name='O\\'Brien \"x\"'");
+        assertEquals(2, path.getKeyCount());
+        assertEquals("DOMAIN", path.getKey("Domain"));
+        assertEquals("O'Brien \"x\"", path.getKey("Name"));
+        assertEquals(ObjectPath.parse("root\\cimv2:Win32_Account.Domain=\"DOMAIN\",Name=\"O'Brien \\\"x\\\"\""), path);
+        assertEquals(path, ObjectPath.parse(path.toString()));
+
+        ObjectPath disk = ObjectPath.parse("Win32_LogicalDisk='C:'");
+        assertNull(disk.getNamespace());
+        assertEquals("C:", disk.getKeyValue(0));
+    }
+
+    @Test
+    public void testSeparatorsInsideQuotes() {
+        ObjectPath path = ObjectPath.parse("Win32_Directory.Name=\"C:\\\\a.b,c=d\",Drive='x:.,='");
+        assertEquals(2, path.getKeyCount());
+        assertEquals("C:\\a.b,c=d", path.getKey("Name"));
+        assertEquals("x:.,=", path.getKey("Drive"));
+        assertNull(path.getNamespace());
+        assertEquals("Win32_Directory", path.getClassName());
+
+        ObjectPath file = ObjectPath.parse("\\\\HOST\\root\\cimv2:CIM_DataFile.Name='c:\\\\boot.ini'");
+        assertEquals("root\\cimv2", file.getNamespace());
+        assertEquals("c:\\boot.ini", file.getKey("Name"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnterminatedSingleQuote() {
+        ObjectPath.parse("Win32_Service.Name='Dnscache");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnterminatedQuote() {
+        ObjectPath.parse("Win32_Service.Name=\"Dnscache");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingNamespace() {
+        ObjectPath.parse("\\\\HOST");
+    }
+}
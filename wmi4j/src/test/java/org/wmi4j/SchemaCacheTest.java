@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wmi4j;
+
+import cn.chenlichao.wmi4j.SWbemObject;
+import cn.chenlichao.wmi4j.SWbemServices;
+import cn.chenlichao.wmi4j.SchemaCache;
+import cn.chenlichao.wmi4j.WMIException;
+import cn.chenlichao.wmi4j.WMIScope;
+import cn.chenlichao.wmi4j.WbemClassSchema;
+import cn.chenlichao.wmi4j.consts.WbemCimTypeEnum;
+import cn.chenlichao.wmi4j.fake.FakeWmiProvider;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SchemaCacheTest {
+
+    private static final String MOF = "class Win32_Service\n{\n"
+            + "    [key] string Name;\n"
+            + "    uint32 ProcessId;\n"
+            + "    string Dependencies[];\n"
+            + "    [Implemented] uint32 StartService();\n"
+            + "};\n"
+            + "instance of Win32_Service { Name = \"Spooler\"; ProcessId = 1204; };\n";
+
+    private SWbemServices services;
+    private SchemaCache cache;
+
+    @Before
+    public void setUp() {
+        FakeWmiProvider provider = new FakeWmiProvider();
+        provider.loadMof(MOF);
+        services = provider.connect();
+        cache = new SchemaCache(services, 0);
+    }
+
+    @Test
+    public void testSchema() throws WMIException {
+        WbemClassSchema schema = cache.getClassSchema("Win32_Service");
+        assertEquals("Win32_Service", schema.getClassName());
+        assertTrue(schema.getProperty("Name").isKey());
+        assertFalse(schema.getProperty("ProcessId").isKey());
+        assertNotNull(schema.getMethod("StartService"));
+
+        assertEquals(WbemCimTypeEnum.Uint32, cache.getCIMType("win32_service", "processid"));
+        assertTrue(cache.isArray("Win32_Service", "Dependencies"));
+        assertFalse(cache.isArray("Win32_Service", "Name"));
+        try {
+            cache.getCIMType("Win32_Service", "Nothing");
+            fail();
+        } catch (WMIException e) {
+            assertEquals(0x80041002, e.getErrorCode());
+        }
+        assertEquals(1, cache.getMisses());
+        assertEquals(4, cache.getHits());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testMethodWithoutParameters() throws WMIException {
+        assertNull(cache.spawnInParameters("Win32_Service", "StartService"));
+    }
+
+    @Test
+    public void testCachedObjectsOutliveScope() throws WMIException {
+        SWbemObject classObject;
+        try (WMIScope scope = WMIScope.open()) {
+            classObject = cache.getClassObject("Win32_Service");
+            assertEquals(0, scope.size());
+        }
+        assertFalse(classObject.isReleased());
+        assertSame(classObject, cache.getClassObject("Win32_Service"));
+        assertEquals("Win32_Service", classObject.getPath().getClazz());
+    }
+
+    @Test
+    public void testReleasedWhenRemoved() throws Exception {
+        SWbemObject classObject = cache.getClassObject("Win32_Service");
+        cache.invalidate("Win32_Service");
+        assertTrue(classObject.isReleased());
+
+        classObject = cache.getClassObject("Win32_Service");
+        cache.invalidateAll();
+        assertTrue(classObject.isReleased());
+
+        cache = new SchemaCache(services, 1);
+        classObject = cache.getClassObject("Win32_Service");
+        Thread.sleep(5);
+        assertNotSame(classObject, cache.getClassObject("Win32_Service"));
+        assertTrue(classObject.isReleased());
+
+        classObject = cache.getClassObject("Win32_Service");
+        cache.close();
+        assertTrue(cache.isClosed());
+        assertTrue(classObject.isReleased());
+        assertEquals(0, cache.size());
+        try {
+            cache.getClassObject("Win32_Service");
+            fail();
+        } catch (IllegalStateException e) {
+            // closed
+        }
+    }
+
+    @Test
+    public void testTtlAndInvalidate() throws Exception {
+        cache = new SchemaCache(services, 1);
+        cache.getClassSchema("Win32_Service");
+        Thread.sleep(5);
+        cache.getClassSchema("Win32_Service");
+        assertEquals(1, cache.getExpired());
+        assertEquals(2, cache.getMisses());
+
+        cache.invalidate("WIN32_SERVICE");
+        assertEquals(0, cache.size());
+        cache.getClassSchema("Win32_Service");
+        assertEquals(3, cache.getMisses());
+        try {
+            cache.getClassSchema("Win32_Nothing");
+            fail();
+        } catch (WMIException e) {
+            // not found
+        }
+    }
+}
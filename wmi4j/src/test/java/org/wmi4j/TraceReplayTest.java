@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wmi4j;
+
+import cn.chenlichao.wmi4j.SWbemObject;
+import cn.chenlichao.wmi4j.SWbemServices;
+import cn.chenlichao.wmi4j.WMIException;
+import cn.chenlichao.wmi4j.fake.FakeWmiProvider;
+import cn.chenlichao.wmi4j.fake.ReplayTransport;
+import cn.chenlichao.wmi4j.trace.TraceReader;
+import cn.chenlichao.wmi4j.trace.TraceRecord;
+import cn.chenlichao.wmi4j.trace.TraceRecorder;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TraceReplayTest {
+
+    private static final String MOF = "class Win32_Service\n{\n"
+            + "    [key] string Name;\n"
+            + "    string State;\n"
+            + "    uint32 ProcessId;\n"
+            + "    string Dependencies[];\n"
+            + "};\n"
+            + "instance of Win32_Service { Name = \"AppMgmt\"; State = \"Stopped\"; ProcessId = 0; };\n"
+            + "instance of Win32_Service { Name = \"Spooler\"; State = \"Running\"; ProcessId = 1204;"
+            + " Dependencies = {\"RPCSS\", \"http\"}; };\n";
+
+    /**
+     * One getPropertyByName per property and object, the N+1 pattern the traces are made for.
+     */
+    private static List<String> session(SWbemServices services) throws WMIException {
+        List<String> lines = new ArrayList<String>();
+        Iterator<SWbemObject> it = services.execQuery("SELECT * FROM Win32_Service").iterator();
+        while(it.hasNext()) {
+            SWbemObject service = it.next();
+            lines.add(service.getPropertyByName("Name").getStringValue() + " "
+                    + service.getPropertyByName("State").getStringValue() + " "
+                    + service.getPropertyByName("ProcessId").getIntValue() + " "
+                    + service.snapshot().get("Dependencies"));
+        }
+        try {
+            services.get("Win32_Service.Name=\"Nothing\"");
+            fail();
+        } catch (WMIException e) {
+            lines.add(Integer.toHexString(e.getErrorCode()));
+        }
+        return lines;
+    }
+
+    private static byte[] record(List<String> lines) throws IOException, WMIException {
+        FakeWmiProvider provider = new FakeWmiProvider();
+        provider.loadMof(MOF);
+        ByteArrayOutputStream trace = new ByteArrayOutputStream();
+        TraceRecorder recorder = new TraceRecorder(trace);
+        provider.setTraceRecorder(recorder);
+        lines.addAll(session(provider.connect()));
+        assertTrue(recorder.getRecordCount() > 0);
+        recorder.close();
+        return trace.toByteArray();
+    }
+
+    @Test
+    public void testReplay() throws IOException, WMIException {
+        List<String> recorded = new ArrayList<String>();
+        byte[] trace = record(recorded);
+        assertEquals("Spooler Running 1204 [RPCSS, http]", recorded.get(1));
+
+        ReplayTransport replay = new ReplayTransport(new ByteArrayInputStream(trace));
+        replay.setSpeed(ReplayTransport.MAX_SPEED);
+        assertEquals(recorded, session(replay.connect()));
+        assertEquals(0, replay.getRemainingCalls());
+        try {
+            replay.connect();
+            fail();
+        } catch (IllegalStateException e) {
+            // only one connection was recorded
+        }
+
+        int next = 0;
+        TraceReader reader = new TraceReader(new ByteArrayInputStream(trace), null);
+        TraceRecord record;
+        while((record = reader.read()) != null) {
+            if(record.getType() == TraceRecord.Type.NEXT) {
+                next++;
+            }
+        }
+        assertTrue(next > 0);
+    }
+
+    @Test
+    public void testDiverged() throws IOException, WMIException {
+        byte[] trace = record(new ArrayList<String>());
+        SWbemServices services = new ReplayTransport(new ByteArrayInputStream(trace)).connect();
+        try {
+            services.instancesOf("Win32_Service");
+            fail();
+        } catch (WMIException e) {
+            assertEquals(ReplayTransport.E_UNEXPECTED, e.getErrorCode());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 The wmi4j Authors
+ *
+ * Licensed to the Apache  Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wmi4j;
+
+import cn.chenlichao.wmi4j.WbemScriptingClsids;
+import org.jinterop.dcom.common.JIException;
+import org.jinterop.dcom.common.JISystem;
+import org.jinterop.dcom.core.JIClsid;
+import org.jinterop.dcom.core.JIProgId;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class WbemScriptingClsidsTest {
+
+    @Test
+    public void testTableMatchesBundledDB() {
+        for(Map.Entry<String, String> entry : WbemScriptingClsids.getClsids().entrySet()) {
+            String clsid = JISystem.getClsidFromProgId(entry.getKey());
+            assertNotNull(entry.getKey() + " is missing in progIdVsClsidDB.properties", clsid);
+            assertTrue(entry.getKey(), entry.getValue().equalsIgnoreCase(clsid));
+        }
+    }
+
+    @Test
+    public void testColdConnectSkipsRegistry() throws JIException {
+        // ProgIDs activated by connectServer() and createObject()
+        String[] progIds = {"WbemScripting.SWbemLocator", "WbemScripting.SWbemNamedValueSet",
+                "WbemScripting.SWbemLastError"};
+        for(String progId : progIds) {
+            assertNotNull(progId, WbemScriptingClsids.getClsid(progId));
+            // Without a session, j-interop can only resolve the ProgID from its bundled DB,
+            // a registry lookup would fail
+            JIClsid clsid = JIProgId.valueOf(progId).getCorrespondingCLSID();
+            assertTrue(progId, WbemScriptingClsids.getClsid(progId).equalsIgnoreCase(clsid.getCLSID()));
+        }
+    }
+
+    @Test
+    public void testGetClsid() {
+        assertEquals("76A64158-CB41-11D1-8B02-00600806D9B6", WbemScriptingClsids.getClsid("wbemscripting.swbemlocator"));
+        assertNull(WbemScriptingClsids.getClsid("SWbemScripting.SWbemNamedValueSet"));
+        assertNull(WbemScriptingClsids.getClsid("WbemScripting.SWbemPrivilege"));
+        assertNull(WbemScriptingClsids.getClsid(null));
+    }
+}